@@ -0,0 +1,48 @@
+package benchmark;
+
+import demo.WorkloadGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tasklist.TaskList;
+import ui.AutoCompleteEngine;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to suggest completions for what has been typed so far, which the GUI does on every key
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class AutoCompleteBenchmark {
+    @Param({"1000", "10000", "100000", "1000000"})
+    int size;
+
+    @Param({"", "de", "todo", "todo Buy milk", "deadline Pay rent /by", "search", "done", "view"})
+    String input;
+
+    private AutoCompleteEngine engine;
+
+    @Setup
+    public void setUp() {
+        engine = new AutoCompleteEngine(new TaskList(new WorkloadGenerator().tasks(size)));
+    }
+
+    @Benchmark
+    public List<String> getSuggestions() {
+        return engine.getSuggestions(input);
+    }
+}
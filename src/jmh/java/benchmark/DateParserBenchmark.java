@@ -0,0 +1,43 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import parser.SmartDateParser;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to read a date typed in any of the forms SmartDateParser understands
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateParserBenchmark {
+    @Param({"tomorrow 6pm", "next friday 2:30 PM", "31/12/2024 1800", "Dec 31, 2024 1800", "14:30", "not a date"})
+    String date;
+
+    /**
+     * Dates that cannot be read are measured too, as the parser tries every pattern before it gives up
+     */
+    @Benchmark
+    public LocalDateTime parseDateTime() {
+        try {
+            return SmartDateParser.parseDateTime(date);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
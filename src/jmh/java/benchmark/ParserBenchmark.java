@@ -0,0 +1,65 @@
+package benchmark;
+
+import command.Command;
+import demo.WorkloadGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import parser.Parser;
+import tasklist.TaskList;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to turn a line of user input into a command
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+    private static final Map<String, String> COMMANDS = new HashMap<>();
+
+    static {
+        COMMANDS.put("todo", "todo Buy groceries for the week !high #personal @home");
+        COMMANDS.put("deadline", "deadline Submit quarterly report /by tomorrow 6pm !urgent #work");
+        COMMANDS.put("event", "event Sprint review /at 31/12/2024 1400 /to 1600 #project-x");
+        COMMANDS.put("done", "done 5");
+        COMMANDS.put("edit", "edit 2 description Review the budget");
+        COMMANDS.put("search", "search report");
+        COMMANDS.put("view", "view week");
+        COMMANDS.put("unknown", "dance");
+    }
+
+    @Param({"1000", "100000"})
+    int size;
+
+    @Param({"todo", "deadline", "event", "done", "edit", "search", "view", "unknown"})
+    String command;
+
+    private TaskList taskList;
+    private String line;
+
+    @Setup
+    public void setUp() {
+        taskList = new TaskList(new WorkloadGenerator().tasks(size));
+        line = COMMANDS.get(command);
+    }
+
+    @Benchmark
+    public Command parse() {
+        return Parser.parse(line, taskList);
+    }
+}
@@ -0,0 +1,85 @@
+package benchmark;
+
+import demo.WorkloadGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tasklist.Task;
+import tasklist.TaskList;
+import tasklist.TaskSnapshot;
+import tasklist.Todo;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to publish a snapshot after a command, on each kind of task store
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class PublishBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    int size;
+
+    @Param({"array", "columnar", "offheap"})
+    String store;
+
+    private TaskList taskList;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String previous = System.getProperty(TaskList.STORE_PROPERTY);
+        System.setProperty(TaskList.STORE_PROPERTY, store);
+        try {
+            taskList = TaskList.create(new WorkloadGenerator().tasks(size));
+        } finally {
+            if (previous == null) {
+                System.clearProperty(TaskList.STORE_PROPERTY);
+            } else {
+                System.setProperty(TaskList.STORE_PROPERTY, previous);
+            }
+        }
+        taskList.publish();
+    }
+
+    /**
+     * A command that changed nothing, e.g. "list"
+     */
+    @Benchmark
+    public TaskSnapshot unchanged() {
+        return taskList.publish();
+    }
+
+    /**
+     * "done" on one task
+     */
+    @Benchmark
+    public TaskSnapshot toggleOne() {
+        Task task = taskList.get(next++ % size);
+        task.setDone(!task.isDone());
+        return taskList.publish();
+    }
+
+    /**
+     * "delete" of a task in the middle followed by adding one at the end, keeping the size
+     */
+    @Benchmark
+    public TaskSnapshot removeAndAdd() {
+        taskList.removeTask(size / 2);
+        taskList.addTask(new Todo("todo Task " + next++));
+        return taskList.publish();
+    }
+}
@@ -0,0 +1,78 @@
+package benchmark;
+
+import demo.WorkloadGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tasklist.TaskList;
+import tasklist.TaskSearchEngine;
+import tasklist.TaskSearchEngine.FilterBy;
+import tasklist.TaskSearchEngine.SearchCriteria;
+import tasklist.TaskSearchEngine.SearchResult;
+import tasklist.TaskSearchEngine.SortBy;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time of a keyword search for every way of sorting, with a few filters, on each kind of task store
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class SearchBenchmark {
+    @Param({"1000", "10000", "100000", "1000000"})
+    int size;
+
+    @Param({"array", "columnar", "offheap"})
+    String store;
+
+    @Param({"DATE", "DESCRIPTION", "TYPE", "COMPLETION", "PRIORITY"})
+    SortBy sortBy;
+
+    @Param({"ALL", "PENDING", "DEADLINE", "HIGH_PRIORITY"})
+    FilterBy filter;
+
+    private TaskList taskList;
+    private SearchCriteria criteria;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String previous = System.getProperty(TaskList.STORE_PROPERTY);
+        System.setProperty(TaskList.STORE_PROPERTY, store);
+        try {
+            taskList = TaskList.create(new WorkloadGenerator().tasks(size));
+        } finally {
+            if (previous == null) {
+                System.clearProperty(TaskList.STORE_PROPERTY);
+            } else {
+                System.setProperty(TaskList.STORE_PROPERTY, previous);
+            }
+        }
+        criteria = new SearchCriteria("report").filter(filter).sortBy(sortBy);
+    }
+
+    @Benchmark
+    public SearchResult search() {
+        return TaskSearchEngine.search(taskList, criteria);
+    }
+
+    /**
+     * The same search without materializing or sorting the matches, as bulk commands use it
+     */
+    @Benchmark
+    public int[] matchIndices() {
+        return TaskSearchEngine.matchIndices(taskList, criteria);
+    }
+}
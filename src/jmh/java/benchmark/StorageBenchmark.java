@@ -0,0 +1,71 @@
+package benchmark;
+
+import demo.WorkloadGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import storage.Storage;
+import tasklist.Task;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to write a whole list to tasks.txt and to read it back, as text and compressed in blocks
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class StorageBenchmark {
+    @Param({"1000", "10000", "100000", "1000000"})
+    int size;
+
+    @Param({"false", "true"})
+    String compress;
+
+    private List<Task> tasks;
+    private File file;
+    private Storage storage;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        System.setProperty(Storage.COMPRESS_PROPERTY, compress);
+        tasks = new WorkloadGenerator().tasks(size);
+        file = Files.createTempFile("duke-bench", ".txt").toFile();
+        storage = new Storage(file.getPath());
+        storage.writeToFile(tasks);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        file.delete();
+        System.clearProperty(Storage.COMPRESS_PROPERTY);
+    }
+
+    @Benchmark
+    public ArrayList<Task> readFromFile() throws IOException {
+        return storage.readFromFile();
+    }
+
+    @Benchmark
+    public void writeToFile() throws IOException {
+        storage.writeToFile(tasks);
+    }
+}
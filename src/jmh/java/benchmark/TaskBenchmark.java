@@ -0,0 +1,51 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tasklist.Deadline;
+import tasklist.Event;
+import tasklist.Task;
+import tasklist.Todo;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to build a task from the text typed for it, including reading its priority, tags and contexts
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskBenchmark {
+    private final LocalDateTime dateTime = LocalDateTime.of(2026, 10, 20, 18, 0);
+
+    @Benchmark
+    public Task todo() {
+        return new Todo("todo Buy groceries for the week !high #personal @home");
+    }
+
+    @Benchmark
+    public Task todoWithoutMarkers() {
+        return new Todo("todo Buy groceries for the week");
+    }
+
+    @Benchmark
+    public Task deadline() {
+        return new Deadline("deadline Submit quarterly report /by tomorrow 6pm !urgent #work @office", dateTime);
+    }
+
+    @Benchmark
+    public Task event() {
+        return new Event("event Weekly team standup /at monday 2pm #work @conference-room", dateTime);
+    }
+}
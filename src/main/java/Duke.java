@@ -1,14 +1,24 @@
+import batch.BatchRunner;
 import command.Command;
 import demo.DemoTaskGenerator;
+import demo.WorkloadGenerator;
 import exception.DukeException;
+import metrics.StartupReport;
 import parser.Parser;
+import reminder.ReminderScheduler;
+import server.DukeServer;
+import server.HttpApi;
+import storage.JournalStorage;
 import storage.Storage;
 import tasklist.Task;
 import tasklist.TaskList;
 import ui.Ui;
 
 import java.io.*;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * The duke class is the main class of the program
@@ -18,13 +28,19 @@ public class Duke {
     private TaskList taskList;
     private final Storage storage;
     private final Ui ui;
+    // Why the rest of a large tasks.txt did not load, after which the session is read-only
+    private String loadFailure;
 
     public Duke() {
-        String filePath = "src/data/tasks.txt";
+        this("src/data/tasks.txt");
+    }
+
+    public Duke(String filePath) {
         ui = new Ui();
         storage = new Storage(filePath);
         try {
-            taskList = new TaskList(storage.readFromFile());
+            // A large tasks.txt is loaded a page at a time, see parse and finishLoading
+            taskList = TaskList.create(storage.readFirstPage());
             
             // If task list is empty, load demo tasks for first-time users
             if (taskList.size() == 0) {
@@ -39,26 +55,79 @@ public class Duke {
             taskList = new TaskList();
             loadDemoTasks();
         }
+        StartupReport.phase("load tasks");
+        if (!storage.isLoading()) {
+            publishLoaded();
+        }
     }
 
-    public Duke(String filePath) {
-        ui = new Ui();
-        storage = new Storage(filePath);
-        try {
-            taskList = new TaskList(storage.readFromFile());
-            
-            // If task list is empty, load demo tasks for first-time users
-            if (taskList.size() == 0) {
-                loadDemoTasks();
+    /**
+     * Publish the list once every task is in, as the baseline that readers, the change feed and undo start from
+     */
+    private void publishLoaded() {
+        taskList.publish();
+        StartupReport.phase("publish");
+        JournalStorage.attach(taskList, storage.getFilePath());
+        StartupReport.phase("undo journal");
+    }
+
+    /**
+     * Parse a command. While the rest of a large tasks.txt is loading, a command that needs every task,
+     * or that fails against the first page, e.g. "done" with a task number past it, waits for the rest
+     * and is parsed again. If the rest failed to load, only commands that do not need every task are run.
+     */
+    private Command parse(String input) {
+        if (storage.isLoading() && storage.isLoadDone() && loadFailure == null) {
+            finishLoading();
+        }
+        if (storage.isLoading() && loadFailure == null) {
+            try {
+                Command c = Parser.parse(input, taskList);
+                if (!c.needsAllTasks()) {
+                    return c;
+                }
+            } catch (DukeException e) {
+                // Parsed again below, against every task
             }
-        } catch (DukeException e) {
-            ui.exceptionMessage(e);
-            taskList = new TaskList();
-            loadDemoTasks();
-        } catch (FileNotFoundException e) {
-            ui.exceptionMessage(e);
-            taskList = new TaskList();
-            loadDemoTasks();
+            finishLoading();
+        }
+        Command c = Parser.parse(input, taskList);
+        if (loadFailure != null && c.needsAllTasks()) {
+            throw new DukeException("OOPS! Your tasks did not all load (" + loadFailure
+                    + "), so only list, stats, help and bye work until the file is fixed.");
+        }
+        return c;
+    }
+
+    /**
+     * Add the rest of the tasks once they are loaded. If a line of the rest is malformed or the file cannot
+     * be read, the session stays read-only: the storage refuses to write the part that loaded over the file.
+     */
+    private void finishLoading() {
+        if (!storage.isLoadDone()) {
+            ui.printWaitingForTasks(storage.getLoadedCount(), storage.getLoadTotal());
+        }
+        List<Task> rest;
+        try {
+            rest = storage.finishLoading();
+        } catch (IOException | RuntimeException e) {
+            // Parse errors name the line, e.g. "Line 20417 of src/data/tasks.txt: Text 'x' could not be parsed"
+            loadFailure = e.getMessage();
+            ui.printLoadFailed(loadFailure, taskList.size());
+            return;
+        }
+        for (Task task : rest) {
+            taskList.addTask(task);
+        }
+        publishLoaded();
+    }
+
+    /**
+     * Publish the changes of a command, unless the list is still loading and has not had its first publish
+     */
+    private void publish() {
+        if (!storage.isLoading()) {
+            taskList.publish();
         }
     }
 
@@ -69,6 +138,7 @@ public class Duke {
         
         // Initialize the suggestion system
         ui.initializeSuggestionSystem(taskList);
+        StartupReport.phase("welcome and suggestions");
         
         // Show demo welcome message if we loaded demo tasks
         if (isDemoMode) {
@@ -76,13 +146,27 @@ public class Duke {
             ui.Separator();
         }
         
+        // Reminders print from their own thread; -Dduke.remind=false turns them off.
+        // They are set up in the background, as reading the time zone rules would hold up the first prompt
+        CompletableFuture<ReminderScheduler> reminders = null;
+        if (!"false".equals(System.getProperty("duke.remind"))) {
+            reminders = CompletableFuture.supplyAsync(() -> {
+                ReminderScheduler scheduler = ReminderScheduler.create(taskList, ui::printReminder);
+                scheduler.start();
+                return scheduler;
+            });
+        }
+        StartupReport.phase("reminders");
+
         boolean isExit = false;
         while(!isExit){
             try {
+                StartupReport.firstPrompt();
                 String userInput = ui.userInputWithSuggestions();
                 ui.Separator();
-                Command c = Parser.parse(userInput, taskList);
-                c.execute(taskList, ui, storage);
+                Command c = parse(userInput);
+                c.run(taskList, ui, storage);
+                publish();
                 isExit = c.isExit();
             } catch (DukeException | IOException e){
                 ui.errorMessage(e);
@@ -90,6 +174,14 @@ public class Duke {
                 ui.Separator();
             }
         }
+        if (reminders != null) {
+            try {
+                reminders.join().close();
+            } catch (CompletionException e) {
+                System.err.println("Warning: Could not start reminders: " + e.getCause().getMessage());
+            }
+        }
+        taskList.close();
     }
     
     /**
@@ -118,10 +210,11 @@ public class Duke {
      */
     public String dukeReply(String input) {
         try {
-            Command c = Parser.parse(input, taskList);
+            Command c = parse(input);
             ByteArrayOutputStream outContent = new ByteArrayOutputStream();
             System.setOut(new PrintStream(outContent));
-            c.execute(taskList, ui, storage);
+            c.run(taskList, ui, storage);
+            publish();
             return outContent.toString();
         } catch (DukeException | IOException e) {
             return e.getMessage();
@@ -141,7 +234,22 @@ public class Duke {
         return dukeReply(input);
     }
 
-    public static void main(String[] args){
+    public static void main(String[] args) throws IOException {
+        StartupReport.start();
+        if (args.length > 0 && args[0].equals("--server")) {
+            DukeServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--http")) {
+            HttpApi.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--batch")) {
+            System.exit(BatchRunner.main(Arrays.copyOfRange(args, 1, args.length)));
+        }
+        if (args.length > 0 && args[0].equals("--workload")) {
+            System.exit(WorkloadGenerator.main(Arrays.copyOfRange(args, 1, args.length)));
+        }
         new Duke("src/data/tasks.txt").run();
     }
 }
@@ -0,0 +1,237 @@
+package batch;
+
+import command.BeginCommand;
+import command.ByeCommand;
+import command.Command;
+import command.Transaction;
+import exception.DukeException;
+import parser.CommandTokens;
+import parser.Parser;
+import storage.DeferredStorage;
+import storage.JournalStorage;
+import tasklist.TaskList;
+import ui.NonInteractiveUi;
+import ui.Ui;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs a file of console commands, one per line, without anyone at the console.
+ * Blank lines and lines starting with # are skipped. All lines are checked for unknown commands
+ * before any of them runs; the rest run in order against one task list, with the output of the
+ * commands hidden unless asked for, and the task file is written once after the last command.
+ * A line that fails is reported with its line number and does not stop the lines after it,
+ * unless it is inside a transaction: then the transaction is rolled back and the lines up to
+ * its commit or rollback are skipped. A transaction left open at the end is rolled back.
+ */
+public class BatchRunner {
+    private final TaskList taskList;
+    private final DeferredStorage storage;
+    private final Ui ui = new NonInteractiveUi();
+    private final boolean isVerbose;
+
+    /**
+     * @param taskList the task list the commands run against
+     * @param storage storage of the task file, written once at the end
+     * @param isVerbose true to show what the commands print
+     */
+    public BatchRunner(TaskList taskList, DeferredStorage storage, boolean isVerbose) {
+        this.taskList = taskList;
+        this.storage = storage;
+        this.isVerbose = isVerbose;
+    }
+
+    /**
+     * Run the commands of a batch
+     * @param lines the lines of the batch file
+     * @return the lines that failed, in line order
+     * @throws IOException if the task file cannot be written at the end
+     */
+    public List<LineError> run(List<String> lines) throws IOException {
+        List<LineError> errors = new ArrayList<>();
+        boolean[] isRunnable = new boolean[lines.size()];
+        boolean[] isUnknown = new boolean[lines.size()];
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            CommandTokens tokens = CommandTokens.scan(line);
+            if (Parser.getRegistry().lookup(line, 0, tokens.getCommandEnd()) == null) {
+                errors.add(new LineError(i + 1, "Unknown command [" + tokens.command() + "]"));
+                isUnknown[i] = true;
+            } else {
+                isRunnable[i] = true;
+            }
+        }
+
+        PrintStream out = System.out;
+        if (!isVerbose) {
+            System.setOut(new PrintStream(new OutputStream() {
+                @Override
+                public void write(int b) {
+                }
+
+                @Override
+                public void write(byte[] bytes, int offset, int length) {
+                }
+            }));
+        }
+        int transactionLine = 0;
+        boolean isSkipping = false;
+        try {
+            for (int i = 0; i < lines.size(); i++) {
+                if (isSkipping) {
+                    // The failed transaction ends at its commit or rollback, which have nothing left to do
+                    isSkipping = !(isRunnable[i] && endsTransaction(lines.get(i).trim()));
+                    continue;
+                }
+                if (isUnknown[i] && taskList.isInTransaction()) {
+                    for (int e = 0; e < errors.size(); e++) {
+                        if (errors.get(e).getLineNumber() == i + 1) {
+                            errors.set(e, rolledBack(errors.get(e).getLineNumber(), errors.get(e).getMessage()));
+                        }
+                    }
+                    rollbackQuietly();
+                    isSkipping = true;
+                    continue;
+                }
+                if (!isRunnable[i]) {
+                    continue;
+                }
+                Command command;
+                try {
+                    // Commands such as done and delete are checked against the list as it is by now
+                    command = Parser.parse(lines.get(i).trim(), taskList);
+                    command.run(taskList, ui, storage);
+                } catch (DukeException e) {
+                    isSkipping = fail(errors, i + 1, e.getMessage());
+                    continue;
+                } catch (RuntimeException e) {
+                    isSkipping = fail(errors, i + 1, "Command failed: " + e);
+                    continue;
+                }
+                if (command instanceof BeginCommand) {
+                    transactionLine = i + 1;
+                }
+                if (command instanceof ByeCommand) {
+                    break;
+                }
+            }
+        } finally {
+            if (!isVerbose) {
+                System.setOut(out);
+            }
+            if (taskList.isInTransaction()) {
+                errors.add(rolledBack(transactionLine, "Transaction was not committed"));
+                rollbackQuietly();
+            }
+            taskList.publish();
+            storage.flush();
+        }
+        errors.sort((a, b) -> Integer.compare(a.getLineNumber(), b.getLineNumber()));
+        return errors;
+    }
+
+    private static boolean endsTransaction(String line) {
+        String command = CommandTokens.scan(line).command();
+        return command.equalsIgnoreCase("commit") || command.equalsIgnoreCase("rollback");
+    }
+
+    /**
+     * Report a failed line, rolling back the open transaction, if any
+     * @return true if there was one, so the rest of it has to be skipped
+     */
+    private boolean fail(List<LineError> errors, int lineNumber, String message) throws IOException {
+        if (!taskList.isInTransaction()) {
+            errors.add(new LineError(lineNumber, message));
+            return false;
+        }
+        errors.add(rolledBack(lineNumber, message));
+        rollbackQuietly();
+        return true;
+    }
+
+    private static LineError rolledBack(int lineNumber, String message) {
+        return new LineError(lineNumber, message + " (transaction rolled back)");
+    }
+
+    private void rollbackQuietly() throws IOException {
+        try {
+            Transaction.current(taskList, storage).rollback();
+        } catch (DukeException e) {
+            // Checked just before, nothing else closes the transaction
+        }
+    }
+
+    /**
+     * A line of the batch that could not be run
+     */
+    public static final class LineError {
+        private final int lineNumber;
+        private final String message;
+
+        LineError(int lineNumber, String message) {
+            this.lineNumber = lineNumber;
+            this.message = message;
+        }
+
+        public int getLineNumber() {
+            return lineNumber;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return "line " + lineNumber + ": " + message;
+        }
+    }
+
+    /**
+     * Run a batch file from the command line: batch file [--verbose] [task file]
+     * @return the exit status, 0 if every line ran
+     */
+    public static int main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: duke --batch <file> [--verbose] [task file]");
+            return 2;
+        }
+        boolean isVerbose = false;
+        String taskFile = "src/data/tasks.txt";
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--verbose")) {
+                isVerbose = true;
+            } else {
+                taskFile = args[i];
+            }
+        }
+        List<String> lines = Files.readAllLines(Paths.get(args[0]), StandardCharsets.UTF_8);
+        DeferredStorage storage = new DeferredStorage(taskFile);
+        TaskList taskList;
+        try {
+            taskList = TaskList.create(storage.readFromFile());
+        } catch (FileNotFoundException e) {
+            taskList = TaskList.create(new ArrayList<>());
+        }
+        taskList.publish();
+        JournalStorage.attach(taskList, taskFile);
+        List<LineError> errors = new BatchRunner(taskList, storage, isVerbose).run(lines);
+        for (LineError error : errors) {
+            System.err.println(error);
+        }
+        System.out.println("Batch done: " + taskList.size() + " tasks, " + errors.size() + " failed lines.");
+        taskList.close();
+        return errors.isEmpty() ? 0 : 1;
+    }
+}
@@ -1,14 +1,18 @@
 package command;
 
 import storage.Storage;
+import tasklist.Event;
 import tasklist.Task;
 import tasklist.TaskList;
 import ui.Ui;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
 
 /**
- * An AddCommand object contains a local variable task to be added
+ * An AddCommand object contains a local variable task to be added.
+ * A new event that overlaps events already in the list is added all the same, with a warning.
  */
 public class AddCommand extends Command{
     Task task;
@@ -25,11 +29,33 @@ public class AddCommand extends Command{
      * @throws IOException when file not found
      */
     public void execute(TaskList taskList, Ui ui, Storage storage) throws IOException {
+        List<Task> conflicts = task instanceof Event
+                ? taskList.dates().conflicts(task.getDateTime(), ((Event) task).getEndDateTime())
+                : Collections.emptyList();
         taskList.addTask(task);
         storage.writeToFile(taskList.getTasks());
         ui.printAddCommand(taskList);
+        if (!conflicts.isEmpty()) {
+            ui.printConflicts(conflicts);
+        }
         ui.printTaskCount(taskList);
     }
 
+    /**
+     * Get the command word of the task type, e.g. "deadline", so that each type has its own metrics
+     */
+    @Override
+    public String getKind() {
+        switch (task.getType()) {
+        case "D":
+            return "deadline";
+        case "E":
+            return "event";
+        case "R":
+            return "recur";
+        default:
+            return "todo";
+        }
+    }
 
 }
@@ -0,0 +1,26 @@
+package command;
+
+import exception.DukeException;
+import storage.Storage;
+import tasklist.TaskList;
+import ui.Ui;
+
+/**
+ * The BeginCommand object starts a transaction, so that the following commands
+ * are saved together on commit or undone together on rollback
+ */
+public class BeginCommand extends Command {
+
+    /**
+     * The execute method opens a transaction on the task list
+     * @param taskList is the task list
+     * @param ui to print out message on screen
+     * @param storage to hold back writes to task.txt until commit
+     * @throws DukeException when a transaction is already open
+     */
+    @Override
+    public void execute(TaskList taskList, Ui ui, Storage storage) throws DukeException {
+        Transaction.begin(taskList, storage);
+        ui.printBegin();
+    }
+}
@@ -0,0 +1,147 @@
+package command;
+
+import exception.DukeException;
+import storage.Storage;
+import tasklist.Category;
+import tasklist.Priority;
+import tasklist.Task;
+import tasklist.TaskList;
+import ui.Ui;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A BulkCommand marks as done, deletes or edits every task of a selection,
+ * e.g. "done 3-40,57", "delete where #sprint-12 done" or "edit where @office add #moved".
+ * The selection is resolved once, the changes are applied in one pass
+ * and tasks.txt is written once for the whole set.
+ */
+public class BulkCommand extends Command {
+
+    public enum Action {
+        DONE, DELETE, EDIT
+    }
+
+    private final Action action;
+    private final TaskSelection selection;
+    private final String operation;
+    private final String[] values;
+
+    /**
+     * @param action what to do with the selected tasks
+     * @param selection the tasks to change
+     * @param edit for EDIT, the change: "add #tag @context", "remove #tag @context" or "priority high"
+     * @throws DukeException if the edit is not valid
+     */
+    public BulkCommand(Action action, TaskSelection selection, String edit) throws DukeException {
+        this.action = action;
+        this.selection = selection;
+        if (action != Action.EDIT) {
+            this.operation = null;
+            this.values = new String[0];
+            return;
+        }
+        String[] words = edit == null ? new String[0] : edit.trim().split("\\s+");
+        this.operation = words.length > 0 ? words[0].toLowerCase() : "";
+        this.values = words.length > 1 ? Arrays.copyOfRange(words, 1, words.length) : new String[0];
+        validateEdit();
+    }
+
+    private void validateEdit() throws DukeException {
+        switch (operation) {
+        case "add":
+        case "remove":
+            if (values.length == 0) {
+                throw new DukeException("Please give the #tags or @contexts to " + operation + ".");
+            }
+            for (String value : values) {
+                if (value.length() < 2 || (value.charAt(0) != '#' && value.charAt(0) != '@')) {
+                    throw new DukeException("[" + value + "] is not a #tag or @context.");
+                }
+            }
+            break;
+        case "priority":
+            if (values.length != 1 || Priority.find(values[0]) == null) {
+                throw new DukeException("Please give one priority, e.g. edit where #work priority high.");
+            }
+            break;
+        default:
+            throw new DukeException("Bulk edits can add, remove or set priority, e.g. edit where @office add #moved.");
+        }
+    }
+
+    /**
+     * The execute method applies the action to every selected task and writes the list once
+     * @param taskList is the task list
+     * @param ui to print out message on screen
+     * @param storage to write change to task.txt
+     * @throws DukeException when the selection is not valid for the list
+     * @throws IOException when file not found
+     */
+    @Override
+    public void execute(TaskList taskList, Ui ui, Storage storage) throws DukeException, IOException {
+        int[] indices = selection.resolve(taskList);
+        if (indices.length == 0) {
+            ui.printNothingSelected(selection.toString());
+            return;
+        }
+        List<Task> changed = new ArrayList<>(indices.length);
+        switch (action) {
+        case DONE:
+            for (int index : indices) {
+                Task task = taskList.get(index);
+                task.setDone(true);
+                changed.add(task);
+            }
+            ui.printBulkResult("Nice! I've marked " + describe(indices.length) + " as done:", changed);
+            break;
+        case DELETE:
+            for (int index : indices) {
+                changed.add(taskList.get(index));
+            }
+            taskList.removeTasks(indices);
+            ui.printBulkResult("Noted. I've removed " + describe(indices.length) + ":", changed);
+            break;
+        default:
+            for (int index : indices) {
+                Task task = taskList.get(index);
+                applyEdit(task);
+                changed.add(task);
+            }
+            ui.printBulkResult("Done! I've edited " + describe(indices.length) + ":", changed);
+            break;
+        }
+        ui.printTaskCount(taskList);
+        storage.writeToFile(taskList.getTasks());
+    }
+
+    private void applyEdit(Task task) {
+        if (operation.equals("priority")) {
+            task.setPriority(Priority.find(values[0]));
+            return;
+        }
+        // Categories may be shared between tasks, so each task gets its own changed copy
+        Category category = new Category(task.getCategory());
+        for (String value : values) {
+            String name = value.substring(1);
+            boolean isTag = value.charAt(0) == '#';
+            if (operation.equals("add") && isTag) {
+                category.addTag(name);
+            } else if (operation.equals("add")) {
+                category.addContext(name);
+            } else if (isTag) {
+                category.removeTag(name);
+            } else {
+                category.removeContext(name);
+            }
+        }
+        task.setCategory(category);
+    }
+
+    private static String describe(int count) {
+        return count == 1 ? "this task" : "these " + count + " tasks";
+    }
+}
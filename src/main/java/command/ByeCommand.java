@@ -21,4 +21,9 @@ public class ByeCommand extends Command{
         ui.goodBye();
         super.setExit(true);
     }
+
+    @Override
+    public boolean needsAllTasks() {
+        return false;
+    }
 }
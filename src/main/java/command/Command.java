@@ -1,6 +1,9 @@
 package command;
 
 import exception.DukeException;
+import metrics.CommandEvent;
+import metrics.FlightEvents;
+import metrics.Metrics;
 import storage.Storage;
 import tasklist.TaskList;
 import ui.Ui;
@@ -27,6 +30,55 @@ public abstract class Command {
      */
     public abstract void execute(TaskList taskList, Ui ui, Storage storage) throws DukeException, IOException;
 
+    /**
+     * Execute the command, recording how long it took under "execute." and its kind while metrics are on,
+     * and as a flight recorder event while those are on
+     * @param taskList is the task list
+     * @param ui to print out message on screen
+     * @param storage to read and write change to task.txt
+     * @throws IOException when file not found
+     */
+    public final void run(TaskList taskList, Ui ui, Storage storage) throws DukeException, IOException {
+        long start = Metrics.start();
+        CommandEvent event = FlightEvents.isEnabled() ? CommandEvent.start() : null;
+        if (start == 0 && event == null) {
+            execute(taskList, ui, storage);
+            return;
+        }
+        boolean isFailed = true;
+        try {
+            execute(taskList, ui, storage);
+            isFailed = false;
+        } finally {
+            if (isFailed) {
+                Metrics.recordFailure("execute." + getKind(), start);
+            } else {
+                Metrics.record("execute." + getKind(), start);
+            }
+            if (event != null) {
+                event.end(getKind(), taskList.size(), isFailed);
+            }
+        }
+    }
+
+    /**
+     * Get the kind of the command that its metrics are recorded under, e.g. "done" for a DoneCommand
+     */
+    public String getKind() {
+        String name = getClass().getSimpleName();
+        return (name.endsWith("Command") ? name.substring(0, name.length() - "Command".length()) : name)
+                .toLowerCase();
+    }
+
+    /**
+     * Check if the command needs every task in the list. While a large tasks.txt is loading, only commands
+     * that can make do with its first page, such as list, run before the rest is in.
+     * @return true unless a command says otherwise
+     */
+    public boolean needsAllTasks() {
+        return true;
+    }
+
     public void setExit(boolean exit){
         isExit = exit;
     }
@@ -4,5 +4,5 @@ package command;
  * An enumeration class of all executable commands
  */
 public enum CommandCollections {
-    LIST, TODO, DEADLINE, EVENT, DONE, DELETE, BYE, VIEW, SEARCH, HELP, RESET, EDIT
+    LIST, TODO, DEADLINE, EVENT, RECUR, DONE, DELETE, BYE, VIEW, FREE, SEARCH, HELP, RESET, EDIT, UNDO, REDO, BEGIN, COMMIT, ROLLBACK, STATS
 }
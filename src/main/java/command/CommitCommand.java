@@ -0,0 +1,30 @@
+package command;
+
+import exception.DukeException;
+import storage.Storage;
+import tasklist.TaskList;
+import ui.Ui;
+
+import java.io.IOException;
+
+/**
+ * The CommitCommand object saves the changes of the open transaction
+ * and writes them to tasks.txt file in one go
+ */
+public class CommitCommand extends Command {
+
+    /**
+     * The execute method commits the open transaction
+     * @param taskList is the task list
+     * @param ui to print out message on screen
+     * @param storage to write change to task.txt
+     * @throws DukeException when no transaction is open
+     * @throws IOException when file not found
+     */
+    @Override
+    public void execute(TaskList taskList, Ui ui, Storage storage) throws DukeException, IOException {
+        Transaction.current(taskList, storage).commit();
+        ui.printCommit();
+        ui.printTaskCount(taskList);
+    }
+}
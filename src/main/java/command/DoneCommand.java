@@ -7,13 +7,16 @@ import ui.Ui;
 import java.io.IOException;
 
 /**
- * An DoneCommand object contains a local variable command which specifies the task to be set as done
+ * An DoneCommand object contains the number of the task to be set as done
  */
 public class DoneCommand extends Command{
-    String[] command;
+    private final int taskNumber;
 
-    public DoneCommand(String[] command){
-        this.command = command;
+    /**
+     * @param taskNumber number of the task as the user gave it, starting at 1
+     */
+    public DoneCommand(int taskNumber){
+        this.taskNumber = taskNumber;
     }
 
     /**
@@ -24,7 +27,7 @@ public class DoneCommand extends Command{
      * @throws IOException when file not found
      */
     public void execute(TaskList taskList, Ui ui, Storage storage) throws IOException {
-        int taskNumber = Integer.parseInt(command[1]) - 1;
+        int taskNumber = this.taskNumber - 1;
         taskList.get(taskNumber).setDone(true);
         ui.printDone(taskNumber, taskList);
         ui.printTaskCount(taskList);
@@ -1,16 +1,20 @@
 package command;
 
 import exception.DukeException;
+import parser.Parser;
 import parser.SmartDateParser;
 import storage.Storage;
 import tasklist.Deadline;
 import tasklist.Event;
+import tasklist.RecurringTask;
 import tasklist.Task;
 import tasklist.TaskList;
+import tasklist.TaskTextAnalyzer;
 import tasklist.Todo;
 import ui.Ui;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeParseException;
 
@@ -102,9 +106,13 @@ public class EditCommand extends Command {
         } else if (taskType.equals("D")) {
             String dateTimeStr = originalTask.getDateTimeStr();
             newTask = new Deadline("deadline " + newDescription + " /by " + dateTimeStr, originalTask.getDateTime());
+        } else if (taskType.equals("R")) {
+            newTask = new RecurringTask(TaskTextAnalyzer.analyze(newDescription),
+                    ((RecurringTask) originalTask).getRecurrence());
         } else { // Event
             String dateTimeStr = originalTask.getDateTimeStr();
-            newTask = new Event("event " + newDescription + " /at " + dateTimeStr, originalTask.getDateTime());
+            newTask = new Event("event " + newDescription + " /at " + dateTimeStr, originalTask.getDateTime(),
+                    ((Event) originalTask).getEndDateTime());
         }
         
         newTask.setDone(isDone);
@@ -118,17 +126,26 @@ public class EditCommand extends Command {
         if (originalTask.getType().equals("T")) {
             throw new DukeException("Cannot set date/time for a todo task. Convert to deadline or event first.");
         }
+        if (originalTask.getType().equals("R")) {
+            return editRecurrence(originalTask, newDateTimeStr);
+        }
         
         try {
-            LocalDateTime newDateTime = SmartDateParser.parseDateTime(newDateTimeStr);
             String description = originalTask.getDescription();
             boolean isDone = originalTask.isDone();
             
             Task newTask;
             if (originalTask.getType().equals("D")) {
+                LocalDateTime newDateTime = SmartDateParser.parseDateTime(newDateTimeStr);
                 newTask = new Deadline("deadline " + description + " /by " + newDateTimeStr, newDateTime);
             } else {
-                newTask = new Event("event " + description + " /at " + newDateTimeStr, newDateTime);
+                LocalDateTime[] times = Parser.parseEventTimes(newDateTimeStr);
+                LocalDateTime end = ((Event) originalTask).getEndDateTime();
+                if (times[1] == null && end != null) {
+                    // A moved event keeps its length
+                    times[1] = times[0].plus(Duration.between(originalTask.getDateTime(), end));
+                }
+                newTask = new Event("event " + description + " /at " + newDateTimeStr, times[0], times[1]);
             }
             
             newTask.setDone(isDone);
@@ -138,6 +155,20 @@ public class EditCommand extends Command {
         }
     }
     
+    /**
+     * Give a recurring task a new rule, e.g. "edit 4 date every friday 5pm"
+     */
+    private Task editRecurrence(Task originalTask, String newRule) throws DukeException {
+        try {
+            Task newTask = new RecurringTask(TaskTextAnalyzer.analyze(originalTask.getDescription()),
+                    SmartDateParser.parseRecurrence(newRule));
+            newTask.setDone(originalTask.isDone());
+            return newTask;
+        } catch (DateTimeParseException e) {
+            throw new DukeException(e.getMessage());
+        }
+    }
+
     /**
      * Convert task to a different type
      */
@@ -199,11 +230,11 @@ public class EditCommand extends Command {
         }
         
         try {
-            LocalDateTime dateTime = SmartDateParser.parseDateTime(dateTimeStr);
+            LocalDateTime[] times = Parser.parseEventTimes(dateTimeStr);
             String description = originalTask.getDescription();
             boolean isDone = originalTask.isDone();
             
-            Task newTask = new Event("event " + description + " /at " + dateTimeStr, dateTime);
+            Task newTask = new Event("event " + description + " /at " + dateTimeStr, times[0], times[1]);
             newTask.setDone(isDone);
             return newTask;
         } catch (DateTimeParseException e) {
@@ -113,6 +113,36 @@ public class EnhancedHelpCommand extends Command {
         System.out.println("  • e 2 date = edit 2 date");
         System.out.println("  • e 3 !urgent = edit 3 priority urgent");
         System.out.println();
+        System.out.println("📦 Bulk Changes:");
+        System.out.println("  • done 3-40,57 = mark tasks 3 to 40 and 57 as done");
+        System.out.println("  • delete where #sprint-12 done = delete finished #sprint-12 tasks");
+        System.out.println("  • edit where @office add #moved = tag every @office task");
+        System.out.println();
+        System.out.println("🔁 Recurring Tasks:");
+        System.out.println("  • recur water plants /every monday 9am");
+        System.out.println("  • recur standup /every weekday 9:30am, recur review /every 2 weeks");
+        System.out.println("  • recur pay rent /on last friday of month");
+        System.out.println();
+        System.out.println("📆 Events & Free Time:");
+        System.out.println("  • event review /at tuesday 2pm /to 4pm = an event that takes up time");
+        System.out.println("  • a new event that overlaps another gets a warning");
+        System.out.println("  • free = free slots of the next 7 days, free tomorrow = just that day");
+        System.out.println();
+        System.out.println("🗓️ Calendar:");
+        System.out.println("  • view week, view month, view next week = tasks grouped by day");
+        System.out.println("  • view 2026-10-01..2026-10-31 = any range, view tomorrow = one day");
+        System.out.println();
+        System.out.println("↩️ Undo:");
+        System.out.println("  • undo = revert the last change, redo = bring it back");
+        System.out.println();
+        System.out.println("🧾 Transactions:");
+        System.out.println("  • begin = start grouping changes");
+        System.out.println("  • commit = save them all at once, rollback = drop them all");
+        System.out.println();
+        System.out.println("⏱️ Performance:");
+        System.out.println("  • stats on = start timing commands, stats = show latencies");
+        System.out.println("  • stats off = stop timing, stats reset = start over");
+        System.out.println();
         System.out.println("💡 Most commands support partial matching!");
     }
     
@@ -159,4 +189,9 @@ public class EnhancedHelpCommand extends Command {
     public boolean isExit() {
         return false;
     }
-} 
\ No newline at end of file
+
+    @Override
+    public boolean needsAllTasks() {
+        return false;
+    }
+}
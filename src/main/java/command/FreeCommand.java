@@ -0,0 +1,61 @@
+package command;
+
+import storage.Storage;
+import tasklist.DateIndex;
+import tasklist.TaskList;
+import ui.Ui;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A FreeCommand object lists the free slots of one or more days, between the events in the list.
+ * Only working hours are looked at, and only slots long enough to be of use are shown.
+ */
+public class FreeCommand extends Command {
+    static final LocalTime DAY_START = LocalTime.of(9, 0);
+    static final LocalTime DAY_END = LocalTime.of(18, 0);
+    static final Duration MINIMUM_SLOT = Duration.ofMinutes(30);
+
+    private final LocalDate from;
+    private final LocalDate lastDate;
+
+    /**
+     * @param from the first day
+     * @param lastDate the last day, inclusive
+     */
+    public FreeCommand(LocalDate from, LocalDate lastDate) {
+        this.from = from;
+        this.lastDate = lastDate;
+    }
+
+    /**
+     * The execute method prints the free slots of each day from today on.
+     * @param taskList is the task list
+     * @param ui to print out message on screen
+     * @param storage not used here
+     */
+    public void execute(TaskList taskList, Ui ui, Storage storage) {
+        DateIndex dates = taskList.dates();
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+        Map<LocalDate, List<DateIndex.FreeSlot>> slotsByDay = new LinkedHashMap<>();
+        // Days already gone have no free time left to show
+        LocalDate first = from.isBefore(now.toLocalDate()) ? now.toLocalDate() : from;
+        for (LocalDate day = first; !day.isAfter(lastDate); day = day.plusDays(1)) {
+            LocalDateTime start = day.atTime(DAY_START);
+            LocalDateTime end = day.atTime(DAY_END);
+            // Time already gone today is not free
+            if (now.isAfter(start)) {
+                start = now.isBefore(end) ? now : end;
+            }
+            slotsByDay.put(day, dates.freeSlots(start, end, MINIMUM_SLOT));
+        }
+        ui.printFreeSlots(slotsByDay);
+    }
+}
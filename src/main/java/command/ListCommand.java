@@ -12,14 +12,26 @@ import java.io.IOException;
 public class ListCommand extends Command {
 
     /**
-     * The execute method perform listing all tasks in the list
+     * The execute method perform listing all tasks in the list,
+     * or the first page of them while the rest of a large tasks.txt is still loading
      * @param taskList is the task list
      * @param ui to print out message on screen
-     * @param storage not used here
+     * @param storage to tell how far loading has got
      * @throws IOException when file not found
      */
     public void execute(TaskList taskList, Ui ui, Storage storage) {
         ui.printTaskList(taskList);
-        ui.printTaskListStr(taskList);
+        if (storage.isLoadFailed()) {
+            ui.printTaskListStr(taskList);
+        } else if (storage.isLoading()) {
+            ui.printStillLoading(taskList.size(), storage.getLoadedCount(), storage.getLoadTotal());
+        } else {
+            ui.printTaskListStr(taskList);
+        }
+    }
+
+    @Override
+    public boolean needsAllTasks() {
+        return false;
     }
 }
@@ -0,0 +1,40 @@
+package command;
+
+import exception.DukeException;
+import storage.Storage;
+import tasklist.TaskJournal;
+import tasklist.TaskList;
+import ui.Ui;
+
+import java.io.IOException;
+
+/**
+ * The RedoCommand object applies again the change reverted by the latest undo
+ * and writes the change to tasks.txt file
+ */
+public class RedoCommand extends Command {
+
+    /**
+     * The execute method re-applies the latest undone change recorded in the journal of the list
+     * @param taskList is the task list
+     * @param ui to print out message on screen
+     * @param storage to write change to task.txt
+     * @throws DukeException when there is nothing to redo
+     * @throws IOException when file not found
+     */
+    @Override
+    public void execute(TaskList taskList, Ui ui, Storage storage) throws DukeException, IOException {
+        TaskJournal.Entry entry;
+        try {
+            entry = taskList.journal().redo(taskList);
+        } catch (IllegalStateException e) {
+            throw new DukeException(e.getMessage());
+        }
+        if (entry == null) {
+            throw new DukeException("There is nothing to redo.");
+        }
+        ui.printRedo(entry.describe());
+        ui.printTaskCount(taskList);
+        storage.writeToFile(taskList.getTasks());
+    }
+}
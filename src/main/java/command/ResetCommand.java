@@ -13,6 +13,18 @@ import java.io.IOException;
  * and writes the change to tasks.txt file
  */
 public class ResetCommand extends Command{
+    private final boolean isConfirmed;
+
+    public ResetCommand() {
+        this(false);
+    }
+
+    /**
+     * @param isConfirmed true for "reset confirm", which does not ask for confirmation
+     */
+    public ResetCommand(boolean isConfirmed) {
+        this.isConfirmed = isConfirmed;
+    }
 
     /**
      * The execute method perform deleting all tasks in the list
@@ -23,7 +35,7 @@ public class ResetCommand extends Command{
      */
     @Override
     public void execute(TaskList taskList, Ui ui, Storage storage) throws DukeException, IOException {
-        if (ui.validateResetCommand()) {
+        if (isConfirmed || ui.validateResetCommand()) {
             taskList.reset();
             ui.printReset();
             ui.printTaskCount(taskList);
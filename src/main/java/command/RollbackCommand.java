@@ -0,0 +1,29 @@
+package command;
+
+import exception.DukeException;
+import storage.Storage;
+import tasklist.TaskList;
+import ui.Ui;
+
+import java.io.IOException;
+
+/**
+ * The RollbackCommand object reverts every change made since the open transaction began
+ */
+public class RollbackCommand extends Command {
+
+    /**
+     * The execute method rolls back the open transaction
+     * @param taskList is the task list
+     * @param ui to print out message on screen
+     * @param storage whose held back writes are dropped
+     * @throws DukeException when no transaction is open
+     * @throws IOException when file not found
+     */
+    @Override
+    public void execute(TaskList taskList, Ui ui, Storage storage) throws DukeException, IOException {
+        Transaction.current(taskList, storage).rollback();
+        ui.printRollback();
+        ui.printTaskCount(taskList);
+    }
+}
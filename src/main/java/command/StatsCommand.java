@@ -0,0 +1,53 @@
+package command;
+
+import metrics.Metrics;
+import storage.Storage;
+import tasklist.TaskList;
+import ui.Ui;
+
+/**
+ * A StatsCommand object shows the latency metrics of parsing, commands, storage and search,
+ * or turns their recording on or off, or clears them
+ */
+public class StatsCommand extends Command {
+    /**
+     * What the command does to the metrics
+     */
+    public enum Action {
+        SHOW, ON, OFF, RESET
+    }
+
+    private final Action action;
+
+    public StatsCommand(Action action) {
+        this.action = action;
+    }
+
+    /**
+     * The execute method performs the action on the metrics, then shows them.
+     * @param taskList not used here
+     * @param ui to print out message on screen
+     * @param storage not used here
+     */
+    public void execute(TaskList taskList, Ui ui, Storage storage) {
+        switch (action) {
+        case ON:
+            Metrics.setEnabled(true);
+            break;
+        case OFF:
+            Metrics.setEnabled(false);
+            break;
+        case RESET:
+            Metrics.reset();
+            break;
+        default:
+            break;
+        }
+        ui.printStats(Metrics.isEnabled(), Metrics.report());
+    }
+
+    @Override
+    public boolean needsAllTasks() {
+        return false;
+    }
+}
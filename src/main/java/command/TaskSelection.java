@@ -0,0 +1,175 @@
+package command;
+
+import exception.DukeException;
+import tasklist.Priority;
+import tasklist.TaskList;
+import tasklist.TaskSearchEngine;
+
+/**
+ * The set of tasks a bulk command works on: either task numbers and ranges such as "3-40,57",
+ * or a query such as "where #sprint-12 done". Query words are #tags, @contexts,
+ * done/pending, todo/deadline/event, priorities (!high) and plain keywords, all of which must match.
+ */
+public class TaskSelection {
+    private final int[] ranges;
+    private final TaskSearchEngine.SearchCriteria criteria;
+    private final String text;
+
+    private TaskSelection(int[] ranges, TaskSearchEngine.SearchCriteria criteria, String text) {
+        this.ranges = ranges;
+        this.criteria = criteria;
+        this.text = text;
+    }
+
+    /**
+     * Check if the arguments of a command name more than one task
+     * @param target the arguments, e.g. "3-40,57" or "where #work"
+     * @return true for a query or a list of numbers or ranges
+     */
+    public static boolean isBulk(String target) {
+        String trimmed = target.trim();
+        if (isQuery(trimmed)) {
+            return true;
+        }
+        return !trimmed.isEmpty() && trimmed.matches("[0-9 ,-]+") && (trimmed.contains(",") || trimmed.contains("-"));
+    }
+
+    private static boolean isQuery(String target) {
+        return target.regionMatches(true, 0, "where ", 0, 6);
+    }
+
+    /**
+     * Parse the target of a bulk command
+     * @param target task numbers and ranges, or "where" followed by a query
+     * @return the selection, resolved against the list when the command runs
+     * @throws DukeException if the target is not valid
+     */
+    public static TaskSelection parse(String target) throws DukeException {
+        String trimmed = target.trim();
+        if (isQuery(trimmed)) {
+            return new TaskSelection(null, parseQuery(trimmed.substring(6).trim()), trimmed);
+        }
+        if (trimmed.isEmpty()) {
+            throw new DukeException("Please state the task numbers, e.g. 3-40,57, or a query, e.g. where #work done.");
+        }
+        String[] parts = trimmed.split("\\s*,\\s*");
+        int[] ranges = new int[parts.length * 2];
+        for (int i = 0; i < parts.length; i++) {
+            String[] bounds = parts[i].split("\\s*-\\s*", -1);
+            if (bounds.length > 2) {
+                throw new DukeException("[" + parts[i] + "] is not a task number or range.");
+            }
+            ranges[2 * i] = parseNumber(bounds[0]);
+            ranges[2 * i + 1] = bounds.length == 2 ? parseNumber(bounds[1]) : ranges[2 * i];
+            if (ranges[2 * i] > ranges[2 * i + 1]) {
+                throw new DukeException("The range [" + parts[i] + "] is backwards.");
+            }
+        }
+        return new TaskSelection(ranges, null, trimmed);
+    }
+
+    private static int parseNumber(String number) {
+        try {
+            int value = Integer.parseInt(number.trim());
+            if (value < 1) {
+                throw new DukeException("The task number is not valid.");
+            }
+            return value;
+        } catch (NumberFormatException e) {
+            throw new DukeException("[" + number.trim() + "] is not a task number.");
+        }
+    }
+
+    private static TaskSearchEngine.SearchCriteria parseQuery(String query) {
+        if (query.isEmpty()) {
+            throw new DukeException("Please give a query after [where], e.g. where #work done.");
+        }
+        String[] words = query.split("\\s+");
+        StringBuilder keyword = new StringBuilder();
+        for (String word : words) {
+            if (filterOf(word.toLowerCase()) == null && !isCategory(word)) {
+                keyword.append(keyword.length() == 0 ? "" : " ").append(word);
+            }
+        }
+        TaskSearchEngine.SearchCriteria criteria =
+                new TaskSearchEngine.SearchCriteria(keyword.length() == 0 ? null : keyword.toString());
+        for (String word : words) {
+            TaskSearchEngine.FilterBy filter = filterOf(word.toLowerCase());
+            if (filter != null) {
+                criteria.andFilter(filter);
+            } else if (isCategory(word) && word.charAt(0) == '#') {
+                criteria.tag(word.substring(1));
+            } else if (isCategory(word)) {
+                criteria.context(word.substring(1));
+            }
+        }
+        return criteria;
+    }
+
+    private static boolean isCategory(String word) {
+        return word.length() > 1 && (word.charAt(0) == '#' || word.charAt(0) == '@');
+    }
+
+    private static TaskSearchEngine.FilterBy filterOf(String word) {
+        if (word.length() > 1 && word.charAt(0) == '!') {
+            Priority priority = Priority.find(word);
+            if (priority == null) {
+                throw new DukeException("[" + word + "] is not a priority, e.g. !high or !low.");
+            }
+            return TaskSearchEngine.FilterBy.valueOf(priority.name() + "_PRIORITY");
+        }
+        switch (word) {
+        case "done":
+            return TaskSearchEngine.FilterBy.COMPLETED;
+        case "pending":
+            return TaskSearchEngine.FilterBy.PENDING;
+        case "todo":
+            return TaskSearchEngine.FilterBy.TODO;
+        case "deadline":
+            return TaskSearchEngine.FilterBy.DEADLINE;
+        case "event":
+            return TaskSearchEngine.FilterBy.EVENT;
+        default:
+            return null;
+        }
+    }
+
+    /**
+     * Find the tasks of the selection in the current list
+     * @param taskList is the task list
+     * @return zero-based indices, ascending and without duplicates
+     * @throws DukeException if a task number is past the end of the list
+     */
+    public int[] resolve(TaskList taskList) throws DukeException {
+        if (criteria != null) {
+            return TaskSearchEngine.matchIndices(taskList, criteria);
+        }
+        boolean[] isSelected = new boolean[taskList.size()];
+        int count = 0;
+        for (int i = 0; i < ranges.length; i += 2) {
+            if (ranges[i + 1] > taskList.size()) {
+                throw new DukeException("The task number " + ranges[i + 1] + " is not valid. You have "
+                        + taskList.size() + " tasks.");
+            }
+            for (int number = ranges[i]; number <= ranges[i + 1]; number++) {
+                if (!isSelected[number - 1]) {
+                    isSelected[number - 1] = true;
+                    count++;
+                }
+            }
+        }
+        int[] indices = new int[count];
+        int next = 0;
+        for (int i = 0; i < isSelected.length && next < count; i++) {
+            if (isSelected[i]) {
+                indices[next++] = i;
+            }
+        }
+        return indices;
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
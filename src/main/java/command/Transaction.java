@@ -0,0 +1,115 @@
+package command;
+
+import exception.DukeException;
+import storage.Storage;
+import tasklist.TaskList;
+import ui.Ui;
+
+import java.io.IOException;
+
+/**
+ * A group of changes to a task list that is saved and published all at once, or not at all.
+ * While it is open, commands change the list as usual, but readers, the change feed and the
+ * undo history keep seeing the list as it was when the transaction began, and tasks.txt is not written.
+ * Commit publishes the changes as one version and writes tasks.txt once;
+ * rollback reverts only the tasks the transaction touched and writes nothing.
+ * The begin, commit and rollback commands use the same transaction, so it can span several commands.
+ */
+public class Transaction implements AutoCloseable {
+    private final TaskList taskList;
+    private final Storage storage;
+
+    private Transaction(TaskList taskList, Storage storage) {
+        this.taskList = taskList;
+        this.storage = storage;
+    }
+
+    /**
+     * Begin a transaction on a task list
+     * @param taskList the task list to change
+     * @param storage the storage its changes are written to
+     * @return the open transaction
+     * @throws DukeException if a transaction is already open
+     */
+    public static Transaction begin(TaskList taskList, Storage storage) throws DukeException {
+        try {
+            taskList.beginTransaction();
+        } catch (IllegalStateException e) {
+            throw new DukeException(e.getMessage());
+        }
+        storage.hold();
+        return new Transaction(taskList, storage);
+    }
+
+    /**
+     * Get the transaction open on a task list
+     * @param taskList the task list
+     * @param storage the storage its changes are written to, the one the transaction began with
+     * @return the open transaction
+     * @throws DukeException if no transaction is open
+     */
+    public static Transaction current(TaskList taskList, Storage storage) throws DukeException {
+        if (!taskList.isInTransaction()) {
+            throw new DukeException("There is no open transaction. Type [begin] to start one.");
+        }
+        return new Transaction(taskList, storage);
+    }
+
+    public boolean isOpen() {
+        return taskList.isInTransaction();
+    }
+
+    /**
+     * Run a command inside this transaction
+     * @param command the command to run
+     * @param ui to print out message on screen
+     * @throws DukeException when the command fails; the transaction stays open
+     * @throws IOException when file not found
+     */
+    public void execute(Command command, Ui ui) throws DukeException, IOException {
+        checkOpen();
+        command.run(taskList, ui, storage);
+    }
+
+    /**
+     * Publish the changes as one version and write them to tasks.txt
+     * @throws DukeException if the transaction is no longer open
+     * @throws IOException when file not found
+     */
+    public void commit() throws DukeException, IOException {
+        checkOpen();
+        taskList.commitTransaction();
+        storage.release();
+    }
+
+    /**
+     * Put the task list back the way it was when the transaction began
+     * @throws DukeException if the transaction is no longer open
+     * @throws IOException when file not found
+     */
+    public void rollback() throws DukeException, IOException {
+        checkOpen();
+        taskList.rollbackTransaction();
+        storage.abandon();
+        if (storage.hasHeldWrite()) {
+            // An outer hold, such as a batch run, still writes later; it must write the restored list
+            storage.writeToFile(taskList.getTasks());
+        }
+    }
+
+    /**
+     * Roll back unless the transaction has been committed or rolled back already
+     */
+    @Override
+    public void close() throws DukeException, IOException {
+        if (isOpen()) {
+            rollback();
+        }
+    }
+
+    private void checkOpen() throws DukeException {
+        if (!isOpen()) {
+            throw new DukeException("The transaction is no longer open.");
+        }
+    }
+}
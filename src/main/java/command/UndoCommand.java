@@ -0,0 +1,40 @@
+package command;
+
+import exception.DukeException;
+import storage.Storage;
+import tasklist.TaskJournal;
+import tasklist.TaskList;
+import ui.Ui;
+
+import java.io.IOException;
+
+/**
+ * The UndoCommand object reverts the latest change to the task list
+ * and writes the change to tasks.txt file
+ */
+public class UndoCommand extends Command {
+
+    /**
+     * The execute method reverts the latest change recorded in the journal of the list
+     * @param taskList is the task list
+     * @param ui to print out message on screen
+     * @param storage to write change to task.txt
+     * @throws DukeException when there is nothing to undo
+     * @throws IOException when file not found
+     */
+    @Override
+    public void execute(TaskList taskList, Ui ui, Storage storage) throws DukeException, IOException {
+        TaskJournal.Entry entry;
+        try {
+            entry = taskList.journal().undo(taskList);
+        } catch (IllegalStateException e) {
+            throw new DukeException(e.getMessage());
+        }
+        if (entry == null) {
+            throw new DukeException("There is nothing to undo.");
+        }
+        ui.printUndo(entry.describe());
+        ui.printTaskCount(taskList);
+        storage.writeToFile(taskList.getTasks());
+    }
+}
@@ -1,33 +1,71 @@
 package command;
 
 import storage.Storage;
+import tasklist.DateIndex;
 import tasklist.TaskList;
 import ui.Ui;
 
-import java.io.IOException;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
- * An ViewCommand object holds local variable date
- * which is used to find relevant tasks
+ * An ViewCommand object holds the first and last date
+ * which are used to find relevant tasks
  */
 public class ViewCommand extends Command {
     LocalDate date;
+    LocalDate lastDate;
 
     public ViewCommand(LocalDate date){
+        this(date, date);
+    }
+
+    /**
+     * @param date the first day to show
+     * @param lastDate the last day to show, inclusive
+     */
+    public ViewCommand(LocalDate date, LocalDate lastDate){
         this.date = date;
+        this.lastDate = lastDate;
     }
 
     /**
-     * The execute method display a list of tasks on date given.
+     * The execute method display the tasks on the dates given, grouped by day.
+     * The date index is walked once for the whole range; each day's count comes from the same pass.
      * @param taskList is the task list
      * @param ui to print out message on screen
      * @param storage not used here
-     * @throws IOException when file not found
      */
     public void execute(TaskList taskList, Ui ui, Storage storage) {
-        TaskList taskByDate = taskList.getTaskByDate(date, taskList);
-        ui.printTaskList(taskByDate);
-        ui.printTaskOfDate(taskByDate, date);
+        LocalDateTime from = date.atStartOfDay();
+        List<DateIndex.Occurrence> occurrences = taskList.dates().occurrences(from, lastDate.plusDays(1).atStartOfDay());
+        if (date.equals(lastDate)) {
+            TaskList taskByDate = new TaskList();
+            for (DateIndex.Occurrence occurrence : occurrences) {
+                taskByDate.addTask(occurrence.getTask());
+            }
+            ui.printTaskList(taskByDate);
+            ui.printTaskOfDate(taskByDate, date);
+            return;
+        }
+        // Occurrences come by start time, so each day's group is complete before the next one starts
+        Map<LocalDate, List<DateIndex.Occurrence>> byDay = new LinkedHashMap<>();
+        List<DateIndex.Occurrence> day = null;
+        LocalDate current = null;
+        for (DateIndex.Occurrence occurrence : occurrences) {
+            // Events that began before the range are shown on its first day
+            LocalDate start = occurrence.getStart().isBefore(from) ? date : occurrence.getStart().toLocalDate();
+            if (!start.equals(current)) {
+                current = start;
+                day = new ArrayList<>();
+                byDay.put(current, day);
+            }
+            day.add(occurrence);
+        }
+        ui.printCalendar(date, lastDate, byDay, occurrences.size());
     }
 }
@@ -0,0 +1,427 @@
+package demo;
+
+import storage.Storage;
+import tasklist.Deadline;
+import tasklist.Event;
+import tasklist.Recurrence;
+import tasklist.RecurringTask;
+import tasklist.Task;
+import tasklist.TaskTextAnalyzer;
+import tasklist.Todo;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates task lists and command streams of any size for load tests, benchmarks and soak tests.
+ * Where DemoTaskGenerator shows off a handful of hand-written tasks, this makes up as many as asked for
+ * from a seed: the same seed and settings always give the same tasks and commands.
+ * Priorities, tags, contexts and description words are drawn from Zipf distributions, so that a few
+ * of each are common and the rest rare, as in lists people actually keep.
+ * Settings are chained, e.g. <code>new WorkloadGenerator().seed(7).typeMix(1, 1, 1, 0).tasks(100000)</code>.
+ */
+public class WorkloadGenerator {
+    private static final String[] TYPES = {"todo", "deadline", "event", "recur"};
+    // Most tasks keep the default priority, as nobody marks everything urgent
+    private static final String[] PRIORITIES = {"", "!high", "!low", "!urgent", "!critical"};
+    private static final String[] VERBS = {"Review", "Write", "Call", "Buy", "Plan", "Fix", "Submit", "Prepare",
+            "Update", "Book", "Clean", "Read", "Pay", "Send", "Check"};
+    private static final String[] DEFAULT_VOCABULARY = {"report", "meeting", "budget", "slides", "groceries",
+            "invoice", "tests", "dentist", "design", "release", "notes", "plan", "email", "contract", "garden",
+            "taxes", "presentation", "backlog", "roadmap", "receipts", "car", "flight", "hotel", "proposal",
+            "newsletter", "survey", "interview", "demo", "laptop", "documentation"};
+    private static final String[] DEFAULT_TAGS = {"work", "personal", "health", "project-x", "shopping",
+            "finance", "family", "learning", "travel", "home-improvement", "hiring", "ops"};
+    private static final String[] DEFAULT_CONTEXTS = {"computer", "office", "home", "phone", "errands",
+            "meeting-room", "gym"};
+    private static final DateTimeFormatter COMMAND_DATE = DateTimeFormatter.ofPattern("d/M/yyyy");
+
+    private long seed = 42;
+    private double[] typeMix = {40, 30, 25, 5};
+    private double priorityExponent = 1.5;
+    private double tagExponent = 1.1;
+    private double wordExponent = 1.0;
+    private String[] vocabulary = DEFAULT_VOCABULARY;
+    private String[] tags = DEFAULT_TAGS;
+    private String[] contexts = DEFAULT_CONTEXTS;
+    private int maxTags = 2;
+    private int maxWords = 4;
+    private LocalDate from = LocalDate.of(2026, 1, 1);
+    private int spreadDays = 365;
+    private double doneRatio = 0.25;
+    private double readRatio = 0.8;
+
+    public WorkloadGenerator seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * Set how often each type of task is made, as relative weights
+     */
+    public WorkloadGenerator typeMix(double todos, double deadlines, double events, double recurring) {
+        double[] mix = {todos, deadlines, events, recurring};
+        double total = 0;
+        for (double weight : mix) {
+            if (weight < 0) {
+                throw new IllegalArgumentException("The weight of a task type cannot be negative");
+            }
+            total += weight;
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("At least one task type needs a weight");
+        }
+        this.typeMix = mix;
+        return this;
+    }
+
+    /**
+     * Set how steeply the Zipf distribution of priorities falls; 0 gives every priority equally often
+     */
+    public WorkloadGenerator priorityExponent(double exponent) {
+        this.priorityExponent = exponent;
+        return this;
+    }
+
+    /**
+     * Set how steeply the Zipf distribution of tags and contexts falls; 0 gives every one equally often
+     */
+    public WorkloadGenerator tagExponent(double exponent) {
+        this.tagExponent = exponent;
+        return this;
+    }
+
+    /**
+     * Set the tags and contexts to draw from, most common first, given without the # or @
+     */
+    public WorkloadGenerator tags(String[] tags, String[] contexts) {
+        this.tags = tags.clone();
+        this.contexts = contexts.clone();
+        return this;
+    }
+
+    /**
+     * Set the largest number of tags a task gets; each task gets from none up to this many
+     */
+    public WorkloadGenerator maxTags(int maxTags) {
+        this.maxTags = maxTags;
+        return this;
+    }
+
+    /**
+     * Set the words descriptions are made of, most common first, and how steeply their Zipf distribution falls
+     * @param maxWords the largest number of words after the verb of a description, at least 1
+     */
+    public WorkloadGenerator vocabulary(String[] words, double exponent, int maxWords) {
+        if (words.length == 0 || maxWords < 1) {
+            throw new IllegalArgumentException("Descriptions need at least one word");
+        }
+        this.vocabulary = words.clone();
+        this.wordExponent = exponent;
+        this.maxWords = maxWords;
+        return this;
+    }
+
+    /**
+     * Set the days that dated tasks fall on, spread evenly
+     * @param from the first day
+     * @param days the number of days, at least 1
+     */
+    public WorkloadGenerator dates(LocalDate from, int days) {
+        if (days < 1) {
+            throw new IllegalArgumentException("Dates need to spread over at least one day");
+        }
+        this.from = from;
+        this.spreadDays = days;
+        return this;
+    }
+
+    /**
+     * Set the share of tasks that are already done, from 0 to 1
+     */
+    public WorkloadGenerator doneRatio(double ratio) {
+        this.doneRatio = ratio;
+        return this;
+    }
+
+    /**
+     * Set the share of commands that only read the list, such as search and view, from 0 to 1
+     */
+    public WorkloadGenerator readRatio(double ratio) {
+        this.readRatio = ratio;
+        return this;
+    }
+
+    /**
+     * Make up a task list
+     * @param count the number of tasks
+     */
+    public ArrayList<Task> tasks(int count) {
+        Generator generator = new Generator(seed);
+        ArrayList<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tasks.add(generator.task());
+        }
+        return tasks;
+    }
+
+    /**
+     * Make up a stream of console commands to run against a list made by <code>tasks</code>.
+     * Task numbers in the commands always point at a task, taking the adds and deletes before them into account.
+     * @param count the number of commands
+     * @param listSize the number of tasks in the list the commands start on
+     */
+    public List<String> commands(int count, int listSize) {
+        // Drawn apart from the tasks, so that the commands do not depend on how many tasks were made before
+        Generator generator = new Generator(seed * 31 + 17);
+        generator.size = listSize;
+        List<String> commands = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            commands.add(generator.random.nextDouble() < readRatio ? generator.read() : generator.write());
+        }
+        return commands;
+    }
+
+    /**
+     * Write a made up task list straight to a task file, without going through the console
+     */
+    public void writeTasks(Storage storage, int count) throws IOException {
+        storage.writeToFile(tasks(count));
+    }
+
+    /**
+     * Write a made up command stream to a file that <code>duke --batch</code> can run
+     */
+    public void writeCommands(String file, int count, int listSize) throws IOException {
+        List<String> lines = new ArrayList<>(count + 1);
+        lines.add("# " + count + " commands on a list of " + listSize + " tasks, seed " + seed);
+        lines.addAll(commands(count, listSize));
+        Files.write(Paths.get(file), lines, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The random draws of one list or command stream
+     */
+    private final class Generator {
+        final Random random;
+        final ZipfDistribution priorities = new ZipfDistribution(PRIORITIES.length, priorityExponent);
+        final ZipfDistribution tagRanks = new ZipfDistribution(tags.length, tagExponent);
+        final ZipfDistribution contextRanks = new ZipfDistribution(contexts.length, tagExponent);
+        final ZipfDistribution words = new ZipfDistribution(vocabulary.length, wordExponent);
+        final double typeTotal = typeMix[0] + typeMix[1] + typeMix[2] + typeMix[3];
+        // Tasks in the list when the next command runs
+        int size;
+
+        Generator(long seed) {
+            this.random = new Random(seed);
+        }
+
+        Task task() {
+            String type = type();
+            String description = description();
+            String markers = markers();
+            Task task;
+            switch (type) {
+            case "todo":
+                task = new Todo(TaskTextAnalyzer.analyze(description + markers));
+                break;
+            case "deadline":
+                task = new Deadline(TaskTextAnalyzer.analyze(description + markers), dateTime());
+                break;
+            case "event":
+                LocalDateTime start = dateTime();
+                // Most events take up time, as meetings do; some only mark a moment
+                task = random.nextInt(4) == 0
+                        ? new Event(TaskTextAnalyzer.analyze(description + markers), start)
+                        : new Event(TaskTextAnalyzer.analyze(description + markers), start,
+                                start.plusMinutes(30L * (1 + random.nextInt(4))));
+                break;
+            default:
+                task = new RecurringTask(TaskTextAnalyzer.analyze(description + markers), recurrence());
+                break;
+            }
+            task.setDone(random.nextDouble() < doneRatio);
+            return task;
+        }
+
+        String type() {
+            double draw = random.nextDouble() * typeTotal;
+            for (int i = 0; i < TYPES.length - 1; i++) {
+                draw -= typeMix[i];
+                if (draw < 0) {
+                    return TYPES[i];
+                }
+            }
+            return TYPES[TYPES.length - 1];
+        }
+
+        String description() {
+            StringBuilder text = new StringBuilder(VERBS[random.nextInt(VERBS.length)]);
+            int count = 1 + random.nextInt(maxWords);
+            for (int i = 0; i < count; i++) {
+                text.append(' ').append(vocabulary[words.sample(random)]);
+            }
+            return text.toString();
+        }
+
+        /**
+         * Make up the priority, tags and contexts typed after a description, e.g. " !high #work @office"
+         */
+        String markers() {
+            StringBuilder text = new StringBuilder();
+            String priority = PRIORITIES[priorities.sample(random)];
+            if (!priority.isEmpty()) {
+                text.append(' ').append(priority);
+            }
+            int tagCount = random.nextInt(maxTags + 1);
+            boolean[] isTagged = new boolean[tags.length];
+            for (int i = 0; i < tagCount; i++) {
+                // A tag drawn twice is typed once
+                int tag = tagRanks.sample(random);
+                if (!isTagged[tag]) {
+                    isTagged[tag] = true;
+                    text.append(" #").append(tags[tag]);
+                }
+            }
+            if (random.nextInt(3) == 0) {
+                text.append(" @").append(contexts[contextRanks.sample(random)]);
+            }
+            return text.toString();
+        }
+
+        /**
+         * Draw a time on the half hour during the working day of one of the days
+         */
+        LocalDateTime dateTime() {
+            return day().atTime(8 + random.nextInt(11), 30 * random.nextInt(2));
+        }
+
+        LocalDate day() {
+            return from.plusDays(random.nextInt(spreadDays));
+        }
+
+        Recurrence recurrence() {
+            LocalDateTime start = dateTime();
+            switch (random.nextInt(4)) {
+            case 0:
+                return Recurrence.every(Recurrence.Frequency.DAILY, 1, start);
+            case 1:
+                return Recurrence.every(Recurrence.Frequency.WEEKLY, 1 + random.nextInt(2), start);
+            case 2:
+                return Recurrence.every(Recurrence.Frequency.MONTHLY, 1, start);
+            default:
+                return Recurrence.every(Recurrence.Frequency.WEEKLY, 1, start).until(start.toLocalDate().plusDays(90));
+            }
+        }
+
+        /**
+         * Make up a command that only reads the list
+         */
+        String read() {
+            int draw = random.nextInt(20);
+            if (draw < 8) {
+                return "search " + vocabulary[words.sample(random)];
+            } else if (draw < 10) {
+                return "search #" + tags[tagRanks.sample(random)];
+            } else if (draw < 14) {
+                return "view " + day().format(COMMAND_DATE);
+            } else if (draw < 16) {
+                LocalDate first = day();
+                return "view " + first.format(COMMAND_DATE) + ".." + first.plusDays(6).format(COMMAND_DATE);
+            } else if (draw < 18) {
+                return "free " + day().format(COMMAND_DATE);
+            }
+            return "list";
+        }
+
+        /**
+         * Make up a command that changes the list
+         */
+        String write() {
+            int draw = size == 0 ? 0 : random.nextInt(20);
+            if (draw < 10) {
+                size++;
+                return add();
+            }
+            int number = 1 + random.nextInt(size);
+            if (draw < 15) {
+                return "done " + number;
+            } else if (draw < 18) {
+                return "edit " + number + " description " + description();
+            }
+            size--;
+            return "delete " + number;
+        }
+
+        String add() {
+            String description = description() + markers();
+            switch (type()) {
+            case "todo":
+                return "todo " + description;
+            case "deadline":
+                return "deadline " + description + " /by " + day().format(COMMAND_DATE);
+            case "event":
+                return "event " + description + " /at " + day().format(COMMAND_DATE);
+            default:
+                return "recur " + description + " /every " + day().getDayOfWeek().name().toLowerCase() + " 9am";
+            }
+        }
+    }
+
+    /**
+     * Write a task file and, if asked for, a command file for load tests, e.g.
+     * <code>duke --workload 100000 data/load.txt --commands 50000 data/load-commands.txt --reads 0.9</code>,
+     * then <code>duke --batch data/load-commands.txt data/load.txt</code> to run them.
+     * @return the exit status: 0 when written, 2 when the arguments are wrong
+     */
+    public static int main(String[] args) throws IOException {
+        String usage = "Usage: duke --workload <task count> <task file> [--commands <count> <file>] "
+                + "[--seed <seed>] [--reads <share of reads>]";
+        if (args.length < 2) {
+            System.err.println(usage);
+            return 2;
+        }
+        WorkloadGenerator generator = new WorkloadGenerator();
+        int taskCount;
+        int commandCount = 0;
+        String commandFile = null;
+        try {
+            taskCount = Integer.parseInt(args[0]);
+            for (int i = 2; i < args.length; i++) {
+                switch (args[i]) {
+                case "--commands":
+                    commandCount = Integer.parseInt(args[++i]);
+                    commandFile = args[++i];
+                    break;
+                case "--seed":
+                    generator.seed(Long.parseLong(args[++i]));
+                    break;
+                case "--reads":
+                    generator.readRatio(Double.parseDouble(args[++i]));
+                    break;
+                default:
+                    System.err.println(usage);
+                    return 2;
+                }
+            }
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            System.err.println(usage);
+            return 2;
+        }
+        generator.writeTasks(new Storage(args[1]), taskCount);
+        System.out.println("Wrote " + taskCount + " tasks to " + args[1] + ".");
+        if (commandFile != null) {
+            generator.writeCommands(commandFile, commandCount, taskCount);
+            System.out.println("Wrote " + commandCount + " commands to " + commandFile + ".");
+        }
+        return 0;
+    }
+}
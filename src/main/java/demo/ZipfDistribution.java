@@ -0,0 +1,42 @@
+package demo;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Zipf distribution over ranks 0 to n - 1: rank k is drawn with a weight of 1 / (k + 1)^exponent,
+ * so a few ranks come up most of the time and the rest form a long tail, like the tags and words of real lists.
+ * An exponent of 0 draws every rank equally often.
+ */
+final class ZipfDistribution {
+    private final double[] cumulative;
+
+    /**
+     * @param n the number of ranks, at least 1
+     * @param exponent how steeply the weights fall, 0 or more
+     */
+    ZipfDistribution(int n, double exponent) {
+        if (n < 1 || exponent < 0) {
+            throw new IllegalArgumentException("A Zipf distribution needs at least one rank and an exponent of 0 or more");
+        }
+        cumulative = new double[n];
+        double total = 0;
+        for (int k = 0; k < n; k++) {
+            total += 1 / Math.pow(k + 1, exponent);
+            cumulative[k] = total;
+        }
+        for (int k = 0; k < n; k++) {
+            cumulative[k] /= total;
+        }
+    }
+
+    /**
+     * Draw a rank
+     * @return a rank from 0 to n - 1
+     */
+    int sample(Random random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        // A miss gives the insertion point: the first rank whose cumulative weight is above the draw
+        return Math.min(index < 0 ? -index - 1 : index, cumulative.length - 1);
+    }
+}
@@ -0,0 +1,55 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for one command run against the task list, lasting as long as the command
+ */
+@Name("duke.Command")
+@Label("Command")
+@Category("Duke")
+@Description("A command run against the task list")
+@StackTrace(false)
+public final class CommandEvent extends Event {
+    @Label("Kind")
+    @Description("Kind of command, e.g. todo, done or search")
+    String kind;
+
+    @Label("Task Count")
+    @Description("Tasks in the list after the command")
+    int taskCount;
+
+    @Label("Failed")
+    boolean isFailed;
+
+    /**
+     * Start timing a command
+     * @return the event, or null if events are off or no recording wants it
+     */
+    public static CommandEvent start() {
+        if (!FlightEvents.IS_ENABLED) {
+            return null;
+        }
+        CommandEvent event = new CommandEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Stop timing the command and hand the event to the recording
+     */
+    public void end(String kind, int taskCount, boolean isFailed) {
+        this.kind = kind;
+        this.taskCount = taskCount;
+        this.isFailed = isFailed;
+        commit();
+    }
+}
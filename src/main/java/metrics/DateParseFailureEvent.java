@@ -0,0 +1,37 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for a date text that could not be read, with the stack trace of who asked
+ */
+@Name("duke.DateParseFailure")
+@Label("Date Parse Failure")
+@Category("Duke")
+@Description("A date text that matched none of the supported forms")
+public final class DateParseFailureEvent extends Event {
+    @Label("Input")
+    String input;
+
+    @Label("Reason")
+    String reason;
+
+    /**
+     * Record a failure, if events are on and a recording wants it
+     */
+    public static void report(String input, String reason) {
+        if (!FlightEvents.IS_ENABLED) {
+            return;
+        }
+        DateParseFailureEvent event = new DateParseFailureEvent();
+        if (event.isEnabled()) {
+            event.input = input;
+            event.reason = reason;
+            event.commit();
+        }
+    }
+}
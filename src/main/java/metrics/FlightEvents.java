@@ -0,0 +1,21 @@
+package metrics;
+
+/**
+ * Switch for the Java Flight Recorder events of Duke, read once at startup.
+ * With <code>-Dduke.jfr=true</code> the events are made and committed, so that a recording started with
+ * e.g. <code>-XX:StartFlightRecording</code> shows commands, storage flushes, searches and date parsing
+ * failures next to the JVM's own events. Without it the hot paths do not even create the event objects.
+ * Callers check <code>isEnabled</code> before touching an event class: loading the first one starts up
+ * the flight recorder's machinery, which took about 300 ms of the first command.
+ */
+public final class FlightEvents {
+    static final String PROPERTY = "duke.jfr";
+    static final boolean IS_ENABLED = Boolean.getBoolean(PROPERTY);
+
+    private FlightEvents() {
+    }
+
+    public static boolean isEnabled() {
+        return IS_ENABLED;
+    }
+}
@@ -0,0 +1,102 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of latencies in nanoseconds, laid out like an HdrHistogram.
+ * Values below 128 get a bucket each; above that, every power of two is split into 64 buckets,
+ * so any recorded value is known to within 1.6% whatever its size, in a fixed array of counts.
+ * Recording is lock free and costs a few shifts and an atomic add, so it can stay on in hot paths
+ * and be shared by every thread that runs commands.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int HALF_SUB_BUCKET_COUNT = 1 << (SUB_BUCKET_BITS - 1);
+    private static final long SUB_BUCKET_MASK = (1L << SUB_BUCKET_BITS) - 1;
+    /**
+     * Longest latency told apart from the others, about 73 minutes; longer ones are counted as this long
+     */
+    public static final long HIGHEST_TRACKABLE_NANOS = (1L << 42) - 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(indexOf(HIGHEST_TRACKABLE_NANOS) + 1);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Count one latency
+     * @param nanos the latency, negative ones are counted as 0
+     */
+    public void record(long nanos) {
+        long value = Math.min(Math.max(nanos, 0), HIGHEST_TRACKABLE_NANOS);
+        counts.incrementAndGet(indexOf(value));
+        total.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Bucket of a value: bucket b above the first covers [2^(b + 6), 2^(b + 7)) in steps of 2^b
+     */
+    private static int indexOf(long value) {
+        int bucket = 63 - Long.numberOfLeadingZeros(value | SUB_BUCKET_MASK) - (SUB_BUCKET_BITS - 1);
+        return bucket * HALF_SUB_BUCKET_COUNT + (int) (value >>> bucket);
+    }
+
+    /**
+     * Largest value that falls in the same bucket as those of an index
+     */
+    private static long highestValueAt(int index) {
+        int bucket = Math.max(0, index / HALF_SUB_BUCKET_COUNT - 1);
+        long subBucket = index - (long) bucket * HALF_SUB_BUCKET_COUNT;
+        return ((subBucket + 1) << bucket) - 1;
+    }
+
+    public long getCount() {
+        return total.sum();
+    }
+
+    public long getMaxNanos() {
+        return max.get();
+    }
+
+    public double getMeanNanos() {
+        long count = total.sum();
+        return count == 0 ? 0 : (double) sum.sum() / count;
+    }
+
+    /**
+     * Get the latency that a share of the recorded ones are at or below
+     * @param percentile from 0 to 100, e.g. 99 for the 99th percentile
+     * @return the latency to within the precision of its bucket, or 0 if nothing was recorded
+     */
+    public long getPercentileNanos(double percentile) {
+        long count = total.sum();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(count * Math.min(percentile, 100) / 100));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestValueAt(i), getMaxNanos());
+            }
+        }
+        return getMaxNanos();
+    }
+
+    /**
+     * Forget every recorded latency
+     */
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+        total.reset();
+        sum.reset();
+        max.reset();
+    }
+}
@@ -0,0 +1,239 @@
+package metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+/**
+ * Latency histograms and failure counts of Duke's hot paths, by name, e.g. "parse.todo", "execute.todo",
+ * "storage.read", "storage.write" and "search".
+ * Metrics are off unless the <code>duke.metrics</code> system property is true or they are turned on with
+ * "stats on". Once on, they can also be read and switched over JMX as duke:type=Metrics. While off, <code>start</code> is a single read of a volatile flag and
+ * <code>record</code> returns at once, so the timed paths cost nothing worth measuring.
+ * A timed path looks like:
+ * <pre>
+ * long start = Metrics.start();
+ * ... the work ...
+ * Metrics.record("storage.read", start);
+ * </pre>
+ */
+public final class Metrics {
+    /**
+     * System property that turns metrics on from the start
+     */
+    public static final String PROPERTY = "duke.metrics";
+    /**
+     * System property with the number of seconds between dumps of the report to standard error, off if unset
+     */
+    public static final String DUMP_PROPERTY = "duke.metrics.dump";
+
+    private static final String MBEAN_NAME = "duke:type=Metrics";
+
+    private static volatile boolean isEnabled = Boolean.getBoolean(PROPERTY);
+    private static final Map<String, LatencyHistogram> HISTOGRAMS = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> FAILURES = new ConcurrentHashMap<>();
+    private static boolean isInstalled;
+
+    static {
+        if (isEnabled) {
+            install();
+        }
+    }
+
+    private Metrics() {
+    }
+
+    public static boolean isEnabled() {
+        return isEnabled;
+    }
+
+    /**
+     * Turn recording on or off; what was recorded so far is kept
+     */
+    public static void setEnabled(boolean enabled) {
+        if (enabled) {
+            install();
+        }
+        isEnabled = enabled;
+    }
+
+    /**
+     * Start timing a path
+     * @return the start time to pass to <code>record</code>, or 0 while metrics are off
+     */
+    public static long start() {
+        return isEnabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Record the latency of a path timed from <code>start</code>
+     * @param name the name of the path
+     * @param start what <code>start</code> returned; nothing is recorded if it was 0
+     */
+    public static void record(String name, long start) {
+        if (start != 0) {
+            histogram(name).record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Record the latency of a path timed from <code>start</code> that failed
+     */
+    public static void recordFailure(String name, long start) {
+        if (start != 0) {
+            record(name, start);
+            FAILURES.computeIfAbsent(name, key -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * Get the histogram of a path, creating it if nothing has been recorded for it yet
+     */
+    public static LatencyHistogram histogram(String name) {
+        LatencyHistogram histogram = HISTOGRAMS.get(name);
+        return histogram != null ? histogram : HISTOGRAMS.computeIfAbsent(name, key -> new LatencyHistogram());
+    }
+
+    /**
+     * Get the number of times a path failed
+     */
+    public static long failures(String name) {
+        LongAdder failures = FAILURES.get(name);
+        return failures == null ? 0 : failures.sum();
+    }
+
+    /**
+     * Get the names of the paths recorded so far, sorted
+     */
+    public static List<String> names() {
+        List<String> names = new ArrayList<>(HISTOGRAMS.keySet());
+        Collections.sort(names);
+        return names;
+    }
+
+    /**
+     * Forget everything recorded so far
+     */
+    public static void reset() {
+        HISTOGRAMS.clear();
+        FAILURES.clear();
+    }
+
+    /**
+     * Make a table of every recorded path with its count, failures and latencies in milliseconds
+     * @return the table, one line per path after a header, or a note that nothing was recorded
+     */
+    public static String report() {
+        List<String> names = names();
+        if (names.isEmpty()) {
+            return "Nothing recorded yet.";
+        }
+        StringBuilder report = new StringBuilder(String.format("%-20s %8s %6s %9s %9s %9s %9s %9s%n",
+                "path", "count", "failed", "mean ms", "p50 ms", "p90 ms", "p99 ms", "max ms"));
+        for (String name : names) {
+            LatencyHistogram histogram = histogram(name);
+            report.append(String.format("%-20s %8d %6d %9.3f %9.3f %9.3f %9.3f %9.3f%n", name,
+                    histogram.getCount(), failures(name), histogram.getMeanNanos() / 1e6,
+                    histogram.getPercentileNanos(50) / 1e6, histogram.getPercentileNanos(90) / 1e6,
+                    histogram.getPercentileNanos(99) / 1e6, histogram.getMaxNanos() / 1e6));
+        }
+        return report.toString();
+    }
+
+    /**
+     * Make the metrics readable over JMX, and start the periodic dump if the <code>duke.metrics.dump</code>
+     * system property asks for one. Left until metrics are first turned on, as JMX is slow to start.
+     * Calls after the first do nothing.
+     */
+    private static synchronized void install() {
+        if (isInstalled) {
+            return;
+        }
+        isInstalled = true;
+        try {
+            ObjectName name = new ObjectName(MBEAN_NAME);
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new StandardMBean(new MetricsBean(), MetricsMBean.class), name);
+            }
+        } catch (JMException e) {
+            System.err.println("Warning: Could not register metrics with JMX: " + e.getMessage());
+        }
+        String dump = System.getProperty(DUMP_PROPERTY);
+        if (dump != null) {
+            long seconds;
+            try {
+                seconds = Long.parseLong(dump);
+            } catch (NumberFormatException e) {
+                System.err.println("Warning: " + DUMP_PROPERTY + " should be a number of seconds, not " + dump);
+                return;
+            }
+            ScheduledExecutorService dumper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "duke-metrics-dump");
+                thread.setDaemon(true);
+                return thread;
+            });
+            dumper.scheduleAtFixedRate(() -> {
+                if (isEnabled) {
+                    System.err.print(report());
+                }
+            }, seconds, seconds, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * The MBean registered by <code>install</code>
+     */
+    private static final class MetricsBean implements MetricsMBean {
+        @Override
+        public boolean isEnabled() {
+            return Metrics.isEnabled();
+        }
+
+        @Override
+        public void setEnabled(boolean enabled) {
+            Metrics.setEnabled(enabled);
+        }
+
+        @Override
+        public String[] getPaths() {
+            return names().toArray(new String[0]);
+        }
+
+        @Override
+        public long getCount(String path) {
+            return HISTOGRAMS.containsKey(path) ? histogram(path).getCount() : 0;
+        }
+
+        @Override
+        public long getFailures(String path) {
+            return failures(path);
+        }
+
+        @Override
+        public double getPercentileMillis(String path, double percentile) {
+            return HISTOGRAMS.containsKey(path) ? histogram(path).getPercentileNanos(percentile) / 1e6 : 0;
+        }
+
+        @Override
+        public String getReport() {
+            return report();
+        }
+
+        @Override
+        public void reset() {
+            Metrics.reset();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package metrics;
+
+/**
+ * Metrics as JMX sees them, e.g. in JConsole under duke:type=Metrics
+ */
+public interface MetricsMBean {
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    /**
+     * Get the names of the paths recorded so far, e.g. "execute.todo"
+     */
+    String[] getPaths();
+
+    long getCount(String path);
+
+    long getFailures(String path);
+
+    /**
+     * Get the latency in milliseconds that a share of the recorded ones of a path are at or below
+     * @param percentile from 0 to 100
+     */
+    double getPercentileMillis(String path, double percentile);
+
+    /**
+     * Get the table that "stats" prints
+     */
+    String getReport();
+
+    /**
+     * Forget everything recorded so far
+     */
+    void reset();
+}
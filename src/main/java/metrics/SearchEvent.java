@@ -0,0 +1,60 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for one search of the task list, lasting from the scan to the sorted result
+ */
+@Name("duke.Search")
+@Label("Search")
+@Category("Duke")
+@Description("A search of the task list")
+@StackTrace(false)
+public final class SearchEvent extends Event {
+    @Label("Criteria")
+    @Description("Summary of the keyword, filters, tags and dates searched for")
+    String criteria;
+
+    @Label("Hits")
+    int hits;
+
+    @Label("Tasks")
+    @Description("Tasks in the list searched")
+    int tasks;
+
+    @Label("Store")
+    @Description("Task store whose columns were scanned, e.g. ColumnarTaskStore")
+    String store;
+
+    /**
+     * Start timing a search
+     * @return the event, or null if events are off or no recording wants it
+     */
+    public static SearchEvent start() {
+        if (!FlightEvents.IS_ENABLED) {
+            return null;
+        }
+        SearchEvent event = new SearchEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Stop timing the search and hand the event to the recording
+     */
+    public void end(String criteria, int hits, int tasks, String store) {
+        this.criteria = criteria;
+        this.hits = hits;
+        this.tasks = tasks;
+        this.store = store;
+        commit();
+    }
+}
@@ -0,0 +1,77 @@
+package metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Times the phases of startup up to the first prompt, e.g. loading tasks.txt and building the date index,
+ * and prints them to standard error when the <code>duke.startup.report</code> system property is true.
+ * Off, marking a phase is a read of a static final flag.
+ */
+public final class StartupReport {
+    /**
+     * System property that turns the report on
+     */
+    public static final String PROPERTY = "duke.startup.report";
+
+    private static final boolean IS_ENABLED = Boolean.getBoolean(PROPERTY);
+    private static final List<String> PHASES = new ArrayList<>();
+    private static final List<Long> PHASE_NANOS = new ArrayList<>();
+    private static long mainStartMillis;
+    private static long mainStartNanos;
+    private static long lastMark;
+    private static boolean isStarted;
+    private static boolean isPrinted;
+
+    private StartupReport() {
+    }
+
+    /**
+     * Mark the start of main, which the first phase is timed from; phases marked before this are ignored
+     */
+    public static synchronized void start() {
+        if (!IS_ENABLED || isStarted) {
+            return;
+        }
+        isStarted = true;
+        mainStartMillis = System.currentTimeMillis();
+        mainStartNanos = System.nanoTime();
+        lastMark = mainStartNanos;
+    }
+
+    /**
+     * End a phase of startup, timed from the end of the previous phase or from main
+     * @param phase what was done in the phase, e.g. "load tasks"
+     */
+    public static synchronized void phase(String phase) {
+        if (!isStarted || isPrinted) {
+            return;
+        }
+        long now = System.nanoTime();
+        PHASES.add(phase);
+        PHASE_NANOS.add(now - lastMark);
+        lastMark = now;
+    }
+
+    /**
+     * End the last phase and print the report, once, when the first prompt is about to show
+     */
+    public static synchronized void firstPrompt() {
+        if (!isStarted || isPrinted) {
+            return;
+        }
+        phase("until first prompt");
+        isPrinted = true;
+        long toFirstPrompt = (System.nanoTime() - mainStartNanos) / 1_000_000;
+        // Read after timing, as the management classes take a while to load
+        long jvmStartup = mainStartMillis - ManagementFactory.getRuntimeMXBean().getStartTime();
+        StringBuilder report = new StringBuilder("Startup:").append(System.lineSeparator());
+        report.append(String.format("  %-24s %6d ms%n", "jvm until main", jvmStartup));
+        for (int i = 0; i < PHASES.size(); i++) {
+            report.append(String.format("  %-24s %6d ms%n", PHASES.get(i), PHASE_NANOS.get(i) / 1_000_000));
+        }
+        report.append(String.format("  %-24s %6d ms%n", "total", jvmStartup + toFirstPrompt));
+        System.err.print(report);
+    }
+}
@@ -0,0 +1,68 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event for one rewrite of the task file, lasting from the first line to the close
+ */
+@Name("duke.StorageFlush")
+@Label("Storage Flush")
+@Category("Duke")
+@Description("The task file rewritten with the whole list")
+@StackTrace(false)
+public final class StorageFlushEvent extends Event {
+    @Label("Path")
+    String path;
+
+    @Label("Tasks")
+    int tasks;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    @Label("Flush Time")
+    @Description("Time to hand the buffered lines to the operating system; the file is not fsynced")
+    @Timespan
+    long flushTime;
+
+    /**
+     * Start timing a rewrite
+     * @return the event, or null if events are off or no recording wants it
+     */
+    public static StorageFlushEvent start() {
+        if (!FlightEvents.IS_ENABLED) {
+            return null;
+        }
+        StorageFlushEvent event = new StorageFlushEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Note how long the final flush of the written lines took
+     */
+    public void flushed(long nanos) {
+        this.flushTime = nanos;
+    }
+
+    /**
+     * Stop timing the rewrite and hand the event to the recording
+     */
+    public void end(String path, int tasks, long bytes) {
+        this.path = path;
+        this.tasks = tasks;
+        this.bytes = bytes;
+        commit();
+    }
+}
@@ -0,0 +1,73 @@
+package parser;
+
+import command.Command;
+import tasklist.TaskList;
+
+/**
+ * The <code>CommandRegistry</code> class maps command keywords to the factories that build them.
+ * Keywords are stored in a small open addressing table keyed by a case-folded hash,
+ * so the command word can be looked up straight from the user input without
+ * upper-casing it or catching exceptions for unknown commands.
+ */
+public class CommandRegistry {
+
+    /**
+     * A <code>CommandFactory</code> builds a command from the scanned user input
+     */
+    @FunctionalInterface
+    public interface CommandFactory {
+        Command create(String text, CommandTokens tokens, TaskList taskList);
+    }
+
+    private static final int TABLE_SIZE = 64;
+
+    private final String[] keywords = new String[TABLE_SIZE];
+    private final CommandFactory[] factories = new CommandFactory[TABLE_SIZE];
+    private int size;
+
+    /**
+     * Register a factory for a keyword, replacing any factory already registered for it
+     * @param keyword the command word, matched ignoring case
+     * @param factory the factory that builds the command
+     */
+    public void register(String keyword, CommandFactory factory) {
+        assert size < TABLE_SIZE / 2 : "Command registry is full";
+        int slot = hash(keyword, 0, keyword.length()) & (TABLE_SIZE - 1);
+        while (keywords[slot] != null && !keywords[slot].equalsIgnoreCase(keyword)) {
+            slot = (slot + 1) & (TABLE_SIZE - 1);
+        }
+        if (keywords[slot] == null) {
+            size++;
+        }
+        keywords[slot] = keyword.toLowerCase();
+        factories[slot] = factory;
+    }
+
+    /**
+     * Look up the factory for the command word found in <code>text[start, end)</code>
+     * @param text is the user input
+     * @param start offset of the command word
+     * @param end offset just past the command word
+     * @return the factory, or null if the command is unknown
+     */
+    public CommandFactory lookup(String text, int start, int end) {
+        int length = end - start;
+        int slot = hash(text, start, end) & (TABLE_SIZE - 1);
+        while (keywords[slot] != null) {
+            String keyword = keywords[slot];
+            if (keyword.length() == length && text.regionMatches(true, start, keyword, 0, length)) {
+                return factories[slot];
+            }
+            slot = (slot + 1) & (TABLE_SIZE - 1);
+        }
+        return null;
+    }
+
+    private static int hash(String text, int start, int end) {
+        int h = 0;
+        for (int i = start; i < end; i++) {
+            h = 31 * h + Character.toLowerCase(text.charAt(i));
+        }
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,242 @@
+package parser;
+
+/**
+ * The <code>CommandTokens</code> class holds the offsets of the interesting parts of a user command.
+ * The input is scanned exactly once and only offsets into the original text are recorded,
+ * so no intermediate Strings or arrays are created while parsing.
+ */
+public final class CommandTokens {
+    public static final char SEPARATOR_NONE = 0;
+    public static final char SEPARATOR_BY = 'b';
+    public static final char SEPARATOR_AT = 'a';
+
+    private final String text;
+    private int commandEnd;
+    private int argumentStart = -1;
+    private int separatorStart = -1;
+    private char separator = SEPARATOR_NONE;
+    private int dateStart = -1;
+    private int dateEnd = -1;
+    private int priorityStart = -1;
+    private int categoryStart = -1;
+    private boolean containsBy;
+    private boolean containsAt;
+
+    private CommandTokens(String text) {
+        this.text = text;
+    }
+
+    /**
+     * <code>scan</code> method walks the user input once and records the offsets of
+     * the command word, the arguments, the first /by or /at separator, the date that follows it
+     * and the first priority (!) and category (# or @) markers.
+     *
+     * @param text is the user input
+     * @return the offsets found in the input
+     */
+    public static CommandTokens scan(String text) {
+        CommandTokens tokens = new CommandTokens(text);
+        int length = text.length();
+        int space = text.indexOf(' ');
+        if (space < 0) {
+            tokens.commandEnd = length;
+            return tokens;
+        }
+        tokens.commandEnd = space;
+        tokens.argumentStart = space + 1;
+
+        boolean tokenStart = true;
+        for (int i = tokens.argumentStart; i < length; i++) {
+            char c = text.charAt(i);
+            if (c == ' ') {
+                if (tokens.separator == SEPARATOR_NONE && i > tokens.argumentStart) {
+                    char kind = separatorAt(text, i);
+                    if (kind != SEPARATOR_NONE) {
+                        tokens.separator = kind;
+                        tokens.separatorStart = i;
+                        tokens.containsBy |= kind == SEPARATOR_BY;
+                        tokens.containsAt |= kind == SEPARATOR_AT;
+                        tokens.dateStart = i + 5;
+                        i += 4;
+                        tokenStart = true;
+                        continue;
+                    }
+                } else if (tokens.dateStart >= 0 && tokens.dateEnd < 0 && separatorAt(text, i) != SEPARATOR_NONE) {
+                    // A second separator ends the date, as the old " /by | /at " split did
+                    tokens.dateEnd = i;
+                }
+                tokenStart = true;
+                continue;
+            }
+            if (c == '/' && i + 2 < length) {
+                if (text.startsWith("/by", i)) {
+                    tokens.containsBy = true;
+                } else if (text.startsWith("/at", i)) {
+                    tokens.containsAt = true;
+                }
+            }
+            if (tokenStart) {
+                if (c == '!' && tokens.priorityStart < 0) {
+                    tokens.priorityStart = i;
+                    tokens.endDateAt(i);
+                } else if ((c == '#' || c == '@') && tokens.categoryStart < 0) {
+                    tokens.categoryStart = i;
+                    tokens.endDateAt(i);
+                } else if (c == '!' || c == '#' || c == '@') {
+                    tokens.endDateAt(i);
+                }
+            }
+            tokenStart = false;
+        }
+        if (tokens.dateStart > length) {
+            tokens.dateStart = length;
+        }
+        if (tokens.dateStart >= 0 && tokens.dateEnd < 0) {
+            tokens.dateEnd = length;
+        }
+        if (tokens.dateStart >= 0) {
+            while (tokens.dateEnd > tokens.dateStart && text.charAt(tokens.dateEnd - 1) == ' ') {
+                tokens.dateEnd--;
+            }
+        }
+        return tokens;
+    }
+
+    private static char separatorAt(String text, int i) {
+        if (text.startsWith(" /by ", i)) {
+            return SEPARATOR_BY;
+        }
+        if (text.startsWith(" /at ", i)) {
+            return SEPARATOR_AT;
+        }
+        return SEPARATOR_NONE;
+    }
+
+    // Markers written after the date belong to the task, not to the date
+    private void endDateAt(int i) {
+        if (dateStart >= 0 && dateEnd < 0 && i >= dateStart) {
+            dateEnd = i;
+        }
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public int getCommandEnd() {
+        return commandEnd;
+    }
+
+    public int getArgumentStart() {
+        return argumentStart;
+    }
+
+    public int getSeparatorStart() {
+        return separatorStart;
+    }
+
+    public char getSeparator() {
+        return separator;
+    }
+
+    public int getDateStart() {
+        return dateStart;
+    }
+
+    public int getDateEnd() {
+        return dateEnd;
+    }
+
+    public int getPriorityStart() {
+        return priorityStart;
+    }
+
+    public int getCategoryStart() {
+        return categoryStart;
+    }
+
+    /**
+     * Check if anything was typed after the command word
+     * @return true if the arguments are not empty
+     */
+    public boolean hasArgument() {
+        return argumentStart >= 0 && argumentStart < text.length();
+    }
+
+    public boolean containsBy() {
+        return containsBy;
+    }
+
+    public boolean containsAt() {
+        return containsAt;
+    }
+
+    /**
+     * Check if a non-empty date follows the /by or /at separator
+     * @return true if a date was found
+     */
+    public boolean hasDate() {
+        return dateStart >= 0 && dateEnd > dateStart;
+    }
+
+    /**
+     * Get the command word exactly as typed
+     * @return the command word
+     */
+    public String command() {
+        return text.substring(0, commandEnd);
+    }
+
+    /**
+     * Get everything after the command word
+     * @return the arguments, or an empty string if there are none
+     */
+    public String argument() {
+        return hasArgument() ? text.substring(argumentStart) : "";
+    }
+
+    /**
+     * Get the date text that follows the /by or /at separator
+     * @return the date text, or an empty string if there is none
+     */
+    public String date() {
+        return hasDate() ? text.substring(dateStart, dateEnd) : "";
+    }
+
+    /**
+     * Read the arguments as a positive task number without creating a substring
+     * @return the number, or -1 if the arguments are not a plain number
+     */
+    public int argumentAsInt() {
+        if (!hasArgument()) {
+            return -1;
+        }
+        int end = text.length();
+        while (end > argumentStart && text.charAt(end - 1) == ' ') {
+            end--;
+        }
+        if (end == argumentStart || end - argumentStart > 9) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = argumentStart; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Convert to the legacy two element form produced by <code>Parser.commandToArray</code>
+     * @return an array of the command word and, if present, its arguments
+     */
+    public String[] toArray() {
+        if (argumentStart < 0) {
+            return new String[]{command()};
+        }
+        return new String[]{command(), text.substring(argumentStart)};
+    }
+}
@@ -1,9 +1,13 @@
 package parser;
 
 import command.*;
+import exception.DukeException;
+import metrics.Metrics;
 import tasklist.Deadline;
 import tasklist.Event;
+import tasklist.RecurringTask;
 import tasklist.TaskList;
+import tasklist.TaskTextAnalyzer;
 import tasklist.Todo;
 import ui.Ui;
 import java.time.LocalDate;
@@ -11,6 +15,8 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.time.format.FormatStyle;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * The <code>Parser</code> class contains methods to parse the user command into required actions.
@@ -50,20 +56,6 @@ public class Parser {
         return date;
     }
 
-    /**
-     *The parseDateTime method returns LocalDateTime object from user input
-     * @param command is the user input
-     * @return LocalDateTime object dateTime
-     * @throws DateTimeParseException when input is not of pattern specified
-     */
-    public static LocalDateTime parseDateTime(String[] command) throws DateTimeParseException {
-        // Extract the date/time part after /by or /at
-        String dateTimeString = command[1].split(" /by | /at ")[1];
-        
-        // Use SmartDateParser for flexible parsing
-        return SmartDateParser.parseDateTime(dateTimeString);
-    }
-
     /**
      *Since the user input and tasks.txt file are of different pattern.
      * The parseDateTime method returns LocalDateTime object from tasks.txt
@@ -100,80 +92,237 @@ public class Parser {
         return LocalDateTime.parse(dateTimeStr, formatter);
     }
 
+    private static final CommandRegistry REGISTRY = new CommandRegistry();
+
+    static {
+        REGISTRY.register("event", Parser::parseEvent);
+        REGISTRY.register("todo", Parser::parseTodo);
+        REGISTRY.register("deadline", Parser::parseDeadline);
+        REGISTRY.register("recur", Parser::parseRecur);
+        REGISTRY.register("list", (text, tokens, taskList) -> new ListCommand());
+        REGISTRY.register("done", Parser::parseDone);
+        REGISTRY.register("delete", Parser::parseDelete);
+        REGISTRY.register("view", Parser::parseView);
+        REGISTRY.register("free", Parser::parseFree);
+        REGISTRY.register("search", Parser::parseSearch);
+        REGISTRY.register("help", (text, tokens, taskList) ->
+                new EnhancedHelpCommand(tokens.argument().trim(), taskList));
+        REGISTRY.register("reset", (text, tokens, taskList) ->
+                new ResetCommand(tokens.argument().trim().equalsIgnoreCase("confirm")));
+        REGISTRY.register("bye", (text, tokens, taskList) -> new ByeCommand());
+        REGISTRY.register("edit", Parser::parseEdit);
+        REGISTRY.register("undo", (text, tokens, taskList) -> new UndoCommand());
+        REGISTRY.register("redo", (text, tokens, taskList) -> new RedoCommand());
+        REGISTRY.register("begin", (text, tokens, taskList) -> new BeginCommand());
+        REGISTRY.register("commit", (text, tokens, taskList) -> new CommitCommand());
+        REGISTRY.register("rollback", (text, tokens, taskList) -> new RollbackCommand());
+        REGISTRY.register("stats", Parser::parseStats);
+        for (CommandCollections command : CommandCollections.values()) {
+            assert REGISTRY.lookup(command.name(), 0, command.name().length()) != null
+                    : "No factory registered for " + command;
+        }
+    }
+
+    /**
+     * Get the registry used by <code>parse</code>, so that new commands can be plugged in
+     * @return the command registry
+     */
+    public static CommandRegistry getRegistry() {
+        return REGISTRY;
+    }
+
+    /**
+     *The parseDateTime method returns LocalDateTime object from the scanned user input
+     * @param tokens is the scanned user input
+     * @return LocalDateTime object dateTime
+     * @throws DateTimeParseException when there is no date or it is not of a supported pattern
+     */
+    public static LocalDateTime parseDateTime(CommandTokens tokens) throws DateTimeParseException {
+        if (!tokens.hasDate()) {
+            throw new DateTimeParseException("Date/time token not found", tokens.getText(), 0);
+        }
+        return SmartDateParser.parseDateTime(tokens.date());
+    }
+
     /**
      * <code>parse</code> method parses user input to corresponding functions of the program
      * @param text is the user input
      * @param taskList is the list of tasks
      * @return a command object for corresponding functions of the program
-     * @throws IllegalArgumentException when user command is not included in the CommandCollection Enum Class
+     * @throws IllegalArgumentException when the command arguments are not valid
      */
     public static Command parse(String text, TaskList taskList) throws IllegalArgumentException{
         assert text != null : "Command cannot be null";
 
-        String[] command = commandToArray(text);
-        String instruction = command[0].toUpperCase();
-        LocalDateTime dateTime;
+        long start = Metrics.start();
+        CommandTokens tokens = CommandTokens.scan(text);
+        CommandRegistry.CommandFactory factory = REGISTRY.lookup(text, 0, tokens.getCommandEnd());
+        if (factory == null) {
+            Metrics.record("parse.unknown", start);
+            return new InvalidCommand("Sorry. I can't understand ["+ tokens.command() +"] yet. Please try again or type [help].");
+        }
+        if (start == 0) {
+            return factory.create(text, tokens, taskList);
+        }
+        // Only registered words name a metric, so what users type cannot grow the set of metrics
+        String metric = "parse." + tokens.command().toLowerCase();
+        Command command;
+        try {
+            command = factory.create(text, tokens, taskList);
+        } catch (RuntimeException e) {
+            Metrics.recordFailure(metric, start);
+            throw e;
+        }
+        Metrics.record(metric, start);
+        return command;
+    }
+
+    private static final String EVENT_END = " /to ";
 
-        CommandCollections commandCollections;
+    /**
+     * Parse the date part of an event into its start and end, e.g. "tue 2pm /to 4pm"
+     * @param date the text after /at
+     * @return the start, and the end or null if the text has no /to part
+     * @throws DateTimeParseException when a date is not of a supported pattern or the end is not after the start
+     */
+    public static LocalDateTime[] parseEventTimes(String date) throws DateTimeParseException {
+        int to = date.indexOf(EVENT_END);
+        if (to < 0) {
+            return new LocalDateTime[] {SmartDateParser.parseDateTime(date), null};
+        }
+        LocalDateTime start = SmartDateParser.parseDateTime(date.substring(0, to));
+        return new LocalDateTime[] {start,
+                SmartDateParser.parseEndDateTime(date.substring(to + EVENT_END.length()), start)};
+    }
+
+    private static Command parseEvent(String text, CommandTokens tokens, TaskList taskList) {
+        Ui.validateEventCommand(tokens);
+        if (!tokens.hasDate()) {
+            return new InvalidCommand(Ui.validateDateTime());
+        }
         try {
-            commandCollections = CommandCollections.valueOf(instruction);
-        } catch (IllegalArgumentException e) {
-            return new InvalidCommand("Sorry. I can't understand ["+ command[0] +"] yet. Please try again or type [help].");
+            LocalDateTime[] times = parseEventTimes(tokens.date());
+            return new AddCommand(new Event(text, times[0], times[1]));
+        } catch (DateTimeParseException e) {
+            return new InvalidCommand(tokens.date().contains(EVENT_END) ? e.getMessage() : Ui.validateDateTime());
         }
+    }
 
+    private static Command parseTodo(String text, CommandTokens tokens, TaskList taskList) {
+        Ui.validateTodoCommand(tokens);
+        return new AddCommand(new Todo(text));
+    }
 
-        switch (commandCollections) {
-        case EVENT:
-            try{
-                Ui.validateEventCommand(command);
-                dateTime = parseDateTime(command);
-                return new AddCommand(new Event(text,dateTime));
-            }catch (DateTimeParseException e) {
-                return new InvalidCommand(Ui.validateDateTime());
+    private static Command parseDeadline(String text, CommandTokens tokens, TaskList taskList) {
+        try {
+            Ui.validateDeadlineCommand(tokens);
+            return new AddCommand(new Deadline(text, parseDateTime(tokens)));
+        } catch (DateTimeParseException e) {
+            return new InvalidCommand(Ui.validateDateTime());
+        }
+    }
+
+    private static final Pattern RECUR_RULE = Pattern.compile("\\s/(every|on)\\s");
+
+    private static Command parseRecur(String text, CommandTokens tokens, TaskList taskList) {
+        Ui.validateRecurCommand(tokens);
+        int start = tokens.getArgumentStart();
+        Matcher matcher = RECUR_RULE.matcher(text);
+        if (!matcher.find(start)) {
+            throw new DukeException("OOPS! The rule of a recurring task cannot be empty. "
+                    + "Try: recur water plants /every monday 9am");
+        }
+        // "/every monday" keeps its "every", "/on last friday of month" needs none
+        String rule = (matcher.group(1).equals("every") ? "every " : "") + text.substring(matcher.end());
+        try {
+            return new AddCommand(new RecurringTask(
+                    TaskTextAnalyzer.analyze(text, start, matcher.start(), text.length()),
+                    SmartDateParser.parseRecurrence(rule)));
+        } catch (DateTimeParseException e) {
+            return new InvalidCommand(e.getMessage());
+        }
+    }
+
+    private static Command parseDone(String text, CommandTokens tokens, TaskList taskList) {
+        if (TaskSelection.isBulk(tokens.argument())) {
+            return new BulkCommand(BulkCommand.Action.DONE, TaskSelection.parse(tokens.argument()), null);
+        }
+        Ui.validateDoneCommand(tokens, taskList);
+        return new DoneCommand(tokens.argumentAsInt());
+    }
+
+    private static Command parseDelete(String text, CommandTokens tokens, TaskList taskList) {
+        if (TaskSelection.isBulk(tokens.argument())) {
+            return new BulkCommand(BulkCommand.Action.DELETE, TaskSelection.parse(tokens.argument()), null);
+        }
+        Ui.validateDoneCommand(tokens, taskList);
+        return new DeleteCommand(tokens.argumentAsInt());
+    }
+
+    private static final Pattern BULK_EDIT = Pattern.compile("(?i)(.*\\S)\\s+((?:add|remove|priority)(?:\\s.*)?)");
+
+    private static Command parseEdit(String text, CommandTokens tokens, TaskList taskList) {
+        String argument = tokens.argument().trim();
+        Matcher bulkEdit = BULK_EDIT.matcher(argument);
+        if (bulkEdit.matches() && (TaskSelection.isBulk(bulkEdit.group(1)) || bulkEdit.group(1).matches("\\d+"))) {
+            return new BulkCommand(BulkCommand.Action.EDIT, TaskSelection.parse(bulkEdit.group(1)), bulkEdit.group(2));
+        }
+        if (TaskSelection.isBulk(argument)) {
+            return new BulkCommand(BulkCommand.Action.EDIT, TaskSelection.parse(argument), null);
+        }
+        return new EditCommand(commandToArrayAdvanced(text, 4));
+    }
+
+    private static Command parseView(String text, CommandTokens tokens, TaskList taskList) {
+        Ui.validateViewCommand(tokens);
+        String argument = tokens.argument().trim();
+        try {
+            LocalDate[] range = SmartDateParser.parseDateRange(argument);
+            if (range != null) {
+                return new ViewCommand(range[0], range[1]);
             }
-        case TODO:
-            Ui.validateTodoCommand(command);
-            return new AddCommand(new Todo(text));
-        case DEADLINE:
-            try{
-                Ui.validateDeadlineCommand(command);
-                dateTime = parseDateTime(command);
-                return new AddCommand(new Deadline(text,dateTime));
-            }catch (DateTimeParseException e) {
-                return new InvalidCommand(Ui.validateDateTime());
+            try {
+                return new ViewCommand(parseDate(tokens.toArray()));
+            } catch (DateTimeParseException e) {
+                return new ViewCommand(SmartDateParser.parseDateTime(argument).toLocalDate());
             }
-        case LIST:
-            return new ListCommand();
-        case DONE:
-            Ui.validateDoneCommand(command, taskList);
-            return new DoneCommand(command);
-        case DELETE:
-            Ui.validateDoneCommand(command, taskList);
-            return new DeleteCommand(command);
-        case VIEW:
-            try{
-                Ui.validateViewCommand(command);
-                LocalDate date = parseDate(command);
-                return new ViewCommand(date);
-            }catch (DateTimeParseException e) {
-                return new InvalidCommand("Please enter datetime in the format of 'd/M/yyyy'");
+        } catch (DateTimeParseException e) {
+            return new InvalidCommand("Try: view 20/10/2026, view tomorrow, view week, view month, "
+                    + "or view 2026-10-01..2026-10-31");
+        }
+    }
+
+    private static Command parseFree(String text, CommandTokens tokens, TaskList taskList) {
+        String argument = tokens.argument().trim();
+        if (argument.isEmpty()) {
+            return new FreeCommand(LocalDate.now(), LocalDate.now().plusDays(6));
+        }
+        try {
+            LocalDate[] range = SmartDateParser.parseDateRange(argument);
+            if (range != null) {
+                return new FreeCommand(range[0], range[1]);
             }
-        case SEARCH:
-            Ui.validateSearchCommand(command);
-            String keyword = command[1];
-            return new SearchCommand(keyword);
-        case HELP:
-            String helpTopic = command.length > 1 ? command[1].trim() : "";
-            return new command.EnhancedHelpCommand(helpTopic, taskList);
-        case RESET:
-            return new ResetCommand();
-        case BYE:
-            return new ByeCommand();
-        case EDIT:
-            String[] editCommand = commandToArrayAdvanced(text, 4);
-            return new EditCommand(editCommand);
-        default:
-            return new InvalidCommand("");
+            LocalDate date = SmartDateParser.parseDateTime(argument).toLocalDate();
+            return new FreeCommand(date, date);
+        } catch (DateTimeParseException e) {
+            return new InvalidCommand("Try: free, free tomorrow, free next week, or free 2026-10-20..2026-10-23");
         }
     }
+
+    private static Command parseStats(String text, CommandTokens tokens, TaskList taskList) {
+        String argument = tokens.argument().trim();
+        if (argument.isEmpty()) {
+            return new StatsCommand(StatsCommand.Action.SHOW);
+        }
+        try {
+            return new StatsCommand(StatsCommand.Action.valueOf(argument.toUpperCase()));
+        } catch (IllegalArgumentException e) {
+            return new InvalidCommand("Try: stats, stats on, stats off, or stats reset");
+        }
+    }
+
+    private static Command parseSearch(String text, CommandTokens tokens, TaskList taskList) {
+        Ui.validateSearchCommand(tokens);
+        return new SearchCommand(tokens.argument());
+    }
 }
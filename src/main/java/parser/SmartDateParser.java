@@ -1,5 +1,10 @@
 package parser;
 
+import metrics.DateParseFailureEvent;
+import metrics.FlightEvents;
+import tasklist.Recurrence;
+
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
@@ -66,6 +71,9 @@ public class SmartDateParser {
      */
     public static LocalDateTime parseDateTime(String input) throws DateTimeParseException {
         if (input == null || input.trim().isEmpty()) {
+            if (FlightEvents.isEnabled()) {
+                DateParseFailureEvent.report(input, "empty");
+            }
             throw new DateTimeParseException("Date/time input cannot be empty", input, 0);
         }
         
@@ -97,6 +105,9 @@ public class SmartDateParser {
         }
         
         // If all parsing attempts fail, throw detailed exception
+        if (FlightEvents.isEnabled()) {
+            DateParseFailureEvent.report(input, "no matching form");
+        }
         throw new DateTimeParseException(generateHelpfulErrorMessage(), input, 0);
     }
     
@@ -239,6 +250,279 @@ public class SmartDateParser {
         return null;
     }
     
+    private static final Map<String, Integer> ORDINALS = new HashMap<>();
+    static {
+        ORDINALS.put("first", 1);
+        ORDINALS.put("second", 2);
+        ORDINALS.put("third", 3);
+        ORDINALS.put("fourth", 4);
+        ORDINALS.put("1st", 1);
+        ORDINALS.put("2nd", 2);
+        ORDINALS.put("3rd", 3);
+        ORDINALS.put("4th", 4);
+        ORDINALS.put("last", -1);
+    }
+
+    private static final Map<String, Recurrence.Frequency> UNITS = new HashMap<>();
+    static {
+        UNITS.put("day", Recurrence.Frequency.DAILY);
+        UNITS.put("week", Recurrence.Frequency.WEEKLY);
+        UNITS.put("month", Recurrence.Frequency.MONTHLY);
+        UNITS.put("year", Recurrence.Frequency.YEARLY);
+        UNITS.put("daily", Recurrence.Frequency.DAILY);
+        UNITS.put("weekly", Recurrence.Frequency.WEEKLY);
+        UNITS.put("monthly", Recurrence.Frequency.MONTHLY);
+        UNITS.put("yearly", Recurrence.Frequency.YEARLY);
+    }
+
+    /**
+     * Parse a range of whole days: "week" or "month" for the current calendar week (Monday to Sunday)
+     * or month, "next week" or "next month", or two dates joined by "..",
+     * such as "2025-07-01..2025-07-31" or "today..friday"
+     * @param input the range text
+     * @return the first and the last day, inclusive, or null if the text is not a range
+     * @throws DateTimeParseException if a bound is not a date or the range ends before it starts
+     */
+    public static LocalDate[] parseDateRange(String input) throws DateTimeParseException {
+        String range = input.trim().toLowerCase().replaceFirst("^this ", "");
+        LocalDate today = LocalDate.now();
+        switch (range) {
+        case "week":
+        case "next week":
+            LocalDate monday = today.with(DayOfWeek.MONDAY).plusWeeks(range.equals("week") ? 0 : 1);
+            return new LocalDate[] {monday, monday.plusDays(6)};
+        case "month":
+        case "next month":
+            LocalDate first = today.withDayOfMonth(1).plusMonths(range.equals("month") ? 0 : 1);
+            return new LocalDate[] {first, first.plusMonths(1).minusDays(1)};
+        default:
+            break;
+        }
+        int separator = input.indexOf("..");
+        if (separator < 0) {
+            return null;
+        }
+        LocalDate from = parseDateTime(input.substring(0, separator)).toLocalDate();
+        LocalDate to = parseDateTime(input.substring(separator + 2)).toLocalDate();
+        if (to.isBefore(from)) {
+            throw new DateTimeParseException("The range ends before it starts.", input, separator);
+        }
+        return new LocalDate[] {from, to};
+    }
+
+    /**
+     * Parse when an event ends: a time such as "4pm" or "16:00" on the day it starts,
+     * or a full date time such as "friday 5pm"
+     * @param input the text after "/to"
+     * @param start when the event starts
+     * @return the end
+     * @throws DateTimeParseException if the text is not a time or date time, or is not after the start
+     */
+    public static LocalDateTime parseEndDateTime(String input, LocalDateTime start) throws DateTimeParseException {
+        if (input == null || input.trim().isEmpty()) {
+            throw new DateTimeParseException("End time cannot be empty", input, 0);
+        }
+        String word = input.trim().toLowerCase();
+        LocalTime time = word.contains(" ") ? null : parseClockTime(word);
+        LocalDateTime end = time != null ? start.toLocalDate().atTime(time) : parseDateTime(input);
+        if (!end.isAfter(start)) {
+            throw new DateTimeParseException("An event must end after it starts.", input, 0);
+        }
+        return end;
+    }
+
+    /**
+     * Parse a recurrence rule such as "every monday 9am", "every 2 weeks", "every mon, wed at 18:30",
+     * "every weekday", "last friday of month" or "every month from 31/1/2027 until 31/12/2027".
+     * The first occurrence is on or after the "from" date, today by default, at 9 AM unless a time is given.
+     * #tags, @contexts and !priorities in the text are skipped.
+     * @param input the rule text, with or without a leading "every"
+     * @return the rule
+     * @throws DateTimeParseException if the text is not a rule
+     */
+    public static Recurrence parseRecurrence(String input) throws DateTimeParseException {
+        if (input == null || input.trim().isEmpty()) {
+            throw new DateTimeParseException("Recurrence rule cannot be empty", String.valueOf(input), 0);
+        }
+        List<String> words = new ArrayList<>();
+        for (String word : input.trim().toLowerCase().split("[\\s,]+")) {
+            if (!word.isEmpty() && !word.equals("and") && "#@!".indexOf(word.charAt(0)) < 0) {
+                words.add(word);
+            }
+        }
+        int[] position = {0};
+        skip(words, position, "on");
+        Recurrence.Frequency frequency = null;
+        int interval = 1;
+        int ordinal = 0;
+        List<DayOfWeek> days = new ArrayList<>();
+        String word = next(words, position, input);
+        if (ORDINALS.containsKey(word)) {
+            // "last friday of (the / every) (2) month(s)"
+            ordinal = ORDINALS.get(word);
+            days.add(dayOf(next(words, position, input), input));
+            expect(words, position, "of", input);
+            if (!skip(words, position, "the") && !skip(words, position, "each")) {
+                skip(words, position, "every");
+            }
+            interval = number(words, position, 1);
+            if (!singular(next(words, position, input)).equals("month")) {
+                throw invalidRule(input);
+            }
+            frequency = Recurrence.Frequency.MONTHLY;
+        } else if (UNITS.containsKey(word)) {
+            frequency = UNITS.get(word);
+        } else if (word.equals("every") || word.equals("each")) {
+            interval = skip(words, position, "other") ? 2 : number(words, position, 1);
+            word = next(words, position, input);
+            if (UNITS.containsKey(singular(word))) {
+                frequency = UNITS.get(singular(word));
+                if (frequency == Recurrence.Frequency.WEEKLY && skip(words, position, "on")) {
+                    addDays(words, position, days, input);
+                }
+            } else if (word.equals("weekday") || word.equals("weekdays")) {
+                frequency = Recurrence.Frequency.WEEKLY;
+                days.addAll(Arrays.asList(DayOfWeek.MONDAY, DayOfWeek.TUESDAY, DayOfWeek.WEDNESDAY,
+                        DayOfWeek.THURSDAY, DayOfWeek.FRIDAY));
+            } else if (word.equals("weekend") || word.equals("weekends")) {
+                frequency = Recurrence.Frequency.WEEKLY;
+                days.addAll(Arrays.asList(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY));
+            } else {
+                frequency = Recurrence.Frequency.WEEKLY;
+                position[0]--;
+                addDays(words, position, days, input);
+            }
+        } else {
+            throw invalidRule(input);
+        }
+
+        LocalDate from = LocalDate.now();
+        LocalDate until = null;
+        LocalTime time = null;
+        while (position[0] < words.size()) {
+            word = words.get(position[0]++);
+            if (word.equals("from") || word.equals("starting") || word.equals("until")) {
+                LocalDateTime dateTime = parseDateTime(clause(words, position, input));
+                if (word.equals("until")) {
+                    until = dateTime.toLocalDate();
+                } else {
+                    from = dateTime.toLocalDate();
+                }
+            } else if (!word.equals("at")) {
+                LocalTime parsed = parseClockTime(word);
+                if (parsed == null) {
+                    throw invalidRule(input);
+                }
+                time = parsed;
+            }
+        }
+        LocalDateTime start = from.atTime(time != null ? time : LocalTime.of(9, 0));
+        try {
+            Recurrence recurrence;
+            if (ordinal != 0) {
+                recurrence = Recurrence.monthly(interval, ordinal, days.get(0), start);
+            } else if (!days.isEmpty()) {
+                recurrence = Recurrence.weekly(interval, days, start);
+            } else {
+                recurrence = Recurrence.every(frequency, interval, start);
+            }
+            return until == null ? recurrence : recurrence.until(until);
+        } catch (IllegalArgumentException e) {
+            throw new DateTimeParseException(e.getMessage(), input, 0);
+        }
+    }
+
+    private static String next(List<String> words, int[] position, String input) {
+        if (position[0] >= words.size()) {
+            throw invalidRule(input);
+        }
+        return words.get(position[0]++);
+    }
+
+    private static boolean skip(List<String> words, int[] position, String word) {
+        if (position[0] < words.size() && words.get(position[0]).equals(word)) {
+            position[0]++;
+            return true;
+        }
+        return false;
+    }
+
+    private static void expect(List<String> words, int[] position, String word, String input) {
+        if (!skip(words, position, word)) {
+            throw invalidRule(input);
+        }
+    }
+
+    private static int number(List<String> words, int[] position, int defaultValue) {
+        if (position[0] < words.size() && words.get(position[0]).matches("\\d{1,3}")) {
+            return Integer.parseInt(words.get(position[0]++));
+        }
+        return defaultValue;
+    }
+
+    private static String singular(String word) {
+        return word.endsWith("s") ? word.substring(0, word.length() - 1) : word;
+    }
+
+    private static void addDays(List<String> words, int[] position, List<DayOfWeek> days, String input) {
+        days.add(dayOf(next(words, position, input), input));
+        while (position[0] < words.size() && DAY_OFFSETS.containsKey(singular(words.get(position[0])))) {
+            days.add(dayOf(words.get(position[0]++), input));
+        }
+    }
+
+    private static DayOfWeek dayOf(String word, String input) {
+        Integer day = DAY_OFFSETS.get(singular(word));
+        if (day == null) {
+            day = DAY_OFFSETS.get(word);
+        }
+        if (day == null) {
+            throw invalidRule(input);
+        }
+        return DayOfWeek.of(day);
+    }
+
+    /**
+     * Join the words of a from or until clause, up to the next keyword
+     */
+    private static String clause(List<String> words, int[] position, String input) {
+        StringBuilder clause = new StringBuilder();
+        while (position[0] < words.size()) {
+            String word = words.get(position[0]);
+            if (word.equals("at") || word.equals("from") || word.equals("starting") || word.equals("until")) {
+                break;
+            }
+            clause.append(clause.length() == 0 ? "" : " ").append(word);
+            position[0]++;
+        }
+        if (clause.length() == 0) {
+            throw invalidRule(input);
+        }
+        return clause.toString();
+    }
+
+    /**
+     * Parse a time of day, reading "5pm" as 17:00
+     */
+    private static LocalTime parseClockTime(String word) {
+        if (word.matches("\\d{1,2}(:\\d{2})?(am|pm)")) {
+            String[] parts = word.substring(0, word.length() - 2).split(":");
+            int hour = Integer.parseInt(parts[0]) % 12 + (word.endsWith("pm") ? 12 : 0);
+            return hour < 24 ? LocalTime.of(hour, parts.length > 1 ? Integer.parseInt(parts[1]) : 0) : null;
+        }
+        return tryParseTime(word);
+    }
+
+    private static DateTimeParseException invalidRule(String input) {
+        return new DateTimeParseException("Invalid recurrence rule. Try these examples:\n"
+                + "  • every monday 9am\n"
+                + "  • every 2 weeks\n"
+                + "  • every mon, wed at 18:30\n"
+                + "  • every weekday 8am\n"
+                + "  • last friday of month\n"
+                + "  • every month from 31/1/2027 until 31/12/2027", input, 0);
+    }
+
     /**
      * Generate a helpful error message with examples
      */
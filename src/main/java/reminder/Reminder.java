@@ -0,0 +1,58 @@
+package reminder;
+
+import tasklist.Task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * An alert that a task is coming due
+ */
+public final class Reminder {
+    private final Task task;
+    private final LocalDateTime dueTime;
+    private final Duration lead;
+
+    /**
+     * @param task the task, as published when the reminder was scheduled
+     * @param dueTime when the task is due; for a recurring task, the occurrence the reminder is for
+     * @param lead how long before the due time the reminder fires
+     */
+    public Reminder(Task task, LocalDateTime dueTime, Duration lead) {
+        this.task = task;
+        this.dueTime = dueTime;
+        this.lead = lead;
+    }
+
+    public Task getTask() {
+        return task;
+    }
+
+    public LocalDateTime getDueTime() {
+        return dueTime;
+    }
+
+    public Duration getLead() {
+        return lead;
+    }
+
+    /**
+     * Describe when the task is due, relative to the reminder
+     * @return e.g. "due in 15 minutes" or "due now"
+     */
+    public String describeLead() {
+        long minutes = lead.toMinutes();
+        if (minutes <= 0) {
+            return "due now";
+        } else if (minutes % (24 * 60) == 0) {
+            return "due in " + plural(minutes / (24 * 60), "day");
+        } else if (minutes % 60 == 0) {
+            return "due in " + plural(minutes / 60, "hour");
+        }
+        return "due in " + plural(minutes, "minute");
+    }
+
+    private static String plural(long count, String unit) {
+        return count + " " + unit + (count == 1 ? "" : "s");
+    }
+}
@@ -0,0 +1,14 @@
+package reminder;
+
+/**
+ * Receives reminders as they fire
+ */
+@FunctionalInterface
+public interface ReminderListener {
+
+    /**
+     * Called on the scheduler's thread, so implementations should not block
+     * @param reminder the reminder that fired
+     */
+    void onReminder(Reminder reminder);
+}
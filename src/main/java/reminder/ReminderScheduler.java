@@ -0,0 +1,254 @@
+package reminder;
+
+import tasklist.RecurringTask;
+import tasklist.Task;
+import tasklist.TaskEvent;
+import tasklist.TaskEventListener;
+import tasklist.TaskList;
+import tasklist.TaskSnapshot;
+import tasklist.TaskStore;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fires reminders ahead of the due times of deadlines, events and recurring tasks.
+ * Every pending reminder is a timer in a TimingWheel ticking once a minute, the resolution of task dates,
+ * so keeping a million of them pending costs O(1) per change and each tick only looks at its own slot.
+ * The scheduler starts from the published list and then follows its change feed: added and edited tasks
+ * are scheduled again, done and deleted ones cancelled, and a recurring task gets its next occurrence
+ * scheduled once the reminders of the current one have fired.
+ */
+public class ReminderScheduler implements TaskEventListener, Closeable {
+    public static final String LEAD_PROPERTY = "duke.remind.lead";
+    static final String DEFAULT_LEADS = "15m,0m";
+
+    private final TaskList taskList;
+    private final List<Duration> leads;
+    private final ReminderListener listener;
+    private final TimingWheel<Reminder> wheel;
+    private final Map<Integer, List<TimingWheel.Timer<Reminder>>> timersByTask = new HashMap<>();
+    private ScheduledExecutorService ticker;
+    private volatile boolean isClosed;
+
+    /**
+     * @param taskList the list whose tasks to remind of
+     * @param leads how long before a due time to fire, e.g. 15 minutes and 0 for both ahead and on time
+     * @param listener receives the reminders
+     * @param now the current time; the wheel advances from here
+     */
+    public ReminderScheduler(TaskList taskList, List<Duration> leads, ReminderListener listener, LocalDateTime now) {
+        this.taskList = taskList;
+        List<Duration> sorted = new ArrayList<>(leads);
+        // Longest lead first, so the last reminder of an occurrence is the one closest to it
+        sorted.sort(Collections.reverseOrder());
+        this.leads = sorted;
+        this.listener = listener;
+        this.wheel = new TimingWheel<>(TaskStore.toMinute(now));
+    }
+
+    /**
+     * Create a scheduler with the lead times of -Dduke.remind.lead, e.g. "1d,15m,0m"
+     */
+    public static ReminderScheduler create(TaskList taskList, ReminderListener listener) {
+        return new ReminderScheduler(taskList, parseLeads(System.getProperty(LEAD_PROPERTY, DEFAULT_LEADS)),
+                listener, LocalDateTime.now());
+    }
+
+    /**
+     * Parse a comma separated list of lead times such as "1d,2h,15m", in weeks, days, hours or minutes
+     * @throws IllegalArgumentException if a lead time is not a number and a unit
+     */
+    public static List<Duration> parseLeads(String text) {
+        List<Duration> leads = new ArrayList<>();
+        for (String part : text.split(",")) {
+            String lead = part.trim().toLowerCase();
+            if (!lead.matches("\\d+[wdhm]")) {
+                throw new IllegalArgumentException("Invalid reminder lead time " + part + ", use e.g. 1d, 2h or 15m");
+            }
+            long amount = Long.parseLong(lead.substring(0, lead.length() - 1));
+            switch (lead.charAt(lead.length() - 1)) {
+            case 'w':
+                leads.add(Duration.ofDays(7 * amount));
+                break;
+            case 'd':
+                leads.add(Duration.ofDays(amount));
+                break;
+            case 'h':
+                leads.add(Duration.ofHours(amount));
+                break;
+            default:
+                leads.add(Duration.ofMinutes(amount));
+                break;
+            }
+        }
+        return leads;
+    }
+
+    /**
+     * Schedule the reminders of every task in the published list and follow its changes from there
+     */
+    public void load() {
+        TaskSnapshot snapshot = taskList.snapshot();
+        synchronized (this) {
+            scheduleAll(snapshot);
+        }
+        taskList.events().subscribe(this, snapshot.version());
+        if (isClosed) {
+            taskList.events().removeListener(this);
+        }
+    }
+
+    /**
+     * Start a daemon thread that loads and then advances the scheduler with the wall clock.
+     * Loading happens on that thread, so the first prompt does not wait for every task to be scheduled;
+     * changes published meanwhile are caught up on when it subscribes.
+     */
+    public void start() {
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "duke-reminders");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.execute(this::load);
+        ticker.scheduleAtFixedRate(() -> advanceTo(LocalDateTime.now()), 1, 1, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void close() {
+        isClosed = true;
+        taskList.events().removeListener(this);
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    /**
+     * Get the number of reminders waiting to fire
+     */
+    public synchronized int pendingCount() {
+        return wheel.size();
+    }
+
+    /**
+     * Fire the reminders due up to a time
+     * @param now the current time
+     */
+    public void advanceTo(LocalDateTime now) {
+        List<Reminder> fired = new ArrayList<>();
+        synchronized (this) {
+            wheel.advanceTo(TaskStore.toMinute(now), fired::add);
+            for (Reminder reminder : fired) {
+                forget(reminder, currentTime());
+            }
+        }
+        // The listener runs outside the lock, so it may look at the list or the scheduler
+        for (Reminder reminder : fired) {
+            listener.onReminder(reminder);
+        }
+    }
+
+    @Override
+    public synchronized void onEvents(long version, List<TaskEvent> events) {
+        for (TaskEvent event : events) {
+            cancel(event.getTaskId());
+            if (event.getType() != TaskEvent.Type.REMOVED) {
+                schedule(event.getTask(), currentTime());
+            }
+        }
+    }
+
+    @Override
+    public synchronized void onReset(long version) {
+        for (List<TimingWheel.Timer<Reminder>> timers : timersByTask.values()) {
+            for (TimingWheel.Timer<Reminder> timer : timers) {
+                wheel.cancel(timer);
+            }
+        }
+        timersByTask.clear();
+        scheduleAll(taskList.snapshot());
+    }
+
+    private void scheduleAll(TaskSnapshot snapshot) {
+        LocalDateTime now = currentTime();
+        for (Task task : snapshot.getTasks()) {
+            schedule(task, now);
+        }
+    }
+
+    private LocalDateTime currentTime() {
+        return TaskStore.fromMinute(wheel.getCurrentTick());
+    }
+
+    /**
+     * Schedule the reminders of the next due time of a task after a time
+     */
+    private void schedule(Task task, LocalDateTime after) {
+        if (task.isDone() || task.getDateTime() == null) {
+            return;
+        }
+        LocalDateTime due = task instanceof RecurringTask
+                ? ((RecurringTask) task).nextOccurrence(after.plusMinutes(1))
+                : task.getDateTime();
+        if (due == null || !due.isAfter(after)) {
+            return;
+        }
+        List<TimingWheel.Timer<Reminder>> timers = new ArrayList<>(leads.size());
+        boolean isLate = false;
+        for (Duration lead : leads) {
+            LocalDateTime fireTime = due.minus(lead);
+            if (!fireTime.isAfter(after)) {
+                // Too late for the longer leads: remind once, straight away, with the time actually left
+                if (isLate) {
+                    continue;
+                }
+                isLate = true;
+                fireTime = after.plusMinutes(1);
+            }
+            Reminder reminder = new Reminder(task, due, Duration.between(fireTime, due));
+            timers.add(wheel.schedule(reminder, TaskStore.toMinute(fireTime)));
+        }
+        if (!timers.isEmpty()) {
+            timersByTask.put(task.getId(), timers);
+        }
+    }
+
+    private void cancel(int taskId) {
+        List<TimingWheel.Timer<Reminder>> timers = timersByTask.remove(taskId);
+        if (timers != null) {
+            for (TimingWheel.Timer<Reminder> timer : timers) {
+                wheel.cancel(timer);
+            }
+        }
+    }
+
+    /**
+     * Drop a fired reminder from its task's timers; the last one of a recurring task schedules the next occurrence.
+     * Occurrences missed while the scheduler was not advanced, e.g. with the computer asleep, are skipped.
+     * @param now the time the wheel has advanced to
+     */
+    private void forget(Reminder reminder, LocalDateTime now) {
+        int taskId = reminder.getTask().getId();
+        List<TimingWheel.Timer<Reminder>> timers = timersByTask.get(taskId);
+        if (timers == null) {
+            return;
+        }
+        timers.removeIf(timer -> !timer.isPending());
+        if (timers.isEmpty()) {
+            timersByTask.remove(taskId);
+            if (reminder.getTask() instanceof RecurringTask) {
+                LocalDateTime due = reminder.getDueTime();
+                schedule(reminder.getTask(), due.isAfter(now) ? due : now);
+            }
+        }
+    }
+}
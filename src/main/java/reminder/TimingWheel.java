@@ -0,0 +1,185 @@
+package reminder;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel of timers due at whole ticks.
+ * Level 0 has one slot per tick for the next 64 ticks, level 1 one slot per 64 ticks for the next 64 * 64,
+ * and so on; a timer goes into the coarsest slot that still tells it apart from the current tick,
+ * and moves down a level when the wheel reaches that slot. Scheduling and cancelling a timer are O(1)
+ * whatever the number of pending timers, and advancing the wheel only looks at the slots it passes.
+ * The wheel is not thread safe.
+ * @param <T> the value a timer carries
+ */
+public class TimingWheel<T> {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    // 64^6 ticks: with one tick per minute, far beyond any date a task can have
+    private static final int LEVELS = 6;
+
+    private final Timer<T>[][] slots;
+    private long currentTick;
+    private int size;
+
+    /**
+     * @param currentTick the tick the wheel starts at; timers due at or before it fire on the next advance
+     */
+    public TimingWheel(long currentTick) {
+        this.slots = newSlots();
+        this.currentTick = currentTick;
+    }
+
+    // Java cannot create an array of a generic type; the raw array only ever holds timers of this wheel
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> Timer<T>[][] newSlots() {
+        return (Timer<T>[][]) new Timer[LEVELS][SLOTS];
+    }
+
+    /**
+     * A scheduled timer, which can be cancelled until it fires
+     */
+    public static final class Timer<T> {
+        private final T value;
+        private final long deadline;
+        private Timer<T> previous;
+        private Timer<T> next;
+        private int level = -1;
+        private int slot;
+
+        private Timer(T value, long deadline) {
+            this.value = value;
+            this.deadline = deadline;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        public long getDeadline() {
+            return deadline;
+        }
+
+        /**
+         * Check if the timer is still waiting to fire
+         */
+        public boolean isPending() {
+            return level >= 0;
+        }
+    }
+
+    public long getCurrentTick() {
+        return currentTick;
+    }
+
+    /**
+     * Get the number of pending timers
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Schedule a timer
+     * @param value the value to hand back when it fires
+     * @param deadline the tick it is due at; a past tick fires on the next advance
+     * @return the timer, for cancelling it
+     */
+    public Timer<T> schedule(T value, long deadline) {
+        Timer<T> timer = new Timer<>(value, Math.max(deadline, currentTick + 1));
+        insert(timer);
+        size++;
+        return timer;
+    }
+
+    /**
+     * Cancel a pending timer
+     * @return true if it was pending, false if it had already fired or been cancelled
+     */
+    public boolean cancel(Timer<T> timer) {
+        if (!timer.isPending()) {
+            return false;
+        }
+        unlink(timer);
+        size--;
+        return true;
+    }
+
+    /**
+     * Advance the wheel tick by tick, firing the timers that come due
+     * @param tick the tick to advance to; nothing happens if the wheel is already there
+     * @param expired receives the value of every timer that fires, in deadline order
+     */
+    public void advanceTo(long tick, Consumer<T> expired) {
+        while (currentTick < tick) {
+            if (size == 0) {
+                // Nothing to cascade or fire on the way, e.g. after the computer slept
+                currentTick = tick;
+                return;
+            }
+            long now = ++currentTick;
+            for (int level = LEVELS - 1; level >= 1; level--) {
+                if ((now & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    cascade(level, (int) (now >>> (SLOT_BITS * level)) & SLOT_MASK);
+                }
+            }
+            int slot = (int) now & SLOT_MASK;
+            Timer<T> timer = slots[0][slot];
+            slots[0][slot] = null;
+            while (timer != null) {
+                Timer<T> next = timer.next;
+                timer.level = -1;
+                timer.previous = null;
+                timer.next = null;
+                size--;
+                expired.accept(timer.value);
+                timer = next;
+            }
+        }
+    }
+
+    /**
+     * Move the timers of a slot down to the levels that now tell them apart
+     */
+    private void cascade(int level, int slot) {
+        Timer<T> timer = slots[level][slot];
+        slots[level][slot] = null;
+        while (timer != null) {
+            Timer<T> next = timer.next;
+            insert(timer);
+            timer = next;
+        }
+    }
+
+    private void insert(Timer<T> timer) {
+        long delta = timer.deadline - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        int slot = (int) (timer.deadline >>> (SLOT_BITS * level)) & SLOT_MASK;
+        Timer<T> head = slots[level][slot];
+        timer.level = level;
+        timer.slot = slot;
+        timer.previous = null;
+        timer.next = head;
+        if (head != null) {
+            head.previous = timer;
+        }
+        slots[level][slot] = timer;
+    }
+
+    private void unlink(Timer<T> timer) {
+        if (timer.previous != null) {
+            timer.previous.next = timer.next;
+        } else {
+            slots[timer.level][timer.slot] = timer.next;
+        }
+        if (timer.next != null) {
+            timer.next.previous = timer.previous;
+        }
+        timer.level = -1;
+        timer.previous = null;
+        timer.next = null;
+    }
+}
@@ -0,0 +1,406 @@
+package server;
+
+import exception.DukeException;
+import tasklist.TaskEvent;
+import tasklist.TaskEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Headless Duke server speaking line-delimited JSON over TCP.
+ * Each request line is an object such as <code>{"id": 1, "workspace": "team", "command": "todo read book"}</code>
+ * and gets one response line <code>{"id": 1, "ok": true, "version": 3, "output": "..."}</code>,
+ * or <code>{"id": 1, "ok": false, "version": 2, "error": "..."}</code>. The command is any console command.
+ * A request <code>{"id": 2, "workspace": "team", "subscribe": true, "since": 3}</code> instead subscribes
+ * the connection to the workspace's change feed: after the response, it receives one line per change
+ * made after version "since" (or from now on without it), such as
+ * <code>{"event": "added", "version": 4, "taskId": 17, "task": {...}}</code>, or a "reset" event
+ * if those changes are no longer known and the client has to reload the list.
+ * One selector thread does all socket IO, so idle connections only cost their channel;
+ * commands run on a small worker pool, in order per connection and one at a time per workspace.
+ */
+public class DukeServer implements Runnable, Closeable {
+    public static final int DEFAULT_PORT = 7878;
+    private static final int MAX_LINE_LENGTH = 64 * 1024;
+
+    private final Workspaces workspaces;
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final ExecutorService workers;
+    // Read buffer shared by all connections, as only the selector thread reads
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(16 * 1024);
+    // Connections with responses waiting to be written, handed from workers to the selector thread
+    private final Queue<Connection> writable = new ConcurrentLinkedQueue<>();
+    private volatile boolean isRunning = true;
+
+    /**
+     * Open the server socket
+     * @param address address to listen on, port 0 for any free port
+     * @param workspaces the workspaces to host
+     * @param workerCount number of threads running commands
+     * @throws IOException if the socket cannot be opened
+     */
+    public DukeServer(InetSocketAddress address, Workspaces workspaces, int workerCount) throws IOException {
+        this.workspaces = workspaces;
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(address);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "duke-server-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        OutputCapture.install();
+    }
+
+    /**
+     * Get the port the server listens on
+     * @return the local port
+     */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * Serve clients until the server is closed
+     */
+    @Override
+    public void run() {
+        try {
+            while (isRunning) {
+                selector.select();
+                Connection ready;
+                while ((ready = writable.poll()) != null) {
+                    if (ready.key.isValid()) {
+                        ready.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    }
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    try {
+                        if (key.isAcceptable()) {
+                            accept();
+                        } else {
+                            Connection connection = (Connection) key.attachment();
+                            if (key.isReadable()) {
+                                read(connection);
+                            }
+                            if (key.isValid() && key.isWritable()) {
+                                write(connection);
+                            }
+                        }
+                    } catch (IOException e) {
+                        closeQuietly(key);
+                    }
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            if (isRunning) {
+                System.err.println("Duke server stopped: " + e.getMessage());
+            }
+        } finally {
+            isRunning = false;
+            workers.shutdown();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        isRunning = false;
+        selector.wakeup();
+        serverChannel.close();
+        for (SelectionKey key : selector.keys()) {
+            closeQuietly(key);
+        }
+        selector.close();
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+        key.attach(new Connection(channel, key));
+    }
+
+    private void read(Connection connection) throws IOException {
+        readBuffer.clear();
+        int count = connection.channel.read(readBuffer);
+        if (count < 0) {
+            closeQuietly(connection.key);
+            return;
+        }
+        readBuffer.flip();
+        while (readBuffer.hasRemaining()) {
+            byte b = readBuffer.get();
+            if (b != '\n') {
+                if (connection.line.size() >= MAX_LINE_LENGTH) {
+                    connection.line.reset();
+                    connection.respond(errorResponse(null, "Request line is too long"), true);
+                    return;
+                }
+                connection.line.write(b);
+                continue;
+            }
+            String line = new String(connection.line.toByteArray(), StandardCharsets.UTF_8).trim();
+            connection.line.reset();
+            if (!line.isEmpty()) {
+                connection.requests.add(line);
+                connection.schedule();
+            }
+        }
+    }
+
+    private void write(Connection connection) throws IOException {
+        ByteBuffer buffer;
+        while ((buffer = connection.responses.peek()) != null) {
+            connection.channel.write(buffer);
+            if (buffer.hasRemaining()) {
+                return;
+            }
+            connection.responses.poll();
+        }
+        if (connection.isClosing) {
+            closeQuietly(connection.key);
+        } else {
+            connection.key.interestOps(SelectionKey.OP_READ);
+        }
+    }
+
+    /**
+     * Handle one request line
+     * @return the response and whether the client asked to end the session,
+     *         or null if the response has already been queued
+     */
+    private Response handle(Connection connection, String line) {
+        Object id = null;
+        try {
+            Map<String, Object> request = Json.parseObject(line);
+            id = request.get("id");
+            if (Boolean.TRUE.equals(request.get("subscribe"))) {
+                return subscribe(connection, id, workspaces.get(Json.getString(request, "workspace")),
+                        request.get("since"));
+            }
+            String command = Json.getString(request, "command");
+            if (command == null) {
+                throw new DukeException("\"command\" is missing");
+            }
+            Workspace workspace = workspaces.get(Json.getString(request, "workspace"));
+            Workspace.Result result = workspace.execute(command, connection);
+            if (!connection.channel.isOpen()) {
+                // The client left while the command ran, after its session was ended
+                workspace.endSession(connection);
+            }
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("id", id);
+            response.put("ok", result.isOk());
+            response.put("version", result.getVersion());
+            if (result.isOk()) {
+                response.put("output", result.getOutput());
+            } else {
+                response.put("error", result.getError());
+            }
+            return new Response(Json.write(response), result.isExit());
+        } catch (DukeException e) {
+            return new Response(errorResponse(id, e.getMessage()), false);
+        } catch (RuntimeException e) {
+            // A bug in one request must not leave the client waiting or stop the worker draining its connection
+            return new Response(errorResponse(id, "Request failed: " + e), false);
+        }
+    }
+
+    /**
+     * Subscribe a connection to the change feed of a workspace
+     * @param since version the client has seen, or null to only get changes from now on
+     */
+    private Response subscribe(Connection connection, Object id, Workspace workspace, Object since)
+            throws DukeException {
+        if (since != null && !(since instanceof Long)) {
+            throw new DukeException("\"since\" must be a version number");
+        }
+        TaskEventListener listener = new TaskEventListener() {
+            @Override
+            public void onEvents(long version, List<TaskEvent> events) {
+                for (TaskEvent event : events) {
+                    connection.respond(Json.write(TaskJson.toJson(event)), false);
+                }
+            }
+
+            @Override
+            public void onReset(long version) {
+                connection.respond(Json.write(TaskJson.resetEvent(version)), false);
+            }
+        };
+        long current = workspace.events().latestVersion();
+        // Queue the response before any event, so the client reads it first
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("id", id);
+        response.put("ok", true);
+        response.put("version", current);
+        connection.respond(Json.write(response), false);
+        synchronized (connection) {
+            TaskEventListener previous = connection.subscriptions.remove(workspace);
+            if (previous != null) {
+                workspace.events().removeListener(previous);
+            }
+            workspace.events().subscribe(listener, since == null ? current : (Long) since);
+            connection.subscriptions.put(workspace, listener);
+        }
+        if (!connection.channel.isOpen()) {
+            connection.unsubscribe();
+        }
+        return null;
+    }
+
+    private static String errorResponse(Object id, String message) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("id", id);
+        response.put("ok", false);
+        response.put("error", message);
+        return Json.write(response);
+    }
+
+    private void closeQuietly(SelectionKey key) {
+        key.cancel();
+        if (key.attachment() instanceof Connection) {
+            ((Connection) key.attachment()).unsubscribe();
+        }
+        try {
+            key.channel().close();
+        } catch (IOException e) {
+            // Nothing left to do with a connection that cannot even be closed
+        }
+        if (key.attachment() instanceof Connection) {
+            endSession((Connection) key.attachment());
+        }
+    }
+
+    /**
+     * Roll back any transaction a closed connection left open, on a worker as it may wait for a running command
+     */
+    private void endSession(Connection connection) {
+        try {
+            workers.execute(() -> workspaces.endSession(connection));
+        } catch (RejectedExecutionException e) {
+            // The server is stopping, so no command is left to wait for
+            workspaces.endSession(connection);
+        }
+    }
+
+    /**
+     * Response line with the session flag of the request it answers
+     */
+    private static final class Response {
+        private final String line;
+        private final boolean isExit;
+
+        Response(String line, boolean isExit) {
+            this.line = line;
+            this.isExit = isExit;
+        }
+    }
+
+    /**
+     * State of one client: its partial request line, queued requests and queued responses
+     */
+    private final class Connection {
+        private final SocketChannel channel;
+        private final SelectionKey key;
+        private final ByteArrayOutputStream line = new ByteArrayOutputStream(128);
+        private final Queue<String> requests = new ConcurrentLinkedQueue<>();
+        private final Queue<ByteBuffer> responses = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean isScheduled = new AtomicBoolean();
+        private final Map<Workspace, TaskEventListener> subscriptions = new HashMap<>();
+        private volatile boolean isClosing;
+
+        Connection(SocketChannel channel, SelectionKey key) {
+            this.channel = channel;
+            this.key = key;
+        }
+
+        /**
+         * Make sure a worker is draining this connection's requests; at most one is at a time
+         */
+        void schedule() {
+            if (isScheduled.compareAndSet(false, true)) {
+                workers.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                String request;
+                while (!isClosing && channel.isOpen() && (request = requests.poll()) != null) {
+                    Response response = handle(this, request);
+                    if (response != null) {
+                        respond(response.line, response.isExit);
+                    }
+                }
+            } finally {
+                // Otherwise an Error thrown above would leave the connection's later requests unhandled for good
+                isScheduled.set(false);
+            }
+            if (!requests.isEmpty() && !isClosing) {
+                schedule();
+            }
+        }
+
+        synchronized void unsubscribe() {
+            for (Map.Entry<Workspace, TaskEventListener> subscription : subscriptions.entrySet()) {
+                subscription.getKey().events().removeListener(subscription.getValue());
+            }
+            subscriptions.clear();
+        }
+
+        void respond(String response, boolean closeAfterwards) {
+            responses.add(ByteBuffer.wrap((response + "\n").getBytes(StandardCharsets.UTF_8)));
+            if (closeAfterwards) {
+                isClosing = true;
+            }
+            writable.add(this);
+            selector.wakeup();
+        }
+    }
+
+    /**
+     * Start a server from the command line: [port] [data directory]
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        String directory = args.length > 1 ? args[1] : "src/data/workspaces";
+        Workspaces workspaces = new Workspaces(directory);
+        DukeServer server = new DukeServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), port),
+                workspaces, Math.max(2, Runtime.getRuntime().availableProcessors()));
+        System.out.println("Duke server listening on port " + server.getPort());
+        server.run();
+        workspaces.close();
+    }
+}
@@ -0,0 +1,423 @@
+package server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import exception.DukeException;
+import tasklist.TaskEvent;
+import tasklist.TaskEventListener;
+import tasklist.TaskList;
+import tasklist.TaskSearchEngine;
+import tasklist.TaskSnapshot;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Embedded HTTP/JSON API over the command layer.
+ * Changes go through the same Command classes as the console, by way of Workspace.execute;
+ * reads are served from the workspace's published snapshot. Every response carries the snapshot
+ * version as its ETag, so clients polling with If-None-Match get an empty 304 until the list changes.
+ * <pre>
+ * GET    /api/tasks                     list tasks
+ * POST   /api/tasks                     add {"type": "todo|deadline|event", "description": "...", "date": "..."}
+ * POST   /api/tasks/{number}/done       mark a task as done
+ * DELETE /api/tasks/{number}            delete a task
+ * PATCH  /api/tasks/{number}            edit {"field": "description|date|type|...", "value": "..."}
+ * GET    /api/search?q=&amp;filter=&amp;sort=&amp;order=  search with TaskSearchEngine
+ * GET    /api/view?date=d/M/yyyy        tasks on a date
+ * GET    /api/events?since=version      server-sent stream of changes
+ * </pre>
+ * All routes take an optional <code>workspace</code> query parameter.
+ * The event stream sends every change after "since" (or the Last-Event-ID header, or from now on without either),
+ * then changes as they are published, each as an SSE event whose id is the version it leads to.
+ * A "reset" event means those changes are no longer known and the list has to be fetched again.
+ */
+public class HttpApi implements Closeable {
+    public static final int DEFAULT_PORT = 7879;
+    private static final String JSON = "application/json; charset=utf-8";
+    private static final String TASKS = "/api/tasks";
+    private static final long KEEP_ALIVE_MILLIS = 15_000;
+    private static final int STREAM_BACKLOG = 1024;
+
+    private final Workspaces workspaces;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * Create the server; it accepts requests once started
+     * @param address address to listen on, port 0 for any free port
+     * @param workspaces the workspaces to serve
+     * @param threadCount number of threads kept for handling requests
+     * @throws IOException if the socket cannot be opened
+     */
+    public HttpApi(InetSocketAddress address, Workspaces workspaces, int threadCount) throws IOException {
+        this.workspaces = workspaces;
+        this.server = HttpServer.create(address, 0);
+        // Event streams hold their thread for as long as the client listens, so the pool grows beyond its core
+        this.executor = new ThreadPoolExecutor(threadCount, Integer.MAX_VALUE, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "duke-http");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        server.setExecutor(executor);
+        server.createContext("/api/", this::handle);
+        OutputCapture.install();
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        // Interrupts the threads still streaming events
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            route(exchange);
+        } catch (DukeException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (RuntimeException e) {
+            sendError(exchange, 500, "Request failed: " + e);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void route(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        Workspace workspace = workspaces.get(query.get("workspace"));
+
+        if (path.equals(TASKS) || path.equals(TASKS + "/")) {
+            if (method.equals("GET")) {
+                TaskSnapshot snapshot = workspace.snapshot();
+                if (!isModified(exchange, workspace, snapshot)) {
+                    return;
+                }
+                Map<String, Object> body = new LinkedHashMap<>();
+                body.put("version", snapshot.version());
+                body.put("tasks", TaskJson.toJson(snapshot.getTasks()));
+                sendJson(exchange, 200, workspace, snapshot.version(), body);
+            } else if (method.equals("POST")) {
+                execute(exchange, workspace, 201, addCommand(readBody(exchange)));
+            } else {
+                sendError(exchange, 405, "Use GET or POST on " + TASKS);
+            }
+            return;
+        }
+        if (path.startsWith(TASKS + "/")) {
+            String[] parts = path.substring(TASKS.length() + 1).split("/");
+            String number = parseNumber(parts[0]);
+            if (parts.length == 2 && parts[1].equals("done") && method.equals("POST")) {
+                execute(exchange, workspace, 200, "done " + number);
+            } else if (parts.length == 1 && method.equals("DELETE")) {
+                execute(exchange, workspace, 200, "delete " + number);
+            } else if (parts.length == 1 && method.equals("PATCH")) {
+                Map<String, Object> edit = readBody(exchange);
+                execute(exchange, workspace, 200, "edit " + number + " " + required(edit, "field")
+                        + " " + optional(edit, "value"));
+            } else {
+                sendError(exchange, 405, "Unsupported request " + method + " " + path);
+            }
+            return;
+        }
+        if (!method.equals("GET")) {
+            sendError(exchange, path.equals("/api/search") || path.equals("/api/view") ? 405 : 404,
+                    "Unsupported request " + method + " " + path);
+            return;
+        }
+        if (path.equals("/api/events")) {
+            streamEvents(exchange, workspace, query);
+            return;
+        }
+        TaskSnapshot snapshot = workspace.snapshot();
+        if (path.equals("/api/search")) {
+            if (!isModified(exchange, workspace, snapshot)) {
+                return;
+            }
+            TaskSearchEngine.SearchResult result = TaskSearchEngine.search(snapshot, searchCriteria(query));
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("version", snapshot.version());
+            body.put("summary", result.getSearchSummary());
+            body.put("tasks", TaskJson.toJson(result.getTasks(), snapshot.getTasks()));
+            sendJson(exchange, 200, workspace, snapshot.version(), body);
+        } else if (path.equals("/api/view")) {
+            LocalDate date = parseDate(query.get("date"));
+            if (!isModified(exchange, workspace, snapshot)) {
+                return;
+            }
+            TaskList taskList = snapshot.toTaskList();
+            TaskList onDate = taskList.getTaskByDate(date, taskList);
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("version", snapshot.version());
+            body.put("date", date.toString());
+            body.put("tasks", TaskJson.toJson(onDate.getTasks(), snapshot.getTasks()));
+            sendJson(exchange, 200, workspace, snapshot.version(), body);
+        } else {
+            sendError(exchange, 404, "Unknown resource " + path);
+        }
+    }
+
+    /**
+     * Stream the change feed of a workspace as server-sent events until the client goes away
+     */
+    private void streamEvents(HttpExchange exchange, Workspace workspace, Map<String, String> query)
+            throws IOException {
+        String since = query.containsKey("since") ? query.get("since")
+                : exchange.getRequestHeaders().getFirst("Last-Event-ID");
+        long version;
+        try {
+            version = since == null ? workspace.events().latestVersion() : Long.parseLong(since.trim());
+        } catch (NumberFormatException e) {
+            throw new DukeException("\"since\" must be a version number");
+        }
+        // Listeners run on the publishing thread, so they only queue ready-made frames for this one
+        BlockingQueue<String> frames = new LinkedBlockingQueue<>(STREAM_BACKLOG);
+        AtomicBoolean isOverflown = new AtomicBoolean();
+        TaskEventListener listener = new TaskEventListener() {
+            @Override
+            public void onEvents(long version, List<TaskEvent> events) {
+                StringBuilder frame = new StringBuilder();
+                for (TaskEvent event : events) {
+                    frame.append("id: ").append(version).append('\n')
+                            .append("event: ").append(event.getType().name().toLowerCase(Locale.ROOT)).append('\n')
+                            .append("data: ").append(Json.write(TaskJson.toJson(event))).append("\n\n");
+                }
+                offer(frame.toString());
+            }
+
+            @Override
+            public void onReset(long version) {
+                offer(resetFrame(version));
+            }
+
+            private void offer(String frame) {
+                if (!frames.offer(frame)) {
+                    isOverflown.set(true);
+                }
+            }
+        };
+
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream; charset=utf-8");
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        exchange.sendResponseHeaders(200, 0);
+        workspace.events().subscribe(listener, version);
+        try (OutputStream out = exchange.getResponseBody()) {
+            while (true) {
+                String frame = frames.poll(KEEP_ALIVE_MILLIS, TimeUnit.MILLISECONDS);
+                if (isOverflown.get()) {
+                    // A client this far behind is better off reloading than catching up
+                    out.write(resetFrame(workspace.events().latestVersion()).getBytes(StandardCharsets.UTF_8));
+                    return;
+                }
+                out.write((frame != null ? frame : ": keep-alive\n\n").getBytes(StandardCharsets.UTF_8));
+                out.flush();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // The client went away
+        } finally {
+            workspace.events().removeListener(listener);
+        }
+    }
+
+    private static String resetFrame(long version) {
+        return "id: " + version + "\nevent: reset\ndata: " + Json.write(TaskJson.resetEvent(version)) + "\n\n";
+    }
+
+    /**
+     * Run a console command on the workspace and answer with its outcome
+     */
+    private void execute(HttpExchange exchange, Workspace workspace, int status, String command) throws IOException {
+        // Each request is a session of its own, so it is turned away while a client of the line protocol
+        // has a transaction open
+        Workspace.Result result = workspace.execute(command, exchange);
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("ok", result.isOk());
+        body.put("version", result.getVersion());
+        if (result.isOk()) {
+            body.put("output", result.getOutput());
+        } else {
+            body.put("error", result.getError());
+        }
+        sendJson(exchange, result.isOk() ? status : 400, workspace, result.getVersion(), body);
+    }
+
+    private static String addCommand(Map<String, Object> task) throws DukeException {
+        String type = required(task, "type").toLowerCase(Locale.ROOT);
+        String description = required(task, "description");
+        switch (type) {
+        case "todo":
+            return "todo " + description;
+        case "deadline":
+            return "deadline " + description + " /by " + required(task, "date");
+        case "event":
+            return "event " + description + " /at " + required(task, "date");
+        default:
+            throw new DukeException("\"type\" must be todo, deadline or event");
+        }
+    }
+
+    private static TaskSearchEngine.SearchCriteria searchCriteria(Map<String, String> query) throws DukeException {
+        TaskSearchEngine.SearchCriteria criteria = new TaskSearchEngine.SearchCriteria(query.get("q"));
+        try {
+            if (query.containsKey("filter")) {
+                criteria.filter(TaskSearchEngine.FilterBy.valueOf(query.get("filter").toUpperCase(Locale.ROOT)));
+            }
+            if (query.containsKey("sort")) {
+                criteria.sortBy(TaskSearchEngine.SortBy.valueOf(query.get("sort").toUpperCase(Locale.ROOT)));
+            }
+        } catch (IllegalArgumentException e) {
+            throw new DukeException("Unknown filter or sort order");
+        }
+        criteria.ascending(!"desc".equalsIgnoreCase(query.get("order")));
+        return criteria;
+    }
+
+    private static LocalDate parseDate(String date) throws DukeException {
+        if (date == null) {
+            throw new DukeException("\"date\" is missing");
+        }
+        try {
+            return LocalDate.parse(date, DateTimeFormatter.ofPattern("d/M/yyyy"));
+        } catch (DateTimeParseException e) {
+            throw new DukeException("Please enter datetime in the format of 'd/M/yyyy'");
+        }
+    }
+
+    private static String parseNumber(String number) throws DukeException {
+        for (int i = 0; i < number.length(); i++) {
+            if (!Character.isDigit(number.charAt(i))) {
+                throw new DukeException("The task number is not valid.");
+            }
+        }
+        return number;
+    }
+
+    private static String required(Map<String, Object> object, String name) throws DukeException {
+        String value = Json.getString(object, name);
+        if (value == null || value.trim().isEmpty()) {
+            throw new DukeException("\"" + name + "\" is missing");
+        }
+        return value.trim();
+    }
+
+    private static String optional(Map<String, Object> object, String name) throws DukeException {
+        String value = Json.getString(object, name);
+        return value == null ? "" : value.trim();
+    }
+
+    /**
+     * Answer 304 if the client already has this version
+     * @return true if the resource has to be sent
+     */
+    private static boolean isModified(HttpExchange exchange, Workspace workspace, TaskSnapshot snapshot)
+            throws IOException {
+        String tag = etag(workspace, snapshot.version());
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        if (ifNoneMatch != null && (ifNoneMatch.equals(tag) || ifNoneMatch.equals("*"))) {
+            exchange.getResponseHeaders().set("ETag", tag);
+            exchange.sendResponseHeaders(304, -1);
+            return false;
+        }
+        return true;
+    }
+
+    private static String etag(Workspace workspace, long version) {
+        return "\"" + workspace.getName() + "-" + version + "\"";
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, Workspace workspace, long version,
+                                 Map<String, Object> body) throws IOException {
+        exchange.getResponseHeaders().set("ETag", etag(workspace, version));
+        send(exchange, status, body);
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("ok", false);
+        body.put("error", message);
+        send(exchange, status, body);
+    }
+
+    private static void send(HttpExchange exchange, int status, Map<String, Object> body) throws IOException {
+        byte[] bytes = Json.write(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", JSON);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, Object> readBody(HttpExchange exchange) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        try (InputStream in = exchange.getRequestBody()) {
+            int count;
+            while ((count = in.read(buffer)) > 0) {
+                body.write(buffer, 0, count);
+            }
+        }
+        return Json.parseObject(new String(body.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) throws UnsupportedEncodingException {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            String name = equals < 0 ? pair : pair.substring(0, equals);
+            String value = equals < 0 ? "" : pair.substring(equals + 1);
+            query.put(URLDecoder.decode(name, "UTF-8"), URLDecoder.decode(value, "UTF-8"));
+        }
+        return query;
+    }
+
+    /**
+     * Start the API from the command line: [port] [data directory]
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        String directory = args.length > 1 ? args[1] : "src/data/workspaces";
+        HttpApi api = new HttpApi(new InetSocketAddress(InetAddress.getLoopbackAddress(), port),
+                new Workspaces(directory), Math.max(2, Runtime.getRuntime().availableProcessors()));
+        api.start();
+        System.out.println("Duke HTTP API listening on port " + api.getPort());
+    }
+}
@@ -0,0 +1,303 @@
+package server;
+
+import exception.DukeException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal JSON reader and writer for the server protocols.
+ * Objects are read into LinkedHashMaps, arrays into Lists, numbers into Longs or Doubles.
+ */
+public final class Json {
+
+    private final String text;
+    private int position;
+
+    private Json(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Parse a JSON object
+     * @param text JSON text
+     * @return the object's members in document order
+     * @throws DukeException if the text is not a JSON object
+     */
+    public static Map<String, Object> parseObject(String text) throws DukeException {
+        Json json = new Json(text);
+        json.skipWhitespace();
+        Map<String, Object> object = json.readObject();
+        json.skipWhitespace();
+        if (json.position != text.length()) {
+            throw json.error("Unexpected text after the JSON object");
+        }
+        return object;
+    }
+
+    /**
+     * Write a map as a JSON object. Values may be Strings, Numbers, Booleans, null, Maps or Lists.
+     * @param object the members to write
+     * @return the JSON text, on a single line
+     */
+    public static String write(Map<String, ?> object) {
+        StringBuilder out = new StringBuilder(64);
+        writeValue(out, object);
+        return out.toString();
+    }
+
+    /**
+     * Get a string member of an object
+     * @return the string, or null if the member is missing
+     * @throws DukeException if the member is not a string
+     */
+    public static String getString(Map<String, Object> object, String name) throws DukeException {
+        Object value = object.get(name);
+        if (value != null && !(value instanceof String)) {
+            throw new DukeException("\"" + name + "\" must be a string");
+        }
+        return (String) value;
+    }
+
+    private static void writeValue(StringBuilder out, Object value) {
+        if (value == null) {
+            out.append("null");
+        } else if (value instanceof String) {
+            quote(out, (String) value);
+        } else if (value instanceof Number || value instanceof Boolean) {
+            out.append(value);
+        } else if (value instanceof Map) {
+            out.append('{');
+            boolean isFirst = true;
+            for (Map.Entry<?, ?> member : ((Map<?, ?>) value).entrySet()) {
+                if (!isFirst) {
+                    out.append(',');
+                }
+                isFirst = false;
+                quote(out, String.valueOf(member.getKey()));
+                out.append(':');
+                writeValue(out, member.getValue());
+            }
+            out.append('}');
+        } else if (value instanceof List) {
+            out.append('[');
+            boolean isFirst = true;
+            for (Object element : (List<?>) value) {
+                if (!isFirst) {
+                    out.append(',');
+                }
+                isFirst = false;
+                writeValue(out, element);
+            }
+            out.append(']');
+        } else {
+            quote(out, value.toString());
+        }
+    }
+
+    private static void quote(StringBuilder out, String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+            case '"':
+                out.append("\\\"");
+                break;
+            case '\\':
+                out.append("\\\\");
+                break;
+            case '\n':
+                out.append("\\n");
+                break;
+            case '\r':
+                out.append("\\r");
+                break;
+            case '\t':
+                out.append("\\t");
+                break;
+            default:
+                if (c < 0x20) {
+                    out.append(String.format("\\u%04x", (int) c));
+                } else {
+                    out.append(c);
+                }
+            }
+        }
+        out.append('"');
+    }
+
+    private Map<String, Object> readObject() {
+        expect('{');
+        Map<String, Object> object = new LinkedHashMap<>();
+        skipWhitespace();
+        if (peek() == '}') {
+            position++;
+            return object;
+        }
+        while (true) {
+            skipWhitespace();
+            String name = readString();
+            skipWhitespace();
+            expect(':');
+            object.put(name, readValue());
+            skipWhitespace();
+            char c = next();
+            if (c == '}') {
+                return object;
+            }
+            if (c != ',') {
+                throw error("Expected ',' or '}'");
+            }
+        }
+    }
+
+    private List<Object> readArray() {
+        expect('[');
+        List<Object> array = new ArrayList<>();
+        skipWhitespace();
+        if (peek() == ']') {
+            position++;
+            return array;
+        }
+        while (true) {
+            array.add(readValue());
+            skipWhitespace();
+            char c = next();
+            if (c == ']') {
+                return array;
+            }
+            if (c != ',') {
+                throw error("Expected ',' or ']'");
+            }
+        }
+    }
+
+    private Object readValue() {
+        skipWhitespace();
+        char c = peek();
+        switch (c) {
+        case '{':
+            return readObject();
+        case '[':
+            return readArray();
+        case '"':
+            return readString();
+        case 't':
+            readLiteral("true");
+            return Boolean.TRUE;
+        case 'f':
+            readLiteral("false");
+            return Boolean.FALSE;
+        case 'n':
+            readLiteral("null");
+            return null;
+        default:
+            return readNumber();
+        }
+    }
+
+    private String readString() {
+        expect('"');
+        StringBuilder value = new StringBuilder();
+        while (true) {
+            char c = next();
+            if (c == '"') {
+                return value.toString();
+            }
+            if (c != '\\') {
+                value.append(c);
+                continue;
+            }
+            char escaped = next();
+            switch (escaped) {
+            case 'n':
+                value.append('\n');
+                break;
+            case 'r':
+                value.append('\r');
+                break;
+            case 't':
+                value.append('\t');
+                break;
+            case 'b':
+                value.append('\b');
+                break;
+            case 'f':
+                value.append('\f');
+                break;
+            case 'u':
+                if (position + 4 > text.length()) {
+                    throw error("Incomplete unicode escape");
+                }
+                try {
+                    value.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+                } catch (NumberFormatException e) {
+                    throw error("Invalid unicode escape");
+                }
+                position += 4;
+                break;
+            default:
+                value.append(escaped);
+            }
+        }
+    }
+
+    private Number readNumber() {
+        int start = position;
+        boolean isDecimal = false;
+        while (position < text.length()) {
+            char c = text.charAt(position);
+            if (c == '.' || c == 'e' || c == 'E') {
+                isDecimal = true;
+            } else if (!(c == '-' || c == '+' || (c >= '0' && c <= '9'))) {
+                break;
+            }
+            position++;
+        }
+        String number = text.substring(start, position);
+        try {
+            return isDecimal ? (Number) Double.parseDouble(number) : (Number) Long.parseLong(number);
+        } catch (NumberFormatException e) {
+            throw error("Invalid value");
+        }
+    }
+
+    private void readLiteral(String literal) {
+        if (!text.startsWith(literal, position)) {
+            throw error("Invalid value");
+        }
+        position += literal.length();
+    }
+
+    private void skipWhitespace() {
+        while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+            position++;
+        }
+    }
+
+    private char peek() {
+        if (position >= text.length()) {
+            throw error("Unexpected end of JSON");
+        }
+        return text.charAt(position);
+    }
+
+    private char next() {
+        char c = peek();
+        position++;
+        return c;
+    }
+
+    private void expect(char expected) {
+        if (next() != expected) {
+            position--;
+            throw error("Expected '" + expected + "'");
+        }
+    }
+
+    private DukeException error(String message) {
+        return new DukeException("Invalid JSON at position " + position + ": " + message);
+    }
+}
@@ -0,0 +1,106 @@
+package server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
+import java.util.concurrent.Callable;
+
+/**
+ * Captures what commands print to System.out, per thread.
+ * Commands report through Ui, which prints to System.out; the server runs commands of different
+ * workspaces on different threads at the same time, so a single System.setOut per call, as the GUIs do,
+ * would mix their output. Once installed, System.out routes each thread's output to that thread's
+ * capture buffer, or to the original stream when the thread is not capturing.
+ */
+public final class OutputCapture {
+    private static final String ENCODING = "UTF-8";
+    private static final ThreadLocal<ByteArrayOutputStream> BUFFER = new ThreadLocal<>();
+    private static PrintStream original;
+
+    private OutputCapture() {}
+
+    /**
+     * Replace System.out with the routing stream. Calling it again has no effect.
+     */
+    public static synchronized void install() {
+        if (original != null) {
+            return;
+        }
+        original = System.out;
+        final PrintStream fallback = original;
+        OutputStream router = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                target().write(b);
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) throws IOException {
+                target().write(bytes, offset, length);
+            }
+
+            @Override
+            public void flush() {
+                if (BUFFER.get() == null) {
+                    fallback.flush();
+                }
+            }
+
+            private OutputStream target() {
+                ByteArrayOutputStream buffer = BUFFER.get();
+                return buffer != null ? buffer : fallback;
+            }
+        };
+        try {
+            System.setOut(new PrintStream(router, true, ENCODING));
+        } catch (UnsupportedEncodingException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * Run a task on the current thread and collect what it prints
+     * @param task the work to run
+     * @return the result of the task and its output
+     * @throws Exception whatever the task throws
+     */
+    public static <T> Captured<T> capture(Callable<T> task) throws Exception {
+        install();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        ByteArrayOutputStream outer = BUFFER.get();
+        BUFFER.set(buffer);
+        try {
+            T result = task.call();
+            return new Captured<>(result, buffer.toString(ENCODING));
+        } finally {
+            if (outer != null) {
+                BUFFER.set(outer);
+            } else {
+                BUFFER.remove();
+            }
+        }
+    }
+
+    /**
+     * Result of a captured task
+     */
+    public static final class Captured<T> {
+        private final T result;
+        private final String output;
+
+        Captured(T result, String output) {
+            this.result = result;
+            this.output = output;
+        }
+
+        public T getResult() {
+            return result;
+        }
+
+        public String getOutput() {
+            return output;
+        }
+    }
+}
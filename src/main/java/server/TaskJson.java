@@ -0,0 +1,104 @@
+package server;
+
+import tasklist.Event;
+import tasklist.RecurringTask;
+import tasklist.Task;
+import tasklist.TaskEvent;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * JSON form of tasks and task events, as sent by the HTTP API and the change feed
+ */
+public final class TaskJson {
+
+    private TaskJson() {}
+
+    /**
+     * Describe a task as a JSON object
+     * @param task the task
+     * @param number the task's number in its list, as shown by the list command (1-based)
+     * @return the members of the object
+     */
+    public static Map<String, Object> toJson(Task task, int number) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("number", number);
+        json.put("type", task.getType());
+        json.put("description", task.getDescription());
+        json.put("done", task.isDone());
+        json.put("priority", task.getPriority().name());
+        json.put("tags", new ArrayList<>(task.getCategory().getTags()));
+        json.put("contexts", new ArrayList<>(task.getCategory().getContexts()));
+        json.put("dateTime", task.getDateTime() == null ? null : task.getDateTime().toString());
+        if (task instanceof Event && ((Event) task).getEndDateTime() != null) {
+            json.put("endDateTime", ((Event) task).getEndDateTime().toString());
+        }
+        if (task instanceof RecurringTask) {
+            json.put("recurrence", ((RecurringTask) task).getRecurrence().toText());
+        }
+        return json;
+    }
+
+    /**
+     * Describe a change event for the change feed
+     * @param event the event
+     * @return the members of the object
+     */
+    public static Map<String, Object> toJson(TaskEvent event) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("event", event.getType().name().toLowerCase(Locale.ROOT));
+        json.put("version", event.getVersion());
+        json.put("taskId", event.getTaskId());
+        json.put("task", toJson(event.getTask(), event.getNumber()));
+        return json;
+    }
+
+    /**
+     * Describe the event telling a client that it missed changes and has to reload the list
+     * @param version the current version
+     * @return the members of the object
+     */
+    public static Map<String, Object> resetEvent(long version) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("event", "reset");
+        json.put("version", version);
+        return json;
+    }
+
+    /**
+     * Describe a list of tasks, numbered from 1
+     * @param tasks the tasks
+     * @return list of JSON objects
+     */
+    public static List<Object> toJson(List<Task> tasks) {
+        List<Object> json = new ArrayList<>(tasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            json.add(toJson(tasks.get(i), i + 1));
+        }
+        return json;
+    }
+
+    /**
+     * Describe some of the tasks of a list, e.g. search results, numbered by their place in the whole list
+     * @param tasks the tasks to describe, all taken from <code>list</code>
+     * @param list the whole list
+     * @return list of JSON objects
+     */
+    public static List<Object> toJson(List<Task> tasks, List<Task> list) {
+        Map<Task, Integer> numbers = new IdentityHashMap<>(list.size() * 2);
+        for (int i = 0; i < list.size(); i++) {
+            numbers.put(list.get(i), i + 1);
+        }
+        List<Object> json = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            Integer number = numbers.get(task);
+            json.add(toJson(task, number != null ? number : 0));
+        }
+        return json;
+    }
+}
@@ -0,0 +1,173 @@
+package server;
+
+import command.ByeCommand;
+import command.Command;
+import command.Transaction;
+import exception.DukeException;
+import parser.Parser;
+import storage.JournalStorage;
+import storage.Storage;
+import tasklist.TaskEventLog;
+import tasklist.TaskList;
+import tasklist.TaskSnapshot;
+import ui.NonInteractiveUi;
+import ui.Ui;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.ArrayList;
+
+/**
+ * A named task list hosted by the server, saved to its own file.
+ * Commands of a workspace run one at a time, so its TaskList keeps a single writer;
+ * clients that only read use the published snapshot.
+ * A transaction belongs to the session that began it; while it is open, commands of other sessions
+ * are turned away rather than joining it or reading its uncommitted changes.
+ */
+public class Workspace {
+    private final String name;
+    private final TaskList taskList;
+    private final Storage storage;
+    private final Ui ui = new NonInteractiveUi();
+    // Session that began the open transaction, or null if none is open
+    private Object transactionOwner;
+
+    /**
+     * Open a workspace, loading its tasks if its file exists
+     * @param name workspace name
+     * @param storage storage of the workspace's task file
+     */
+    public Workspace(String name, Storage storage) {
+        this.name = name;
+        this.storage = storage;
+        TaskList loaded;
+        try {
+            loaded = TaskList.create(storage.readFromFile());
+        } catch (FileNotFoundException e) {
+            loaded = TaskList.create(new ArrayList<>());
+        }
+        this.taskList = loaded;
+        taskList.publish();
+        JournalStorage.attach(taskList, storage.getFilePath());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the last published state of the workspace
+     * @return snapshot of the task list
+     */
+    public TaskSnapshot snapshot() {
+        return taskList.snapshot();
+    }
+
+    /**
+     * Get the change feed of the workspace
+     * @return event log of the task list
+     */
+    public TaskEventLog events() {
+        return taskList.events();
+    }
+
+    /**
+     * Parse and execute a command line as the console would, collecting what it prints
+     * @param input command line, e.g. "todo read book"
+     * @param session the client the command comes from, e.g. its connection;
+     *                a transaction it begins stays its own until it commits, rolls back or ends the session
+     * @return the outcome of the command
+     */
+    public synchronized Result execute(String input, Object session) {
+        if (transactionOwner != null && transactionOwner != session) {
+            return new Result(false, "", "Another client has a transaction open on workspace " + name
+                    + ", so nothing was run; try again once it is committed or rolled back.",
+                    taskList.snapshot().version(), false);
+        }
+        OutputCapture.Captured<Command> captured = null;
+        String error = null;
+        try {
+            captured = OutputCapture.capture(() -> {
+                Command command = Parser.parse(input, taskList);
+                command.run(taskList, ui, storage);
+                return command;
+            });
+        } catch (DukeException e) {
+            error = e.getMessage();
+        } catch (IOException e) {
+            error = "Could not save tasks: " + e.getMessage();
+        } catch (Exception e) {
+            error = "Command failed: " + e;
+        }
+        transactionOwner = taskList.isInTransaction() ? session : null;
+        // Published even when the command failed, as it may have changed the list before it threw
+        long version = taskList.publish().version();
+        if (captured == null) {
+            return new Result(false, "", error, version, false);
+        }
+        return new Result(true, captured.getOutput(), null, version, captured.getResult() instanceof ByeCommand);
+    }
+
+    /**
+     * Roll back the transaction a session left open, once the session is over, e.g. its client disconnected
+     * @param session the session passed to execute
+     */
+    public synchronized void endSession(Object session) {
+        if (transactionOwner != session || session == null) {
+            return;
+        }
+        try {
+            Transaction.current(taskList, storage).rollback();
+        } catch (DukeException | IOException e) {
+            System.err.println("Could not roll back the transaction on workspace " + name + ": " + e.getMessage());
+        }
+        transactionOwner = null;
+        taskList.publish();
+    }
+
+    /**
+     * Free the task list's store once the server stops
+     */
+    public synchronized void close() {
+        taskList.close();
+    }
+
+    /**
+     * Outcome of a command
+     */
+    public static final class Result {
+        private final boolean isOk;
+        private final String output;
+        private final String error;
+        private final long version;
+        private final boolean isExit;
+
+        Result(boolean isOk, String output, String error, long version, boolean isExit) {
+            this.isOk = isOk;
+            this.output = output;
+            this.error = error;
+            this.version = version;
+            this.isExit = isExit;
+        }
+
+        public boolean isOk() {
+            return isOk;
+        }
+
+        public String getOutput() {
+            return output;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public boolean isExit() {
+            return isExit;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package server;
+
+import exception.DukeException;
+import storage.Storage;
+
+import java.io.File;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * The workspaces hosted by one server process, opened on first use.
+ * Each workspace keeps its tasks in "&lt;name&gt;.txt" under the data directory.
+ */
+public class Workspaces {
+    public static final String DEFAULT = "default";
+    private static final Pattern NAME = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    private final String directory;
+    private final ConcurrentHashMap<String, Workspace> open = new ConcurrentHashMap<>();
+
+    public Workspaces(String directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Get a workspace, opening it if needed
+     * @param name workspace name, or null for the default workspace
+     * @return the workspace
+     * @throws DukeException if the name is not a valid workspace name
+     */
+    public Workspace get(String name) throws DukeException {
+        String workspaceName = name == null ? DEFAULT : name;
+        if (!NAME.matcher(workspaceName).matches()) {
+            throw new DukeException("Invalid workspace name: " + workspaceName);
+        }
+        return open.computeIfAbsent(workspaceName, key ->
+                new Workspace(key, new Storage(directory + File.separator + key + ".txt")));
+    }
+
+    /**
+     * Roll back the transactions a session left open in any workspace
+     * @param session the session that is over
+     */
+    public void endSession(Object session) {
+        for (Workspace workspace : open.values()) {
+            workspace.endSession(session);
+        }
+    }
+
+    /**
+     * Close every open workspace, once no more commands will run
+     */
+    public void close() {
+        for (Workspace workspace : open.values()) {
+            workspace.close();
+        }
+        open.clear();
+    }
+}
@@ -0,0 +1,100 @@
+package storage;
+
+import metrics.Metrics;
+import tasklist.Task;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * The tasks of tasks.txt after its first page, parsed in file order by a daemon thread.
+ * The thread hands the lines to a ParallelTaskParser, which reads them a chunk at a time,
+ * so a huge file is never held in memory as text all at once.
+ */
+final class BackgroundLoad {
+    private final LineSource index;
+    private final int from;
+    private final ParallelTaskParser parser;
+    private final CompletableFuture<ArrayList<Task>> rest = new CompletableFuture<>();
+
+    /**
+     * @param index the lines of tasks.txt
+     * @param from index of the first line after the first page
+     */
+    BackgroundLoad(LineSource index, int from) {
+        this.index = index;
+        this.from = from;
+        this.parser = new ParallelTaskParser(index);
+    }
+
+    void start() {
+        Thread thread = new Thread(this::load, "duke-loader");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void load() {
+        long start = Metrics.start();
+        try {
+            ArrayList<Task> tasks = parser.parse(from, index.size());
+            Metrics.record("storage.load", start);
+            rest.complete(tasks);
+        } catch (IOException | RuntimeException | Error e) {
+            Metrics.recordFailure("storage.load", start);
+            rest.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Get the number of tasks loaded so far, counting the first page
+     */
+    int getLoadedCount() {
+        return from + parser.getParsedCount();
+    }
+
+    int getTotal() {
+        return index.size();
+    }
+
+    boolean isDone() {
+        return rest.isDone();
+    }
+
+    boolean isFailed() {
+        return rest.isCompletedExceptionally();
+    }
+
+    /**
+     * Wait for the thread to finish
+     * @return the tasks after the first page, in file order
+     * @throws IOException if the file could not be read
+     * @throws java.time.format.DateTimeParseException if a line could not be parsed, as from readFromFile
+     */
+    ArrayList<Task> await() throws IOException {
+        boolean isInterrupted = false;
+        try {
+            while (true) {
+                try {
+                    return rest.get();
+                } catch (InterruptedException e) {
+                    isInterrupted = true;
+                }
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw (Error) cause;
+        } finally {
+            if (isInterrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package storage;
+
+import tasklist.Task;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * A tasks.txt compressed in independent blocks of lines, with an index of the blocks at the end,
+ * so that any run of lines can be read by inflating only the blocks that hold it, and blocks can be
+ * inflated on several threads while loading. The layout is:
+ * <pre>
+ * "DUKEBLK1"                      magic
+ * block 0 ... block n-1           zlib streams of BLOCK_LINES lines each (the last may hold fewer),
+ *                                 each line in UTF-8 followed by "\n"
+ * index                           per block: long offset, int compressed length, int raw length
+ * trailer                         long index offset, int block count, int line count, "DUKEBLK1"
+ * </pre>
+ * Lines are the same text as in a plain tasks.txt, and the zlib checksum of every block is checked on reading.
+ */
+final class BlockFile implements LineSource {
+    /**
+     * Lines in every block but the last; ParallelTaskParser.CHUNK_SIZE is a multiple of it,
+     * so parsing chunks never inflate a block twice
+     */
+    static final int BLOCK_LINES = 1024;
+
+    private static final byte[] MAGIC = "DUKEBLK1".getBytes(StandardCharsets.US_ASCII);
+    private static final int INDEX_ENTRY_SIZE = 16;
+    private static final int TRAILER_SIZE = 16 + MAGIC.length;
+
+    private final Path path;
+    private final long[] offsets;
+    private final int[] compressedLengths;
+    private final int[] rawLengths;
+    private final int size;
+
+    private BlockFile(Path path, long[] offsets, int[] compressedLengths, int[] rawLengths, int size) {
+        this.path = path;
+        this.offsets = offsets;
+        this.compressedLengths = compressedLengths;
+        this.rawLengths = rawLengths;
+        this.size = size;
+    }
+
+    /**
+     * Check if a file starts like a block file rather than a plain tasks.txt
+     * @throws IOException if the file cannot be read, e.g. NoSuchFileException if it does not exist
+     */
+    static boolean isBlockFile(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < MAGIC.length) {
+                return false;
+            }
+            ByteBuffer start = ByteBuffer.allocate(MAGIC.length);
+            readFully(channel, start, 0);
+            return Arrays.equals(start.array(), MAGIC);
+        }
+    }
+
+    /**
+     * Open a block file by reading its index
+     * @throws IOException if the file cannot be read or is not a whole block file
+     */
+    static BlockFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < MAGIC.length + TRAILER_SIZE) {
+                throw new IOException(path + " is not a compressed task file");
+            }
+            ByteBuffer trailer = ByteBuffer.allocate(TRAILER_SIZE);
+            readFully(channel, trailer, length - TRAILER_SIZE);
+            trailer.flip();
+            long indexOffset = trailer.getLong();
+            int blockCount = trailer.getInt();
+            int size = trailer.getInt();
+            byte[] magic = new byte[MAGIC.length];
+            trailer.get(magic);
+            if (!Arrays.equals(magic, MAGIC) || blockCount != (size + BLOCK_LINES - 1) / BLOCK_LINES
+                    || indexOffset != length - TRAILER_SIZE - (long) blockCount * INDEX_ENTRY_SIZE) {
+                throw new IOException(path + " is cut short or corrupt: its block index does not add up");
+            }
+            ByteBuffer index = ByteBuffer.allocate(blockCount * INDEX_ENTRY_SIZE);
+            readFully(channel, index, indexOffset);
+            index.flip();
+            long[] offsets = new long[blockCount];
+            int[] compressedLengths = new int[blockCount];
+            int[] rawLengths = new int[blockCount];
+            for (int b = 0; b < blockCount; b++) {
+                offsets[b] = index.getLong();
+                compressedLengths[b] = index.getInt();
+                rawLengths[b] = index.getInt();
+            }
+            return new BlockFile(path, offsets, compressedLengths, rawLengths, size);
+        }
+    }
+
+    /**
+     * Write tasks as a block file
+     * @param out the stream to write to, which the caller flushes and closes
+     * @param tasks the tasks, in order
+     */
+    static void write(OutputStream out, List<Task> tasks) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.write(MAGIC);
+        long offset = MAGIC.length;
+        int blockCount = (tasks.size() + BLOCK_LINES - 1) / BLOCK_LINES;
+        long[] offsets = new long[blockCount];
+        int[] compressedLengths = new int[blockCount];
+        int[] rawLengths = new int[blockCount];
+        ByteArrayOutputStream raw = new ByteArrayOutputStream();
+        byte[] compressed = new byte[64 * 1024];
+        Deflater deflater = new Deflater();
+        try {
+            for (int b = 0; b < blockCount; b++) {
+                raw.reset();
+                for (int i = b * BLOCK_LINES; i < Math.min((b + 1) * BLOCK_LINES, tasks.size()); i++) {
+                    raw.write(Storage.toText(tasks.get(i)).getBytes(Storage.CHARSET));
+                    raw.write('\n');
+                }
+                deflater.reset();
+                deflater.setInput(raw.toByteArray());
+                deflater.finish();
+                int compressedLength = 0;
+                while (!deflater.finished()) {
+                    int count = deflater.deflate(compressed);
+                    data.write(compressed, 0, count);
+                    compressedLength += count;
+                }
+                offsets[b] = offset;
+                compressedLengths[b] = compressedLength;
+                rawLengths[b] = raw.size();
+                offset += compressedLength;
+            }
+        } finally {
+            deflater.end();
+        }
+        for (int b = 0; b < blockCount; b++) {
+            data.writeLong(offsets[b]);
+            data.writeInt(compressedLengths[b]);
+            data.writeInt(rawLengths[b]);
+        }
+        data.writeLong(offset);
+        data.writeInt(blockCount);
+        data.writeInt(tasks.size());
+        data.write(MAGIC);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int lineNumber(int i) {
+        return i + 1;
+    }
+
+    @Override
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Read a run of lines, inflating the blocks that hold them one at a time
+     */
+    @Override
+    public List<String> read(int from, int to) throws IOException {
+        List<String> lines = new ArrayList<>(Math.max(0, to - from));
+        if (from >= to) {
+            return lines;
+        }
+        Inflater inflater = new Inflater();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            for (int b = from / BLOCK_LINES; b <= (to - 1) / BLOCK_LINES; b++) {
+                byte[] block = inflate(channel, inflater, b);
+                int line = b * BLOCK_LINES;
+                int start = 0;
+                for (int i = 0; i < block.length && line < to; i++) {
+                    if (block[i] == '\n') {
+                        if (line >= from) {
+                            lines.add(new String(block, start, i - start, Storage.CHARSET));
+                        }
+                        line++;
+                        start = i + 1;
+                    }
+                }
+            }
+        } finally {
+            inflater.end();
+        }
+        if (lines.size() != to - from) {
+            throw new IOException(path + " is corrupt: lines " + (from + 1) + " to " + to + " are not all there");
+        }
+        return lines;
+    }
+
+    private byte[] inflate(FileChannel channel, Inflater inflater, int block) throws IOException {
+        ByteBuffer compressed = ByteBuffer.allocate(compressedLengths[block]);
+        readFully(channel, compressed, offsets[block]);
+        byte[] raw = new byte[rawLengths[block]];
+        inflater.reset();
+        inflater.setInput(compressed.array());
+        try {
+            int length = 0;
+            while (length < raw.length && !inflater.finished()) {
+                int count = inflater.inflate(raw, length, raw.length - length);
+                if (count == 0 && inflater.needsInput()) {
+                    break;
+                }
+                length += count;
+            }
+            if (length != raw.length || !inflater.finished()) {
+                throw new IOException("Block " + (block + 1) + " of " + path + " is corrupt");
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Block " + (block + 1) + " of " + path + " is corrupt: " + e.getMessage(), e);
+        }
+        return raw;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("File is cut short");
+            }
+        }
+    }
+}
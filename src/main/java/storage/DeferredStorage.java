@@ -0,0 +1,39 @@
+package storage;
+
+import java.io.IOException;
+
+/**
+ * Storage that holds back the writes of commands until it is flushed,
+ * so that a run of many commands rewrites tasks.txt once instead of once per command
+ */
+public class DeferredStorage extends Storage {
+
+    public DeferredStorage(String filePath) {
+        super(filePath);
+        hold();
+    }
+
+    /**
+     * Check if a command has changed the list since the last flush
+     * @return true if there is something to write
+     */
+    public boolean hasPendingWrite() {
+        return hasHeldWrite();
+    }
+
+    /**
+     * Write the list passed by the last command, if any, to the tasks.txt file
+     * @throws IOException when file or directory is not found
+     */
+    public void flush() throws IOException {
+        release();
+        hold();
+    }
+
+    /**
+     * Forget the held back write, e.g. when the changes it would save have been undone
+     */
+    public void discard() {
+        discardHeldWrite();
+    }
+}
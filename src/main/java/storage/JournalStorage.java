@@ -0,0 +1,340 @@
+package storage;
+
+import tasklist.Task;
+import tasklist.TaskJournal;
+import tasklist.TaskList;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the undo history of a task list in a file next to its tasks.txt, so undo survives a restart.
+ * Tasks are written in the tasks.txt line format, one change per line:
+ * "- n" for a removed task, "+ n" for an added one, and "&lt; n" followed by "&gt; n" for the
+ * state before and after an update. The file starts with a fingerprint of the list it was written with
+ * and the entries that can be undone and redone. Each later change to the history is appended as an
+ * operation carrying the fingerprint of the list after it, "record" with the changes of a new entry,
+ * "undone", "redone" or "cleared", until there are more of them than the undo limit and the file is
+ * written anew. If tasks.txt was changed by something else since, the history no longer applies and is
+ * not loaded.
+ */
+public class JournalStorage implements TaskJournal.Saver {
+    public static final String PERSIST_PROPERTY = "duke.undo.persist";
+    private static final String HEADER = "# duke undo history ";
+
+    private final String filePath;
+    private final TaskList taskList;
+    // Fingerprint of the list as of the history in the file; kept up to date from the entries, so that
+    // saving never reads the whole list. Only valid while isAppendable.
+    private int size;
+    private long hash;
+    private boolean isAppendable;
+    private int appendedCount;
+
+    public JournalStorage(String filePath, TaskList taskList) {
+        this.filePath = filePath;
+        this.taskList = taskList;
+    }
+
+    /**
+     * Load the saved history of a task list and keep saving it, if enabled with -Dduke.undo.persist=true
+     * @param taskList the task list, as just loaded from its file
+     * @param tasksFilePath path of its tasks.txt
+     */
+    public static void attach(TaskList taskList, String tasksFilePath) {
+        if (!Boolean.getBoolean(PERSIST_PROPERTY)) {
+            return;
+        }
+        JournalStorage storage = new JournalStorage(tasksFilePath + ".undo", taskList);
+        try {
+            storage.load();
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Warning: Could not load the undo history: " + e.getMessage());
+        }
+        taskList.journal().setSaver(storage);
+    }
+
+    public String getFilePath() {
+        return filePath;
+    }
+
+    @Override
+    public void recorded(TaskJournal journal, TaskJournal.Entry entry) {
+        if (isAppendable) {
+            apply(entry, true);
+        }
+        save(journal, "record " + entry.getSizeAfter(), entry);
+    }
+
+    @Override
+    public void undone(TaskJournal journal, TaskJournal.Entry entry) {
+        if (isAppendable) {
+            apply(entry, false);
+        }
+        save(journal, "undone", null);
+    }
+
+    @Override
+    public void redone(TaskJournal journal, TaskJournal.Entry entry) {
+        if (isAppendable) {
+            apply(entry, true);
+        }
+        save(journal, "redone", null);
+    }
+
+    @Override
+    public void cleared(TaskJournal journal) {
+        // Cleared when the list no longer matched the history, so the fingerprint is taken again
+        isAppendable = false;
+        save(journal, "cleared", null);
+    }
+
+    /**
+     * Append an operation to the file, or write the whole history if the file is not known to hold
+     * the history so far or has grown past the undo limit
+     */
+    private void save(TaskJournal journal, String operation, TaskJournal.Entry entry) {
+        try {
+            if (!isAppendable || appendedCount >= Math.max(1, journal.getLimit())) {
+                write(journal);
+                return;
+            }
+            String lineSeparator = System.lineSeparator();
+            try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath, Storage.CHARSET, true))) {
+                writer.write(operation + " " + fingerprint());
+                writer.write(lineSeparator);
+                if (entry != null) {
+                    writeChanges(writer, entry, lineSeparator);
+                }
+            }
+            appendedCount++;
+        } catch (IOException e) {
+            isAppendable = false;
+            System.err.println("Warning: Could not save the undo history: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Write the history to the file
+     * @throws IOException when the file cannot be written
+     */
+    public void write(TaskJournal journal) throws IOException {
+        File file = new File(filePath);
+        File dir = file.getParentFile();
+        if (dir != null && !dir.exists()) {
+            dir.mkdirs();
+        }
+        if (!isAppendable) {
+            takeFingerprint(taskList.getTasks());
+        }
+        isAppendable = false;
+        String lineSeparator = System.lineSeparator();
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file, Storage.CHARSET))) {
+            writer.write(HEADER + fingerprint());
+            writer.write(lineSeparator);
+            writeEntries(writer, "undo", journal.getUndoEntries(), lineSeparator);
+            writeEntries(writer, "redo", journal.getRedoEntries(), lineSeparator);
+        }
+        isAppendable = true;
+        appendedCount = 0;
+    }
+
+    private static void writeEntries(BufferedWriter writer, String kind, List<TaskJournal.Entry> entries,
+                                     String lineSeparator) throws IOException {
+        for (TaskJournal.Entry entry : entries) {
+            writer.write(kind + " " + entry.getSizeAfter());
+            writer.write(lineSeparator);
+            writeChanges(writer, entry, lineSeparator);
+        }
+    }
+
+    private static void writeChanges(BufferedWriter writer, TaskJournal.Entry entry, String lineSeparator)
+            throws IOException {
+        for (TaskJournal.Change change : entry.getChanges()) {
+            switch (change.getKind()) {
+            case REMOVED:
+                writer.write("- " + change.getIndex() + " " + Storage.toText(change.getBefore()));
+                break;
+            case ADDED:
+                writer.write("+ " + change.getIndex() + " " + Storage.toText(change.getAfter()));
+                break;
+            default:
+                writer.write("< " + change.getIndex() + " " + Storage.toText(change.getBefore()));
+                writer.write(lineSeparator);
+                writer.write("> " + change.getIndex() + " " + Storage.toText(change.getAfter()));
+                break;
+            }
+            writer.write(lineSeparator);
+        }
+    }
+
+    /**
+     * Read the history from the file into the journal of the task list.
+     * Nothing is loaded if there is no file or it was saved with a different list.
+     * @throws IOException when the file cannot be read
+     * @throws DateTimeParseException when a task line is malformed
+     */
+    public void load() throws IOException {
+        List<TaskJournal.Entry> undo = new ArrayList<>();
+        List<TaskJournal.Entry> redo = new ArrayList<>();
+        String saved;
+        int operationCount = 0;
+        try (BufferedReader reader = new BufferedReader(new FileReader(filePath, Storage.CHARSET))) {
+            String header = reader.readLine();
+            if (header == null || !header.startsWith(HEADER)) {
+                return;
+            }
+            saved = header.substring(HEADER.length());
+            List<TaskJournal.Entry> target = null;
+            List<TaskJournal.Change> changes = new ArrayList<>();
+            int sizeAfter = 0;
+            Task before = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                if (line.length() < 2 || line.charAt(1) != ' ' || "-+<>".indexOf(line.charAt(0)) < 0) {
+                    // An entry of the history or an operation on it, which ends the entry before
+                    if (target != null) {
+                        target.add(new TaskJournal.Entry(changes, sizeAfter));
+                        target = null;
+                    }
+                    String[] words = line.split(" ", 3);
+                    switch (words[0]) {
+                    case "undo":
+                    case "redo":
+                        target = words[0].equals("undo") ? undo : redo;
+                        changes = new ArrayList<>();
+                        sizeAfter = Integer.parseInt(words[1].trim());
+                        break;
+                    case "record":
+                        redo.clear();
+                        target = undo;
+                        changes = new ArrayList<>();
+                        sizeAfter = Integer.parseInt(words[1]);
+                        saved = words[2];
+                        operationCount++;
+                        break;
+                    case "undone":
+                    case "redone":
+                    case "cleared":
+                        if (words[0].equals("undone")) {
+                            move(undo, redo, line);
+                        } else if (words[0].equals("redone")) {
+                            move(redo, undo, line);
+                        } else {
+                            undo.clear();
+                            redo.clear();
+                        }
+                        saved = line.substring(words[0].length() + 1);
+                        operationCount++;
+                        break;
+                    default:
+                        throw new IOException("Unexpected line in undo history: " + line);
+                    }
+                    continue;
+                }
+                if (target == null) {
+                    throw new IOException("Unexpected line in undo history: " + line);
+                }
+                int space = line.indexOf(' ', 2);
+                int index = Integer.parseInt(line.substring(2, space));
+                Task task = Storage.parseLine(line.substring(space + 1));
+                switch (line.charAt(0)) {
+                case '-':
+                    changes.add(new TaskJournal.Change(TaskJournal.Change.Kind.REMOVED, index, task, null));
+                    break;
+                case '+':
+                    changes.add(new TaskJournal.Change(TaskJournal.Change.Kind.ADDED, index, null, task));
+                    break;
+                case '<':
+                    before = task;
+                    break;
+                case '>':
+                    changes.add(new TaskJournal.Change(TaskJournal.Change.Kind.UPDATED, index, before, task));
+                    break;
+                default:
+                    throw new IOException("Unexpected line in undo history: " + line);
+                }
+            }
+            if (target != null) {
+                target.add(new TaskJournal.Entry(changes, sizeAfter));
+            }
+        } catch (FileNotFoundException e) {
+            return;
+        }
+        takeFingerprint(taskList.getTasks());
+        if (!saved.equals(fingerprint())) {
+            return;
+        }
+        taskList.journal().restore(undo, redo);
+        isAppendable = true;
+        appendedCount = operationCount;
+    }
+
+    private static void move(List<TaskJournal.Entry> from, List<TaskJournal.Entry> to, String line)
+            throws IOException {
+        if (from.isEmpty()) {
+            throw new IOException("Nothing to move in undo history: " + line);
+        }
+        to.add(from.remove(from.size() - 1));
+    }
+
+    /**
+     * Fingerprint a whole list, once when it is loaded or the history is written anew
+     */
+    private void takeFingerprint(List<Task> tasks) {
+        size = tasks.size();
+        hash = 0;
+        for (Task task : tasks) {
+            hash += hash(task);
+        }
+    }
+
+    /**
+     * Bring the fingerprint up to date with an entry applied to the list, or reverted
+     */
+    private void apply(TaskJournal.Entry entry, boolean isForward) {
+        for (TaskJournal.Change change : entry.getChanges()) {
+            Task removed = isForward ? change.getBefore() : change.getAfter();
+            Task added = isForward ? change.getAfter() : change.getBefore();
+            if (removed != null) {
+                size--;
+                hash -= hash(removed);
+            }
+            if (added != null) {
+                size++;
+                hash += hash(added);
+            }
+        }
+    }
+
+    /**
+     * Identify the content of a task list by its size and the sum of the hashes of its tasks.txt lines,
+     * which follows each change without reading the rest of the list; it does not tell the order of the lines
+     */
+    private String fingerprint() {
+        return size + " " + Long.toHexString(hash);
+    }
+
+    private static long hash(Task task) {
+        String text = Storage.toText(task);
+        long hash = 1125899906842597L;
+        for (int i = 0; i < text.length(); i++) {
+            hash = 31 * hash + text.charAt(i);
+        }
+        // Spread the bits, as the hashes of all lines are added up
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        return hash ^ (hash >>> 33);
+    }
+}
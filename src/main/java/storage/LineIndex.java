@@ -0,0 +1,131 @@
+package storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Byte offsets of the non-empty lines of a file, found in one pass over its bytes without decoding them,
+ * so that any run of lines can later be read on its own, e.g. the first page now and the rest in the background.
+ * Lines end at "\n", "\r" or "\r\n" like <code>BufferedReader.readLine</code>; that holds in every charset that
+ * encodes them as single bytes, which covers UTF-8, the charset tasks.txt is written in (see Storage.CHARSET).
+ */
+final class LineIndex implements LineSource {
+    private static final int SCAN_BUFFER_SIZE = 64 * 1024;
+
+    private final Path path;
+    private final Charset charset;
+    private long[] starts = new long[1024];
+    private int[] lengths = new int[1024];
+    // 1-based line numbers in the file, which count the empty lines that are left out
+    private int[] numbers = new int[1024];
+    private int size;
+
+    private LineIndex(Path path, Charset charset) {
+        this.path = path;
+        this.charset = charset;
+    }
+
+    /**
+     * Index the lines of a file
+     * @param path the file
+     * @param charset the charset its lines are decoded with when read
+     * @throws IOException if the file cannot be read, e.g. NoSuchFileException if it does not exist
+     */
+    static LineIndex of(Path path, Charset charset) throws IOException {
+        LineIndex index = new LineIndex(path, charset);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+            byte[] bytes = buffer.array();
+            long offset = 0;
+            long lineStart = 0;
+            int lineNumber = 1;
+            boolean isAfterCarriageReturn = false;
+            int read;
+            while ((read = channel.read(buffer)) >= 0) {
+                for (int i = 0; i < read; i++) {
+                    byte b = bytes[i];
+                    if (b == '\n' || b == '\r') {
+                        if (b == '\r' || !isAfterCarriageReturn) {
+                            index.add(lineStart, offset + i, lineNumber++);
+                        }
+                        lineStart = offset + i + 1;
+                    }
+                    isAfterCarriageReturn = b == '\r';
+                }
+                offset += read;
+                buffer.clear();
+            }
+            index.add(lineStart, offset, lineNumber);
+        }
+        return index;
+    }
+
+    private void add(long start, long end, int lineNumber) {
+        if (end == start) {
+            return;
+        }
+        if (end - start > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Line " + lineNumber + " of " + path + " is too long");
+        }
+        if (size == starts.length) {
+            starts = Arrays.copyOf(starts, size * 2);
+            lengths = Arrays.copyOf(lengths, size * 2);
+            numbers = Arrays.copyOf(numbers, size * 2);
+        }
+        starts[size] = start;
+        lengths[size] = (int) (end - start);
+        numbers[size] = lineNumber;
+        size++;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int lineNumber(int i) {
+        return numbers[i];
+    }
+
+    @Override
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Read a run of lines with one read of the file
+     */
+    @Override
+    public List<String> read(int from, int to) throws IOException {
+        List<String> lines = new ArrayList<>(to - from);
+        if (from >= to) {
+            return lines;
+        }
+        long first = starts[from];
+        long span = starts[to - 1] + lengths[to - 1] - first;
+        if (span > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Lines " + (from + 1) + " to " + to + " are too long to read at once");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) span);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, first + buffer.position()) < 0) {
+                    throw new IOException(path + " changed while it was being read");
+                }
+            }
+        }
+        byte[] bytes = buffer.array();
+        for (int i = from; i < to; i++) {
+            lines.add(new String(bytes, (int) (starts[i] - first), lengths[i], charset));
+        }
+        return lines;
+    }
+}
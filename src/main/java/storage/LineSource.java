@@ -0,0 +1,33 @@
+package storage;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * The non-empty lines of a tasks.txt, any run of which can be read on its own,
+ * so that the lines can be parsed a chunk at a time and on several threads
+ */
+interface LineSource {
+    /**
+     * Get the number of non-empty lines
+     */
+    int size();
+
+    /**
+     * Get the line number of a line in the file, counting from 1, e.g. to report a line that cannot be parsed
+     * @param i index of the line among the non-empty ones
+     */
+    int lineNumber(int i);
+
+    /**
+     * Read a run of lines
+     * @param from index of the first line
+     * @param to index after the last line
+     * @return the lines, without their line breaks
+     * @throws IOException if the file cannot be read or has changed
+     */
+    List<String> read(int from, int to) throws IOException;
+
+    Path getPath();
+}
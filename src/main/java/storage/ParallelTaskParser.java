@@ -0,0 +1,152 @@
+package storage;
+
+import tasklist.Task;
+
+import java.io.IOException;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Parses the lines of tasks.txt on every core: the lines are split into chunks at line boundaries,
+ * each chunk is read and parsed into its own array, and the arrays are joined in file order.
+ * The result is the same as parsing line by line, ids included, and a bad line is reported by its line number;
+ * with several bad lines, the first one in the file is reported.
+ */
+final class ParallelTaskParser {
+    static final int CHUNK_SIZE = 8192;
+
+    private final LineSource index;
+    private final int threadCount;
+    private final AtomicInteger parsedCount = new AtomicInteger();
+
+    ParallelTaskParser(LineSource index) {
+        this(index, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param index the lines of tasks.txt
+     * @param threadCount the most threads to parse on
+     */
+    ParallelTaskParser(LineSource index, int threadCount) {
+        this.index = index;
+        this.threadCount = threadCount;
+    }
+
+    /**
+     * Get the number of lines parsed so far, a chunk at a time
+     */
+    int getParsedCount() {
+        return parsedCount.get();
+    }
+
+    /**
+     * Parse a run of lines
+     * @param from index of the first line
+     * @param to index after the last line
+     * @return the tasks in file order
+     * @throws IOException if the file cannot be read
+     * @throws DateTimeParseException if a line has a malformed date, with its line number in the message
+     * @throws IllegalArgumentException if a line cannot be parsed for another reason, with its line number
+     */
+    ArrayList<Task> parse(int from, int to) throws IOException {
+        // Chunks start at multiples of CHUNK_SIZE, so they line up with the blocks of a BlockFile
+        int firstChunk = from / CHUNK_SIZE;
+        int chunkCount = from >= to ? 0 : (to - 1) / CHUNK_SIZE - firstChunk + 1;
+        int threads = Math.min(chunkCount, threadCount);
+        Task[][] chunks = new Task[chunkCount][];
+        if (threads <= 1) {
+            for (int c = 0; c < chunkCount; c++) {
+                chunks[c] = parseChunk(chunkFrom(firstChunk + c, from), chunkTo(firstChunk + c, to));
+            }
+        } else {
+            parseInParallel(chunks, firstChunk, from, to, threads);
+        }
+        ArrayList<Task> tasks = new ArrayList<>(to - from);
+        for (Task[] chunk : chunks) {
+            tasks.addAll(Arrays.asList(chunk));
+        }
+        Task.renumber(tasks);
+        return tasks;
+    }
+
+    private static int chunkFrom(int chunk, int from) {
+        return Math.max(from, chunk * CHUNK_SIZE);
+    }
+
+    private static int chunkTo(int chunk, int to) {
+        return Math.min(to, (chunk + 1) * CHUNK_SIZE);
+    }
+
+    private void parseInParallel(Task[][] chunks, int firstChunk, int from, int to, int threads)
+            throws IOException {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService parsers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "duke-parser-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<Task[]>> results = new ArrayList<>(chunks.length);
+            for (int c = 0; c < chunks.length; c++) {
+                int chunkFrom = chunkFrom(firstChunk + c, from);
+                int chunkTo = chunkTo(firstChunk + c, to);
+                results.add(parsers.submit(() -> parseChunk(chunkFrom, chunkTo)));
+            }
+            // Waiting in chunk order makes the first bad line in the file the one reported
+            for (int c = 0; c < chunks.length; c++) {
+                chunks[c] = await(results.get(c));
+            }
+        } finally {
+            parsers.shutdownNow();
+        }
+    }
+
+    private static Task[] await(Future<Task[]> result) throws IOException {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while parsing tasks", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw (Error) cause;
+        }
+    }
+
+    private Task[] parseChunk(int from, int to) throws IOException {
+        List<String> lines = index.read(from, to);
+        Task[] tasks = new Task[lines.size()];
+        for (int i = 0; i < tasks.length; i++) {
+            try {
+                tasks[i] = Storage.parseLine(lines.get(i));
+            } catch (RuntimeException e) {
+                throw atLine(e, index.lineNumber(from + i));
+            }
+        }
+        parsedCount.addAndGet(tasks.length);
+        return tasks;
+    }
+
+    private RuntimeException atLine(RuntimeException e, int lineNumber) {
+        String where = "Line " + lineNumber + " of " + index.getPath() + ": ";
+        if (e instanceof DateTimeParseException) {
+            DateTimeParseException parseError = (DateTimeParseException) e;
+            return new DateTimeParseException(where + e.getMessage(), parseError.getParsedString(),
+                    parseError.getErrorIndex(), e);
+        }
+        return new IllegalArgumentException(where + e.getMessage(), e);
+    }
+}
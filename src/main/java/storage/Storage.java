@@ -1,20 +1,40 @@
 package storage;
 
-import parser.Parser;
+import metrics.FlightEvents;
+import metrics.Metrics;
+import metrics.StorageFlushEvent;
 import tasklist.Deadline;
 import tasklist.Event;
+import tasklist.Priority;
+import tasklist.Recurrence;
+import tasklist.RecurringTask;
 import tasklist.Task;
+import tasklist.TaskTextAnalyzer;
 import tasklist.Todo;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystemException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParsePosition;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.FormatStyle;
+import java.time.temporal.TemporalAccessor;
 import java.util.ArrayList;
-import java.util.Scanner;
-
-import static parser.Parser.commandToArray;
+import java.util.List;
 
 
 /**
@@ -32,77 +52,474 @@ public class Storage {
     public String getFilePath(){return filePath;}
 
     /**
-     * The method writes any changes to the task list to the tasks.txt file
+     * Charset of tasks.txt in either format, and of the undo history next to it, whatever the platform's is,
+     * so that converting between the formats or moving the file to another machine keeps non-ASCII text
+     */
+    static final Charset CHARSET = StandardCharsets.UTF_8;
+
+    private static final String RULE_SEPARATOR = " /every ";
+
+    private static final DateTimeFormatter FILE_DATE_FORMATTER =
+            DateTimeFormatter.ofLocalizedDateTime(FormatStyle.MEDIUM, FormatStyle.SHORT);
+    private static final DateTimeFormatter FILE_TIME_FORMATTER = DateTimeFormatter.ofLocalizedTime(FormatStyle.SHORT);
+    // Separates the start and the end of an event, as Event.getDateTimeStr writes them
+    private static final String EVENT_RANGE_SEPARATOR = " - ";
+
+    /**
+     * System property with the size in bytes from which <code>readFirstPage</code> leaves all but the first page
+     * of tasks.txt to a background thread; 1 MB by default, about ten thousand tasks.
+     * The size is on disk, so a compressed tasks.txt holds several times as many tasks at the same size.
+     */
+    public static final String BACKGROUND_LOAD_PROPERTY = "duke.load.background";
+    /**
+     * Number of tasks <code>readFirstPage</code> reads before returning
+     */
+    public static final int FIRST_PAGE_SIZE = 100;
+    private static final long DEFAULT_BACKGROUND_LOAD = 1 << 20;
+    /**
+     * System property that makes writes compress tasks.txt in blocks (true) or write it as text (false), see
+     * BlockFile. When it is not set, tasks.txt is written in the format it was last read in.
+     * Either format is read whatever the property says.
+     */
+    public static final String COMPRESS_PROPERTY = "duke.storage.compress";
+
+    // Writes are held back while this is positive, e.g. during a transaction or a batch run
+    private int holdCount;
+    private List<Task> heldWrite;
+    // The rest of tasks.txt while it is being loaded in the background, see readFirstPage
+    private BackgroundLoad loading;
+    // Whether tasks.txt was compressed when it was last read
+    private boolean isReadCompressed;
+
+    /**
+     * The method writes any changes to the task list to the tasks.txt file,
+     * or remembers the list for later while writes are held back
      * @param taskList is the task list
      * @throws IOException when file or directory is not found
      */
-    public void writeToFile(ArrayList <Task> taskList) throws IOException {
+    public void writeToFile(List<Task> taskList) throws IOException {
+        if (holdCount > 0) {
+            heldWrite = taskList;
+            return;
+        }
+        write(taskList);
+    }
+
+    /**
+     * Hold back writes until the matching release, so that many changes rewrite tasks.txt once.
+     * Holds nest; only the outermost release writes.
+     */
+    public void hold() {
+        holdCount++;
+    }
+
+    /**
+     * End a hold. The outermost release writes the list passed last while holding, if any.
+     * @throws IOException when file or directory is not found
+     */
+    public void release() throws IOException {
+        endHold();
+        if (holdCount == 0 && heldWrite != null) {
+            List<Task> taskList = heldWrite;
+            heldWrite = null;
+            write(taskList);
+        }
+    }
+
+    /**
+     * End a hold whose changes have been rolled back. The outermost abandon drops the held write,
+     * as the file still has the list the hold started with; an inner one keeps it for the outer hold.
+     */
+    public void abandon() {
+        endHold();
+        if (holdCount == 0) {
+            heldWrite = null;
+        }
+    }
+
+    private void endHold() {
+        if (holdCount == 0) {
+            throw new IllegalStateException("Storage writes are not held");
+        }
+        holdCount--;
+    }
+
+    /**
+     * Check if a write is being held back
+     * @return true if there is something to write
+     */
+    public boolean hasHeldWrite() {
+        return heldWrite != null;
+    }
+
+    /**
+     * Forget the held back write, e.g. when the changes it would save have been undone
+     */
+    public void discardHeldWrite() {
+        heldWrite = null;
+    }
+
+    private void write(List<Task> taskList) throws IOException {
+        if (isLoadFailed()) {
+            // The part that did load would be written over the whole file
+            throw new IOException("Cannot save to " + filePath + " as it did not load in full");
+        }
+        if (loading != null) {
+            // Would drop every task that has not been loaded yet
+            throw new IllegalStateException("Cannot write " + filePath + " while it is still loading");
+        }
+        long start = Metrics.start();
+        StorageFlushEvent event = FlightEvents.isEnabled() ? StorageFlushEvent.start() : null;
+        try {
+            writeLines(taskList, event);
+        } catch (IOException | RuntimeException e) {
+            Metrics.recordFailure("storage.write", start);
+            throw e;
+        }
+        Metrics.record("storage.write", start);
+        if (event != null) {
+            event.end(filePath, taskList.size(), new File(filePath).length());
+        }
+    }
+
+    /**
+     * @param event the flight recorder event of the write, to note the flush time in; null if not recorded
+     */
+    private void writeLines(List<Task> taskList, StorageFlushEvent event) throws IOException {
         File file = new File(filePath);
         File dir = file.getParentFile();
         if(!file.exists()){
-            if(!dir.exists()){
+            if(dir != null && !dir.exists()){
                 dir.mkdirs();
             }
             file.createNewFile();
         }
-        FileWriter fw = new FileWriter(file);
-        for(Task task : taskList){
-            String type = task.getType();
-            String toText = null;
-            String isDone = task.isDone() ? "√" : " ";
-            String description = task.getDescription();
-
-            switch (type){
-                case "T":
-                    toText = "todo [" + isDone + "] " + description + System.getProperty("line.separator");
-                    break;
-                case "D":
-                    toText = "deadline [" + isDone + "] " + description + " /by " + task.getDateTimeStr() + System.getProperty("line.separator");
-                    break;
-                case "E":
-                    toText = "event [" + isDone + "] " + description + " /at " + task.getDateTimeStr() + System.getProperty("line.separator");
-                    break;
+        if (isCompressed()) {
+            try (BufferedOutputStream out = new BufferedOutputStream(new FileOutputStream(file), 64 * 1024)) {
+                BlockFile.write(out, taskList);
+                if (event != null) {
+                    long flushStart = System.nanoTime();
+                    out.flush();
+                    event.flushed(System.nanoTime() - flushStart);
+                }
+            }
+            return;
+        }
+        String lineSeparator = System.lineSeparator();
+        try (BufferedWriter fw = new BufferedWriter(new FileWriter(file, CHARSET))) {
+            for (Task task : taskList) {
+                fw.write(toText(task));
+                fw.write(lineSeparator);
+            }
+            if (event != null) {
+                long flushStart = System.nanoTime();
+                fw.flush();
+                event.flushed(System.nanoTime() - flushStart);
             }
-            assert toText != null;
-            fw.write(toText);
         }
-        fw.close();
     }
 
+    private boolean isCompressed() {
+        String compress = System.getProperty(COMPRESS_PROPERTY);
+        return compress == null ? isReadCompressed : Boolean.parseBoolean(compress);
+    }
 
     /**
-     * The method reads the task list from the tasks.txt file
+     * Convert a task to its line in tasks.txt.
+     * Priority and category markers are written after the description so they survive a reload.
+     * @param task the task to convert
+     * @return the line without line separator
+     */
+    static String toText(Task task) {
+        StringBuilder line = new StringBuilder(64);
+        String type = task.getType();
+        switch (type) {
+        case "T":
+            line.append("todo");
+            break;
+        case "D":
+            line.append("deadline");
+            break;
+        case "E":
+            line.append("event");
+            break;
+        case "R":
+            line.append("recur");
+            break;
+        default:
+            throw new AssertionError("Unknown task type " + type);
+        }
+        line.append(" [").append(task.isDone() ? "√" : " ").append("] ").append(task.getDescription());
+        if (task.getPriority() != Priority.NORMAL) {
+            line.append(' ').append(task.getPriority().getKeyword());
+        }
+        if (task.getCategory().hasCategories()) {
+            line.append(' ').append(task.getCategory().getDisplayString());
+        }
+        if (type.equals("D")) {
+            line.append(" /by ").append(task.getDateTimeStr());
+        } else if (type.equals("E")) {
+            line.append(" /at ").append(task.getDateTimeStr());
+        } else if (type.equals("R")) {
+            line.append(RULE_SEPARATOR).append(((RecurringTask) task).getRecurrence().toText());
+        }
+        return line.toString();
+    }
+
+
+    /**
+     * The method reads the task list from the tasks.txt file, parsing chunks of it on every core
      * @throws FileNotFoundException when file or directory is not found
+     * @throws DateTimeParseException when a line has a missing or malformed date, naming the line
+     * @throws IllegalArgumentException when a line cannot be parsed for another reason, naming the line
      */
     public ArrayList<Task> readFromFile() throws FileNotFoundException {
-        ArrayList<Task> taskList = new ArrayList<>();
+        long start = Metrics.start();
+        ArrayList<Task> taskList;
+        try {
+            taskList = readLines();
+        } catch (FileNotFoundException | RuntimeException e) {
+            Metrics.recordFailure("storage.read", start);
+            throw e;
+        }
+        Metrics.record("storage.read", start);
+        return taskList;
+    }
+
+    private ArrayList<Task> readLines() throws FileNotFoundException {
+        LineSource index = indexLines();
+        try {
+            return new ParallelTaskParser(index).parse(0, index.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Index the lines of tasks.txt, see LineIndex, or the blocks of it if it is compressed, see BlockFile
+     * @throws FileNotFoundException if the file does not exist or cannot be opened
+     */
+    private LineSource indexLines() throws FileNotFoundException {
+        Path path = Paths.get(filePath);
+        try {
+            isReadCompressed = BlockFile.isBlockFile(path);
+            return isReadCompressed ? BlockFile.open(path) : LineIndex.of(path, CHARSET);
+        } catch (NoSuchFileException e) {
+            throw new FileNotFoundException(filePath + " (No such file or directory)");
+        } catch (FileSystemException e) {
+            throw new FileNotFoundException(filePath + " (" + e.getReason() + ")");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Read tasks.txt so that a huge list is usable at once: the lines are indexed first, the first page is
+     * parsed before returning and the rest are parsed on a background thread.
+     * Until <code>finishLoading</code> hands them over, <code>isLoading</code> is true and the list cannot be
+     * written. A file smaller than the <code>duke.load.background</code> system property is read whole, as by
+     * <code>readFromFile</code>.
+     * @return the first page of tasks, or all of them if nothing is left to load
+     * @throws FileNotFoundException when file or directory is not found
+     */
+    public ArrayList<Task> readFirstPage() throws FileNotFoundException {
         File file = new File(filePath);
-        Scanner sc = new Scanner(file);
-        while(sc.hasNext()){
-            String text = sc.nextLine();
-            String parseText = text.replaceAll(" \\[.*?\\] ", " ");
-            boolean isDone = text.contains("√");
-            String[] command = commandToArray(parseText);
-            String keyword = command[0];
-            LocalDateTime dateTime;
-            Task task;
-
-            if(keyword.equals("todo")){
-                task = new Todo(parseText);
-                task.setDone(isDone);
+        if (file.length() < Long.getLong(BACKGROUND_LOAD_PROPERTY, DEFAULT_BACKGROUND_LOAD)) {
+            return readFromFile();
+        }
+        long start = Metrics.start();
+        ArrayList<Task> taskList;
+        try {
+            LineSource index = indexLines();
+            int pageSize = Math.min(FIRST_PAGE_SIZE, index.size());
+            taskList = new ParallelTaskParser(index).parse(0, pageSize);
+            if (pageSize < index.size()) {
+                loading = new BackgroundLoad(index, pageSize);
+                loading.start();
+            }
+        } catch (FileNotFoundException e) {
+            Metrics.recordFailure("storage.read", start);
+            throw e;
+        } catch (IOException e) {
+            Metrics.recordFailure("storage.read", start);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            Metrics.recordFailure("storage.read", start);
+            throw e;
+        }
+        Metrics.record("storage.read", start);
+        return taskList;
+    }
+
+    /**
+     * Check if the rest of tasks.txt is still to be handed over by <code>finishLoading</code>
+     */
+    public boolean isLoading() {
+        return loading != null;
+    }
+
+    /**
+     * Check if the background thread has finished, so that <code>finishLoading</code> will not wait
+     */
+    public boolean isLoadDone() {
+        return loading == null || loading.isDone();
+    }
+
+    /**
+     * Check if the background thread failed, e.g. on a malformed line, after which the file is never written
+     */
+    public boolean isLoadFailed() {
+        return loading != null && loading.isFailed();
+    }
+
+    /**
+     * Get the number of tasks loaded so far, counting the first page
+     */
+    public int getLoadedCount() {
+        return loading == null ? 0 : loading.getLoadedCount();
+    }
+
+    /**
+     * Get the number of tasks in tasks.txt while it is loading
+     */
+    public int getLoadTotal() {
+        return loading == null ? 0 : loading.getTotal();
+    }
+
+    /**
+     * Wait for the background thread and end the load, after which the list can be written again.
+     * If the thread failed, the load does not end, so the part that was loaded is never written over the file.
+     * @return the tasks after the first page, in file order, to be appended to it
+     * @throws IOException if the file could not be read
+     * @throws IllegalStateException if nothing is loading
+     */
+    public ArrayList<Task> finishLoading() throws IOException {
+        if (loading == null) {
+            throw new IllegalStateException(filePath + " is not loading");
+        }
+        ArrayList<Task> rest = loading.await();
+        loading = null;
+        return rest;
+    }
+
+    /**
+     * Parse one line of tasks.txt in a single scan, without the regex replace and split passes.
+     * @param text is a line in tasks.txt
+     * @return the task
+     * @throws DateTimeParseException when the date of a deadline or event is missing or malformed
+     */
+    static Task parseLine(String text) throws DateTimeParseException {
+        int length = text.length();
+        int space = text.indexOf(' ');
+        int keywordEnd = space < 0 ? length : space;
+        int start = space < 0 ? length : space + 1;
+        boolean isDone = false;
+        if (text.startsWith("[", start)) {
+            int close = text.indexOf("] ", start);
+            if (close >= 0) {
+                // Any mark counts as done, so files written with a charset that cannot encode √ still load
+                isDone = close > start + 1 && text.charAt(start + 1) != ' ';
+                start = close + 2;
+            }
+        }
+
+        Task task;
+        if (text.regionMatches(0, "todo", 0, keywordEnd) && keywordEnd == 4) {
+            task = new Todo(TaskTextAnalyzer.analyze(text, start, length, length));
+        } else if (keywordEnd == 5 && text.regionMatches(0, "recur", 0, 5)) {
+            int separator = text.indexOf(RULE_SEPARATOR, start);
+            if (separator < 0) {
+                throw new DateTimeParseException("Recurrence rule not found", text, start);
             }
-            else if(keyword.equals("deadline")){
-                dateTime = Parser.parseDateTimeFromFile(command);
-                task = new Deadline(parseText, dateTime);
-                task.setDone(isDone);
+            task = new RecurringTask(TaskTextAnalyzer.analyze(text, start, separator, separator),
+                    Recurrence.fromText(text.substring(separator + RULE_SEPARATOR.length())));
+        } else {
+            boolean isDeadline = keywordEnd == 8 && text.regionMatches(0, "deadline", 0, 8);
+            int separator = findSeparator(text, start);
+            if (separator < 0) {
+                throw new DateTimeParseException("Date/time token not found", text, start);
             }
-            else{
-                dateTime = Parser.parseDateTimeFromFile(command);
-                task = new Event(parseText, dateTime);
-                task.setDone(isDone);
+            int dateStart = text.indexOf(' ', separator + 1) + 1;
+            int range = isDeadline ? -1 : text.indexOf(EVENT_RANGE_SEPARATOR, dateStart);
+            TaskTextAnalyzer.Analysis analysis = TaskTextAnalyzer.analyze(text, start, separator, separator);
+            if (isDeadline) {
+                task = new Deadline(analysis, parseFileDate(text, dateStart, length));
+            } else if (range < 0) {
+                task = new Event(analysis, parseFileDate(text, dateStart, length));
+            } else {
+                LocalDateTime dateTime = parseFileDate(text, dateStart, range);
+                task = new Event(analysis, dateTime,
+                        parseFileEnd(text, range + EVENT_RANGE_SEPARATOR.length(), dateTime));
             }
-            taskList.add(task);
         }
-        return taskList;
+        task.setDone(isDone);
+        return task;
+    }
+
+    /**
+     * Find the " /by " or " /at " separator, tolerating the legacy form without the leading space
+     * @return offset of the separator, or -1 if there is none
+     */
+    private static int findSeparator(String text, int start) {
+        for (int i = text.indexOf('/', start); i >= 0; i = text.indexOf('/', i + 1)) {
+            if (text.startsWith("/by ", i) || text.startsWith("/at ", i)) {
+                return i > start && text.charAt(i - 1) == ' ' ? i - 1 : i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Parse a stored date such as "(by: Oct 19, 2026, 9:00 AM)" starting at the given offset
+     * @param limit offset the date ends at, e.g. where the end of an event follows
+     */
+    private static LocalDateTime parseFileDate(String text, int offset, int limit) throws DateTimeParseException {
+        int i = offset;
+        while (i < limit && (text.charAt(i) == ' ' || text.charAt(i) == '(')) {
+            i++;
+        }
+        if (text.startsWith("by:", i) || text.startsWith("at:", i)) {
+            i += 3;
+        }
+        while (i < limit && text.charAt(i) == ' ') {
+            i++;
+        }
+        int end = trimmedEnd(text, i, limit);
+        if (i >= end) {
+            throw new DateTimeParseException("Date/time token incomplete", text, offset);
+        }
+        return LocalDateTime.from(parseFully(FILE_DATE_FORMATTER, text, i, end));
+    }
+
+    /**
+     * Parse the stored end of an event, e.g. "4:00 PM)" for one that ends on the day it starts
+     * or "Oct 20, 2026, 10:00 AM)" for one that ends later
+     */
+    private static LocalDateTime parseFileEnd(String text, int offset, LocalDateTime start)
+            throws DateTimeParseException {
+        int end = trimmedEnd(text, offset, text.length());
+        try {
+            return LocalDateTime.from(parseFully(FILE_DATE_FORMATTER, text, offset, end));
+        } catch (DateTimeParseException e) {
+            return start.toLocalDate().atTime(LocalTime.from(parseFully(FILE_TIME_FORMATTER, text, offset, end)));
+        }
+    }
+
+    private static int trimmedEnd(String text, int start, int limit) {
+        int end = limit;
+        while (end > start && (text.charAt(end - 1) == ')' || text.charAt(end - 1) == ' ')) {
+            end--;
+        }
+        return end;
+    }
+
+    private static TemporalAccessor parseFully(DateTimeFormatter formatter, String text, int start, int end)
+            throws DateTimeParseException {
+        ParsePosition position = new ParsePosition(start);
+        TemporalAccessor parsed = formatter.parse(text, position);
+        if (position.getIndex() != end) {
+            throw new DateTimeParseException("Unexpected text after date/time", text, position.getIndex());
+        }
+        return parsed;
     }
 }
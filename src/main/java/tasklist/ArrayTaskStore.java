@@ -0,0 +1,160 @@
+package tasklist;
+
+import java.util.ArrayList;
+
+/**
+ * Default task store that keeps the Task objects in an ArrayList.
+ * Once a row listener is set, each task is bound to its row, so that changing it reports the row.
+ */
+public class ArrayTaskStore implements TaskStore {
+    private final ArrayList<Task> tasks;
+    private RowListener listener;
+
+    public ArrayTaskStore() {
+        this(new ArrayList<>());
+    }
+
+    public ArrayTaskStore(ArrayList<Task> tasks) {
+        this.tasks = tasks;
+    }
+
+    ArrayList<Task> list() {
+        return tasks;
+    }
+
+    @Override
+    public int size() {
+        return tasks.size();
+    }
+
+    @Override
+    public Task get(int index) {
+        return tasks.get(index);
+    }
+
+    @Override
+    public void add(Task task) {
+        tasks.add(task);
+        if (listener != null) {
+            task.bind(this, tasks.size() - 1);
+            listener.inserted(tasks.size() - 1);
+        }
+    }
+
+    @Override
+    public Task remove(int index) {
+        Task removed = tasks.remove(index);
+        if (listener != null) {
+            unbind(removed);
+            bindFrom(index);
+            listener.removed(index);
+        }
+        return removed;
+    }
+
+    @Override
+    public void set(int index, Task task) {
+        Task replaced = tasks.set(index, task);
+        if (listener != null) {
+            unbind(replaced);
+            task.bind(this, index);
+            listener.removed(index);
+            listener.inserted(index);
+        }
+    }
+
+    @Override
+    public void insert(int index, Task task) {
+        tasks.add(index, task);
+        if (listener != null) {
+            bindFrom(index);
+            listener.inserted(index);
+        }
+    }
+
+    @Override
+    public void clear() {
+        if (listener != null) {
+            for (Task task : tasks) {
+                unbind(task);
+            }
+            listener.cleared();
+        }
+        tasks.clear();
+    }
+
+    @Override
+    public void removeAll(int[] indices) {
+        int next = 0;
+        int kept = 0;
+        for (int i = 0; i < tasks.size(); i++) {
+            if (next < indices.length && indices[next] == i) {
+                if (listener != null) {
+                    unbind(tasks.get(i));
+                }
+                next++;
+            } else {
+                tasks.set(kept++, tasks.get(i));
+            }
+        }
+        tasks.subList(kept, tasks.size()).clear();
+        if (listener != null && indices.length > 0) {
+            bindFrom(indices[0]);
+            listener.removedAll(indices);
+        }
+    }
+
+    /**
+     * Report a task changed through its setters, if it is still the one at its row
+     */
+    @Override
+    public void update(int index, Task task) {
+        if (listener != null && index < tasks.size() && tasks.get(index) == task) {
+            listener.changed(index);
+        }
+    }
+
+    @Override
+    public boolean setRowListener(RowListener listener) {
+        this.listener = listener;
+        bindFrom(0);
+        return true;
+    }
+
+    private void bindFrom(int index) {
+        for (int i = index; i < tasks.size(); i++) {
+            tasks.get(i).bind(this, i);
+        }
+    }
+
+    private void unbind(Task task) {
+        if (task.isBoundTo(this)) {
+            task.bind(null, -1);
+        }
+    }
+
+    @Override
+    public char type(int index) {
+        return tasks.get(index).getType().charAt(0);
+    }
+
+    @Override
+    public boolean isDone(int index) {
+        return tasks.get(index).isDone();
+    }
+
+    @Override
+    public Priority priority(int index) {
+        return tasks.get(index).getPriority();
+    }
+
+    @Override
+    public long dueMinute(int index) {
+        return TaskStore.toMinute(tasks.get(index).getDateTime());
+    }
+
+    @Override
+    public boolean descriptionContains(int index, String lowerCaseText) {
+        return tasks.get(index).getDescription().toLowerCase().contains(lowerCaseText);
+    }
+}
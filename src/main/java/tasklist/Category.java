@@ -5,24 +5,33 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
- * Category system for task organization with hashtags and @mentions
+ * Category system for task organization with hashtags and @mentions.
+ * Tags and contexts are kept as sorted arrays of ids from the global {@link TagDictionary},
+ * so a task with a couple of tags costs a few ints instead of two hash sets.
  */
 public class Category {
-    private final Set<String> tags;
-    private final Set<String> contexts;
+    private static final int[] NO_IDS = new int[0];
+
+    /**
+     * Shared immutable category for tasks without tags or contexts
+     */
+    public static final Category EMPTY = new Category(NO_IDS, NO_IDS);
+
+    private int[] tags;
+    private int[] contexts;
     
     // Patterns for parsing categories
     private static final Pattern HASHTAG_PATTERN = Pattern.compile("#([a-zA-Z0-9_-]+)");
     private static final Pattern CONTEXT_PATTERN = Pattern.compile("@([a-zA-Z0-9_-]+)");
     
     public Category() {
-        this.tags = new HashSet<>();
-        this.contexts = new HashSet<>();
+        this.tags = NO_IDS;
+        this.contexts = NO_IDS;
     }
     
     public Category(Set<String> tags, Set<String> contexts) {
-        this.tags = new HashSet<>(tags);
-        this.contexts = new HashSet<>(contexts);
+        this.tags = toIds(tags);
+        this.contexts = toIds(contexts);
     }
     
     /**
@@ -30,8 +39,140 @@ public class Category {
      * @param other Category to copy from
      */
     public Category(Category other) {
-        this.tags = new HashSet<>(other.tags);
-        this.contexts = new HashSet<>(other.contexts);
+        // The id arrays are never modified in place, so they can be shared
+        this.tags = other.tags;
+        this.contexts = other.contexts;
+    }
+
+    Category(int[] tags, int[] contexts) {
+        this.tags = tags;
+        this.contexts = contexts;
+    }
+
+    /**
+     * Build a category from already lower-cased names
+     * @param tags tag names
+     * @param contexts context names
+     * @return the category, or EMPTY if there are no names
+     */
+    static Category of(Collection<String> tags, Collection<String> contexts) {
+        if (tags.isEmpty() && contexts.isEmpty()) {
+            return EMPTY;
+        }
+        return new Category(toIds(tags), toIds(contexts));
+    }
+
+    private static int[] toIds(Collection<String> names) {
+        if (names.isEmpty()) {
+            return NO_IDS;
+        }
+        int[] ids = new int[names.size()];
+        int count = 0;
+        for (String name : names) {
+            ids[count++] = TagDictionary.intern(name.toLowerCase());
+        }
+        Arrays.sort(ids);
+        // Drop duplicates that only differed in case
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (unique == 0 || ids[unique - 1] != ids[i]) {
+                ids[unique++] = ids[i];
+            }
+        }
+        return unique == ids.length ? ids : Arrays.copyOf(ids, unique);
+    }
+
+    private static int[] with(int[] ids, int id) {
+        int index = Arrays.binarySearch(ids, id);
+        if (index >= 0) {
+            return ids;
+        }
+        int insertAt = -index - 1;
+        int[] result = new int[ids.length + 1];
+        System.arraycopy(ids, 0, result, 0, insertAt);
+        result[insertAt] = id;
+        System.arraycopy(ids, insertAt, result, insertAt + 1, ids.length - insertAt);
+        return result;
+    }
+
+    private static int[] without(int[] ids, int id) {
+        int index = id < 0 ? -1 : Arrays.binarySearch(ids, id);
+        if (index < 0) {
+            return ids;
+        }
+        if (ids.length == 1) {
+            return NO_IDS;
+        }
+        int[] result = new int[ids.length - 1];
+        System.arraycopy(ids, 0, result, 0, index);
+        System.arraycopy(ids, index + 1, result, index, ids.length - index - 1);
+        return result;
+    }
+
+    private static boolean containsName(int[] ids, String name) {
+        int id = TagDictionary.find(name.toLowerCase());
+        return id >= 0 && Arrays.binarySearch(ids, id) >= 0;
+    }
+
+    private void checkMutable() {
+        if (this == EMPTY) {
+            throw new UnsupportedOperationException("Category.EMPTY cannot be modified");
+        }
+    }
+
+    /**
+     * Get the sorted tag ids, for index and column builders. The array must not be modified.
+     */
+    int[] tagIds() {
+        return tags;
+    }
+
+    /**
+     * Get the sorted context ids, for index and column builders. The array must not be modified.
+     */
+    int[] contextIds() {
+        return contexts;
+    }
+
+    /**
+     * Read-only view of a sorted id array as a set of names
+     */
+    private static final class NameSetView extends AbstractSet<String> {
+        private final int[] ids;
+
+        NameSetView(int[] ids) {
+            this.ids = ids;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof String && containsName(ids, (String) o);
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            return new Iterator<String>() {
+                private int next = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return next < ids.length;
+                }
+
+                @Override
+                public String next() {
+                    if (next >= ids.length) {
+                        throw new NoSuchElementException();
+                    }
+                    return TagDictionary.nameOf(ids[next++]);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return ids.length;
+        }
     }
     
     /**
@@ -57,7 +198,7 @@ public class Category {
             contexts.add(contextMatcher.group(1).toLowerCase());
         }
         
-        return new Category(tags, contexts);
+        return new Category(toIds(tags), toIds(contexts));
     }
     
     /**
@@ -119,18 +260,18 @@ public class Category {
     
     /**
      * Get all tags
-     * @return set of tags
+     * @return read-only view of the tags
      */
     public Set<String> getTags() {
-        return new HashSet<>(tags);
+        return new NameSetView(tags);
     }
     
     /**
      * Get all contexts
-     * @return set of contexts
+     * @return read-only view of the contexts
      */
     public Set<String> getContexts() {
-        return new HashSet<>(contexts);
+        return new NameSetView(contexts);
     }
     
     /**
@@ -138,8 +279,9 @@ public class Category {
      * @param tag tag to add
      */
     public void addTag(String tag) {
+        checkMutable();
         if (tag != null && !tag.trim().isEmpty()) {
-            tags.add(tag.toLowerCase().trim());
+            tags = with(tags, TagDictionary.intern(tag.toLowerCase().trim()));
         }
     }
     
@@ -148,8 +290,9 @@ public class Category {
      * @param context context to add
      */
     public void addContext(String context) {
+        checkMutable();
         if (context != null && !context.trim().isEmpty()) {
-            contexts.add(context.toLowerCase().trim());
+            contexts = with(contexts, TagDictionary.intern(context.toLowerCase().trim()));
         }
     }
     
@@ -158,7 +301,8 @@ public class Category {
      * @param tag tag to remove
      */
     public void removeTag(String tag) {
-        tags.remove(tag.toLowerCase());
+        checkMutable();
+        tags = without(tags, TagDictionary.find(tag.toLowerCase()));
     }
     
     /**
@@ -166,7 +310,8 @@ public class Category {
      * @param context context to remove
      */
     public void removeContext(String context) {
-        contexts.remove(context.toLowerCase());
+        checkMutable();
+        contexts = without(contexts, TagDictionary.find(context.toLowerCase()));
     }
     
     /**
@@ -174,7 +319,7 @@ public class Category {
      * @return true if has tags or contexts
      */
     public boolean hasCategories() {
-        return !tags.isEmpty() || !contexts.isEmpty();
+        return tags.length > 0 || contexts.length > 0;
     }
     
     /**
@@ -183,7 +328,7 @@ public class Category {
      * @return true if has tag
      */
     public boolean hasTag(String tag) {
-        return tags.contains(tag.toLowerCase());
+        return containsName(tags, tag);
     }
     
     /**
@@ -192,7 +337,7 @@ public class Category {
      * @return true if has context
      */
     public boolean hasContext(String context) {
-        return contexts.contains(context.toLowerCase());
+        return containsName(contexts, context);
     }
     
     /**
@@ -207,8 +352,8 @@ public class Category {
         StringBuilder display = new StringBuilder();
         
         // Add tags
-        if (!tags.isEmpty()) {
-            List<String> sortedTags = new ArrayList<>(tags);
+        if (tags.length > 0) {
+            List<String> sortedTags = new ArrayList<>(getTags());
             Collections.sort(sortedTags);
             for (String tag : sortedTags) {
                 display.append("#").append(tag).append(" ");
@@ -216,8 +361,8 @@ public class Category {
         }
         
         // Add contexts
-        if (!contexts.isEmpty()) {
-            List<String> sortedContexts = new ArrayList<>(contexts);
+        if (contexts.length > 0) {
+            List<String> sortedContexts = new ArrayList<>(getContexts());
             Collections.sort(sortedContexts);
             for (String context : sortedContexts) {
                 display.append("@").append(context).append(" ");
@@ -249,13 +394,27 @@ public class Category {
     public Category merge(Category other) {
         if (other == null) return this;
         
-        Set<String> mergedTags = new HashSet<>(this.tags);
-        mergedTags.addAll(other.tags);
-        
-        Set<String> mergedContexts = new HashSet<>(this.contexts);
-        mergedContexts.addAll(other.contexts);
-        
-        return new Category(mergedTags, mergedContexts);
+        return new Category(union(this.tags, other.tags), union(this.contexts, other.contexts));
+    }
+
+    private static int[] union(int[] a, int[] b) {
+        if (b.length == 0) return a;
+        if (a.length == 0) return b;
+        int[] result = new int[a.length + b.length];
+        int i = 0, j = 0, k = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                result[k++] = a[i++];
+                j++;
+            } else if (a[i] < b[j]) {
+                result[k++] = a[i++];
+            } else {
+                result[k++] = b[j++];
+            }
+        }
+        while (i < a.length) result[k++] = a[i++];
+        while (j < b.length) result[k++] = b[j++];
+        return k == result.length ? result : Arrays.copyOf(result, k);
     }
     
     @Override
@@ -264,13 +423,13 @@ public class Category {
         if (obj == null || getClass() != obj.getClass()) return false;
         
         Category category = (Category) obj;
-        return Objects.equals(tags, category.tags) && 
-               Objects.equals(contexts, category.contexts);
+        return Arrays.equals(tags, category.tags) && 
+               Arrays.equals(contexts, category.contexts);
     }
     
     @Override
     public int hashCode() {
-        return Objects.hash(tags, contexts);
+        return 31 * Arrays.hashCode(tags) + Arrays.hashCode(contexts);
     }
     
     @Override
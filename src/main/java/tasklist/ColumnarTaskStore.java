@@ -0,0 +1,498 @@
+package tasklist;
+
+import java.util.Arrays;
+
+/**
+ * Task store that keeps every field in its own primitive array.
+ * Descriptions live in one shared char arena and categories in one shared int arena,
+ * so filter scans walk contiguous memory instead of chasing Task, Category and LocalDateTime objects.
+ * Task objects are only created by <code>get</code>, as views bound to their row:
+ * changing the done flag, priority or category of a view writes it back to the columns.
+ * A view is only valid until the next add, remove or clear on the store.
+ * A snapshot shares the columns and arenas with the store; the store copies the columns before it
+ * next writes a row the snapshot can see, and never writes the shared arenas but past their end.
+ */
+public class ColumnarTaskStore implements TaskStore {
+    private static final byte DONE = 1;
+    private static final Priority[] PRIORITIES = Priority.values();
+
+    private int size;
+    private int[] ids = new int[16];
+    private byte[] types = new byte[16];
+    private byte[] flags = new byte[16];
+    private byte[] priorities = new byte[16];
+    // Minutes since the epoch, or NO_DUE; an int would overflow for dates past the year 6053
+    private long[] dueMinutes = new long[16];
+
+    // Tags are stored as their TagDictionary id, contexts as the complement (~id) of it
+    private int[] categoryStart = new int[16];
+    private short[] categoryCount = new short[16];
+    private int[] categoryArena = new int[64];
+    private int categoryUsed;
+    private int categoryGarbage;
+
+    private int[] descriptionStart = new int[16];
+    private int[] descriptionLength = new int[16];
+    private char[] descriptionArena = new char[1024];
+    private int descriptionUsed;
+    private int descriptionGarbage;
+
+    private RowListener listener;
+    // Set when a snapshot reads the same columns or arenas
+    private boolean isColumnsShared;
+    private boolean isDescriptionsShared;
+    private boolean isCategoriesShared;
+    // Set for the read-only copy a snapshot reads, whose views are frozen rather than bound
+    private final boolean isSnapshot;
+
+    public ColumnarTaskStore() {
+        this.isSnapshot = false;
+    }
+
+    /**
+     * Make a read-only copy of a store sharing its columns and arenas
+     */
+    private ColumnarTaskStore(ColumnarTaskStore store) {
+        this.isSnapshot = true;
+        size = store.size;
+        ids = store.ids;
+        types = store.types;
+        flags = store.flags;
+        priorities = store.priorities;
+        dueMinutes = store.dueMinutes;
+        categoryStart = store.categoryStart;
+        categoryCount = store.categoryCount;
+        categoryArena = store.categoryArena;
+        categoryUsed = store.categoryUsed;
+        descriptionStart = store.descriptionStart;
+        descriptionLength = store.descriptionLength;
+        descriptionArena = store.descriptionArena;
+        descriptionUsed = store.descriptionUsed;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the id of the task stored at an index
+     */
+    public int id(int index) {
+        checkIndex(index);
+        return ids[index];
+    }
+
+    @Override
+    public Task get(int index) {
+        checkIndex(index);
+        String description = new String(descriptionArena, descriptionStart[index], descriptionLength[index]);
+        Task task = Task.restore((char) types[index], description, (flags[index] & DONE) != 0,
+                PRIORITIES[priorities[index]], readCategory(index), TaskStore.fromMinute(dueMinute(index)));
+        task.setId(ids[index]);
+        if (isSnapshot) {
+            task.freeze();
+        } else {
+            task.bind(this, index);
+        }
+        return task;
+    }
+
+    @Override
+    public void add(Task task) {
+        ensureCapacity(size + 1);
+        ids[size] = task.getId();
+        write(size, task);
+        size++;
+        if (listener != null) {
+            listener.inserted(size - 1);
+        }
+    }
+
+    @Override
+    public Task remove(int index) {
+        Task removed = get(index);
+        removed.bind(null, -1);
+        unshareColumns();
+        descriptionGarbage += descriptionLength[index];
+        categoryGarbage += categoryCount[index];
+        int moved = size - index - 1;
+        System.arraycopy(ids, index + 1, ids, index, moved);
+        System.arraycopy(types, index + 1, types, index, moved);
+        System.arraycopy(flags, index + 1, flags, index, moved);
+        System.arraycopy(priorities, index + 1, priorities, index, moved);
+        System.arraycopy(dueMinutes, index + 1, dueMinutes, index, moved);
+        System.arraycopy(categoryStart, index + 1, categoryStart, index, moved);
+        System.arraycopy(categoryCount, index + 1, categoryCount, index, moved);
+        System.arraycopy(descriptionStart, index + 1, descriptionStart, index, moved);
+        System.arraycopy(descriptionLength, index + 1, descriptionLength, index, moved);
+        size--;
+        if (listener != null) {
+            listener.removed(index);
+        }
+        return removed;
+    }
+
+    @Override
+    public void insert(int index, Task task) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+        ensureCapacity(size + 1);
+        unshareColumns();
+        int moved = size - index;
+        System.arraycopy(ids, index, ids, index + 1, moved);
+        System.arraycopy(types, index, types, index + 1, moved);
+        System.arraycopy(flags, index, flags, index + 1, moved);
+        System.arraycopy(priorities, index, priorities, index + 1, moved);
+        System.arraycopy(dueMinutes, index, dueMinutes, index + 1, moved);
+        System.arraycopy(categoryStart, index, categoryStart, index + 1, moved);
+        System.arraycopy(categoryCount, index, categoryCount, index + 1, moved);
+        System.arraycopy(descriptionStart, index, descriptionStart, index + 1, moved);
+        System.arraycopy(descriptionLength, index, descriptionLength, index + 1, moved);
+        size++;
+        // The shifted copy of the old row still owns its arena entries, so this row starts out empty
+        descriptionLength[index] = 0;
+        categoryCount[index] = 0;
+        ids[index] = task.getId();
+        write(index, task);
+        if (listener != null) {
+            listener.inserted(index);
+        }
+    }
+
+    @Override
+    public void removeAll(int[] indices) {
+        unshareColumns();
+        int next = 0;
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (next < indices.length && indices[next] == i) {
+                descriptionGarbage += descriptionLength[i];
+                categoryGarbage += categoryCount[i];
+                next++;
+                continue;
+            }
+            if (kept != i) {
+                ids[kept] = ids[i];
+                types[kept] = types[i];
+                flags[kept] = flags[i];
+                priorities[kept] = priorities[i];
+                dueMinutes[kept] = dueMinutes[i];
+                categoryStart[kept] = categoryStart[i];
+                categoryCount[kept] = categoryCount[i];
+                descriptionStart[kept] = descriptionStart[i];
+                descriptionLength[kept] = descriptionLength[i];
+            }
+            kept++;
+        }
+        size = kept;
+        if (listener != null) {
+            listener.removedAll(indices);
+        }
+    }
+
+    @Override
+    public void set(int index, Task task) {
+        checkIndex(index);
+        unshareColumns();
+        descriptionGarbage += descriptionLength[index];
+        categoryGarbage += categoryCount[index];
+        descriptionLength[index] = 0;
+        categoryCount[index] = 0;
+        ids[index] = task.getId();
+        write(index, task);
+        if (listener != null) {
+            listener.removed(index);
+            listener.inserted(index);
+        }
+    }
+
+    @Override
+    public void clear() {
+        if (isColumnsShared || isDescriptionsShared || isCategoriesShared) {
+            // New rows would overwrite what the snapshot reads, so start over in new arrays
+            ids = new int[16];
+            types = new byte[16];
+            flags = new byte[16];
+            priorities = new byte[16];
+            dueMinutes = new long[16];
+            categoryStart = new int[16];
+            categoryCount = new short[16];
+            categoryArena = new int[64];
+            descriptionStart = new int[16];
+            descriptionLength = new int[16];
+            descriptionArena = new char[1024];
+            isColumnsShared = false;
+            isDescriptionsShared = false;
+            isCategoriesShared = false;
+        }
+        size = 0;
+        descriptionUsed = 0;
+        descriptionGarbage = 0;
+        categoryUsed = 0;
+        categoryGarbage = 0;
+        if (listener != null) {
+            listener.cleared();
+        }
+    }
+
+    @Override
+    public void update(int index, Task task) {
+        checkIndex(index);
+        unshareColumns();
+        flags[index] = task.isDone() ? DONE : 0;
+        priorities[index] = (byte) task.getPriority().ordinal();
+        categoryGarbage += categoryCount[index];
+        categoryCount[index] = 0;
+        writeCategory(index, task.getCategory());
+        if (listener != null) {
+            listener.changed(index);
+        }
+    }
+
+    @Override
+    public boolean setRowListener(RowListener listener) {
+        this.listener = listener;
+        return true;
+    }
+
+    /**
+     * Share the columns and arenas with a read-only copy, until the next write to a row it can see
+     */
+    @Override
+    public TaskStore share() {
+        isColumnsShared = true;
+        isDescriptionsShared = true;
+        isCategoriesShared = true;
+        return new ColumnarTaskStore(this);
+    }
+
+    @Override
+    public char type(int index) {
+        checkIndex(index);
+        return (char) types[index];
+    }
+
+    @Override
+    public boolean isDone(int index) {
+        checkIndex(index);
+        return (flags[index] & DONE) != 0;
+    }
+
+    @Override
+    public Priority priority(int index) {
+        checkIndex(index);
+        return PRIORITIES[priorities[index]];
+    }
+
+    @Override
+    public long dueMinute(int index) {
+        checkIndex(index);
+        return dueMinutes[index];
+    }
+
+    @Override
+    public boolean descriptionContains(int index, String lowerCaseText) {
+        checkIndex(index);
+        int start = descriptionStart[index];
+        int end = start + descriptionLength[index];
+        if (types[index] == 'R' || types[index] == 'E') {
+            // Only the description, not the rule or end stored after it
+            int limit = end;
+            end = start;
+            while (end < limit && descriptionArena[end] != Task.STORED_FIELD_SEPARATOR) {
+                end++;
+            }
+        }
+        int last = end - lowerCaseText.length();
+        int needleLength = lowerCaseText.length();
+        for (int i = start; i <= last; i++) {
+            int j = 0;
+            while (j < needleLength && Character.toLowerCase(descriptionArena[i + j]) == lowerCaseText.charAt(j)) {
+                j++;
+            }
+            if (j == needleLength) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check if a task has the given tag, without materializing its category
+     * @param tagId id from TagDictionary
+     */
+    @Override
+    public boolean hasTag(int index, int tagId) {
+        checkIndex(index);
+        int start = categoryStart[index];
+        int end = start + categoryCount[index];
+        for (int i = start; i < end; i++) {
+            if (categoryArena[i] == tagId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check if a task has the given context, without materializing its category
+     * @param contextId id from TagDictionary
+     */
+    @Override
+    public boolean hasContext(int index, int contextId) {
+        return hasTag(index, ~contextId);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+    }
+
+    /**
+     * Copy the columns before writing a row a snapshot may read; rows past its end are written in place
+     */
+    private void unshareColumns() {
+        if (!isColumnsShared) {
+            return;
+        }
+        ids = ids.clone();
+        types = types.clone();
+        flags = flags.clone();
+        priorities = priorities.clone();
+        dueMinutes = dueMinutes.clone();
+        categoryStart = categoryStart.clone();
+        categoryCount = categoryCount.clone();
+        descriptionStart = descriptionStart.clone();
+        descriptionLength = descriptionLength.clone();
+        isColumnsShared = false;
+    }
+
+    private void write(int index, Task task) {
+        types[index] = (byte) task.getType().charAt(0);
+        flags[index] = task.isDone() ? DONE : 0;
+        priorities[index] = (byte) task.getPriority().ordinal();
+        dueMinutes[index] = TaskStore.toMinute(task.getDateTime());
+        writeDescription(index, task.storedDescription());
+        writeCategory(index, task.getCategory());
+    }
+
+    private void writeDescription(int index, String description) {
+        int length = description.length();
+        if (descriptionUsed + length > descriptionArena.length) {
+            compactDescriptions(length);
+        }
+        description.getChars(0, length, descriptionArena, descriptionUsed);
+        descriptionStart[index] = descriptionUsed;
+        descriptionLength[index] = length;
+        descriptionUsed += length;
+    }
+
+    private void writeCategory(int index, Category category) {
+        int[] tags = category.tagIds();
+        int[] contexts = category.contextIds();
+        int count = tags.length + contexts.length;
+        if (categoryUsed + count > categoryArena.length) {
+            compactCategories(count);
+        }
+        categoryStart[index] = categoryUsed;
+        categoryCount[index] = (short) count;
+        for (int tag : tags) {
+            categoryArena[categoryUsed++] = tag;
+        }
+        for (int context : contexts) {
+            categoryArena[categoryUsed++] = ~context;
+        }
+    }
+
+    private Category readCategory(int index) {
+        int count = categoryCount[index];
+        if (count == 0) {
+            return Category.EMPTY;
+        }
+        int start = categoryStart[index];
+        int tagCount = 0;
+        while (tagCount < count && categoryArena[start + tagCount] >= 0) {
+            tagCount++;
+        }
+        int[] tags = Arrays.copyOfRange(categoryArena, start, start + tagCount);
+        int[] contexts = new int[count - tagCount];
+        for (int i = 0; i < contexts.length; i++) {
+            contexts[i] = ~categoryArena[start + tagCount + i];
+        }
+        return new Category(tags, contexts);
+    }
+
+    /**
+     * Drop the arena space of removed or rewritten rows, growing the arena if it is still too small
+     */
+    private void compactDescriptions(int extra) {
+        unshareColumns();
+        int live = descriptionUsed - descriptionGarbage;
+        char[] target = descriptionArena;
+        if (live + extra > descriptionArena.length / 2) {
+            target = new char[Math.max(descriptionArena.length * 2, live + extra)];
+        } else if (isDescriptionsShared) {
+            target = new char[descriptionArena.length];
+        }
+        // Rewritten rows sit at the end of the arena, so pack from a copy rather than in place
+        char[] source = descriptionArena;
+        if (target == source) {
+            source = Arrays.copyOf(descriptionArena, descriptionUsed);
+        }
+        int used = 0;
+        for (int i = 0; i < size; i++) {
+            System.arraycopy(source, descriptionStart[i], target, used, descriptionLength[i]);
+            descriptionStart[i] = used;
+            used += descriptionLength[i];
+        }
+        descriptionArena = target;
+        descriptionUsed = used;
+        descriptionGarbage = 0;
+        isDescriptionsShared = false;
+    }
+
+    private void compactCategories(int extra) {
+        unshareColumns();
+        int live = categoryUsed - categoryGarbage;
+        int[] target = categoryArena;
+        if (live + extra > categoryArena.length / 2) {
+            target = new int[Math.max(categoryArena.length * 2, live + extra)];
+        } else if (isCategoriesShared) {
+            target = new int[categoryArena.length];
+        }
+        int[] source = categoryArena;
+        if (target == source) {
+            source = Arrays.copyOf(categoryArena, categoryUsed);
+        }
+        int used = 0;
+        for (int i = 0; i < size; i++) {
+            System.arraycopy(source, categoryStart[i], target, used, categoryCount[i]);
+            categoryStart[i] = used;
+            used += categoryCount[i];
+        }
+        categoryArena = target;
+        categoryUsed = used;
+        categoryGarbage = 0;
+        isCategoriesShared = false;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ids.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, newCapacity);
+        types = Arrays.copyOf(types, newCapacity);
+        flags = Arrays.copyOf(flags, newCapacity);
+        priorities = Arrays.copyOf(priorities, newCapacity);
+        dueMinutes = Arrays.copyOf(dueMinutes, newCapacity);
+        categoryStart = Arrays.copyOf(categoryStart, newCapacity);
+        categoryCount = Arrays.copyOf(categoryCount, newCapacity);
+        descriptionStart = Arrays.copyOf(descriptionStart, newCapacity);
+        descriptionLength = Arrays.copyOf(descriptionLength, newCapacity);
+        isColumnsShared = false;
+    }
+}
@@ -0,0 +1,232 @@
+package tasklist;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Index of the dated tasks of a TaskSnapshot by the time they take up.
+ * Deadlines take up the minute they are due, events the span from their start to their end,
+ * and recurring tasks the span of their rule, whose occurrences are worked out only for the window looked at.
+ * The spans are kept in an IntervalTree, so finding what a window overlaps costs O(log n + k)
+ * instead of a scan of every task. Like the snapshot, the index is immutable: publishing a change
+ * derives the next index from the previous one, sharing everything but the changed paths.
+ */
+public final class DateIndex {
+    static final DateIndex EMPTY = new DateIndex(IntervalTree.empty());
+
+    private final IntervalTree<Task> tree;
+
+    private DateIndex(IntervalTree<Task> tree) {
+        this.tree = tree;
+    }
+
+    /**
+     * A task at the time it takes up in a window; a recurring task has one per occurrence
+     */
+    public static final class Occurrence {
+        private final Task task;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+
+        Occurrence(Task task, LocalDateTime start, LocalDateTime end) {
+            this.task = task;
+            this.start = start;
+            this.end = end;
+        }
+
+        public Task getTask() {
+            return task;
+        }
+
+        public LocalDateTime getStart() {
+            return start;
+        }
+
+        /**
+         * Get when the occurrence ends
+         * @return the end, the same as the start for deadlines, recurring tasks and events without an end
+         */
+        public LocalDateTime getEnd() {
+            return end;
+        }
+    }
+
+    /**
+     * A stretch of time with no event in it
+     */
+    public static final class FreeSlot {
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+
+        FreeSlot(LocalDateTime start, LocalDateTime end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        public LocalDateTime getStart() {
+            return start;
+        }
+
+        public LocalDateTime getEnd() {
+            return end;
+        }
+
+        public Duration getDuration() {
+            return Duration.between(start, end);
+        }
+    }
+
+    /**
+     * Get the number of dated tasks in the index
+     */
+    public int size() {
+        return tree.size();
+    }
+
+    /**
+     * Build the index of every task of a snapshot at once
+     */
+    static DateIndex of(TaskSnapshot snapshot) {
+        List<IntervalTree.Interval<Task>> intervals = new ArrayList<>();
+        for (int i = 0; i < snapshot.size(); i++) {
+            // Read from the columns first, so undated tasks of a shared store are never materialized
+            if (snapshot.dueMinute(i) == TaskStore.NO_DUE) {
+                continue;
+            }
+            Task task = snapshot.get(i);
+            if (task.getDateTime() != null) {
+                intervals.add(new IntervalTree.Interval<>(start(task), end(task), task.getId(), task));
+            }
+        }
+        return new DateIndex(IntervalTree.of(intervals));
+    }
+
+    /**
+     * Derive the index of the next version from the changes that lead to it
+     * @param changes the events of the version, with the frozen tasks of the snapshots
+     */
+    DateIndex apply(List<TaskEvent> changes) {
+        IntervalTree<Task> next = tree;
+        for (TaskEvent change : changes) {
+            switch (change.getType()) {
+            case REMOVED:
+                next = without(next, change.getTask());
+                break;
+            case UPDATED:
+                next = with(without(next, change.getPreviousTask()), change.getTask());
+                break;
+            default:
+                next = with(next, change.getTask());
+                break;
+            }
+        }
+        return next == tree ? this : new DateIndex(next);
+    }
+
+    private static IntervalTree<Task> with(IntervalTree<Task> tree, Task task) {
+        return task.getDateTime() == null ? tree : tree.with(start(task), end(task), task.getId(), task);
+    }
+
+    private static IntervalTree<Task> without(IntervalTree<Task> tree, Task task) {
+        return task.getDateTime() == null ? tree : tree.without(start(task), task.getId());
+    }
+
+    private static long start(Task task) {
+        return TaskStore.toMinute(task.getDateTime());
+    }
+
+    /**
+     * End of the span a task takes up, exclusive
+     */
+    private static long end(Task task) {
+        if (task instanceof RecurringTask) {
+            Recurrence recurrence = ((RecurringTask) task).getRecurrence();
+            return recurrence.getUntil() == null ? Long.MAX_VALUE
+                    : TaskStore.toMinute(recurrence.getUntil().plusDays(1).atStartOfDay());
+        }
+        if (task instanceof Event && ((Event) task).getEndDateTime() != null) {
+            return TaskStore.toMinute(((Event) task).getEndDateTime());
+        }
+        return start(task) + 1;
+    }
+
+    /**
+     * Get the tasks that take up time in a window, e.g. everything on a day or what overlaps 2pm to 4pm,
+     * including events that started before the window but are still on
+     * @param from start of the window, inclusive
+     * @param to end of the window, exclusive
+     * @return the occurrences by start time
+     */
+    public List<Occurrence> occurrences(LocalDateTime from, LocalDateTime to) {
+        List<Occurrence> occurrences = new ArrayList<>();
+        boolean[] isSorted = {true};
+        tree.overlapping(TaskStore.toMinute(from), TaskStore.toMinute(to), task -> {
+            if (task instanceof RecurringTask) {
+                for (LocalDateTime occurrence : ((RecurringTask) task).getRecurrence().occurrences(from, to)) {
+                    occurrences.add(new Occurrence(task, occurrence, occurrence));
+                    // Later occurrences of a rule fall between the starts of other tasks
+                    isSorted[0] = false;
+                }
+            } else {
+                LocalDateTime end = task instanceof Event ? ((Event) task).getEndDateTime() : null;
+                occurrences.add(new Occurrence(task, task.getDateTime(), end != null ? end : task.getDateTime()));
+            }
+        });
+        if (!isSorted[0]) {
+            occurrences.sort((a, b) -> a.start.compareTo(b.start));
+        }
+        return occurrences;
+    }
+
+    /**
+     * Get the events that are not done and overlap a span of time, e.g. to warn about a clash with a new event
+     * @param start start of the span
+     * @param end end of the span, or null for just the minute it starts
+     * @return the events by start time
+     */
+    public List<Task> conflicts(LocalDateTime start, LocalDateTime end) {
+        List<Task> conflicts = new ArrayList<>();
+        long from = TaskStore.toMinute(start);
+        long to = end == null ? from + 1 : TaskStore.toMinute(end);
+        tree.overlapping(from, to, task -> {
+            if (task instanceof Event && !task.isDone()) {
+                conflicts.add(task);
+            }
+        });
+        return conflicts;
+    }
+
+    /**
+     * Find the stretches of a window left free by the events that are not done
+     * @param from start of the window, inclusive
+     * @param to end of the window, exclusive
+     * @param minimum shortest stretch worth reporting
+     * @return the free slots in order
+     */
+    public List<FreeSlot> freeSlots(LocalDateTime from, LocalDateTime to, Duration minimum) {
+        List<FreeSlot> slots = new ArrayList<>();
+        LocalDateTime[] free = {from};
+        tree.overlapping(TaskStore.toMinute(from), TaskStore.toMinute(to), task -> {
+            if (!(task instanceof Event) || task.isDone()) {
+                return;
+            }
+            LocalDateTime start = task.getDateTime();
+            LocalDateTime end = ((Event) task).getEndDateTime();
+            if (end == null) {
+                end = start.plusMinutes(1);
+            }
+            if (start.isAfter(free[0]) && Duration.between(free[0], start).compareTo(minimum) >= 0) {
+                slots.add(new FreeSlot(free[0], start));
+            }
+            if (end.isAfter(free[0])) {
+                free[0] = end;
+            }
+        });
+        if (to.isAfter(free[0]) && Duration.between(free[0], to).compareTo(minimum) >= 0) {
+            slots.add(new FreeSlot(free[0], to));
+        }
+        return slots;
+    }
+}
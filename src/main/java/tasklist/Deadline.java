@@ -11,28 +11,31 @@ import java.time.format.FormatStyle;
 public class Deadline extends Task {
 
     public Deadline(String description, LocalDateTime dateTime){
-        // Extract clean description and call super first
-        super(extractCleanDescription(description));
+        this(analyze(description), dateTime);
+    }
+
+    public Deadline(TaskTextAnalyzer.Analysis analysis, LocalDateTime dateTime){
+        super(analysis);
         this.type = "D";
         this.isDone = false;
         this.dateTime = dateTime;
     }
-    
-    private static String extractCleanDescription(String description) {
-        String cleanDescription = description;
-        
-        // Remove "deadline " prefix
-        if (cleanDescription.startsWith("deadline ")) {
-            cleanDescription = cleanDescription.substring(9);
-        }
-        
-        // Remove "/by" date part
-        int byIndex = cleanDescription.indexOf(" /by ");
-        if (byIndex != -1) {
-            cleanDescription = cleanDescription.substring(0, byIndex);
-        }
-        
-        return cleanDescription;
+
+    Deadline(String description, Priority priority, Category category, LocalDateTime dateTime){
+        super(description, priority, category);
+        this.type = "D";
+        this.dateTime = dateTime;
+    }
+
+    /**
+     * Analyze the text between the "deadline " prefix and the "/by" date part.
+     * Markers typed after the date, e.g. "/by friday !high #work", still apply to the task.
+     */
+    private static TaskTextAnalyzer.Analysis analyze(String description) {
+        int start = description.startsWith("deadline ") ? 9 : 0;
+        int byIndex = description.indexOf(" /by ", start);
+        int descriptionEnd = byIndex != -1 ? byIndex : description.length();
+        return TaskTextAnalyzer.analyze(description, start, descriptionEnd, description.length());
     }
 
     @Override
@@ -6,33 +6,81 @@ import java.time.format.FormatStyle;
 
 /**
  * An Event object holds event type of task which contains LocalDateTime variable
+ * and, for events that take up time, the LocalDateTime it ends at.
  * Now supports priorities and categories for better task organization.
  */
 public class Event extends Task{
+    private final LocalDateTime endDateTime;
 
     public Event(String description, LocalDateTime dateTime){
-        // Extract clean description and call super first
-        super(extractCleanDescription(description));
+        this(description, dateTime, null);
+    }
+
+    /**
+     * @param endDateTime when the event ends, after it starts; null if it has no end
+     */
+    public Event(String description, LocalDateTime dateTime, LocalDateTime endDateTime){
+        this(analyze(description), dateTime, endDateTime);
+    }
+
+    public Event(TaskTextAnalyzer.Analysis analysis, LocalDateTime dateTime){
+        this(analysis, dateTime, null);
+    }
+
+    /**
+     * @param endDateTime when the event ends, after it starts; null if it has no end
+     */
+    public Event(TaskTextAnalyzer.Analysis analysis, LocalDateTime dateTime, LocalDateTime endDateTime){
+        super(analysis);
         this.type = "E";
         this.isDone = false;
         this.dateTime = dateTime;
+        this.endDateTime = checkEnd(dateTime, endDateTime);
     }
-    
-    private static String extractCleanDescription(String description) {
-        String cleanDescription = description;
-        
-        // Remove "event " prefix
-        if (cleanDescription.startsWith("event ")) {
-            cleanDescription = cleanDescription.substring(6);
+
+    Event(String description, Priority priority, Category category, LocalDateTime dateTime,
+          LocalDateTime endDateTime){
+        super(description, priority, category);
+        this.type = "E";
+        this.dateTime = dateTime;
+        this.endDateTime = endDateTime;
+    }
+
+    /**
+     * Restore a task from the text a store wrote with <code>storedDescription</code>
+     */
+    static Event restore(String storedDescription, Priority priority, Category category, LocalDateTime dateTime) {
+        int separator = storedDescription.indexOf(STORED_FIELD_SEPARATOR);
+        if (separator < 0) {
+            return new Event(storedDescription, priority, category, dateTime, null);
         }
-        
-        // Remove "/at" date part
-        int atIndex = cleanDescription.indexOf(" /at ");
-        if (atIndex != -1) {
-            cleanDescription = cleanDescription.substring(0, atIndex);
+        long endMinute = Long.parseLong(storedDescription.substring(separator + 1));
+        return new Event(storedDescription.substring(0, separator), priority, category, dateTime,
+                TaskStore.fromMinute(endMinute));
+    }
+
+    private static LocalDateTime checkEnd(LocalDateTime dateTime, LocalDateTime endDateTime) {
+        if (endDateTime != null && dateTime != null && !endDateTime.isAfter(dateTime)) {
+            throw new IllegalArgumentException("An event must end after it starts.");
         }
-        
-        return cleanDescription;
+        return endDateTime;
+    }
+
+    /**
+     * Analyze the text between the "event " prefix and the "/at" date part.
+     * Markers typed after the date, e.g. "/at friday !high #work", still apply to the task.
+     */
+    private static TaskTextAnalyzer.Analysis analyze(String description) {
+        int start = description.startsWith("event ") ? 6 : 0;
+        int atIndex = description.indexOf(" /at ", start);
+        int descriptionEnd = atIndex != -1 ? atIndex : description.length();
+        return TaskTextAnalyzer.analyze(description, start, descriptionEnd, description.length());
+    }
+
+    @Override
+    String storedDescription() {
+        return endDateTime == null ? description
+                : description + STORED_FIELD_SEPARATOR + TaskStore.toMinute(endDateTime);
     }
 
     @Override
@@ -40,14 +88,33 @@ public class Event extends Task{
         return description;
     }
 
+    /**
+     * Get the date time text, e.g. "(at: Oct 19, 2026, 2:00 PM - 4:00 PM)".
+     * The end shows its date only when the event ends on a later day.
+     */
     public String getDateTimeStr() {
-        return "(at: " + dateTime.format(DateTimeFormatter.ofLocalizedDateTime(FormatStyle.MEDIUM, FormatStyle.SHORT)) + ")";
+        DateTimeFormatter formatter = DateTimeFormatter.ofLocalizedDateTime(FormatStyle.MEDIUM, FormatStyle.SHORT);
+        if (endDateTime == null) {
+            return "(at: " + dateTime.format(formatter) + ")";
+        }
+        String end = endDateTime.toLocalDate().equals(dateTime.toLocalDate())
+                ? endDateTime.format(DateTimeFormatter.ofLocalizedTime(FormatStyle.SHORT))
+                : endDateTime.format(formatter);
+        return "(at: " + dateTime.format(formatter) + " - " + end + ")";
     }
 
     public LocalDateTime getDateTime(){
         return dateTime;
     }
 
+    /**
+     * Get when the event ends
+     * @return the end, or null if the event has no end
+     */
+    public LocalDateTime getEndDateTime(){
+        return endDateTime;
+    }
+
     public String[] getKeyword (){
         return description.split(" ");
     }
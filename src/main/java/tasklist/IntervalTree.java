@@ -0,0 +1,236 @@
+package tasklist;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Immutable interval tree: an AVL tree of half-open intervals [start, end) ordered by start,
+ * where every node also knows the largest end in its subtree.
+ * An overlap query skips every subtree whose largest end is before the window and stops at the first
+ * start past it, so it costs O(log n + k) for k results. Adding or removing an interval copies only
+ * the O(log n) nodes on its path and shares the rest, so every version of the tree stays valid
+ * and can be read from any thread.
+ * Intervals are identified by their start and an id, which must be unique within the tree.
+ * @param <T> the value an interval carries
+ */
+final class IntervalTree<T> {
+    private static final IntervalTree<?> EMPTY = new IntervalTree<>(null, 0);
+
+    private final Node<T> root;
+    private final int size;
+
+    private IntervalTree(Node<T> root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> IntervalTree<T> empty() {
+        return (IntervalTree<T>) EMPTY;
+    }
+
+    /**
+     * One interval to build a tree from
+     */
+    static final class Interval<T> {
+        final long start;
+        final long end;
+        final int id;
+        final T value;
+
+        Interval(long start, long end, int id, T value) {
+            this.start = start;
+            this.end = end;
+            this.id = id;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Build a tree from intervals in one pass, e.g. for a whole list loaded at once
+     * @param intervals the intervals, in any order; the array is sorted in place
+     */
+    static <T> IntervalTree<T> of(Interval<T>[] intervals) {
+        return of(Arrays.asList(intervals));
+    }
+
+    /**
+     * Build a tree from intervals in one pass, e.g. for a whole list loaded at once
+     * @param intervals the intervals, in any order; the list is sorted in place
+     */
+    static <T> IntervalTree<T> of(List<Interval<T>> intervals) {
+        intervals.sort(Comparator.<Interval<T>>comparingLong(interval -> interval.start)
+                .thenComparingInt(interval -> interval.id));
+        return new IntervalTree<>(build(intervals, 0, intervals.size()), intervals.size());
+    }
+
+    private static <T> Node<T> build(List<Interval<T>> intervals, int from, int to) {
+        if (from >= to) {
+            return null;
+        }
+        int middle = (from + to) >>> 1;
+        Interval<T> interval = intervals.get(middle);
+        return new Node<>(interval.start, interval.end, interval.id, interval.value,
+                build(intervals, from, middle), build(intervals, middle + 1, to));
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Get a tree that also holds an interval
+     * @param start start of the interval, inclusive
+     * @param end end of the interval, exclusive; greater than start
+     * @param id id of the interval, unique among those starting at the same point
+     */
+    IntervalTree<T> with(long start, long end, int id, T value) {
+        return new IntervalTree<>(insert(root, start, end, id, value), size + 1);
+    }
+
+    /**
+     * Get a tree without an interval
+     * @return the tree without it, or this tree if it does not hold the interval
+     */
+    IntervalTree<T> without(long start, int id) {
+        if (find(start, id) == null) {
+            return this;
+        }
+        return new IntervalTree<>(delete(root, start, id), size - 1);
+    }
+
+    private Node<T> find(long start, int id) {
+        Node<T> node = root;
+        while (node != null) {
+            int order = compare(start, id, node);
+            if (order == 0) {
+                return node;
+            }
+            node = order < 0 ? node.left : node.right;
+        }
+        return null;
+    }
+
+    /**
+     * Visit the values of the intervals that overlap a window, by ascending start
+     * @param from start of the window, inclusive
+     * @param to end of the window, exclusive
+     */
+    void overlapping(long from, long to, Consumer<T> visitor) {
+        overlapping(root, from, to, visitor);
+    }
+
+    private static <T> void overlapping(Node<T> node, long from, long to, Consumer<T> visitor) {
+        while (node != null && node.maxEnd > from) {
+            overlapping(node.left, from, to, visitor);
+            if (node.start >= to) {
+                // Everything to the right starts even later
+                return;
+            }
+            if (node.end > from) {
+                visitor.accept(node.value);
+            }
+            node = node.right;
+        }
+    }
+
+    private static int compare(long start, int id, Node<?> node) {
+        int order = Long.compare(start, node.start);
+        return order != 0 ? order : Integer.compare(id, node.id);
+    }
+
+    private static <T> Node<T> insert(Node<T> node, long start, long end, int id, T value) {
+        if (node == null) {
+            return new Node<>(start, end, id, value, null, null);
+        }
+        if (compare(start, id, node) < 0) {
+            return balance(node, insert(node.left, start, end, id, value), node.right);
+        }
+        return balance(node, node.left, insert(node.right, start, end, id, value));
+    }
+
+    private static <T> Node<T> delete(Node<T> node, long start, int id) {
+        int order = compare(start, id, node);
+        if (order < 0) {
+            return balance(node, delete(node.left, start, id), node.right);
+        } else if (order > 0) {
+            return balance(node, node.left, delete(node.right, start, id));
+        }
+        if (node.left == null) {
+            return node.right;
+        } else if (node.right == null) {
+            return node.left;
+        }
+        Node<T> successor = node.right;
+        while (successor.left != null) {
+            successor = successor.left;
+        }
+        return balance(successor, node.left, delete(node.right, successor.start, successor.id));
+    }
+
+    /**
+     * Make a copy of a node with new children, rotating once or twice if their heights differ by more than one
+     */
+    private static <T> Node<T> balance(Node<T> node, Node<T> left, Node<T> right) {
+        int difference = height(left) - height(right);
+        if (difference > 1) {
+            if (height(left.left) < height(left.right)) {
+                left = rotateLeft(left, left.left, left.right);
+            }
+            return rotateRight(node, left, right);
+        } else if (difference < -1) {
+            if (height(right.right) < height(right.left)) {
+                right = rotateRight(right, right.left, right.right);
+            }
+            return rotateLeft(node, left, right);
+        }
+        return node.withChildren(left, right);
+    }
+
+    private static <T> Node<T> rotateRight(Node<T> node, Node<T> left, Node<T> right) {
+        return left.withChildren(left.left, node.withChildren(left.right, right));
+    }
+
+    private static <T> Node<T> rotateLeft(Node<T> node, Node<T> left, Node<T> right) {
+        return right.withChildren(node.withChildren(left, right.left), right.right);
+    }
+
+    private static int height(Node<?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static final class Node<T> {
+        final long start;
+        final long end;
+        final int id;
+        final T value;
+        final Node<T> left;
+        final Node<T> right;
+        final int height;
+        final long maxEnd;
+
+        Node(long start, long end, int id, T value, Node<T> left, Node<T> right) {
+            this.start = start;
+            this.end = end;
+            this.id = id;
+            this.value = value;
+            this.left = left;
+            this.right = right;
+            this.height = Math.max(height(left), height(right)) + 1;
+            long maxEnd = end;
+            if (left != null) {
+                maxEnd = Math.max(maxEnd, left.maxEnd);
+            }
+            if (right != null) {
+                maxEnd = Math.max(maxEnd, right.maxEnd);
+            }
+            this.maxEnd = maxEnd;
+        }
+
+        Node<T> withChildren(Node<T> left, Node<T> right) {
+            return left == this.left && right == this.right ? this : new Node<>(start, end, id, value, left, right);
+        }
+    }
+}
@@ -0,0 +1,490 @@
+package tasklist;
+
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Task store that keeps every task outside the Java heap, for archives of millions of tasks.
+ * Each task is a fixed size record in a record region, pointing at its description (UTF-16 chars)
+ * and category ids in a data region. Both regions are made of direct ByteBuffer segments.
+ * tasks.txt stays the only copy on disk, so the store is filled from it on every start.
+ * As with ColumnarTaskStore, Task objects are only created by <code>get</code>, as views bound to their row,
+ * and a view is only valid until the next add, remove or clear on the store.
+ * A snapshot shares the segments with the store; the store copies a record segment before it next
+ * writes a record the snapshot can see, and only ever appends to the shared data segments.
+ */
+public class OffHeapTaskStore implements TaskStore, Closeable {
+    static final int SEGMENT_SIZE = 1 << 22;
+    private static final int RECORD_SIZE = 32;
+    private static final byte DONE = 1;
+    private static final Priority[] PRIORITIES = Priority.values();
+
+    // Record layout: type, flags, priority, (unused), description length, due minute, data offset, category count, id
+    private static final int TYPE = 0;
+    private static final int FLAGS = 1;
+    private static final int PRIORITY = 2;
+    private static final int DESCRIPTION_LENGTH = 4;
+    private static final int DUE_MINUTE = 8;
+    private static final int DATA_OFFSET = 16;
+    private static final int CATEGORY_COUNT = 24;
+    private static final int ID = 28;
+
+    private Region records;
+    private Region data;
+    private int size;
+    private long dataUsed;
+    private long dataGarbage;
+    private RowListener listener;
+    // Set for the read-only copy a snapshot reads, whose views are frozen rather than bound
+    private final boolean isSnapshot;
+
+    /**
+     * Create an empty store in direct (off-heap) memory
+     */
+    public OffHeapTaskStore() {
+        this.records = new Region();
+        this.data = new Region();
+        this.isSnapshot = false;
+    }
+
+    /**
+     * Make a read-only copy of a store sharing its segments
+     */
+    private OffHeapTaskStore(OffHeapTaskStore store) {
+        this.records = store.records.share(recordOffset(store.size));
+        this.data = store.data.share(store.dataUsed);
+        this.size = store.size;
+        this.dataUsed = store.dataUsed;
+        this.isSnapshot = true;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Task get(int index) {
+        checkIndex(index);
+        ByteBuffer segment = records.segment(recordOffset(index));
+        int record = records.position(recordOffset(index));
+        int length = segment.getInt(record + DESCRIPTION_LENGTH);
+        long offset = segment.getLong(record + DATA_OFFSET);
+        ByteBuffer dataSegment = data.segment(offset);
+        int position = data.position(offset);
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = dataSegment.getChar(position + 2 * i);
+        }
+        Category category = readCategory(dataSegment, position + 2 * length, segment.getInt(record + CATEGORY_COUNT));
+        long due = segment.getLong(record + DUE_MINUTE);
+        Task task = Task.restore((char) segment.get(record + TYPE), new String(chars),
+                (segment.get(record + FLAGS) & DONE) != 0, PRIORITIES[segment.get(record + PRIORITY)],
+                category, TaskStore.fromMinute(due));
+        task.setId(segment.getInt(record + ID));
+        if (isSnapshot) {
+            task.freeze();
+        } else {
+            task.bind(this, index);
+        }
+        return task;
+    }
+
+    @Override
+    public void add(Task task) {
+        write(size, task);
+        size++;
+        if (listener != null) {
+            listener.inserted(size - 1);
+        }
+    }
+
+    @Override
+    public Task remove(int index) {
+        Task removed = get(index);
+        removed.bind(null, -1);
+        ByteBuffer segment = records.segment(recordOffset(index));
+        int record = records.position(recordOffset(index));
+        dataGarbage += dataLength(segment.getInt(record + DESCRIPTION_LENGTH), segment.getInt(record + CATEGORY_COUNT));
+        // Archives are append mostly, so removal simply shifts the later records down
+        for (int i = index; i < size - 1; i++) {
+            copyRecord(i + 1, i);
+        }
+        size--;
+        if (listener != null) {
+            listener.removed(index);
+        }
+        return removed;
+    }
+
+    @Override
+    public void insert(int index, Task task) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+        // The shifted copy of the old record still owns its data entry, so the new record gets its own
+        for (int i = size; i > index; i--) {
+            copyRecord(i - 1, i);
+        }
+        write(index, task);
+        size++;
+        if (listener != null) {
+            listener.inserted(index);
+        }
+    }
+
+    @Override
+    public void removeAll(int[] indices) {
+        int next = 0;
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (next < indices.length && indices[next] == i) {
+                ByteBuffer segment = records.segment(recordOffset(i));
+                int record = records.position(recordOffset(i));
+                dataGarbage += dataLength(segment.getInt(record + DESCRIPTION_LENGTH),
+                        segment.getInt(record + CATEGORY_COUNT));
+                next++;
+                continue;
+            }
+            if (kept != i) {
+                copyRecord(i, kept);
+            }
+            kept++;
+        }
+        size = kept;
+        compactIfWasteful();
+        if (listener != null) {
+            listener.removedAll(indices);
+        }
+    }
+
+    @Override
+    public void set(int index, Task task) {
+        checkIndex(index);
+        ByteBuffer segment = records.segment(recordOffset(index));
+        int record = records.position(recordOffset(index));
+        dataGarbage += dataLength(segment.getInt(record + DESCRIPTION_LENGTH), segment.getInt(record + CATEGORY_COUNT));
+        write(index, task);
+        compactIfWasteful();
+        if (listener != null) {
+            listener.removed(index);
+            listener.inserted(index);
+        }
+    }
+
+    @Override
+    public void clear() {
+        if (records.isShared() || data.isShared()) {
+            // New records and data would overwrite what the snapshot reads, so start over in new segments
+            records = new Region();
+            data = new Region();
+        }
+        size = 0;
+        dataUsed = 0;
+        dataGarbage = 0;
+        if (listener != null) {
+            listener.cleared();
+        }
+    }
+
+    @Override
+    public void update(int index, Task task) {
+        checkIndex(index);
+        ByteBuffer segment = records.writableSegment(recordOffset(index));
+        int record = records.position(recordOffset(index));
+        segment.put(record + FLAGS, task.isDone() ? DONE : 0);
+        segment.put(record + PRIORITY, (byte) task.getPriority().ordinal());
+        if (!task.getCategory().equals(readCategory(index))) {
+            // Categories sit next to the description, so a new category means a new data entry
+            dataGarbage += dataLength(segment.getInt(record + DESCRIPTION_LENGTH), segment.getInt(record + CATEGORY_COUNT));
+            writeData(index, task.storedDescription(), task.getCategory());
+            compactIfWasteful();
+        }
+        if (listener != null) {
+            listener.changed(index);
+        }
+    }
+
+    @Override
+    public boolean setRowListener(RowListener listener) {
+        this.listener = listener;
+        return true;
+    }
+
+    /**
+     * Share the segments with a read-only copy, until the next write to a record it can see
+     */
+    @Override
+    public TaskStore share() {
+        return new OffHeapTaskStore(this);
+    }
+
+    @Override
+    public char type(int index) {
+        checkIndex(index);
+        return (char) records.segment(recordOffset(index)).get(records.position(recordOffset(index)) + TYPE);
+    }
+
+    @Override
+    public boolean isDone(int index) {
+        checkIndex(index);
+        return (records.segment(recordOffset(index)).get(records.position(recordOffset(index)) + FLAGS) & DONE) != 0;
+    }
+
+    @Override
+    public Priority priority(int index) {
+        checkIndex(index);
+        return PRIORITIES[records.segment(recordOffset(index)).get(records.position(recordOffset(index)) + PRIORITY)];
+    }
+
+    @Override
+    public long dueMinute(int index) {
+        checkIndex(index);
+        return records.segment(recordOffset(index)).getLong(records.position(recordOffset(index)) + DUE_MINUTE);
+    }
+
+    @Override
+    public boolean descriptionContains(int index, String lowerCaseText) {
+        checkIndex(index);
+        ByteBuffer segment = records.segment(recordOffset(index));
+        int record = records.position(recordOffset(index));
+        int length = segment.getInt(record + DESCRIPTION_LENGTH);
+        long offset = segment.getLong(record + DATA_OFFSET);
+        ByteBuffer dataSegment = data.segment(offset);
+        int start = data.position(offset);
+        byte type = segment.get(record + TYPE);
+        if (type == 'R' || type == 'E') {
+            // Only the description, not the rule or end stored after it
+            int end = 0;
+            while (end < length && dataSegment.getChar(start + 2 * end) != Task.STORED_FIELD_SEPARATOR) {
+                end++;
+            }
+            length = end;
+        }
+        int needleLength = lowerCaseText.length();
+        for (int i = 0; i <= length - needleLength; i++) {
+            int j = 0;
+            while (j < needleLength
+                    && Character.toLowerCase(dataSegment.getChar(start + 2 * (i + j))) == lowerCaseText.charAt(j)) {
+                j++;
+            }
+            if (j == needleLength) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Let go of the segments, so their direct memory can be freed without waiting for the store itself
+     * to be collected. The store must not be used afterwards.
+     */
+    @Override
+    public void close() {
+        size = 0;
+        records.close();
+        data.close();
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+    }
+
+    private static long recordOffset(int index) {
+        return (long) index * RECORD_SIZE;
+    }
+
+    private static int dataLength(int descriptionLength, int categoryCount) {
+        return 2 * descriptionLength + 4 * categoryCount;
+    }
+
+    private void write(int index, Task task) {
+        ByteBuffer segment = records.writableSegment(recordOffset(index));
+        int record = records.position(recordOffset(index));
+        segment.put(record + TYPE, (byte) task.getType().charAt(0));
+        segment.put(record + FLAGS, task.isDone() ? DONE : 0);
+        segment.put(record + PRIORITY, (byte) task.getPriority().ordinal());
+        segment.putLong(record + DUE_MINUTE, TaskStore.toMinute(task.getDateTime()));
+        segment.putInt(record + ID, task.getId());
+        writeData(index, task.storedDescription(), task.getCategory());
+    }
+
+    /**
+     * Append the description and category of a task to the data region and point its record at them
+     */
+    private void writeData(int index, String description, Category category) {
+        int[] tags = category.tagIds();
+        int[] contexts = category.contextIds();
+        int length = dataLength(description.length(), tags.length + contexts.length);
+        if (length > SEGMENT_SIZE) {
+            throw new IllegalArgumentException("Task is too large for the off-heap store");
+        }
+        // Entries never straddle two segments; the rest of a segment that is too small is wasted
+        int room = SEGMENT_SIZE - data.position(dataUsed);
+        if (length > room) {
+            dataUsed += room;
+            dataGarbage += room;
+        }
+        long offset = dataUsed;
+        ByteBuffer dataSegment = data.writableSegment(offset);
+        int position = data.position(offset);
+        for (int i = 0; i < description.length(); i++) {
+            dataSegment.putChar(position, description.charAt(i));
+            position += 2;
+        }
+        // Tags are stored as their TagDictionary id, contexts as the complement (~id) of it
+        for (int tag : tags) {
+            dataSegment.putInt(position, tag);
+            position += 4;
+        }
+        for (int context : contexts) {
+            dataSegment.putInt(position, ~context);
+            position += 4;
+        }
+        dataUsed += length;
+
+        ByteBuffer segment = records.writableSegment(recordOffset(index));
+        int record = records.position(recordOffset(index));
+        segment.putInt(record + DESCRIPTION_LENGTH, description.length());
+        segment.putLong(record + DATA_OFFSET, offset);
+        segment.putInt(record + CATEGORY_COUNT, tags.length + contexts.length);
+    }
+
+    private Category readCategory(int index) {
+        ByteBuffer segment = records.segment(recordOffset(index));
+        int record = records.position(recordOffset(index));
+        long offset = segment.getLong(record + DATA_OFFSET);
+        int position = data.position(offset) + 2 * segment.getInt(record + DESCRIPTION_LENGTH);
+        return readCategory(data.segment(offset), position, segment.getInt(record + CATEGORY_COUNT));
+    }
+
+    private static Category readCategory(ByteBuffer segment, int position, int count) {
+        if (count == 0) {
+            return Category.EMPTY;
+        }
+        int tagCount = 0;
+        while (tagCount < count && segment.getInt(position + 4 * tagCount) >= 0) {
+            tagCount++;
+        }
+        int[] tags = new int[tagCount];
+        int[] contexts = new int[count - tagCount];
+        for (int i = 0; i < tagCount; i++) {
+            tags[i] = segment.getInt(position + 4 * i);
+        }
+        for (int i = 0; i < contexts.length; i++) {
+            contexts[i] = ~segment.getInt(position + 4 * (tagCount + i));
+        }
+        return new Category(tags, contexts);
+    }
+
+    private void copyRecord(int from, int to) {
+        ByteBuffer source = records.segment(recordOffset(from));
+        int sourcePosition = records.position(recordOffset(from));
+        ByteBuffer target = records.writableSegment(recordOffset(to));
+        int targetPosition = records.position(recordOffset(to));
+        for (int i = 0; i < RECORD_SIZE; i += 8) {
+            target.putLong(targetPosition + i, source.getLong(sourcePosition + i));
+        }
+    }
+
+    /**
+     * Rewrite the data region without the entries of removed or rewritten tasks once they make up most of it
+     */
+    private void compactIfWasteful() {
+        if (dataGarbage < SEGMENT_SIZE || dataGarbage < dataUsed / 2) {
+            return;
+        }
+        Region old = data;
+        data = new Region();
+        dataUsed = 0;
+        dataGarbage = 0;
+        for (int i = 0; i < size; i++) {
+            ByteBuffer segment = records.segment(recordOffset(i));
+            int record = records.position(recordOffset(i));
+            long offset = segment.getLong(record + DATA_OFFSET);
+            ByteBuffer oldSegment = old.segment(offset);
+            int position = old.position(offset);
+            int length = segment.getInt(record + DESCRIPTION_LENGTH);
+            char[] chars = new char[length];
+            for (int j = 0; j < length; j++) {
+                chars[j] = oldSegment.getChar(position + 2 * j);
+            }
+            writeData(i, new String(chars), readCategory(oldSegment, position + 2 * length,
+                    segment.getInt(record + CATEGORY_COUNT)));
+        }
+        old.close();
+    }
+
+    /**
+     * A growable sequence of equally sized segments, addressed by a long offset
+     */
+    private static class Region {
+        private final List<ByteBuffer> segments;
+        // Segments a snapshot also reads, and the end of what it reads
+        private final BitSet shared = new BitSet();
+        private long sharedEnd;
+
+        Region() {
+            this(new ArrayList<>());
+        }
+
+        private Region(List<ByteBuffer> segments) {
+            this.segments = segments;
+        }
+
+        /**
+         * Get the segment holding the given offset, allocating segments up to it
+         */
+        ByteBuffer segment(long offset) {
+            int index = (int) (offset / SEGMENT_SIZE);
+            while (segments.size() <= index) {
+                segments.add(ByteBuffer.allocateDirect(SEGMENT_SIZE));
+            }
+            return segments.get(index);
+        }
+
+        int position(long offset) {
+            return (int) (offset % SEGMENT_SIZE);
+        }
+
+        /**
+         * Get the segment holding the given offset to write to it,
+         * first copying it if a snapshot reads the bytes there
+         */
+        ByteBuffer writableSegment(long offset) {
+            ByteBuffer segment = segment(offset);
+            int index = (int) (offset / SEGMENT_SIZE);
+            if (offset < sharedEnd && shared.get(index)) {
+                ByteBuffer copy = ByteBuffer.allocateDirect(SEGMENT_SIZE);
+                copy.put(segment.duplicate().clear());
+                segment = copy.clear();
+                segments.set(index, segment);
+                shared.clear(index);
+            }
+            return segment;
+        }
+
+        /**
+         * Make a region that reads the same segments up to an offset
+         */
+        Region share(long end) {
+            shared.set(0, segments.size());
+            // An earlier snapshot may still read further, e.g. the record of a task removed from the end since
+            sharedEnd = Math.max(sharedEnd, end);
+            return new Region(new ArrayList<>(segments));
+        }
+
+        boolean isShared() {
+            return !shared.isEmpty();
+        }
+
+        void close() {
+            segments.clear();
+        }
+    }
+}
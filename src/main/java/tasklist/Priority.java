@@ -52,8 +52,18 @@ public enum Priority {
      * @return Priority enum or NORMAL if not found
      */
     public static Priority fromString(String input) {
+        Priority priority = find(input);
+        return priority != null ? priority : NORMAL;
+    }
+
+    /**
+     * Find the priority a word names, e.g. "!high", "high" or "h"
+     * @param input the word
+     * @return Priority enum or null if the word names no priority
+     */
+    public static Priority find(String input) {
         if (input == null || input.trim().isEmpty()) {
-            return NORMAL;
+            return null;
         }
         
         String normalized = input.trim().toLowerCase();
@@ -70,7 +80,7 @@ public enum Priority {
             }
         }
         
-        return NORMAL;
+        return null;
     }
     
     /**
@@ -0,0 +1,456 @@
+package tasklist;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.FormatStyle;
+import java.time.format.TextStyle;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+
+/**
+ * Rule of a recurring task, a small subset of the iCalendar RRULE: a frequency with an interval,
+ * optionally on given weekdays (weekly) or on the n-th or last weekday of the month (monthly),
+ * starting at a first occurrence and optionally ending on a last date.
+ * Occurrences are never stored: they are computed for the window asked for, jumping straight
+ * to the first period that can reach it, so the cost depends on the window and not on how long ago
+ * the rule started. Rules are immutable and stored in the canonical text of <code>toText</code>,
+ * e.g. "FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,WE;DTSTART=20261019T0900;UNTIL=20261231".
+ */
+public final class Recurrence {
+    public enum Frequency {
+        DAILY, WEEKLY, MONTHLY, YEARLY
+    }
+
+    private static final DateTimeFormatter START_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmm");
+    private static final DateTimeFormatter UNTIL_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final String[] ORDINALS = {"last", "first", "second", "third", "fourth"};
+
+    private final Frequency frequency;
+    private final int interval;
+    // Weekly: bit n - 1 set for DayOfWeek n, 0 for the weekday of the start
+    private final int dayMask;
+    // Monthly: 1 to 4 for the n-th weekday of the month, -1 for the last one, 0 for the day of the start
+    private final int ordinal;
+    private final DayOfWeek ordinalDay;
+    private final LocalDateTime start;
+    private final LocalDate until;
+
+    private Recurrence(Frequency frequency, int interval, int dayMask, int ordinal, DayOfWeek ordinalDay,
+                       LocalDateTime start, LocalDate until) {
+        this.frequency = frequency;
+        this.interval = interval;
+        this.dayMask = dayMask;
+        this.ordinal = ordinal;
+        this.ordinalDay = ordinalDay;
+        this.start = start;
+        this.until = until;
+    }
+
+    /**
+     * Create a rule that repeats every interval days, weeks, months or years from a first occurrence
+     */
+    public static Recurrence every(Frequency frequency, int interval, LocalDateTime start) {
+        return create(frequency, interval, 0, 0, null, start, null);
+    }
+
+    /**
+     * Create a rule that repeats on some weekdays every interval weeks
+     * @param from the first occurrence is the first of these weekdays on or after it
+     */
+    public static Recurrence weekly(int interval, List<DayOfWeek> days, LocalDateTime from) {
+        int mask = 0;
+        for (DayOfWeek day : days) {
+            mask |= 1 << (day.getValue() - 1);
+        }
+        return create(Frequency.WEEKLY, interval, mask, 0, null, from, null);
+    }
+
+    /**
+     * Create a rule that repeats on the n-th or last weekday of every interval months
+     * @param ordinal 1 to 4, or -1 for the last one
+     * @param from the first occurrence is the first such day on or after it
+     */
+    public static Recurrence monthly(int interval, int ordinal, DayOfWeek day, LocalDateTime from) {
+        if (ordinal == 0 || ordinal < -1 || ordinal > 4) {
+            throw new IllegalArgumentException("Only the first to fourth or the last weekday of a month can recur");
+        }
+        return create(Frequency.MONTHLY, interval, 0, ordinal, day, from, null);
+    }
+
+    /**
+     * Get a copy of this rule that ends on a date
+     * @param until last day an occurrence can fall on, or null for no end
+     */
+    public Recurrence until(LocalDate until) {
+        if (until != null && until.isBefore(start.toLocalDate())) {
+            throw new IllegalArgumentException("The rule ends before its first occurrence");
+        }
+        return new Recurrence(frequency, interval, dayMask, ordinal, ordinalDay, start, until);
+    }
+
+    private static Recurrence create(Frequency frequency, int interval, int dayMask, int ordinal,
+                                     DayOfWeek ordinalDay, LocalDateTime from, LocalDate until) {
+        if (interval < 1) {
+            throw new IllegalArgumentException("The interval of a rule must be at least 1");
+        }
+        Recurrence anchored = new Recurrence(frequency, interval, dayMask, ordinal, ordinalDay, from, until);
+        // The start is always an occurrence itself, so it can be stored and shown as the first due date
+        LocalDateTime first = anchored.next(from);
+        if (first == null) {
+            throw new IllegalArgumentException("The rule ends before its first occurrence");
+        }
+        return new Recurrence(frequency, interval, dayMask, ordinal, ordinalDay, first, until);
+    }
+
+    public Frequency getFrequency() {
+        return frequency;
+    }
+
+    public int getInterval() {
+        return interval;
+    }
+
+    /**
+     * Get the first occurrence
+     */
+    public LocalDateTime getStart() {
+        return start;
+    }
+
+    /**
+     * Get the last day an occurrence can fall on
+     * @return the date, or null if the rule never ends
+     */
+    public LocalDate getUntil() {
+        return until;
+    }
+
+    /**
+     * Get the first occurrence at or after a time
+     * @return the occurrence, or null if the rule has ended by then
+     */
+    public LocalDateTime next(LocalDateTime from) {
+        Iterator<LocalDateTime> occurrences = occurrences(from, null).iterator();
+        return occurrences.hasNext() ? occurrences.next() : null;
+    }
+
+    /**
+     * Check if the rule has an occurrence in a window
+     * @param from start of the window, inclusive
+     * @param to end of the window, exclusive
+     */
+    public boolean occursBetween(LocalDateTime from, LocalDateTime to) {
+        LocalDateTime next = next(from);
+        return next != null && next.isBefore(to);
+    }
+
+    /**
+     * Get the occurrences in a window, computed one by one as they are iterated
+     * @param from start of the window, inclusive
+     * @param to end of the window, exclusive, or null for no end
+     */
+    public Iterable<LocalDateTime> occurrences(LocalDateTime from, LocalDateTime to) {
+        LocalDateTime lower = from.isBefore(start) ? start : from;
+        LocalDateTime upper = until == null ? to : min(to, until.plusDays(1).atStartOfDay());
+        return () -> new OccurrenceIterator(lower, upper);
+    }
+
+    /**
+     * Get the occurrences in a window as a list
+     * @param from start of the window, inclusive
+     * @param to end of the window, exclusive
+     */
+    public List<LocalDateTime> occurrenceList(LocalDateTime from, LocalDateTime to) {
+        List<LocalDateTime> list = new ArrayList<>();
+        for (LocalDateTime occurrence : occurrences(from, to)) {
+            list.add(occurrence);
+        }
+        return list;
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a == null ? b : a.isBefore(b) ? a : b;
+    }
+
+    /**
+     * Get the number of the period a time falls in, counting in whole intervals from the start
+     */
+    private long periodOf(LocalDateTime time) {
+        long units;
+        switch (frequency) {
+        case DAILY:
+            units = ChronoUnit.DAYS.between(start.toLocalDate(), time.toLocalDate());
+            break;
+        case WEEKLY:
+            units = ChronoUnit.WEEKS.between(weekStart(start.toLocalDate()), weekStart(time.toLocalDate()));
+            break;
+        case MONTHLY:
+            units = ChronoUnit.MONTHS.between(YearMonth.from(start), YearMonth.from(time));
+            break;
+        default:
+            units = ChronoUnit.YEARS.between(start.toLocalDate().withDayOfYear(1), time.toLocalDate().withDayOfYear(1));
+            break;
+        }
+        return Math.max(0, Math.floorDiv(units, interval));
+    }
+
+    private static LocalDate weekStart(LocalDate date) {
+        return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    /**
+     * Add the occurrences of a period to a list, in time order
+     */
+    private void addOccurrences(long period, List<LocalDateTime> out) {
+        LocalDate first = start.toLocalDate();
+        LocalTime time = start.toLocalTime();
+        long units = period * interval;
+        switch (frequency) {
+        case DAILY:
+            out.add(first.plusDays(units).atTime(time));
+            break;
+        case WEEKLY:
+            if (dayMask == 0) {
+                out.add(first.plusWeeks(units).atTime(time));
+                break;
+            }
+            LocalDate monday = weekStart(first).plusWeeks(units);
+            for (int day = 0; day < 7; day++) {
+                if ((dayMask & (1 << day)) != 0) {
+                    out.add(monday.plusDays(day).atTime(time));
+                }
+            }
+            break;
+        case MONTHLY:
+            YearMonth month = YearMonth.from(first).plusMonths(units);
+            LocalDate date;
+            if (ordinal == 0) {
+                // The 31st of a shorter month falls on its last day
+                date = month.atDay(Math.min(first.getDayOfMonth(), month.lengthOfMonth()));
+            } else {
+                date = month.atDay(1).with(TemporalAdjusters.dayOfWeekInMonth(ordinal, ordinalDay));
+            }
+            out.add(date.atTime(time));
+            break;
+        default:
+            out.add(first.plusYears(units).atTime(time));
+            break;
+        }
+    }
+
+    /**
+     * Walks the periods from the one the window starts in, keeping the occurrences inside the window
+     */
+    private final class OccurrenceIterator implements Iterator<LocalDateTime> {
+        private final LocalDateTime from;
+        private final LocalDateTime to;
+        private final List<LocalDateTime> buffer = new ArrayList<>(7);
+        private long period;
+        private int position;
+        private LocalDateTime next;
+        private boolean isDone;
+
+        OccurrenceIterator(LocalDateTime from, LocalDateTime to) {
+            this.from = from;
+            this.to = to;
+            this.period = periodOf(from);
+            advance();
+        }
+
+        private void advance() {
+            next = null;
+            while (!isDone) {
+                if (position == buffer.size()) {
+                    buffer.clear();
+                    position = 0;
+                    addOccurrences(period++, buffer);
+                }
+                LocalDateTime candidate = buffer.get(position++);
+                if (to != null && !candidate.isBefore(to)) {
+                    isDone = true;
+                } else if (!candidate.isBefore(from)) {
+                    next = candidate;
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public LocalDateTime next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            LocalDateTime current = next;
+            advance();
+            return current;
+        }
+    }
+
+    /**
+     * Describe the rule for the user
+     * @return e.g. "every 2 weeks on Monday, Wednesday at 9:00 AM"
+     */
+    public String describe() {
+        StringBuilder text = new StringBuilder();
+        switch (frequency) {
+        case DAILY:
+            text.append(interval == 1 ? "every day" : "every " + interval + " days");
+            break;
+        case WEEKLY:
+            if (dayMask == 0) {
+                text.append(interval == 1 ? "every week" : "every " + interval + " weeks");
+            } else if (interval == 1) {
+                text.append("every ").append(dayNames(TextStyle.FULL));
+            } else {
+                text.append("every ").append(interval).append(" weeks on ").append(dayNames(TextStyle.FULL));
+            }
+            break;
+        case MONTHLY:
+            String months = interval == 1 ? "every month" : "every " + interval + " months";
+            if (ordinal == 0) {
+                text.append(months).append(" on day ").append(start.getDayOfMonth());
+            } else {
+                text.append(ORDINALS[Math.max(0, ordinal)]).append(' ')
+                        .append(ordinalDay.getDisplayName(TextStyle.FULL, Locale.ENGLISH))
+                        .append(" of ").append(months);
+            }
+            break;
+        default:
+            text.append(interval == 1 ? "every year" : "every " + interval + " years").append(" on ")
+                    .append(start.format(DateTimeFormatter.ofPattern("MMM d", Locale.ENGLISH)));
+            break;
+        }
+        text.append(" at ").append(start.toLocalTime().format(DateTimeFormatter.ofLocalizedTime(FormatStyle.SHORT)));
+        if (until != null) {
+            text.append(" until ").append(until.format(DateTimeFormatter.ofLocalizedDate(FormatStyle.MEDIUM)));
+        }
+        return text.toString();
+    }
+
+    private String dayNames(TextStyle style) {
+        StringBuilder names = new StringBuilder();
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if ((dayMask & (1 << (day.getValue() - 1))) != 0) {
+                if (names.length() > 0) {
+                    names.append(style == TextStyle.FULL ? ", " : ",");
+                }
+                String name = day.getDisplayName(style, Locale.ENGLISH);
+                names.append(style == TextStyle.FULL ? name : name.substring(0, 2).toUpperCase(Locale.ROOT));
+            }
+        }
+        return names.toString();
+    }
+
+    /**
+     * Get the canonical text of the rule, as stored in tasks.txt
+     */
+    public String toText() {
+        StringBuilder text = new StringBuilder("FREQ=").append(frequency);
+        if (interval != 1) {
+            text.append(";INTERVAL=").append(interval);
+        }
+        if (dayMask != 0) {
+            text.append(";BYDAY=").append(dayNames(TextStyle.SHORT));
+        } else if (ordinal != 0) {
+            text.append(";BYDAY=").append(ordinal)
+                    .append(ordinalDay.getDisplayName(TextStyle.SHORT, Locale.ENGLISH).substring(0, 2)
+                            .toUpperCase(Locale.ROOT));
+        }
+        text.append(";DTSTART=").append(start.format(START_FORMAT));
+        if (until != null) {
+            text.append(";UNTIL=").append(until.format(UNTIL_FORMAT));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Parse the canonical text written by <code>toText</code>
+     * @throws DateTimeParseException if the text is not a rule
+     */
+    public static Recurrence fromText(String text) throws DateTimeParseException {
+        Frequency frequency = null;
+        int interval = 1;
+        int dayMask = 0;
+        int ordinal = 0;
+        DayOfWeek ordinalDay = null;
+        LocalDateTime start = null;
+        LocalDate until = null;
+        try {
+            for (String part : text.trim().split(";")) {
+                int equals = part.indexOf('=');
+                String value = part.substring(equals + 1);
+                switch (part.substring(0, Math.max(0, equals))) {
+                case "FREQ":
+                    frequency = Frequency.valueOf(value);
+                    break;
+                case "INTERVAL":
+                    interval = Integer.parseInt(value);
+                    break;
+                case "BYDAY":
+                    for (String day : value.split(",")) {
+                        if (day.length() > 2) {
+                            ordinal = Integer.parseInt(day.substring(0, day.length() - 2));
+                            ordinalDay = dayOf(day.substring(day.length() - 2));
+                        } else {
+                            dayMask |= 1 << (dayOf(day).getValue() - 1);
+                        }
+                    }
+                    break;
+                case "DTSTART":
+                    start = LocalDateTime.parse(value, START_FORMAT);
+                    break;
+                case "UNTIL":
+                    until = LocalDate.parse(value, UNTIL_FORMAT);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown part " + part);
+                }
+            }
+            if (frequency == null || start == null) {
+                throw new IllegalArgumentException("FREQ and DTSTART are required");
+            }
+            return create(frequency, interval, dayMask, ordinal, ordinalDay, start, until);
+        } catch (IllegalArgumentException e) {
+            throw new DateTimeParseException("Invalid recurrence rule: " + e.getMessage(), text, 0);
+        }
+    }
+
+    private static DayOfWeek dayOf(String code) {
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if (day.name().startsWith(code)) {
+                return day;
+            }
+        }
+        throw new IllegalArgumentException("Unknown weekday " + code);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Recurrence && toText().equals(((Recurrence) o).toText());
+    }
+
+    @Override
+    public int hashCode() {
+        return toText().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return toText();
+    }
+}
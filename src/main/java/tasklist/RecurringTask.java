@@ -0,0 +1,66 @@
+package tasklist;
+
+import java.time.LocalDateTime;
+
+/**
+ * A RecurringTask object holds a routine that repeats by a Recurrence rule, such as "every monday 9am".
+ * Its date time is the first occurrence; the others are computed from the rule when a date window is looked at.
+ * Now supports priorities and categories for better task organization.
+ */
+public class RecurringTask extends Task {
+    private final Recurrence recurrence;
+
+    public RecurringTask(TaskTextAnalyzer.Analysis analysis, Recurrence recurrence){
+        super(analysis);
+        this.type = "R";
+        this.isDone = false;
+        this.recurrence = recurrence;
+        this.dateTime = recurrence.getStart();
+    }
+
+    RecurringTask(String description, Priority priority, Category category, Recurrence recurrence){
+        super(description, priority, category);
+        this.type = "R";
+        this.recurrence = recurrence;
+        this.dateTime = recurrence.getStart();
+    }
+
+    /**
+     * Restore a task from the text a store wrote with <code>storedDescription</code>
+     */
+    static RecurringTask restore(String storedDescription, Priority priority, Category category) {
+        int separator = storedDescription.indexOf(STORED_FIELD_SEPARATOR);
+        return new RecurringTask(storedDescription.substring(0, separator), priority, category,
+                Recurrence.fromText(storedDescription.substring(separator + 1)));
+    }
+
+    public Recurrence getRecurrence() {
+        return recurrence;
+    }
+
+    /**
+     * Get the next occurrence at or after a time
+     * @return the occurrence, or null if the rule has ended by then
+     */
+    public LocalDateTime nextOccurrence(LocalDateTime from) {
+        return recurrence.next(from);
+    }
+
+    @Override
+    String storedDescription() {
+        return description + STORED_FIELD_SEPARATOR + recurrence.toText();
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    public String getDateTimeStr() {
+        return "(" + recurrence.describe() + ")";
+    }
+
+    public String[] getKeyword (){
+        return description.split(" ");
+    }
+}
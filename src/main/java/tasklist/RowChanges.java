@@ -0,0 +1,252 @@
+package tasklist;
+
+import java.util.Arrays;
+
+/**
+ * The rows a store has changed since the last published snapshot, so that publishing only looks at them.
+ * The store's rows are kept as a list of pieces, each either a run of rows of the previous snapshot,
+ * in their order there, or a run of fresh rows added or replaced since; rows of the previous snapshot
+ * that no piece covers were removed. Rows changed in place are kept apart, by their previous index.
+ * Past MAX_PIECES, e.g. after removing thousands of scattered rows one by one, every row counts as
+ * fresh and publishing falls back to matching all of them by id.
+ */
+final class RowChanges implements TaskStore.RowListener {
+    static final int FRESH = -1;
+    private static final int MAX_PIECES = 1024;
+
+    private final boolean isTracked;
+    private int[] starts = new int[8];
+    private int[] lengths = new int[8];
+    private int pieceCount;
+    private int size;
+    private int[] changed = new int[8];
+    private int changedCount;
+    private boolean isDirty;
+
+    private RowChanges(boolean isTracked) {
+        this.isTracked = isTracked;
+    }
+
+    /**
+     * Start tracking a store whose rows are all new to the last published snapshot
+     * @return the changes, which count every row as fresh if the store cannot report them
+     */
+    static RowChanges track(TaskStore store) {
+        RowChanges rows = new RowChanges(true);
+        if (!store.setRowListener(rows)) {
+            rows = new RowChanges(false);
+        }
+        rows.replaceAll(store.size());
+        return rows;
+    }
+
+    /**
+     * Check if the store may differ from the last published snapshot
+     */
+    boolean isDirty() {
+        return isDirty;
+    }
+
+    /**
+     * Bring the pieces up to date with a store that cannot report its changes, by counting every row as fresh
+     * @param size rows in the store
+     */
+    void sync(int size) {
+        if (!isTracked) {
+            replaceAll(size);
+        }
+    }
+
+    /**
+     * Start over once the store has been published
+     * @param size rows in the store, all now rows of the published snapshot
+     */
+    void reset(int size) {
+        pieceCount = 0;
+        if (size > 0) {
+            addPiece(0, 0, size);
+        }
+        this.size = size;
+        changedCount = 0;
+        isDirty = false;
+    }
+
+    int pieceCount() {
+        return pieceCount;
+    }
+
+    /**
+     * @return the index in the previous snapshot of the first row of a piece, or FRESH
+     */
+    int start(int piece) {
+        return starts[piece];
+    }
+
+    int length(int piece) {
+        return lengths[piece];
+    }
+
+    /**
+     * Get the rows changed in place, by their index in the previous snapshot
+     * @return the indices in ascending order, possibly with duplicates
+     */
+    int[] changedRows() {
+        int[] rows = Arrays.copyOf(changed, changedCount);
+        Arrays.sort(rows);
+        return rows;
+    }
+
+    @Override
+    public void inserted(int index) {
+        isDirty = true;
+        size++;
+        if (index == size - 1) {
+            if (pieceCount > 0 && starts[pieceCount - 1] == FRESH) {
+                lengths[pieceCount - 1]++;
+            } else {
+                addPiece(pieceCount, FRESH, 1);
+            }
+            return;
+        }
+        int piece = find(index);
+        int offset = index - rowOf(piece);
+        if (starts[piece] == FRESH) {
+            lengths[piece]++;
+        } else if (offset == 0 && piece > 0 && starts[piece - 1] == FRESH) {
+            lengths[piece - 1]++;
+        } else if (offset == 0) {
+            addPiece(piece, FRESH, 1);
+        } else {
+            split(piece, offset);
+            addPiece(piece + 1, FRESH, 1);
+        }
+        checkOverflow();
+    }
+
+    @Override
+    public void removed(int index) {
+        isDirty = true;
+        size--;
+        int piece = find(index);
+        int offset = index - rowOf(piece);
+        if (starts[piece] != FRESH && offset > 0 && offset < lengths[piece] - 1) {
+            split(piece, offset);
+            piece++;
+            offset = 0;
+        }
+        if (starts[piece] != FRESH && offset == 0) {
+            starts[piece]++;
+        }
+        lengths[piece]--;
+        if (lengths[piece] == 0) {
+            removePiece(piece);
+            // The pieces on both sides of the removed one become one if they are both fresh or follow on
+            if (piece > 0 && piece < pieceCount && (starts[piece - 1] == FRESH ? starts[piece] == FRESH
+                    : starts[piece - 1] + lengths[piece - 1] == starts[piece])) {
+                lengths[piece - 1] += lengths[piece];
+                removePiece(piece);
+            }
+        }
+        checkOverflow();
+    }
+
+    @Override
+    public void removedAll(int[] indices) {
+        if (indices.length > MAX_PIECES) {
+            replaceAll(size - indices.length);
+            return;
+        }
+        for (int i = indices.length - 1; i >= 0; i--) {
+            removed(indices[i]);
+        }
+    }
+
+    @Override
+    public void changed(int index) {
+        isDirty = true;
+        int piece = find(index);
+        if (starts[piece] == FRESH) {
+            // Fresh rows are read from the store as they are anyway
+            return;
+        }
+        if (changedCount == changed.length) {
+            changed = Arrays.copyOf(changed, changedCount * 2);
+        }
+        changed[changedCount++] = starts[piece] + index - rowOf(piece);
+    }
+
+    @Override
+    public void cleared() {
+        isDirty = true;
+        pieceCount = 0;
+        size = 0;
+        changedCount = 0;
+    }
+
+    /**
+     * Count every row as fresh, so that publishing matches all of them against the previous snapshot by id
+     */
+    private void replaceAll(int size) {
+        isDirty = true;
+        pieceCount = 0;
+        if (size > 0) {
+            addPiece(0, FRESH, size);
+        }
+        this.size = size;
+        changedCount = 0;
+    }
+
+    private void checkOverflow() {
+        if (pieceCount > MAX_PIECES) {
+            replaceAll(size);
+        }
+    }
+
+    /**
+     * Find the piece holding a row
+     */
+    private int find(int index) {
+        int row = 0;
+        for (int piece = 0; piece < pieceCount; piece++) {
+            row += lengths[piece];
+            if (index < row) {
+                return piece;
+            }
+        }
+        throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + row);
+    }
+
+    private int rowOf(int piece) {
+        int row = 0;
+        for (int i = 0; i < piece; i++) {
+            row += lengths[i];
+        }
+        return row;
+    }
+
+    /**
+     * Split a piece of previous rows in two, the second starting at an offset into it
+     */
+    private void split(int piece, int offset) {
+        addPiece(piece + 1, starts[piece] + offset, lengths[piece] - offset);
+        lengths[piece] = offset;
+    }
+
+    private void addPiece(int piece, int start, int length) {
+        if (pieceCount == starts.length) {
+            starts = Arrays.copyOf(starts, pieceCount * 2);
+            lengths = Arrays.copyOf(lengths, pieceCount * 2);
+        }
+        System.arraycopy(starts, piece, starts, piece + 1, pieceCount - piece);
+        System.arraycopy(lengths, piece, lengths, piece + 1, pieceCount - piece);
+        starts[piece] = start;
+        lengths[piece] = length;
+        pieceCount++;
+    }
+
+    private void removePiece(int piece) {
+        System.arraycopy(starts, piece + 1, starts, piece, pieceCount - piece - 1);
+        System.arraycopy(lengths, piece + 1, lengths, piece, pieceCount - piece - 1);
+        pieceCount--;
+    }
+}
@@ -0,0 +1,71 @@
+package tasklist;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Global dictionary of tag and context names.
+ * Every distinct (lower case) name is stored once and given a dense int id,
+ * so categories can hold small sorted id arrays instead of their own sets of Strings.
+ */
+public final class TagDictionary {
+    private static final ConcurrentHashMap<String, Integer> IDS = new ConcurrentHashMap<>();
+    private static volatile String[] names = new String[64];
+    private static int size;
+
+    private TagDictionary() {}
+
+    /**
+     * Get the id of a name, adding it to the dictionary if it is new
+     * @param name lower case tag or context name
+     * @return dense id of the name
+     */
+    public static int intern(String name) {
+        Integer id = IDS.get(name);
+        if (id != null) {
+            return id;
+        }
+        synchronized (TagDictionary.class) {
+            id = IDS.get(name);
+            if (id != null) {
+                return id;
+            }
+            if (size == names.length) {
+                names = Arrays.copyOf(names, size * 2);
+            }
+            // Publish the name before the id so readers never see an id without its name
+            String[] current = names;
+            current[size] = name;
+            names = current;
+            IDS.put(name, size);
+            return size++;
+        }
+    }
+
+    /**
+     * Look up the id of a name without adding it
+     * @param name lower case tag or context name
+     * @return id of the name, or -1 if it has never been interned
+     */
+    public static int find(String name) {
+        Integer id = IDS.get(name);
+        return id != null ? id : -1;
+    }
+
+    /**
+     * Get the name for an id
+     * @param id id returned by <code>intern</code>
+     * @return the interned name
+     */
+    public static String nameOf(int id) {
+        return names[id];
+    }
+
+    /**
+     * Get the number of distinct names interned so far
+     * @return dictionary size
+     */
+    public static int size() {
+        return IDS.size();
+    }
+}
@@ -1,6 +1,8 @@
 package tasklist;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A <code>Task</code> class is the parent class of all types of tasks
@@ -14,29 +16,167 @@ public class Task {
     protected Priority priority;
     protected Category category;
 
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+    // Identifies the task in change events; tasks restored from a store are given the id of their row
+    private int id;
+
+    // Set when this task is a view materialized from a store that does not keep Task objects
+    private TaskStore store;
+    private int row;
+    // Frozen tasks belong to a snapshot
+    private boolean frozen;
+
     /**
      * Default task constructor
      * @param description parses from user input
      */
     public Task(String description) {
+        this(TaskTextAnalyzer.analyze(description));
+    }
+
+    /**
+     * Construct a task from already analyzed text
+     * @param analysis priority, categories and clean description found in the text
+     */
+    protected Task(TaskTextAnalyzer.Analysis analysis) {
+        this.id = NEXT_ID.incrementAndGet();
         this.isDone = false;
-        
-        // Parse priority and category from description
-        this.priority = Priority.fromText(description);
-        this.category = Category.fromText(description);
-        
-        // Clean description by removing priority and category markers
-        String cleanDescription = description;
-        cleanDescription = Priority.removePriorityFromText(cleanDescription);
-        cleanDescription = Category.removeCategoriesFromText(cleanDescription);
-        
-        this.description = cleanDescription;
+        this.priority = analysis.getPriority();
+        this.category = analysis.toCategory();
+        this.description = analysis.getDescription();
+    }
+
+    /**
+     * Construct a task from state that has already been parsed, e.g. when restoring it from a store.
+     * The caller gives it its id.
+     */
+    Task(String description, Priority priority, Category category) {
+        this.description = description;
+        this.priority = priority;
+        this.category = category;
+    }
+
+    /**
+     * Create a task of the given type from stored state, without analyzing any text
+     * @param type 'T', 'D', 'E' or 'R'
+     * @param description the text written by <code>storedDescription</code>
+     * @return the restored task
+     */
+    static Task restore(char type, String description, boolean isDone, Priority priority, Category category,
+                        LocalDateTime dateTime) {
+        Task task;
+        switch (type) {
+        case 'T':
+            task = new Todo(description, priority, category);
+            break;
+        case 'D':
+            task = new Deadline(description, priority, category, dateTime);
+            break;
+        case 'E':
+            task = Event.restore(description, priority, category, dateTime);
+            break;
+        case 'R':
+            task = RecurringTask.restore(description, priority, category);
+            break;
+        default:
+            throw new IllegalArgumentException("Unknown task type " + type);
+        }
+        task.isDone = isDone;
+        return task;
+    }
+
+    /**
+     * Bind this task to a row of the store it was materialized from, so that changes are written back
+     */
+    void bind(TaskStore store, int row) {
+        this.store = store;
+        this.row = row;
+    }
+
+    boolean isBoundTo(TaskStore store) {
+        return this.store == store;
+    }
+
+    /**
+     * Get the id of this task, unique within the running program
+     * @return the task id
+     */
+    public int getId() {
+        return id;
+    }
+
+    void setId(int id) {
+        this.id = id;
+    }
+
+    /**
+     * Give new tasks made on several threads fresh ids in list order, the ids they would have had if made
+     * one after another, so that ties broken by id come out the same on every run
+     * @param tasks tasks that are not in any list yet, e.g. just parsed from tasks.txt in parallel
+     */
+    public static void renumber(List<Task> tasks) {
+        int first = NEXT_ID.getAndAdd(tasks.size()) + 1;
+        for (int i = 0; i < tasks.size(); i++) {
+            tasks.get(i).id = first + i;
+        }
+    }
+
+    /**
+     * Make sure new tasks get ids above the given one, e.g. after reopening a store written by an earlier run
+     */
+    static void reserveIds(int maxId) {
+        NEXT_ID.accumulateAndGet(maxId, Math::max);
+    }
+
+    /**
+     * Make a mutable, unbound copy of this task with the same id, e.g. from a frozen snapshot copy
+     */
+    Task copy() {
+        Task copy = restore(getType().charAt(0), storedDescription(), isDone(), getPriority(),
+                new Category(getCategory()), getDateTime());
+        copy.setId(id);
+        return copy;
+    }
+
+    /**
+     * Make this task read-only, as it is shared by the readers of a snapshot
+     */
+    void freeze() {
+        frozen = true;
+    }
+
+    private void checkMutable() {
+        if (frozen) {
+            throw new UnsupportedOperationException("Tasks in a snapshot are read-only");
+        }
+    }
+
+    private void writeBack() {
+        if (store != null) {
+            store.update(row, this);
+        }
     }
 
     public String getDescription() {return description;}
 
+    // Stores that keep text rather than Task objects write the fields they have no column for
+    // after the description, past this separator
+    static final char STORED_FIELD_SEPARATOR = '\0';
+
+    /**
+     * Get the description as stores that do not keep Task objects write it,
+     * including whatever else of the task they have no column for
+     */
+    String storedDescription() {
+        return description;
+    }
+
     //isDone.Setter
-    public void setDone(boolean isDone) {this.isDone = isDone;}
+    public void setDone(boolean isDone) {
+        checkMutable();
+        this.isDone = isDone;
+        writeBack();
+    }
 
     public boolean isDone() { return isDone; }
 
@@ -66,7 +206,9 @@ public class Task {
      * @param priority priority to set
      */
     public void setPriority(Priority priority) {
+        checkMutable();
         this.priority = priority;
+        writeBack();
     }
 
     /**
@@ -74,7 +216,7 @@ public class Task {
      * @return category object
      */
     public Category getCategory() {
-        return category != null ? category : new Category();
+        return category != null ? category : Category.EMPTY;
     }
 
     /**
@@ -82,7 +224,9 @@ public class Task {
      * @param category category to set
      */
     public void setCategory(Category category) {
+        checkMutable();
         this.category = category;
+        writeBack();
     }
 
     /**
@@ -0,0 +1,64 @@
+package tasklist;
+
+/**
+ * A change to a task list, as published to TaskEventListeners.
+ * Events carry the frozen copy of the task from the snapshot they lead to
+ * (or, for removed tasks, from the snapshot before).
+ */
+public final class TaskEvent {
+    public enum Type {
+        ADDED, UPDATED, REMOVED
+    }
+
+    private final Type type;
+    private final long version;
+    private final int number;
+    private final Task task;
+    // For updated tasks, the copy from the snapshot before
+    private final Task previousTask;
+
+    TaskEvent(Type type, long version, int number, Task task) {
+        this(type, version, number, task, null);
+    }
+
+    TaskEvent(Type type, long version, int number, Task task, Task previousTask) {
+        this.type = type;
+        this.version = version;
+        this.number = number;
+        this.task = task;
+        this.previousTask = previousTask;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Get the version of the snapshot this event leads to
+     * @return snapshot version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Get the number of the task in the list (1-based): its new place for added and updated tasks,
+     * its old place for removed ones
+     * @return task number
+     */
+    public int getNumber() {
+        return number;
+    }
+
+    public int getTaskId() {
+        return task.getId();
+    }
+
+    public Task getTask() {
+        return task;
+    }
+
+    Task getPreviousTask() {
+        return previousTask;
+    }
+}
@@ -0,0 +1,24 @@
+package tasklist;
+
+import java.util.List;
+
+/**
+ * Receives the changes of a task list each time a new version is published
+ */
+public interface TaskEventListener {
+
+    /**
+     * Called on the thread that published the version, so implementations should hand the events off
+     * rather than block
+     * @param version the version just published
+     * @param events the changes from the previous version, removals first
+     */
+    void onEvents(long version, List<TaskEvent> events);
+
+    /**
+     * Called instead of <code>onEvents</code> when a listener subscribes from a version whose changes
+     * are no longer known, so the subscriber has to reload the whole list
+     * @param version the current version
+     */
+    default void onReset(long version) {}
+}
@@ -0,0 +1,94 @@
+package tasklist;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Event bus of a TaskList: hands the changes of every published version to the registered listeners,
+ * and keeps the most recent events so that a client can resume from the version it last saw.
+ */
+public class TaskEventLog {
+    static final int HISTORY_LIMIT = 4096;
+
+    private final List<TaskEventListener> listeners = new CopyOnWriteArrayList<>();
+    private final ArrayDeque<TaskEvent> history = new ArrayDeque<>();
+    // Oldest version that can be resumed from: all events after it are still in the history
+    private long oldestVersion;
+    private long latestVersion;
+
+    public void addListener(TaskEventListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(TaskEventListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Get the events published after a version
+     * @param version the last version the client has seen
+     * @return the events, oldest first, or null if they are no longer all in the history
+     *         and the client has to reload the whole list
+     */
+    public synchronized List<TaskEvent> eventsSince(long version) {
+        if (version < oldestVersion || version > latestVersion) {
+            return null;
+        }
+        List<TaskEvent> events = new ArrayList<>();
+        for (TaskEvent event : history) {
+            if (event.getVersion() > version) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
+    /**
+     * Subscribe a listener, first handing it the events it missed since a version,
+     * so that it sees every change exactly once and in order
+     * @param version the last version the listener has seen
+     */
+    public synchronized void subscribe(TaskEventListener listener, long version) {
+        List<TaskEvent> missed = eventsSince(version);
+        if (missed == null) {
+            listener.onReset(latestVersion);
+        } else {
+            int start = 0;
+            for (int i = 1; i <= missed.size(); i++) {
+                if (i == missed.size() || missed.get(i).getVersion() != missed.get(start).getVersion()) {
+                    long batch = missed.get(start).getVersion();
+                    listener.onEvents(batch, Collections.unmodifiableList(missed.subList(start, i)));
+                    start = i;
+                }
+            }
+        }
+        addListener(listener);
+    }
+
+    /**
+     * Get the latest published version
+     * @return the version
+     */
+    public synchronized long latestVersion() {
+        return latestVersion;
+    }
+
+    synchronized void record(long version, List<TaskEvent> events) {
+        history.addAll(events);
+        latestVersion = version;
+        while (history.size() > HISTORY_LIMIT) {
+            oldestVersion = history.removeFirst().getVersion();
+        }
+        // Drop the rest of a version that was cut, so resuming never yields half of one
+        while (!history.isEmpty() && history.peekFirst().getVersion() == oldestVersion) {
+            history.removeFirst();
+        }
+        List<TaskEvent> published = Collections.unmodifiableList(events);
+        for (TaskEventListener listener : listeners) {
+            listener.onEvents(version, published);
+        }
+    }
+}
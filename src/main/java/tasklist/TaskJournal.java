@@ -0,0 +1,372 @@
+package tasklist;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Bounded undo/redo history of a TaskList.
+ * Every published version is recorded as the tasks it added, removed and updated, with their positions
+ * and the frozen copies the snapshots already hold, so an entry costs the changed tasks only,
+ * never a copy of the whole list. Like the list itself, the journal belongs to the thread running commands.
+ */
+public class TaskJournal {
+    public static final String LIMIT_PROPERTY = "duke.undo.limit";
+    static final int DEFAULT_LIMIT = 100;
+
+    /**
+     * Persists the journal whenever it changes, told what changed so that it need not write it all again
+     */
+    public interface Saver {
+        /**
+         * An entry was recorded; entries past the limit and every entry that could be redone were dropped
+         */
+        void recorded(TaskJournal journal, Entry entry);
+
+        /**
+         * The latest entry that could be undone was, and can now be redone
+         */
+        void undone(TaskJournal journal, Entry entry);
+
+        /**
+         * The entry undone last was applied again, and can now be undone
+         */
+        void redone(TaskJournal journal, Entry entry);
+
+        void cleared(TaskJournal journal);
+    }
+
+    private final int limit;
+    private final Deque<Entry> undoEntries = new ArrayDeque<>();
+    private final Deque<Entry> redoEntries = new ArrayDeque<>();
+    // Set while an undo or redo publishes its own changes, which must not become a new entry
+    private boolean isReplaying;
+    private Saver saver;
+
+    public TaskJournal() {
+        this(Integer.getInteger(LIMIT_PROPERTY, DEFAULT_LIMIT));
+    }
+
+    /**
+     * @param limit number of entries kept for undo; older ones are dropped
+     */
+    public TaskJournal(int limit) {
+        this.limit = Math.max(0, limit);
+    }
+
+    /**
+     * @return number of entries kept for undo
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setSaver(Saver saver) {
+        this.saver = saver;
+    }
+
+    public boolean canUndo() {
+        return !undoEntries.isEmpty();
+    }
+
+    public boolean canRedo() {
+        return !redoEntries.isEmpty();
+    }
+
+    /**
+     * Record the changes of a published version. Recording a new change drops everything that could be redone.
+     * @param changes the events that lead to the version
+     * @param sizeAfter size of the list at that version
+     */
+    void record(List<TaskEvent> changes, int sizeAfter) {
+        if (isReplaying || changes.isEmpty() || limit == 0) {
+            return;
+        }
+        Entry entry = Entry.of(changes, sizeAfter);
+        undoEntries.addLast(entry);
+        while (undoEntries.size() > limit) {
+            undoEntries.removeFirst();
+        }
+        redoEntries.clear();
+        if (saver != null) {
+            saver.recorded(this, entry);
+        }
+    }
+
+    /**
+     * Revert the latest change of a list. Changes not yet published are published first,
+     * so they are what gets undone.
+     * @param taskList the list this journal belongs to
+     * @return the entry that was undone, or null if there is nothing to undo
+     * @throws IllegalStateException if the list no longer matches the journal; the journal is then cleared
+     */
+    public Entry undo(TaskList taskList) {
+        checkNoTransaction(taskList);
+        taskList.publish();
+        Entry entry = undoEntries.pollLast();
+        if (entry == null) {
+            return null;
+        }
+        check(taskList, entry.sizeAfter);
+        entry.revert(taskList);
+        replay(taskList);
+        redoEntries.addLast(entry);
+        if (saver != null) {
+            saver.undone(this, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Apply again the change undone last
+     * @param taskList the list this journal belongs to
+     * @return the entry that was redone, or null if there is nothing to redo
+     * @throws IllegalStateException if the list no longer matches the journal; the journal is then cleared
+     */
+    public Entry redo(TaskList taskList) {
+        checkNoTransaction(taskList);
+        taskList.publish();
+        Entry entry = redoEntries.pollLast();
+        if (entry == null) {
+            return null;
+        }
+        check(taskList, entry.sizeBefore());
+        entry.apply(taskList);
+        replay(taskList);
+        undoEntries.addLast(entry);
+        if (saver != null) {
+            saver.redone(this, entry);
+        }
+        return entry;
+    }
+
+    private static void checkNoTransaction(TaskList taskList) {
+        if (taskList.isInTransaction()) {
+            throw new IllegalStateException("Please commit or roll back the open transaction first.");
+        }
+    }
+
+    private void check(TaskList taskList, int expectedSize) {
+        if (taskList.size() != expectedSize) {
+            clear();
+            throw new IllegalStateException("The task list was changed outside of the undo history, "
+                    + "so the history has been cleared.");
+        }
+    }
+
+    private void replay(TaskList taskList) {
+        isReplaying = true;
+        try {
+            taskList.publish();
+        } finally {
+            isReplaying = false;
+        }
+    }
+
+    public void clear() {
+        undoEntries.clear();
+        redoEntries.clear();
+        if (saver != null) {
+            saver.cleared(this);
+        }
+    }
+
+    /**
+     * Get the entries that can be undone, oldest first
+     */
+    public List<Entry> getUndoEntries() {
+        return Collections.unmodifiableList(new ArrayList<>(undoEntries));
+    }
+
+    /**
+     * Get the entries that can be redone, the one to redo next last
+     */
+    public List<Entry> getRedoEntries() {
+        return Collections.unmodifiableList(new ArrayList<>(redoEntries));
+    }
+
+    /**
+     * Replace the history, e.g. with one loaded from disk. The saver is not called.
+     * @param undo entries that can be undone, oldest first
+     * @param redo entries that can be redone, the one to redo next last
+     */
+    public void restore(List<Entry> undo, List<Entry> redo) {
+        undoEntries.clear();
+        redoEntries.clear();
+        undoEntries.addAll(undo);
+        redoEntries.addAll(redo);
+        while (undoEntries.size() > limit) {
+            undoEntries.removeFirst();
+        }
+    }
+
+    /**
+     * One change to one task. Positions are zero-based: positions in the list before the change
+     * for removed tasks, in the list after it for added and updated ones.
+     */
+    public static final class Change {
+        public enum Kind {
+            ADDED, REMOVED, UPDATED
+        }
+
+        private final Kind kind;
+        private final int index;
+        private final Task before;
+        private final Task after;
+
+        /**
+         * @param before the task before the change, null for added tasks
+         * @param after the task after the change, null for removed tasks
+         */
+        public Change(Kind kind, int index, Task before, Task after) {
+            this.kind = kind;
+            this.index = index;
+            this.before = before;
+            this.after = after;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public Task getBefore() {
+            return before;
+        }
+
+        public Task getAfter() {
+            return after;
+        }
+    }
+
+    /**
+     * The changes of one published version
+     */
+    public static final class Entry {
+        private final Change[] removed;
+        private final Change[] updated;
+        private final Change[] added;
+        private final int sizeAfter;
+
+        /**
+         * @param changes the changes, in any order
+         * @param sizeAfter size of the list after the changes
+         */
+        public Entry(List<Change> changes, int sizeAfter) {
+            List<Change> removed = new ArrayList<>();
+            List<Change> updated = new ArrayList<>();
+            List<Change> added = new ArrayList<>();
+            for (Change change : changes) {
+                (change.kind == Change.Kind.REMOVED ? removed
+                        : change.kind == Change.Kind.UPDATED ? updated : added).add(change);
+            }
+            removed.sort((a, b) -> Integer.compare(a.index, b.index));
+            added.sort((a, b) -> Integer.compare(a.index, b.index));
+            this.removed = removed.toArray(new Change[0]);
+            this.updated = updated.toArray(new Change[0]);
+            this.added = added.toArray(new Change[0]);
+            this.sizeAfter = sizeAfter;
+        }
+
+        /**
+         * Build an entry from the events of a published version
+         * @param changes the events that lead to the version
+         * @param sizeAfter size of the list at that version
+         */
+        static Entry of(List<TaskEvent> changes, int sizeAfter) {
+            List<Change> entryChanges = new ArrayList<>(changes.size());
+            for (TaskEvent event : changes) {
+                int index = event.getNumber() - 1;
+                switch (event.getType()) {
+                case REMOVED:
+                    entryChanges.add(new Change(Change.Kind.REMOVED, index, event.getTask(), null));
+                    break;
+                case UPDATED:
+                    entryChanges.add(new Change(Change.Kind.UPDATED, index, event.getPreviousTask(), event.getTask()));
+                    break;
+                default:
+                    entryChanges.add(new Change(Change.Kind.ADDED, index, null, event.getTask()));
+                    break;
+                }
+            }
+            return new Entry(entryChanges, sizeAfter);
+        }
+
+        public int getSizeAfter() {
+            return sizeAfter;
+        }
+
+        int sizeBefore() {
+            return sizeAfter - added.length + removed.length;
+        }
+
+        /**
+         * Get the changes: removed tasks by ascending position, then updated ones, then added ones
+         */
+        public List<Change> getChanges() {
+            List<Change> changes = new ArrayList<>(removed.length + updated.length + added.length);
+            Collections.addAll(changes, removed);
+            Collections.addAll(changes, updated);
+            Collections.addAll(changes, added);
+            return changes;
+        }
+
+        /**
+         * Describe the entry for the user
+         * @return e.g. "1 task added, 2 tasks changed"
+         */
+        public String describe() {
+            List<String> parts = new ArrayList<>(3);
+            if (added.length > 0) {
+                parts.add(count(added.length) + " added");
+            }
+            if (removed.length > 0) {
+                parts.add(count(removed.length) + " removed");
+            }
+            if (updated.length > 0) {
+                parts.add(count(updated.length) + " changed");
+            }
+            return String.join(", ", parts);
+        }
+
+        private static String count(int count) {
+            return count + (count == 1 ? " task" : " tasks");
+        }
+
+        void revert(TaskList taskList) {
+            // Updated positions refer to the list after the change, so they go first
+            for (Change change : updated) {
+                taskList.setTask(change.index, thaw(change.before, taskList.get(change.index).getId()));
+            }
+            for (int i = added.length - 1; i >= 0; i--) {
+                taskList.removeTask(added[i].index);
+            }
+            for (Change change : removed) {
+                taskList.insertTask(change.index, change.before.copy());
+            }
+        }
+
+        private void apply(TaskList taskList) {
+            for (int i = removed.length - 1; i >= 0; i--) {
+                taskList.removeTask(removed[i].index);
+            }
+            for (Change change : added) {
+                taskList.insertTask(change.index, change.after.copy());
+            }
+            for (Change change : updated) {
+                taskList.setTask(change.index, thaw(change.after, taskList.get(change.index).getId()));
+            }
+        }
+
+        private static Task thaw(Task task, int id) {
+            Task copy = task.copy();
+            copy.setId(id);
+            return copy;
+        }
+    }
+}
@@ -1,48 +1,280 @@
 package tasklist;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 /**
- * An TaskList object holds an arraylist of tasks
+ * An TaskList object holds the list of tasks in a TaskStore.
+ * The default store is an ArrayList of tasks; a columnar or off-heap store can be chosen for very large lists.
+ * A TaskList has a single writer, the thread running commands; other threads read published snapshots.
  */
 public class TaskList {
-    private ArrayList<Task> taskList;
+    /**
+     * System property that selects the store used by <code>TaskList.create</code>
+     */
+    public static final String STORE_PROPERTY = "duke.store";
+
+    private final TaskStore store;
+    private volatile TaskSnapshot published = TaskSnapshot.EMPTY;
+    private final TaskEventLog events = new TaskEventLog();
+    private final TaskJournal journal = new TaskJournal();
+    // The first publish, e.g. right after loading tasks.txt, is the baseline and cannot be undone
+    private boolean hasBaseline;
+    // Snapshot taken when the open transaction began, null outside of a transaction
+    private TaskSnapshot savepoint;
+    // Rows changed since the last publish, null until the first one
+    private RowChanges rows;
 
     public TaskList() {
-        taskList = new ArrayList<>();
+        this(new ArrayTaskStore());
     }
 
     public TaskList(ArrayList<Task> taskList) {
-        this.taskList = taskList;
+        this(new ArrayTaskStore(taskList));
+    }
+
+    public TaskList(TaskStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Create a task list holding the given tasks, backed by the store named in the
+     * <code>duke.store</code> system property: "array" (default), "columnar" or "offheap"
+     * @param tasks the initial tasks
+     * @return the task list
+     */
+    public static TaskList create(ArrayList<Task> tasks) {
+        String mode = System.getProperty(STORE_PROPERTY, "array");
+        TaskStore store;
+        switch (mode) {
+        case "array":
+            return new TaskList(tasks);
+        case "columnar":
+            store = new ColumnarTaskStore();
+            break;
+        case "offheap":
+            store = new OffHeapTaskStore();
+            break;
+        default:
+            throw new IllegalArgumentException("Unknown task store: " + mode);
+        }
+        for (Task task : tasks) {
+            store.add(task);
+        }
+        return new TaskList(store);
+    }
+
+    TaskStore store() {
+        return store;
+    }
+
+    /**
+     * Free the memory the store holds outside the heap, e.g. the direct buffers of an off-heap store,
+     * once the list is no longer used. Published snapshots stay readable.
+     */
+    public void close() {
+        if (store instanceof Closeable) {
+            try {
+                ((Closeable) store).close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Get the last published snapshot of this list.
+     * Unlike the list itself, which belongs to the thread running commands, a snapshot can be read
+     * from any thread without locking and never changes, so background work such as searches
+     * and suggestions should read from it.
+     * @return the snapshot, empty with version 0 if the list was never published
+     */
+    public TaskSnapshot snapshot() {
+        return published;
+    }
+
+    /**
+     * Publish the current state of this list as a new snapshot.
+     * Called by the thread running commands once a command has finished, so readers never see
+     * the list halfway through a command.
+     * Inside a transaction nothing is published until it is committed.
+     * @return the new snapshot, or the current one if the list has not changed since it was published
+     */
+    public synchronized TaskSnapshot publish() {
+        if (savepoint != null) {
+            return published;
+        }
+        if (rows == null) {
+            // Tracked from the first publish on, so lists that are never published, e.g. search results,
+            // leave the tasks they hold bound to the list they came from
+            rows = RowChanges.track(store);
+        }
+        TaskSnapshot previous = published;
+        TaskSnapshot next = TaskSnapshot.capture(store, rows, previous.version() + 1, previous);
+        rows.reset(store.size());
+        if (next != previous) {
+            List<TaskEvent> changes = next.changes();
+            published = next;
+            events.record(next.version(), changes);
+            if (hasBaseline) {
+                journal.record(changes, next.size());
+            }
+        }
+        hasBaseline = true;
+        return next;
+    }
+
+    /**
+     * Start a transaction: until it is committed, changes to this list are not published,
+     * so readers, the change feed and the undo history only ever see all of them or none
+     * @throws IllegalStateException if a transaction is already open
+     */
+    public synchronized void beginTransaction() {
+        if (savepoint != null) {
+            throw new IllegalStateException("A transaction is already open.");
+        }
+        publish();
+        savepoint = published;
+    }
+
+    public synchronized boolean isInTransaction() {
+        return savepoint != null;
+    }
+
+    /**
+     * Commit the open transaction, publishing its changes as one version
+     * @return the published snapshot
+     * @throws IllegalStateException if no transaction is open
+     */
+    public synchronized TaskSnapshot commitTransaction() {
+        checkTransaction();
+        savepoint = null;
+        return publish();
+    }
+
+    /**
+     * Roll back the open transaction, putting this list back the way it was when the transaction began.
+     * Only the tasks the transaction added, removed or changed are touched.
+     * @throws IllegalStateException if no transaction is open
+     */
+    public synchronized void rollbackTransaction() {
+        checkTransaction();
+        List<TaskEvent> changes = TaskSnapshot.changes(store, rows, savepoint, savepoint.version() + 1);
+        if (!changes.isEmpty()) {
+            TaskJournal.Entry.of(changes, store.size()).revert(this);
+        }
+        rows.reset(store.size());
+        savepoint = null;
+    }
+
+    private void checkTransaction() {
+        if (savepoint == null) {
+            throw new IllegalStateException("There is no open transaction.");
+        }
+    }
+
+    /**
+     * Get the index of the dated tasks by the time they take up, kept up to date with every publish,
+     * for range, overlap and free time queries that need not scan the whole list
+     * @return the date index of the last published snapshot
+     */
+    public DateIndex dates() {
+        return published.dates();
+    }
+
+    /**
+     * Get the event bus that receives the changes of every published version
+     * @return the event log of this list
+     */
+    public TaskEventLog events() {
+        return events;
+    }
+
+    /**
+     * Get the undo/redo history of the changes published from this list
+     * @return the journal of this list
+     */
+    public TaskJournal journal() {
+        return journal;
     }
 
     public void addTask (Task t) {
-        taskList.add(t);
+        store.add(t);
     }
 
     public void removeTask (int i)  {
-        taskList.remove(i);
+        store.remove(i);
+    }
+
+    /**
+     * Insert a task at a position, moving the tasks from there on down by one
+     * @param i position of the task in the list, from 0 to size
+     * @param t the task to insert
+     */
+    public void insertTask(int i, Task t) {
+        store.insert(i, t);
+    }
+
+    /**
+     * Replace the task at a position
+     * @param i position of the task in the list
+     * @param t the task to put there
+     */
+    public void setTask(int i, Task t) {
+        store.set(i, t);
+    }
+
+    /**
+     * Remove several tasks in one pass
+     * @param indices indices to remove, in ascending order without duplicates
+     */
+    public void removeTasks(int[] indices) {
+        store.removeAll(indices);
     }
 
     public void reset() {
-        taskList.clear();
+        store.clear();
     }
 
     public int size() {
-        return taskList.size();
+        return store.size();
     }
 
     public Task get(int i) {
-        return taskList.get(i);
+        return store.get(i);
     }
 
-    public ArrayList<Task> getTasks() {
-        return taskList;
+    /**
+     * Get the tasks as a read-only list. For the default store this is a view of the backing list;
+     * other stores return a view that materializes tasks as they are accessed.
+     * @return list of tasks
+     */
+    public List<Task> getTasks() {
+        if (store instanceof ArrayTaskStore) {
+            // Read-only, as the store has to see every change to report it to the next publish
+            return Collections.unmodifiableList(((ArrayTaskStore) store).list());
+        }
+        return Collections.unmodifiableList(new AbstractList<Task>() {
+            @Override
+            public Task get(int index) {
+                return store.get(index);
+            }
+
+            @Override
+            public int size() {
+                return store.size();
+            }
+        });
     }
 
-    public boolean contains(Task t){return taskList.contains(t);}
+    public boolean contains(Task t){return getTasks().contains(t);}
 
     /**
      * The method searches task in the taskList of the date given
@@ -53,13 +285,21 @@ public class TaskList {
      */
     public TaskList getTaskByDate(LocalDate date, TaskList taskList) throws IndexOutOfBoundsException{
         TaskList taskByDate = new TaskList();
-        for (int i = 0; i < taskList.size(); i++) {
-            boolean isDeadline = taskList.get(i).getType().equals("D");
-            boolean isEvent = taskList.get(i).getType().equals("E");
-            if (isDeadline || isEvent) {
-                boolean matchesDate = taskList.get(i).getDateTime().toLocalDate().equals(date);
-                if(matchesDate) {
-                    taskByDate.addTask(taskList.get(i));
+        TaskStore tasks = taskList.store;
+        long dayStart = TaskStore.toMinute(date.atStartOfDay());
+        long dayEnd = dayStart + 24 * 60;
+        // Compare due minutes straight from the store instead of materializing every task's date
+        for (int i = 0; i < tasks.size(); i++) {
+            char type = tasks.type(i);
+            if (type == 'R') {
+                // Only the rule knows its later occurrences, so ask it about this day alone
+                if (tasks.recurrence(i).occursBetween(date.atStartOfDay(), date.plusDays(1).atStartOfDay())) {
+                    taskByDate.addTask(tasks.get(i));
+                }
+            } else if (type == 'D' || type == 'E') {
+                long due = tasks.dueMinute(i);
+                if (due != TaskStore.NO_DUE && due >= dayStart && due < dayEnd) {
+                    taskByDate.addTask(tasks.get(i));
                 }
             }
         }
@@ -77,21 +317,23 @@ public class TaskList {
         TaskList taskByKeyword = new TaskList();
         String[] keywordInTask;
         for (int i = 0; i < taskList.size(); i++){
-            boolean isDeadline = taskList.get(i).getType().equals("D");
-            boolean isEvent = taskList.get(i).getType().equals("E");
+            // Materialize once: stores other than the default return a fresh view on every get
+            Task task = taskList.get(i);
+            boolean isDeadline = task.getType().equals("D");
+            boolean isEvent = task.getType().equals("E");
             if (isDeadline || isEvent) {
-                keywordInTask = taskList.get(i).getKeyword()[0].split(" ");
+                keywordInTask = task.getKeyword()[0].split(" ");
             } else {
-                keywordInTask = taskList.get(i).getKeyword();
+                keywordInTask = task.getKeyword();
             }
             keywordInTask = Arrays.copyOfRange(keywordInTask, 1, keywordInTask.length);
             for (String s : keywordInTask){
-                boolean isInList =taskByKeyword.contains(taskList.get(i));
                 boolean containsKeyword = s.contains(keyword);
                 boolean containsString = keyword.contains(s);
                 boolean containsEachOther = containsKeyword || containsString;
-                if (containsEachOther && !isInList) {
-                    taskByKeyword.addTask(taskList.get(i));
+                if (containsEachOther) {
+                    taskByKeyword.addTask(task);
+                    break;
                 }
             }
         }
@@ -1,9 +1,12 @@
 package tasklist;
 
+import metrics.Metrics;
+import metrics.FlightEvents;
+import metrics.SearchEvent;
+
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Enhanced search engine for tasks with filtering, sorting, and intelligent matching
@@ -29,6 +32,9 @@ public class TaskSearchEngine {
         private boolean ascending = true;
         private LocalDate dateFrom;
         private LocalDate dateTo;
+        private final List<FilterBy> moreFilters = new ArrayList<>();
+        private final List<String> tags = new ArrayList<>();
+        private final List<String> contexts = new ArrayList<>();
         
         public SearchCriteria(String keyword) {
             this.keyword = keyword;
@@ -39,6 +45,30 @@ public class TaskSearchEngine {
             return this;
         }
         
+        /**
+         * Require another filter besides the one set with <code>filter</code>, e.g. done and deadline
+         */
+        public SearchCriteria andFilter(FilterBy filter) {
+            this.moreFilters.add(filter);
+            return this;
+        }
+        
+        /**
+         * Require a #tag, given without the #
+         */
+        public SearchCriteria tag(String tag) {
+            this.tags.add(tag.toLowerCase());
+            return this;
+        }
+        
+        /**
+         * Require an @context, given without the @
+         */
+        public SearchCriteria context(String context) {
+            this.contexts.add(context.toLowerCase());
+            return this;
+        }
+        
         public SearchCriteria sortBy(SortBy sortBy) {
             this.sortBy = sortBy;
             return this;
@@ -62,6 +92,9 @@ public class TaskSearchEngine {
         public boolean isAscending() { return ascending; }
         public LocalDate getDateFrom() { return dateFrom; }
         public LocalDate getDateTo() { return dateTo; }
+        public List<FilterBy> getMoreFilters() { return moreFilters; }
+        public List<String> getTags() { return tags; }
+        public List<String> getContexts() { return contexts; }
     }
     
     /**
@@ -84,42 +117,128 @@ public class TaskSearchEngine {
     }
     
     /**
-     * Perform advanced search with the given criteria
+     * Perform advanced search with the given criteria.
+     * Filters run over the store's columns and only matching tasks are materialized.
      */
     public static SearchResult search(TaskList taskList, SearchCriteria criteria) {
-        List<Task> allTasks = taskList.getTasks();
-        List<Task> filteredTasks = new ArrayList<>();
-        
-        // Step 1: Filter by type and completion status
-        for (Task task : allTasks) {
-            if (matchesFilter(task, criteria.getFilter())) {
-                filteredTasks.add(task);
-            }
-        }
-        
-        // Step 2: Filter by date range (if specified)
-        if (criteria.getDateFrom() != null || criteria.getDateTo() != null) {
-            filteredTasks = filteredTasks.stream()
-                .filter(task -> matchesDateRange(task, criteria.getDateFrom(), criteria.getDateTo()))
-                .collect(Collectors.toList());
+        long start = Metrics.start();
+        SearchEvent event = FlightEvents.isEnabled() ? SearchEvent.start() : null;
+        TaskStore store = taskList.store();
+        int[] matches = matchIndices(taskList, criteria);
+        List<Task> filteredTasks = new ArrayList<>(matches.length);
+        for (int index : matches) {
+            filteredTasks.add(store.get(index));
         }
         
-        // Step 3: Filter by keyword (if specified)
-        if (criteria.getKeyword() != null && !criteria.getKeyword().trim().isEmpty()) {
-            filteredTasks = filteredTasks.stream()
-                .filter(task -> matchesKeyword(task, criteria.getKeyword()))
-                .collect(Collectors.toList());
-        }
-        
-        // Step 4: Sort results
+        // Sort results
         sortTasks(filteredTasks, criteria.getSortBy(), criteria.isAscending());
         
-        // Step 5: Create search summary
-        String summary = createSearchSummary(criteria, filteredTasks.size(), allTasks.size());
+        // Create search summary
+        String summary = createSearchSummary(criteria, filteredTasks.size(), store.size());
         
+        Metrics.record("search", start);
+        if (event != null) {
+            event.end(summary, filteredTasks.size(), store.size(), store.getClass().getSimpleName());
+        }
         return new SearchResult(filteredTasks, filteredTasks.size(), summary);
     }
     
+    /**
+     * Find the tasks matching the criteria without materializing them, e.g. to change them in bulk.
+     * Sorting is ignored: the indices are in list order.
+     * @return the indices of the matching tasks, ascending
+     */
+    public static int[] matchIndices(TaskList taskList, SearchCriteria criteria) {
+        TaskStore store = taskList.store();
+        int[] matches = new int[Math.min(store.size(), 16)];
+        int count = 0;
+        
+        boolean hasDateRange = criteria.getDateFrom() != null || criteria.getDateTo() != null;
+        long fromMinute = criteria.getDateFrom() == null ? Long.MIN_VALUE
+                : TaskStore.toMinute(criteria.getDateFrom().atStartOfDay());
+        long toMinute = criteria.getDateTo() == null ? Long.MAX_VALUE
+                : TaskStore.toMinute(criteria.getDateTo().plusDays(1).atStartOfDay());
+        String[] keywordWords = null;
+        if (criteria.getKeyword() != null && !criteria.getKeyword().trim().isEmpty()) {
+            keywordWords = criteria.getKeyword().toLowerCase().trim().split("\\s+");
+        }
+        // A tag nobody has ever used cannot match any task
+        int[] tagIds = toIds(criteria.getTags());
+        int[] contextIds = toIds(criteria.getContexts());
+        if (tagIds == null || contextIds == null) {
+            return new int[0];
+        }
+        
+        for (int i = 0; i < store.size(); i++) {
+            // Step 1: Filter by type and completion status
+            if (!matchesFilter(store, i, criteria.getFilter())) {
+                continue;
+            }
+            boolean matchesMoreFilters = true;
+            for (FilterBy filter : criteria.getMoreFilters()) {
+                matchesMoreFilters &= matchesFilter(store, i, filter);
+            }
+            if (!matchesMoreFilters) {
+                continue;
+            }
+            // Step 2: Filter by date range (if specified)
+            if (hasDateRange && !(store.type(i) == 'R'
+                    ? occursInRange(store.recurrence(i), criteria.getDateFrom(), criteria.getDateTo())
+                    : matchesDateRange(store.dueMinute(i), fromMinute, toMinute))) {
+                continue;
+            }
+            // Step 3: Filter by keyword (if specified)
+            if (keywordWords != null && !matchesKeyword(store, i, keywordWords)) {
+                continue;
+            }
+            // Step 4: Filter by tags and contexts
+            if (!matchesCategories(store, i, tagIds, contextIds)) {
+                continue;
+            }
+            if (count == matches.length) {
+                matches = Arrays.copyOf(matches, count * 2);
+            }
+            matches[count++] = i;
+        }
+        return Arrays.copyOf(matches, count);
+    }
+    
+    /**
+     * Look up the dictionary ids of tag or context names
+     * @return the ids, or null if one of the names is not in the dictionary
+     */
+    private static int[] toIds(List<String> names) {
+        int[] ids = new int[names.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = TagDictionary.find(names.get(i));
+            if (ids[i] < 0) {
+                return null;
+            }
+        }
+        return ids;
+    }
+    
+    private static boolean matchesCategories(TaskStore store, int index, int[] tagIds, int[] contextIds) {
+        for (int tagId : tagIds) {
+            if (!store.hasTag(index, tagId)) {
+                return false;
+            }
+        }
+        for (int contextId : contextIds) {
+            if (!store.hasContext(index, contextId)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Perform advanced search on a published snapshot, e.g. from a background thread
+     */
+    public static SearchResult search(TaskSnapshot snapshot, SearchCriteria criteria) {
+        return search(snapshot.toTaskList(), criteria);
+    }
+    
     /**
      * Quick search for keyword only (backward compatibility)
      */
@@ -137,86 +256,65 @@ public class TaskSearchEngine {
     /**
      * Check if task matches the filter criteria
      */
-    private static boolean matchesFilter(Task task, FilterBy filter) {
+    private static boolean matchesFilter(TaskStore store, int index, FilterBy filter) {
         switch (filter) {
             case ALL:
                 return true;
             case COMPLETED:
-                return task.isDone();
+                return store.isDone(index);
             case PENDING:
-                return !task.isDone();
+                return !store.isDone(index);
             case TODO:
-                return task.getType().equals("T");
+                return store.type(index) == 'T';
             case DEADLINE:
-                return task.getType().equals("D");
+                return store.type(index) == 'D';
             case EVENT:
-                return task.getType().equals("E");
+                return store.type(index) == 'E';
             case LOW_PRIORITY:
-                return task.getPriority() == Priority.LOW;
+                return store.priority(index) == Priority.LOW;
             case NORMAL_PRIORITY:
-                return task.getPriority() == Priority.NORMAL;
+                return store.priority(index) == Priority.NORMAL;
             case HIGH_PRIORITY:
-                return task.getPriority() == Priority.HIGH;
+                return store.priority(index) == Priority.HIGH;
             case URGENT_PRIORITY:
-                return task.getPriority() == Priority.URGENT;
+                return store.priority(index) == Priority.URGENT;
             case CRITICAL_PRIORITY:
-                return task.getPriority() == Priority.CRITICAL;
+                return store.priority(index) == Priority.CRITICAL;
             default:
                 return true;
         }
     }
     
     /**
-     * Check if task falls within the specified date range
+     * Check if a due minute falls within [fromMinute, toMinute)
      */
-    private static boolean matchesDateRange(Task task, LocalDate from, LocalDate to) {
-        LocalDateTime taskDateTime = task.getDateTime();
-        if (taskDateTime == null) {
+    private static boolean matchesDateRange(long dueMinute, long fromMinute, long toMinute) {
+        if (dueMinute == TaskStore.NO_DUE) {
             return false; // Todo tasks have no date
         }
-        
-        LocalDate taskDate = taskDateTime.toLocalDate();
-        
-        if (from != null && taskDate.isBefore(from)) {
-            return false;
-        }
-        
-        if (to != null && taskDate.isAfter(to)) {
-            return false;
-        }
-        
-        return true;
+        return dueMinute >= fromMinute && dueMinute < toMinute;
     }
     
     /**
-     * Enhanced keyword matching with multiple strategies
+     * Check if a recurring task has an occurrence between two dates
+     * @param from first day, or null for no lower bound
+     * @param to last day, or null for no upper bound
      */
-    private static boolean matchesKeyword(Task task, String keyword) {
-        String lowerKeyword = keyword.toLowerCase().trim();
-        String description = task.getDescription().toLowerCase();
-        
-        // Strategy 1: Exact phrase match (highest priority)
-        if (description.contains(lowerKeyword)) {
-            return true;
-        }
-        
-        // Strategy 2: Word boundary match
-        String[] keywordWords = lowerKeyword.split("\\s+");
-        String[] descriptionWords = description.split("\\s+");
-        
+    private static boolean occursInRange(Recurrence recurrence, LocalDate from, LocalDate to) {
+        LocalDateTime next = recurrence.next(from == null ? recurrence.getStart() : from.atStartOfDay());
+        return next != null && (to == null || next.isBefore(to.plusDays(1).atStartOfDay()));
+    }
+    
+    /**
+     * Keyword matching: every word of the keyword must appear in the description.
+     * This covers both the exact phrase match and the per-word match of the earlier strategies.
+     */
+    private static boolean matchesKeyword(TaskStore store, int index, String[] keywordWords) {
         for (String keywordWord : keywordWords) {
-            boolean found = false;
-            for (String descWord : descriptionWords) {
-                if (descWord.contains(keywordWord)) {
-                    found = true;
-                    break;
-                }
-            }
-            if (!found) {
+            if (!store.descriptionContains(index, keywordWord)) {
                 return false; // All keyword words must be found
             }
         }
-        
         return true;
     }
     
@@ -294,6 +392,15 @@ public class TaskSearchEngine {
         if (criteria.getFilter() != FilterBy.ALL) {
             filters.add("filter: " + criteria.getFilter().toString().toLowerCase());
         }
+        for (FilterBy filter : criteria.getMoreFilters()) {
+            filters.add("filter: " + filter.toString().toLowerCase());
+        }
+        for (String tag : criteria.getTags()) {
+            filters.add("#" + tag);
+        }
+        for (String context : criteria.getContexts()) {
+            filters.add("@" + context);
+        }
         
         if (criteria.getDateFrom() != null || criteria.getDateTo() != null) {
             if (criteria.getDateFrom() != null && criteria.getDateTo() != null) {
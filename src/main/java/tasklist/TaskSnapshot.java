@@ -0,0 +1,374 @@
+package tasklist;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * An immutable, versioned copy of a TaskList, safe to read from any thread.
+ * Publishing only looks at the rows the store reports as added, removed or changed since the previous
+ * snapshot (see RowChanges), so an unchanged publish costs nothing and a changed one costs about as much
+ * as its changes. The tasks of an ArrayTaskStore are held as frozen copies in chunks of CHUNK_SIZE,
+ * sharing unchanged chunks and copies with the previous snapshot; stores that keep columns rather than
+ * Task objects share those with the snapshot instead (see TaskStore.share).
+ * As a TaskStore a snapshot can back a read-only TaskList, e.g. for TaskSearchEngine.
+ */
+public final class TaskSnapshot implements TaskStore {
+    static final int CHUNK_SIZE = 64;
+
+    /**
+     * Snapshot of a list that has never been published
+     */
+    static final TaskSnapshot EMPTY = new TaskSnapshot(0, 0, new Task[0][], null, DateIndex.EMPTY,
+            Collections.emptyList());
+
+    private final long version;
+    private final int size;
+    // Frozen copies of the tasks, or null if the snapshot reads a shared copy of the store
+    private final Task[][] chunks;
+    private final TaskStore shared;
+    private final DateIndex dates;
+    // The events that lead to this snapshot from the one it was captured after
+    private final List<TaskEvent> changes;
+
+    private TaskSnapshot(long version, int size, Task[][] chunks, TaskStore shared, DateIndex dates,
+                         List<TaskEvent> changes) {
+        this.version = version;
+        this.size = size;
+        this.chunks = chunks;
+        this.shared = shared;
+        this.dates = dates;
+        this.changes = changes;
+    }
+
+    /**
+     * Take a snapshot of a store from the rows it changed since the previous snapshot
+     * @param store the live store, only ever touched by the writer thread
+     * @param rows the rows the store changed since the previous snapshot
+     * @param version version of the new snapshot
+     * @param previous the last published snapshot of the same store
+     * @return the new snapshot, or the previous one if nothing changed
+     */
+    static TaskSnapshot capture(TaskStore store, RowChanges rows, long version, TaskSnapshot previous) {
+        rows.sync(store.size());
+        if (!rows.isDirty()) {
+            return previous;
+        }
+        int size = store.size();
+        TaskStore shared = store.share();
+        Task[][] chunks = shared == null ? new Task[(size + CHUNK_SIZE - 1) / CHUNK_SIZE][] : null;
+        List<TaskEvent> changes = shared == null
+                ? diff(store, false, rows, version, previous, chunks)
+                : diff(shared, true, rows, version, previous, null);
+        // Publishing an unchanged list keeps its version, so version numbers can serve as ETags
+        if (changes.isEmpty()) {
+            return previous;
+        }
+        if (chunks != null) {
+            fillChunks(chunks, rows, previous, size);
+        }
+        TaskSnapshot next = new TaskSnapshot(version, size, chunks, shared, DateIndex.EMPTY, changes);
+        // A first publish, e.g. of a list just loaded from disk, is indexed in one pass instead of task by task
+        DateIndex dates = previous.size == 0 ? DateIndex.of(next) : previous.dates.apply(changes);
+        return new TaskSnapshot(version, size, chunks, shared, dates, changes);
+    }
+
+    /**
+     * Work out the events that lead from the previous snapshot to the store as it is now, without
+     * taking a snapshot, e.g. to roll them back
+     * @param store the live store
+     * @param rows the rows the store changed since the previous snapshot
+     * @param previous the earlier snapshot
+     * @param version version to give the events
+     * @return events of removed, updated and added tasks, in that order
+     */
+    static List<TaskEvent> changes(TaskStore store, RowChanges rows, TaskSnapshot previous, long version) {
+        rows.sync(store.size());
+        return rows.isDirty() ? diff(store, false, rows, version, previous, null) : Collections.emptyList();
+    }
+
+    /**
+     * Get the events that lead to this snapshot from the one published before it
+     * @return events of removed, updated and added tasks, in that order
+     */
+    List<TaskEvent> changes() {
+        return changes;
+    }
+
+    /**
+     * Work out the events from the changed rows.
+     * Rows no longer in the store are removed, rows changed in place are updated if their state differs,
+     * and fresh rows are matched by id against the removed ones, as a task may have been replaced in place,
+     * e.g. by an edit, and is then updated if its state differs. A task that moved past others is removed
+     * from where it was and added where it is, so that applying the events gives the new order.
+     * @param store the store to read the rows from
+     * @param isFrozen whether the store's tasks are already frozen, as those of a shared copy are
+     * @param chunks chunks to put the frozen copies of changed and fresh rows in, or null
+     */
+    private static List<TaskEvent> diff(TaskStore store, boolean isFrozen, RowChanges rows, long version,
+                                        TaskSnapshot previous, Task[][] chunks) {
+        List<TaskEvent> updated = new ArrayList<>();
+        List<TaskEvent> added = new ArrayList<>();
+        Map<Integer, Integer> removedById = new HashMap<>();
+        int[] changed = rows.changedRows();
+        int next = 0;
+        int row = 0;
+        int previousRow = 0;
+        for (int piece = 0; piece < rows.pieceCount(); piece++) {
+            int start = rows.start(piece);
+            int length = rows.length(piece);
+            if (start != RowChanges.FRESH) {
+                for (; previousRow < start; previousRow++) {
+                    removedById.put(previous.get(previousRow).getId(), previousRow);
+                }
+                for (; next < changed.length && changed[next] < start + length; next++) {
+                    int at = changed[next];
+                    if (at < start || (next > 0 && changed[next - 1] == at)) {
+                        continue;
+                    }
+                    int index = row + at - start;
+                    Task before = previous.get(at);
+                    Task after = frozen(store, index, isFrozen);
+                    if (!isSameState(before, after)) {
+                        keep(chunks, store.size(), index, after);
+                        updated.add(new TaskEvent(TaskEvent.Type.UPDATED, version, index + 1, after, before));
+                    }
+                }
+                previousRow = start + length;
+            }
+            row += length;
+        }
+        for (; previousRow < previous.size; previousRow++) {
+            removedById.put(previous.get(previousRow).getId(), previousRow);
+        }
+        // The previous rows each fresh row may have come from without moving: those between the kept rows
+        // around it, after any earlier fresh row of the same gap
+        int[] gapEnds = new int[rows.pieceCount()];
+        int gapEnd = previous.size;
+        for (int piece = rows.pieceCount() - 1; piece >= 0; piece--) {
+            gapEnds[piece] = gapEnd;
+            if (rows.start(piece) != RowChanges.FRESH) {
+                gapEnd = rows.start(piece);
+            }
+        }
+        int gapStart = 0;
+        row = 0;
+        for (int piece = 0; piece < rows.pieceCount(); piece++) {
+            int length = rows.length(piece);
+            if (rows.start(piece) != RowChanges.FRESH) {
+                gapStart = rows.start(piece) + length;
+            } else {
+                for (int index = row; index < row + length; index++) {
+                    Task after = frozen(store, index, isFrozen);
+                    Integer at = removedById.get(after.getId());
+                    if (at == null || at < gapStart || at >= gapEnds[piece]) {
+                        // New, or moved past other tasks: its old row is left to be removed and it is added here
+                        keep(chunks, store.size(), index, after);
+                        added.add(new TaskEvent(TaskEvent.Type.ADDED, version, index + 1, after));
+                        continue;
+                    }
+                    removedById.remove(after.getId());
+                    gapStart = at + 1;
+                    if (isSameState(previous.get(at), after)) {
+                        // Tasks replaced by an equal copy keep their frozen copy
+                        keep(chunks, store.size(), index, previous.get(at));
+                    } else {
+                        keep(chunks, store.size(), index, after);
+                        updated.add(new TaskEvent(TaskEvent.Type.UPDATED, version, index + 1, after, previous.get(at)));
+                    }
+                }
+            }
+            row += length;
+        }
+        List<TaskEvent> events = new ArrayList<>(removedById.size() + updated.size() + added.size());
+        for (int at : removedById.values()) {
+            events.add(new TaskEvent(TaskEvent.Type.REMOVED, version, at + 1, previous.get(at)));
+        }
+        events.sort((a, b) -> Integer.compare(b.getNumber(), a.getNumber()));
+        updated.sort((a, b) -> Integer.compare(a.getNumber(), b.getNumber()));
+        events.addAll(updated);
+        events.addAll(added);
+        return events;
+    }
+
+    private static Task frozen(TaskStore store, int index, boolean isFrozen) {
+        Task task = store.get(index);
+        if (isFrozen) {
+            return task;
+        }
+        Task copy = task.copy();
+        copy.freeze();
+        return copy;
+    }
+
+    private static void keep(Task[][] chunks, int size, int index, Task task) {
+        if (chunks == null) {
+            return;
+        }
+        int c = index / CHUNK_SIZE;
+        if (chunks[c] == null) {
+            chunks[c] = new Task[Math.min(CHUNK_SIZE, size - c * CHUNK_SIZE)];
+        }
+        chunks[c][index % CHUNK_SIZE] = task;
+    }
+
+    /**
+     * Fill in the chunks with the frozen copies of the previous snapshot for the rows that did not change,
+     * sharing whole chunks whose rows neither moved nor changed
+     */
+    private static void fillChunks(Task[][] chunks, RowChanges rows, TaskSnapshot previous, int size) {
+        int piece = 0;
+        int pieceRow = 0;
+        for (int c = 0; c < chunks.length; c++) {
+            int from = c * CHUNK_SIZE;
+            int to = Math.min(from + CHUNK_SIZE, size);
+            while (pieceRow + rows.length(piece) <= from) {
+                pieceRow += rows.length(piece);
+                piece++;
+            }
+            if (chunks[c] == null && rows.start(piece) == pieceRow && pieceRow + rows.length(piece) >= to
+                    && previous.chunks != null && c < previous.chunks.length
+                    && previous.chunks[c].length == to - from) {
+                chunks[c] = previous.chunks[c];
+                continue;
+            }
+            if (chunks[c] == null) {
+                chunks[c] = new Task[to - from];
+            }
+            Task[] chunk = chunks[c];
+            int at = piece;
+            int atRow = pieceRow;
+            for (int i = from; i < to; i++) {
+                while (atRow + rows.length(at) <= i) {
+                    atRow += rows.length(at);
+                    at++;
+                }
+                // Fresh and changed rows already hold their copy
+                if (chunk[i - from] == null) {
+                    chunk[i - from] = previous.get(rows.start(at) + i - atRow);
+                }
+            }
+        }
+    }
+
+    private static boolean isSameState(Task a, Task b) {
+        return a == b || (a.getType().equals(b.getType()) && a.isDone() == b.isDone()
+                && a.getPriority() == b.getPriority() && a.storedDescription().equals(b.storedDescription())
+                && a.getCategory().equals(b.getCategory()) && Objects.equals(a.getDateTime(), b.getDateTime()));
+    }
+
+    /**
+     * Get the version of this snapshot. Versions increase by one with every publish that changes the list.
+     * @return the version
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Get the index of the dated tasks of this snapshot by the time they take up
+     * @return the date index
+     */
+    public DateIndex dates() {
+        return dates;
+    }
+
+    /**
+     * Get the tasks of this snapshot as a read-only list
+     * @return list of frozen tasks
+     */
+    public List<Task> getTasks() {
+        return Collections.unmodifiableList(new AbstractList<Task>() {
+            @Override
+            public Task get(int index) {
+                return TaskSnapshot.this.get(index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        });
+    }
+
+    /**
+     * Wrap this snapshot in a read-only TaskList
+     * @return task list whose mutators throw UnsupportedOperationException
+     */
+    public TaskList toTaskList() {
+        return new TaskList(this);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Task get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+        return chunks != null ? chunks[index / CHUNK_SIZE][index % CHUNK_SIZE] : shared.get(index);
+    }
+
+    @Override
+    public void add(Task task) {
+        throw new UnsupportedOperationException("Snapshots are read-only");
+    }
+
+    @Override
+    public Task remove(int index) {
+        throw new UnsupportedOperationException("Snapshots are read-only");
+    }
+
+    @Override
+    public void set(int index, Task task) {
+        throw new UnsupportedOperationException("Snapshots are read-only");
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException("Snapshots are read-only");
+    }
+
+    @Override
+    public char type(int index) {
+        return shared != null ? shared.type(index) : get(index).getType().charAt(0);
+    }
+
+    @Override
+    public boolean isDone(int index) {
+        return shared != null ? shared.isDone(index) : get(index).isDone();
+    }
+
+    @Override
+    public Priority priority(int index) {
+        return shared != null ? shared.priority(index) : get(index).getPriority();
+    }
+
+    @Override
+    public long dueMinute(int index) {
+        return shared != null ? shared.dueMinute(index) : TaskStore.toMinute(get(index).getDateTime());
+    }
+
+    @Override
+    public boolean descriptionContains(int index, String lowerCaseText) {
+        return shared != null ? shared.descriptionContains(index, lowerCaseText)
+                : get(index).getDescription().toLowerCase().contains(lowerCaseText);
+    }
+
+    @Override
+    public boolean hasTag(int index, int tagId) {
+        return shared != null ? shared.hasTag(index, tagId) : TaskStore.super.hasTag(index, tagId);
+    }
+
+    @Override
+    public boolean hasContext(int index, int contextId) {
+        return shared != null ? shared.hasContext(index, contextId) : TaskStore.super.hasContext(index, contextId);
+    }
+}
@@ -0,0 +1,162 @@
+package tasklist;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Backing storage of a TaskList.
+ * Besides list access, a store exposes per-task column accessors so that scans such as
+ * filtering and date lookups can run without materializing Task objects.
+ */
+public interface TaskStore {
+
+    /**
+     * Returned by <code>dueMinute</code> for tasks without a date
+     */
+    long NO_DUE = Long.MIN_VALUE;
+
+    int size();
+
+    Task get(int index);
+
+    void add(Task task);
+
+    Task remove(int index);
+
+    void set(int index, Task task);
+
+    /**
+     * Insert a task before the task at an index, e.g. to put back a deleted task where it was.
+     * The default adds it at the end and moves the later tasks up one by one.
+     */
+    default void insert(int index, Task task) {
+        add(task);
+        for (int i = size() - 1; i > index; i--) {
+            set(i, get(i - 1));
+        }
+        set(index, task);
+    }
+
+    void clear();
+
+    /**
+     * Remove several tasks at once, keeping the order of the others.
+     * Stores override this to close all the gaps in one pass instead of shifting once per task.
+     * @param indices indices to remove, in ascending order without duplicates
+     */
+    default void removeAll(int[] indices) {
+        for (int i = indices.length - 1; i >= 0; i--) {
+            remove(indices[i]);
+        }
+    }
+
+    /**
+     * Get the type code of a task
+     * @return 'T', 'D', 'E' or 'R'
+     */
+    char type(int index);
+
+    boolean isDone(int index);
+
+    Priority priority(int index);
+
+    /**
+     * Get the due time of a task in minutes since 1970-01-01T00:00 (local time)
+     * @return the due minute, or NO_DUE for tasks without a date
+     */
+    long dueMinute(int index);
+
+    /**
+     * Get the rule of a recurring task, whose due minute is only its first occurrence
+     * @return the rule, or null if the task does not recur
+     */
+    default Recurrence recurrence(int index) {
+        return type(index) == 'R' ? ((RecurringTask) get(index)).getRecurrence() : null;
+    }
+
+    /**
+     * Check if the description of a task contains the given text, ignoring case
+     * @param lowerCaseText text to look for, already in lower case
+     */
+    boolean descriptionContains(int index, String lowerCaseText);
+
+    /**
+     * Check if a task has a tag
+     * @param tagId id of the tag in TagDictionary
+     */
+    default boolean hasTag(int index, int tagId) {
+        return Arrays.binarySearch(get(index).getCategory().tagIds(), tagId) >= 0;
+    }
+
+    /**
+     * Check if a task has a context
+     * @param contextId id of the context in TagDictionary
+     */
+    default boolean hasContext(int index, int contextId) {
+        return Arrays.binarySearch(get(index).getCategory().contextIds(), contextId) >= 0;
+    }
+
+    /**
+     * Write the scalar state (done flag, priority and category) of a materialized task back to the store.
+     * Stores that keep the Task objects themselves have nothing to do.
+     */
+    default void update(int index, Task task) {}
+
+    /**
+     * Have the store report every row it adds, removes or changes from now on, so that publishing a
+     * snapshot only has to look at those rows
+     * @param listener the listener, the store's only one
+     * @return false if the store cannot report its changes, and has to be compared row by row instead
+     */
+    default boolean setRowListener(RowListener listener) {
+        return false;
+    }
+
+    /**
+     * Get a read-only copy of this store that later changes to it do not affect, for a snapshot.
+     * Stores that do not keep Task objects share their columns with the copy, and copy them
+     * only once they write to a row the copy can see.
+     * @return the copy, whose tasks are frozen, or null if snapshots should keep frozen copies of the tasks instead
+     */
+    default TaskStore share() {
+        return null;
+    }
+
+    /**
+     * Receives the rows a store changes, by their index at the time of the change
+     */
+    interface RowListener {
+        void inserted(int index);
+
+        void removed(int index);
+
+        /**
+         * @param indices indices removed in one pass, in ascending order
+         */
+        void removedAll(int[] indices);
+
+        /**
+         * The done flag, priority or category of a row was changed in place
+         */
+        void changed(int index);
+
+        void cleared();
+    }
+
+    /**
+     * Convert a date time to minutes since the epoch, dropping seconds as tasks.txt does
+     * @return the minute, or NO_DUE for null
+     */
+    static long toMinute(LocalDateTime dateTime) {
+        return dateTime == null ? NO_DUE : Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    /**
+     * Convert minutes since the epoch back to a date time
+     * @return the date time, or null for NO_DUE
+     */
+    static LocalDateTime fromMinute(long minute) {
+        return minute == NO_DUE ? null : LocalDateTime.ofEpochSecond(minute * 60, 0, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,143 @@
+package tasklist;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Single pass analyzer for task text.
+ * Extracts the priority keyword, #tags, @contexts and the cleaned description in one scan,
+ * replacing the separate Priority and Category regex passes that Task used to run.
+ */
+public final class TaskTextAnalyzer {
+
+    private static final Priority[] PRIORITIES = Priority.values();
+
+    private TaskTextAnalyzer() {}
+
+    /**
+     * Result of analyzing task text
+     */
+    public static final class Analysis {
+        private final String description;
+        private final Priority priority;
+        private final boolean hasPriority;
+        private final List<String> tags;
+        private final List<String> contexts;
+
+        Analysis(String description, Priority priority, boolean hasPriority, List<String> tags, List<String> contexts) {
+            this.description = description;
+            this.priority = priority;
+            this.hasPriority = hasPriority;
+            this.tags = tags;
+            this.contexts = contexts;
+        }
+
+        public String getDescription() { return description; }
+        public Priority getPriority() { return priority; }
+        public boolean hasPriority() { return hasPriority; }
+        public List<String> getTags() { return tags; }
+        public List<String> getContexts() { return contexts; }
+
+        /**
+         * Build the category for the tags and contexts found
+         * @return category object, or Category.EMPTY if the text had no category markers
+         */
+        public Category toCategory() {
+            return Category.of(tags, contexts);
+        }
+    }
+
+    /**
+     * Analyze the whole text
+     * @param text input text containing priority keywords, #tags and @contexts
+     * @return analysis of the text
+     */
+    public static Analysis analyze(String text) {
+        if (text == null) {
+            return new Analysis(null, Priority.NORMAL, false, new ArrayList<>(0), new ArrayList<>(0));
+        }
+        return analyze(text, 0, text.length(), text.length());
+    }
+
+    /**
+     * Analyze <code>text[start, end)</code>. Characters in <code>[start, descriptionEnd)</code> make up the
+     * description, while <code>[descriptionEnd, end)</code> (e.g. the date after /by) only contributes markers.
+     * @param text input text
+     * @param start offset where the task text begins, after any command word
+     * @param descriptionEnd offset where the description ends
+     * @param end offset where the analysis stops
+     * @return analysis of the text
+     */
+    public static Analysis analyze(String text, int start, int descriptionEnd, int end) {
+        StringBuilder description = new StringBuilder(descriptionEnd - start);
+        List<String> tags = new ArrayList<>(2);
+        List<String> contexts = new ArrayList<>(2);
+        int priorityIndex = -1;
+        boolean pendingSpace = false;
+
+        int i = start;
+        while (i < end) {
+            char c = text.charAt(i);
+            if (c == '!') {
+                int matched = matchPriority(text, i + 1, end);
+                if (matched >= 0) {
+                    if (priorityIndex < 0 || matched < priorityIndex) {
+                        priorityIndex = matched;
+                    }
+                    i += PRIORITIES[matched].getKeyword().length();
+                    pendingSpace = description.length() > 0;
+                    continue;
+                }
+            } else if (c == '#' || c == '@') {
+                int wordEnd = i + 1;
+                while (wordEnd < end && isCategoryChar(text.charAt(wordEnd))) {
+                    wordEnd++;
+                }
+                if (wordEnd > i + 1) {
+                    String word = text.substring(i + 1, wordEnd).toLowerCase();
+                    List<String> target = c == '#' ? tags : contexts;
+                    if (!target.contains(word)) {
+                        target.add(word);
+                    }
+                    i = wordEnd;
+                    pendingSpace = description.length() > 0;
+                    continue;
+                }
+            }
+            if (i < descriptionEnd) {
+                if (Character.isWhitespace(c)) {
+                    pendingSpace = description.length() > 0;
+                } else {
+                    if (pendingSpace) {
+                        description.append(' ');
+                        pendingSpace = false;
+                    }
+                    description.append(c);
+                }
+            }
+            i++;
+        }
+
+        Priority priority = priorityIndex < 0 ? Priority.NORMAL : PRIORITIES[priorityIndex];
+        return new Analysis(description.toString(), priority, priorityIndex >= 0, tags, contexts);
+    }
+
+    /**
+     * Match a priority keyword (without its leading !) at the given offset, ignoring case
+     * @return index into Priority.values(), or -1 if none matches
+     */
+    private static int matchPriority(String text, int offset, int end) {
+        for (int p = 0; p < PRIORITIES.length; p++) {
+            String keyword = PRIORITIES[p].getKeyword();
+            int length = keyword.length() - 1;
+            if (offset + length <= end && text.regionMatches(true, offset, keyword, 1, length)) {
+                return p;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isCategoryChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_' || c == '-';
+    }
+}
@@ -6,12 +6,22 @@ package tasklist;
  */
 public class Todo extends Task{
     public Todo(String description){
-        // Remove "todo " prefix before parsing and call super first
-        super(description.startsWith("todo ") ? description.substring(5) : description);
+        // Skip the "todo " prefix while analyzing instead of copying the rest of the text
+        this(TaskTextAnalyzer.analyze(description, description.startsWith("todo ") ? 5 : 0,
+                description.length(), description.length()));
+    }
+
+    public Todo(TaskTextAnalyzer.Analysis analysis){
+        super(analysis);
         this.type = "T";
         this.isDone = false;
     }
 
+    Todo(String description, Priority priority, Category category){
+        super(description, priority, category);
+        this.type = "T";
+    }
+
     public String getDescription() {
         return description;
     }
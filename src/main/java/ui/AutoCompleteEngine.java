@@ -8,7 +8,9 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 /**
- * Auto-complete engine for smart command and content suggestions
+ * Auto-complete engine for smart command and content suggestions.
+ * Suggestions read the last published snapshot of the task list, so they can be worked out
+ * on another thread while a command changes the list.
  */
 public class AutoCompleteEngine {
     
@@ -19,7 +21,7 @@ public class AutoCompleteEngine {
     // Predefined command templates
     private static final String[] COMMANDS = {
         "list", "todo", "deadline", "event", "done", "delete", 
-        "edit", "search", "view", "help", "reset", "bye"
+        "edit", "search", "view", "free", "help", "reset", "recur", "undo", "redo", "begin", "commit", "rollback", "stats", "bye"
     };
     
     // Common date suggestions
@@ -106,7 +108,12 @@ public class AutoCompleteEngine {
             case "delete":
                 suggestions.addAll(getTaskNumberSuggestions(input));
                 break;
+            case "stats":
+                suggestions.addAll(Arrays.asList("stats on", "stats off", "stats reset"));
+                break;
             case "view":
+                suggestions.add(input + " week");
+                suggestions.add(input + " month");
                 suggestions.addAll(getDateSuggestions(input));
                 break;
         }
@@ -202,7 +209,7 @@ public class AutoCompleteEngine {
         
         if (parts.length == 1) {
             // Suggest task numbers
-            for (int i = 1; i <= Math.min(taskList.size(), 10); i++) {
+            for (int i = 1; i <= Math.min(taskList.snapshot().size(), 10); i++) {
                 suggestions.add("edit " + i + " ");
             }
         } else if (parts.length == 2) {
@@ -255,9 +262,10 @@ public class AutoCompleteEngine {
      */
     private List<String> getTaskNumberSuggestions(String input) {
         List<String> suggestions = new ArrayList<>();
+        TaskSnapshot snapshot = taskList.snapshot();
         
-        for (int i = 1; i <= Math.min(taskList.size(), 5); i++) {
-            Task task = taskList.get(i - 1);
+        for (int i = 1; i <= Math.min(snapshot.size(), 5); i++) {
+            Task task = snapshot.get(i - 1);
             String taskDesc = task.getDescription();
             if (taskDesc.length() > 30) {
                 taskDesc = taskDesc.substring(0, 30) + "...";
@@ -282,17 +290,18 @@ public class AutoCompleteEngine {
      */
     private List<String> getCategorySuggestions(String input) {
         List<String> suggestions = new ArrayList<>();
+        TaskTextAnalyzer.Analysis typed = TaskTextAnalyzer.analyze(input);
         Set<String> categories = getExistingCategories();
         Set<String> contexts = getExistingContexts();
         
         for (String category : categories) {
-            if (!input.contains("#" + category)) {
+            if (!typed.getTags().contains(category)) {
                 suggestions.add(input + " #" + category);
             }
         }
         
         for (String context : contexts) {
-            if (!input.contains("@" + context)) {
+            if (!typed.getContexts().contains(context)) {
                 suggestions.add(input + " @" + context);
             }
         }
@@ -305,7 +314,7 @@ public class AutoCompleteEngine {
      */
     private Set<String> getExistingCategories() {
         Set<String> categories = new HashSet<>();
-        for (Task task : taskList.getTasks()) {
+        for (Task task : taskList.snapshot().getTasks()) {
             categories.addAll(task.getCategory().getTags());
         }
         
@@ -322,7 +331,7 @@ public class AutoCompleteEngine {
      */
     private Set<String> getExistingContexts() {
         Set<String> contexts = new HashSet<>();
-        for (Task task : taskList.getTasks()) {
+        for (Task task : taskList.snapshot().getTasks()) {
             contexts.addAll(task.getCategory().getContexts());
         }
         
@@ -338,12 +347,7 @@ public class AutoCompleteEngine {
      * Check if input contains priority
      */
     private boolean containsPriority(String input) {
-        for (String priority : PRIORITY_SUGGESTIONS) {
-            if (input.contains(priority)) {
-                return true;
-            }
-        }
-        return false;
+        return TaskTextAnalyzer.analyze(input).hasPriority();
     }
     
     /**
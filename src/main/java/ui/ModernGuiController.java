@@ -3,6 +3,7 @@ package ui;
 import tasklist.*;
 import command.Command;
 import parser.Parser;
+import storage.JournalStorage;
 import storage.Storage;
 import exception.DukeException;
 
@@ -72,7 +73,7 @@ public class ModernGuiController extends JFrame {
         ui = new Ui();
         
         try {
-            taskList = new TaskList(storage.readFromFile());
+            taskList = TaskList.create(storage.readFromFile());
         } catch (Exception e) {
             taskList = new TaskList();
             // Load demo tasks if no existing tasks
@@ -80,6 +81,8 @@ public class ModernGuiController extends JFrame {
                 loadDemoTasks();
             }
         }
+        taskList.publish();
+        JournalStorage.attach(taskList, storage.getFilePath());
         
         suggestionSystem = new SmartSuggestionSystem(taskList);
     }
@@ -191,7 +194,7 @@ public class ModernGuiController extends JFrame {
      * Create quick actions panel
      */
     private void createQuickActionsPanel() {
-        quickActionsPanel = new JPanel(new GridLayout(3, 2, 10, 10));
+        quickActionsPanel = new JPanel(new GridLayout(4, 2, 10, 10));
         quickActionsPanel.setBackground(BACKGROUND_COLOR);
         quickActionsPanel.setBorder(new EmptyBorder(20, 20, 20, 20));
         
@@ -202,6 +205,8 @@ public class ModernGuiController extends JFrame {
         addQuickActionButton("📅 Add Event", "event ", new Color(155, 89, 182));
         addQuickActionButton("🔍 Search Tasks", "search ", new Color(52, 152, 219));
         addQuickActionButton("❓ Help", "help", new Color(149, 165, 166));
+        addQuickActionButton("↩ Undo", "undo", new Color(230, 126, 34));
+        addQuickActionButton("↪ Redo", "redo", new Color(230, 126, 34));
         
         tabbedPane.addTab("⚡ Quick Actions", quickActionsPanel);
     }
@@ -254,7 +259,7 @@ public class ModernGuiController extends JFrame {
         button.addActionListener(e -> {
             commandInput.setText(command);
             commandInput.requestFocus();
-            if (command.trim().equals("list")) {
+            if (command.equals("list") || command.equals("undo") || command.equals("redo")) {
                 executeCommand();
             }
         });
@@ -327,7 +332,8 @@ public class ModernGuiController extends JFrame {
             java.io.PrintStream originalOut = System.out;
             System.setOut(ps);
             
-            command.execute(taskList, ui, storage);
+            command.run(taskList, ui, storage);
+            taskList.publish();
             
             System.setOut(originalOut);
             String output = baos.toString();
@@ -358,8 +364,10 @@ public class ModernGuiController extends JFrame {
      */
     private void loadTaskList() {
         taskListPanel.removeAll();
+        // The published snapshot, so the panel never shows a command half done
+        TaskSnapshot snapshot = taskList.snapshot();
         
-        if (taskList.size() == 0) {
+        if (snapshot.size() == 0) {
             JLabel emptyLabel = new JLabel("No tasks yet. Add some tasks to get started!");
             emptyLabel.setFont(new Font("Segoe UI", Font.ITALIC, 14));
             emptyLabel.setForeground(new Color(149, 165, 166));
@@ -367,8 +375,8 @@ public class ModernGuiController extends JFrame {
             emptyLabel.setBorder(new EmptyBorder(50, 20, 50, 20));
             taskListPanel.add(emptyLabel);
         } else {
-            for (int i = 0; i < taskList.size(); i++) {
-                Task task = taskList.get(i);
+            for (int i = 0; i < snapshot.size(); i++) {
+                Task task = snapshot.get(i);
                 JPanel taskPanel = createTaskPanel(task, i + 1);
                 taskListPanel.add(taskPanel);
             }
@@ -378,7 +386,7 @@ public class ModernGuiController extends JFrame {
         taskListPanel.repaint();
         
         // Update status
-        statusLabel.setText("Tasks loaded: " + taskList.size() + " total");
+        statusLabel.setText("Tasks loaded: " + snapshot.size() + " total");
     }
     
     /**
@@ -0,0 +1,15 @@
+package ui;
+
+import exception.DukeException;
+
+/**
+ * Ui for commands that do not come from someone at the console, e.g. batch files and server clients.
+ * It never waits for input on System.in, so a plain "reset" is refused and "reset confirm" has to be used.
+ */
+public class NonInteractiveUi extends Ui {
+
+    @Override
+    public boolean validateResetCommand() {
+        throw new DukeException("Nobody can confirm a reset here. Use [reset confirm] instead.");
+    }
+}
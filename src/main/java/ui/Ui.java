@@ -1,12 +1,21 @@
 package ui;
 
 import exception.DukeException;
+import parser.CommandTokens;
+import tasklist.DateIndex;
+import tasklist.Task;
 import tasklist.TaskList;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.FormatStyle;
-import java.util.Scanner;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 
 /**
  * Ui Class contains all the interacting messages to be displayed on screen
@@ -15,15 +24,41 @@ import java.util.Scanner;
 public class Ui {
 
     private static final String SEPARATOR = "___________________________________________________________________________";
+    private static final int BULK_PREVIEW_SIZE = 10;
 
-    private static final Scanner in = new Scanner(System.in);
+    // Lines are read with a plain reader: a Scanner loads the locale's number formats at startup, which
+    // took about 30 ms before the first prompt and are never used here
+    private static final BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
+    private TaskList suggestionTaskList;
     private SmartSuggestionSystem suggestionSystem;
 
     /**
-     * Initialize the smart suggestion system
+     * Initialize the smart suggestion system.
+     * It is built the first time it is used rather than here, to keep it off the way to the first prompt.
      */
     public void initializeSuggestionSystem(TaskList taskList) {
-        this.suggestionSystem = new SmartSuggestionSystem(taskList);
+        this.suggestionTaskList = taskList;
+        this.suggestionSystem = null;
+    }
+
+    private SmartSuggestionSystem suggestionSystem() {
+        if (suggestionSystem == null && suggestionTaskList != null) {
+            suggestionSystem = new SmartSuggestionSystem(suggestionTaskList);
+        }
+        return suggestionSystem;
+    }
+
+    private static String nextLine() {
+        String line;
+        try {
+            line = in.readLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (line == null) {
+            throw new NoSuchElementException("No line found");
+        }
+        return line;
     }
     
     /**
@@ -31,7 +66,7 @@ public class Ui {
      * @return String user input
      */
     public String userInput(){
-        return in.nextLine();
+        return nextLine();
     }
     
     /**
@@ -40,11 +75,11 @@ public class Ui {
      */
     public String userInputWithSuggestions(){
         System.out.print("💬 Duke: ");
-        String input = in.nextLine();
+        String input = nextLine();
         
         // Record command for learning
-        if (suggestionSystem != null && !input.trim().isEmpty()) {
-            suggestionSystem.recordCommand(input);
+        if (suggestionTaskList != null && !input.trim().isEmpty()) {
+            suggestionSystem().recordCommand(input);
         }
         
         return input;
@@ -54,8 +89,8 @@ public class Ui {
      * Show suggestions for partial input
      */
     public void showSuggestions(String partialInput) {
-        if (suggestionSystem != null) {
-            String suggestions = suggestionSystem.processInput(partialInput);
+        if (suggestionTaskList != null) {
+            String suggestions = suggestionSystem().processInput(partialInput);
             if (!suggestions.isEmpty()) {
                 System.out.println("\n" + suggestions);
             }
@@ -66,8 +101,8 @@ public class Ui {
      * Get contextual help for a command
      */
     public void showContextHelp(String command) {
-        if (suggestionSystem != null) {
-            System.out.println(suggestionSystem.getContextHelp(command));
+        if (suggestionTaskList != null) {
+            System.out.println(suggestionSystem().getContextHelp(command));
         }
     }
     
@@ -75,8 +110,8 @@ public class Ui {
      * Show smart templates
      */
     public void showTemplates() {
-        if (suggestionSystem != null) {
-            System.out.println(suggestionSystem.getSmartTemplates());
+        if (suggestionTaskList != null) {
+            System.out.println(suggestionSystem().getSmartTemplates());
         }
     }
 
@@ -165,24 +200,30 @@ public class Ui {
         System.err.println(e.getMessage());
     }
 
-    public static void validateEventCommand(String[] command) {
-        if (command.length < 2 || command[1].equals("")) {
+    public static void validateEventCommand(CommandTokens command) {
+        if (!command.hasArgument()) {
             throw new DukeException("OOPS! The description of a event cannot be empty. Please re-enter:");
-        } else if (!command[1].contains("/at")) {
+        } else if (!command.containsAt()) {
             throw new DukeException("OOPS! The date of a event cannot be empty. Please re-enter:");
         }
     }
 
-    public static void validateDeadlineCommand(String[] command) {
-        if (command.length < 2 || command[1].equals("")) {
+    public static void validateDeadlineCommand(CommandTokens command) {
+        if (!command.hasArgument()) {
             throw new DukeException("OOPS! The description of a deadline cannot be empty. Please re-enter:");
-        } else if (!command[1].contains("/by")) {
+        } else if (!command.containsBy()) {
             throw new DukeException("OOPS! The date of a deadline cannot be empty. Please re-enter:");
         }
     }
 
-    public static void validateTodoCommand(String[] command) {
-        if (command.length < 2 || command[1].equals("")) {
+    public static void validateRecurCommand(CommandTokens command) {
+        if (!command.hasArgument()) {
+            throw new DukeException("OOPS! The description of a recurring task cannot be empty. Please re-enter:");
+        }
+    }
+
+    public static void validateTodoCommand(CommandTokens command) {
+        if (!command.hasArgument()) {
             throw new DukeException("OOPS! The description of a todo cannot be empty. Please re-enter:");
         }
     }
@@ -206,11 +247,11 @@ public class Ui {
     }
 
 
-    public static void validateDoneCommand(String[] command, TaskList taskList){
-        if (command.length < 2 || command[1].equals("")) {
+    public static void validateDoneCommand(CommandTokens command, TaskList taskList){
+        if (!command.hasArgument()) {
             throw new DukeException("Please state task number.");
         }
-        int taskNumber  = Integer.parseInt(command[1]) - 1;
+        int taskNumber  = command.argumentAsInt() - 1;
         if (taskNumber >= taskList.size() || taskNumber < 0 ) {
             throw new DukeException("The task number is not valid.");
         }
@@ -226,10 +267,110 @@ public class Ui {
         System.out.println("\t"+taskList.get(i).printTask());
     }
 
+    /**
+     * Print the outcome of a bulk command, listing at most the first ten tasks it changed
+     * @param message headline, e.g. "Nice! I've marked these 3 tasks as done:"
+     * @param tasks the tasks the command changed
+     */
+    public void printBulkResult(String message, List<Task> tasks) {
+        System.out.println(message);
+        printPreview(tasks);
+    }
+
+    /**
+     * Tell the user a bulk command changed nothing as no task matched
+     * @param selection the selection as the user gave it, e.g. "where #work done"
+     */
+    public void printNothingSelected(String selection) {
+        System.out.println("No tasks match [" + selection + "], nothing was changed.");
+    }
+
+    private void printPreview(List<Task> tasks) {
+        int shown = Math.min(tasks.size(), BULK_PREVIEW_SIZE);
+        for (int i = 0; i < shown; i++) {
+            System.out.println("\t" + tasks.get(i).printTask());
+        }
+        if (tasks.size() > shown) {
+            System.out.println("\t... and " + (tasks.size() - shown) + " more.");
+        }
+    }
+
+    /**
+     * Warn that a new event overlaps events already in the list
+     * @param conflicts the events it overlaps
+     */
+    public void printConflicts(List<Task> conflicts){
+        System.out.println("⚠️ Heads up! This overlaps " + (conflicts.size() == 1 ? "another event:" : conflicts.size() + " other events:"));
+        printPreview(conflicts);
+    }
+
+    /**
+     * Print the free time of some days, one line per day
+     * @param slotsByDay the free slots of each day, in order
+     */
+    public void printFreeSlots(Map<LocalDate, List<DateIndex.FreeSlot>> slotsByDay){
+        System.out.println("Here is your free time:");
+        DateTimeFormatter time = DateTimeFormatter.ofLocalizedTime(FormatStyle.SHORT);
+        for (Map.Entry<LocalDate, List<DateIndex.FreeSlot>> day : slotsByDay.entrySet()) {
+            StringBuilder line = new StringBuilder("\t").append(day.getKey().format(DateTimeFormatter.ofPattern("EEE, d MMM")))
+                    .append(":");
+            List<DateIndex.FreeSlot> slots = day.getValue();
+            if (slots.isEmpty()) {
+                line.append(" fully booked");
+            }
+            for (int i = 0; i < slots.size(); i++) {
+                line.append(i == 0 ? " " : ", ").append(slots.get(i).getStart().format(time))
+                        .append(" - ").append(slots.get(i).getEnd().format(time));
+            }
+            System.out.println(line);
+        }
+    }
+
+    /**
+     * Print the latency metrics
+     * @param isEnabled whether metrics are being recorded
+     * @param report the table of metrics
+     */
+    public void printStats(boolean isEnabled, String report){
+        System.out.println(isEnabled ? "Metrics are on." : "Metrics are off. Turn them on with: stats on");
+        System.out.print(report.endsWith(System.lineSeparator()) ? report : report + System.lineSeparator());
+    }
+
     public void printTaskCount(TaskList taskList){
         System.out.println("Now you have total " + (taskList.size()) +" tasks in the list.");
     }
 
+    /**
+     * Say that only the first page of a large tasks.txt is shown, as the rest is still loading
+     * @param shown number of tasks shown
+     * @param loaded number of tasks loaded so far
+     * @param total number of tasks in tasks.txt
+     */
+    public void printStillLoading(int shown, int loaded, int total) {
+        System.out.println("Showing the first " + shown + " of " + total + " tasks; the rest are still loading ("
+                + (int) (100L * loaded / total) + "% done).");
+    }
+
+    /**
+     * Say that a command waits for the rest of a large tasks.txt to load
+     * @param loaded number of tasks loaded so far
+     * @param total number of tasks in tasks.txt
+     */
+    public void printWaitingForTasks(int loaded, int total) {
+        System.out.println("Loading the rest of your tasks first (" + loaded + " of " + total + ")...");
+    }
+
+    /**
+     * Tell the user the rest of tasks.txt could not be loaded, so nothing can be changed or saved
+     * @param cause what went wrong, naming the line
+     * @param loaded number of tasks that did load
+     */
+    public void printLoadFailed(String cause, int loaded) {
+        System.out.println("OOPS! The rest of your tasks could not be loaded: " + cause);
+        System.out.println("Only the first " + loaded + " tasks are shown, and nothing can be changed "
+                + "until the file is fixed.");
+    }
+
     public void printTaskListStr(TaskList taskList) {
         System.out.println("You have total " + (taskList.size()) + " tasks in the list.");
     }
@@ -238,19 +379,45 @@ public class Ui {
         System.out.println("You have total " + (taskList.size()) +" tasks on " + date.format(DateTimeFormatter.ofLocalizedDate(FormatStyle.MEDIUM))+".");
     }
 
+    /**
+     * Print the tasks of a range of days, grouped by day with the number of tasks on each
+     * @param from the first day of the range
+     * @param to the last day of the range
+     * @param byDay the occurrences of each day that has any, in order
+     * @param total number of occurrences in the range
+     */
+    public void printCalendar(LocalDate from, LocalDate to, Map<LocalDate, List<DateIndex.Occurrence>> byDay,
+                              int total){
+        DateTimeFormatter day = DateTimeFormatter.ofPattern("EEE, d MMM");
+        DateTimeFormatter time = DateTimeFormatter.ofLocalizedTime(FormatStyle.SHORT);
+        System.out.println("Here is your calendar for " + from.format(day) + " - " + to.format(day) + ":");
+        for (Map.Entry<LocalDate, List<DateIndex.Occurrence>> entry : byDay.entrySet()) {
+            List<DateIndex.Occurrence> occurrences = entry.getValue();
+            System.out.println(entry.getKey().format(day) + " (" + occurrences.size()
+                    + (occurrences.size() == 1 ? " task)" : " tasks)"));
+            for (DateIndex.Occurrence occurrence : occurrences) {
+                String start = occurrence.getStart().toLocalDate().equals(entry.getKey())
+                        ? occurrence.getStart().format(time) : "ongoing";
+                System.out.println("\t" + start + "  " + occurrence.getTask().printTask());
+            }
+        }
+        System.out.println("You have total " + total + " tasks from " + from.format(DateTimeFormatter.ofLocalizedDate(FormatStyle.MEDIUM))
+                + " to " + to.format(DateTimeFormatter.ofLocalizedDate(FormatStyle.MEDIUM)) + ".");
+    }
+
     public static String validateDateTime(){
         return "Task cannot be added.\n" +
                 parser.SmartDateParser.getSupportedFormats();
     }
 
-    public static void validateViewCommand(String[] command){
-        if (command.length < 2) {
+    public static void validateViewCommand(CommandTokens command){
+        if (command.getArgumentStart() < 0) {
             throw new DukeException("OOPS! The date cannot be empty. Please re-enter:");
         }
     }
 
-    public static void validateSearchCommand(String[] command){
-        if (command.length < 2 || command[1].equals("")) {
+    public static void validateSearchCommand(CommandTokens command){
+        if (!command.hasArgument()) {
             throw new DukeException("OOPS! Please specify keyword:");
         }
     }
@@ -275,6 +442,30 @@ public class Ui {
 
     public void printNotReset(){System.out.println("No worries, your task list remain unchanged.");}
 
+    public void printUndo(String change){
+        System.out.println("Undone: " + change + ". Type [redo] to bring it back.");
+    }
+
+    public void printRedo(String change){
+        System.out.println("Redone: " + change + ".");
+    }
+
+    public void printBegin(){
+        System.out.println("Transaction started. Type [commit] to save your changes or [rollback] to drop them.");
+    }
+
+    public void printCommit(){
+        System.out.println("Transaction committed. Your changes have been saved.");
+    }
+
+    public void printRollback(){
+        System.out.println("Transaction rolled back. Your task list is back to how it was.");
+    }
+
+    public void printReminder(reminder.Reminder reminder){
+        System.out.println("⏰ Reminder: " + reminder.getTask().printTask() + " is " + reminder.describeLead());
+    }
+
     public void printEditSuccess(tasklist.Task originalTask, tasklist.Task editedTask){
         System.out.println("✏️ Task edited successfully!");
         System.out.println("   Before: " + originalTask.printTask());
@@ -284,7 +475,7 @@ public class Ui {
     public boolean validateResetCommand(){
         boolean b = false;
         System.out.println("Heads up! You are about to reset your task list. Type \"confirm\" to continue.");
-        String confirm = in.nextLine();
+        String confirm = nextLine();
         if (confirm.equalsIgnoreCase("confirm")){
             b = true;
         }
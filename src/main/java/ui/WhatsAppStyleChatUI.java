@@ -1,5 +1,6 @@
 package ui;
 
+import storage.JournalStorage;
 import storage.Storage;
 import tasklist.TaskList;
 import ui.Ui;
@@ -23,6 +24,8 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Premium WhatsApp-style chat UI with sophisticated design and typography
@@ -44,6 +47,9 @@ public class WhatsAppStyleChatUI extends JFrame {
     private static final Color TEXT_SECONDARY = new Color(115, 115, 115);
     private static final Color TEXT_TERTIARY = new Color(158, 158, 158);
     
+    // Avatar images by resource path, loaded by loadAvatar
+    private static final Map<String, Image> AVATARS = new HashMap<>();
+    
     // Core components
     private TaskList taskList;
     private Storage storage;
@@ -129,6 +135,24 @@ public class WhatsAppStyleChatUI extends JFrame {
         }
     }
     
+    /**
+     * Load an avatar image the first time a bubble needs it; every later bubble shares the same image
+     * instead of decoding the file again
+     * @return the image, or null if it could not be loaded
+     */
+    private static synchronized Image loadAvatar(String imagePath) {
+        if (!AVATARS.containsKey(imagePath)) {
+            Image image;
+            try {
+                image = new ImageIcon(WhatsAppStyleChatUI.class.getClassLoader().getResource(imagePath)).getImage();
+            } catch (Exception e) {
+                image = null;
+            }
+            AVATARS.put(imagePath, image);
+        }
+        return AVATARS.get(imagePath);
+    }
+
     private Font loadPremiumFont(String fontName, int style, int size) {
         try {
             InputStream fontStream = getClass().getClassLoader().getResourceAsStream("fonts/" + fontName);
@@ -145,7 +169,7 @@ public class WhatsAppStyleChatUI extends JFrame {
     private void initializeData() {
         try {
             storage = new Storage("src/data/tasks.txt");
-            taskList = new TaskList(storage.readFromFile());
+            taskList = TaskList.create(storage.readFromFile());
             ui = new Ui();
 
             // If no tasks yet, create quick-start demo tasks
@@ -171,6 +195,8 @@ public class WhatsAppStyleChatUI extends JFrame {
                 ioException.printStackTrace();
             }
         }
+        taskList.publish();
+        JournalStorage.attach(taskList, storage.getFilePath());
     }
 
     /**
@@ -197,10 +223,8 @@ public class WhatsAppStyleChatUI extends JFrame {
         chatPanel = new JPanel() {
             private BufferedImage backgroundImage;
             private boolean backgroundLoaded = false;
-            
-            {
-                loadBackgroundImage();
-            }
+            // Decoded on the first paint rather than while the window is being built
+            private boolean backgroundChecked = false;
             
             private void loadBackgroundImage() {
                 try {
@@ -226,6 +250,10 @@ public class WhatsAppStyleChatUI extends JFrame {
             @Override
             protected void paintComponent(Graphics g) {
                 super.paintComponent(g);
+                if (!backgroundChecked) {
+                    backgroundChecked = true;
+                    loadBackgroundImage();
+                }
                 Graphics2D g2d = (Graphics2D) g.create();
                 g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
                 
@@ -891,17 +919,7 @@ public class WhatsAppStyleChatUI extends JFrame {
     
     private JPanel createPremiumAvatar(boolean isUser) {
         JPanel avatarPanel = new JPanel() {
-            private Image avatarImage;
-            
-            {
-                try {
-                    // Load premium avatar images
-                    String imagePath = isUser ? "images/DaUser.png" : "images/DaDuke.png";
-                    avatarImage = new ImageIcon(getClass().getClassLoader().getResource(imagePath)).getImage();
-                } catch (Exception e) {
-                    avatarImage = null;
-                }
-            }
+            private final Image avatarImage = loadAvatar(isUser ? "images/DaUser.png" : "images/DaDuke.png");
             
             @Override
             protected void paintComponent(Graphics g) {
@@ -1009,7 +1027,8 @@ public class WhatsAppStyleChatUI extends JFrame {
             java.io.PrintStream originalOut = System.out;
             System.setOut(ps);
             
-            command.execute(taskList, ui, storage);
+            command.run(taskList, ui, storage);
+            taskList.publish();
             
             System.setOut(originalOut);
             String response = baos.toString().trim();
@@ -1046,9 +1065,19 @@ public class WhatsAppStyleChatUI extends JFrame {
             case "todo":
                 // Todo just needs description
                 return parts.length > 1 && !parts[1].trim().isEmpty();
+            case "recur":
+                // Recurring task must have description and /every or /on
+                return parts.length > 1 && (parts[1].contains(" /every ") || parts[1].contains(" /on "));
             case "list":
+            case "free":
             case "help":
             case "reset":
+            case "undo":
+            case "redo":
+            case "begin":
+            case "commit":
+            case "rollback":
+            case "stats":
             case "bye":
                 // These commands don't need additional parameters
                 return true;
@@ -1102,7 +1131,9 @@ public class WhatsAppStyleChatUI extends JFrame {
         // Direct commands that don't need preprocessing
         if (processed.startsWith("list") || processed.startsWith("help") || processed.startsWith("search") || 
             processed.startsWith("done") || processed.startsWith("delete") || processed.startsWith("edit") ||
-            processed.startsWith("view") || processed.startsWith("reset") || processed.startsWith("bye")) {
+            processed.startsWith("view") || processed.startsWith("free") || processed.startsWith("reset") || processed.startsWith("bye") ||
+            processed.startsWith("recur ") || processed.equals("undo") || processed.equals("redo") || processed.equals("begin") ||
+            processed.equals("commit") || processed.equals("rollback") || processed.startsWith("stats")) {
             return input;
         }
         
@@ -1687,7 +1718,7 @@ public class WhatsAppStyleChatUI extends JFrame {
             String prefix = successPhrases[(int)(Math.random() * successPhrases.length)];
             
             // Count current tasks for contextual advice
-            int taskCount = taskList.size();
+            int taskCount = taskList.snapshot().size();
             String advice = "";
             if (taskCount <= 3) {
                 advice = "\n\n💡 Want to add more details? Try:\n• \"Add task !high\" (for priority)\n• \"Add task #work\" (for categories)\n• \"Deadline task by Friday\" (for deadlines)";
@@ -1708,7 +1739,7 @@ public class WhatsAppStyleChatUI extends JFrame {
                        "• \"Add workout #health !high\"\n\n" +
                        "What would you like to add first? 😊";
             } else {
-                int taskCount = taskList.size();
+                int taskCount = taskList.snapshot().size();
                 String plural = taskCount == 1 ? "task" : "tasks";
                 return "📋 Here are your " + taskCount + " " + plural + ":\n\n" + response + 
                        "\n\n💡 **Quick actions:**\n" +
@@ -0,0 +1,62 @@
+package batch;
+
+import org.junit.jupiter.api.Test;
+import storage.DeferredStorage;
+import tasklist.TaskList;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BatchRunnerTest {
+
+    @Test
+    public void run_reportsFailedLinesAndKeepsGoing() throws IOException {
+        File file = File.createTempFile("duke-batch", ".txt");
+        file.deleteOnExit();
+        DeferredStorage storage = new DeferredStorage(file.getPath());
+        TaskList taskList = TaskList.create(new ArrayList<>());
+        List<String> lines = Arrays.asList(
+                "# set up",
+                "todo read book",
+                "",
+                "frobnicate",
+                "todo return book",
+                "done 7",
+                "done 1",
+                "reset");
+
+        List<BatchRunner.LineError> errors = new BatchRunner(taskList, storage, false).run(lines);
+
+        assertEquals(3, errors.size());
+        assertEquals(4, errors.get(0).getLineNumber());
+        assertEquals(6, errors.get(1).getLineNumber());
+        assertEquals(8, errors.get(2).getLineNumber());
+        assertEquals(2, taskList.size());
+        assertTrue(taskList.getTasks().get(0).isDone());
+        assertFalse(storage.hasPendingWrite());
+        assertEquals(2, storage.readFromFile().size());
+    }
+
+    @Test
+    public void run_resetConfirmDoesNotAsk() throws IOException {
+        File file = File.createTempFile("duke-batch", ".txt");
+        file.deleteOnExit();
+        DeferredStorage storage = new DeferredStorage(file.getPath());
+        TaskList taskList = TaskList.create(new ArrayList<>());
+
+        List<BatchRunner.LineError> errors = new BatchRunner(taskList, storage, false)
+                .run(Arrays.asList("todo read book", "reset confirm", "todo sleep"));
+
+        assertTrue(errors.isEmpty());
+        assertEquals(1, taskList.size());
+        assertEquals(1, Files.readAllLines(file.toPath()).size());
+    }
+}
@@ -0,0 +1,105 @@
+package command;
+
+import exception.DukeException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import parser.Parser;
+import storage.DeferredStorage;
+import tasklist.ColumnarTaskStore;
+import tasklist.Task;
+import tasklist.TaskList;
+import ui.Ui;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static tasklist.TaskFixtures.tempFile;
+import static tasklist.TaskFixtures.withTodos;
+
+/**
+ * Unit tests for BulkCommand and TaskSelection
+ */
+public class BulkCommandTest {
+    private static final String[] TODOS = {
+        "todo plan sprint #sprint-12 @office",
+        "todo write report #sprint-12",
+        "todo water plants @home",
+        "todo review code #sprint-12 @office",
+        "todo book flights"
+    };
+
+    @Test
+    @DisplayName("Test ranges resolve to sorted, distinct rows")
+    void testResolveRanges() {
+        TaskList taskList = withTodos(new TaskList(), TODOS);
+        assertArrayEquals(new int[]{0, 1, 2, 4}, TaskSelection.parse("5, 1-3,2").resolve(taskList));
+        assertThrows(DukeException.class, () -> TaskSelection.parse("4-6").resolve(taskList));
+        assertThrows(DukeException.class, () -> TaskSelection.parse("3-1"));
+    }
+
+    @Test
+    @DisplayName("Test a where query matches tags, contexts and status")
+    void testResolveQuery() {
+        TaskList taskList = withTodos(new TaskList(), TODOS);
+        taskList.get(1).setDone(true);
+        assertArrayEquals(new int[]{0, 3}, TaskSelection.parse("where #sprint-12 @office").resolve(taskList));
+        assertArrayEquals(new int[]{1}, TaskSelection.parse("where #sprint-12 done").resolve(taskList));
+        assertArrayEquals(new int[]{2}, TaskSelection.parse("where water").resolve(taskList));
+        assertArrayEquals(new int[0], TaskSelection.parse("where #never-used-tag").resolve(taskList));
+    }
+
+    @Test
+    @DisplayName("Test bulk forms parse to a BulkCommand and single numbers do not")
+    void testParseBulkForms() {
+        TaskList taskList = withTodos(new TaskList(), TODOS);
+        assertTrue(Parser.parse("done 1-3,5", taskList) instanceof BulkCommand);
+        assertTrue(Parser.parse("delete where #sprint-12 done", taskList) instanceof BulkCommand);
+        assertTrue(Parser.parse("edit where @office add #moved", taskList) instanceof BulkCommand);
+        assertTrue(Parser.parse("done 2", taskList) instanceof DoneCommand);
+        assertTrue(Parser.parse("edit 1 description buy milk", taskList) instanceof EditCommand);
+    }
+
+    @Test
+    @DisplayName("Test bulk done and delete change every selected task and write once")
+    void testDoneAndDelete() throws IOException {
+        TaskList taskList = withTodos(new TaskList(new ColumnarTaskStore()), TODOS);
+        DeferredStorage storage = new DeferredStorage(tempFile("duke-bulk").getPath());
+
+        Parser.parse("done 1-2,4", taskList).execute(taskList, new Ui(), storage);
+        assertTrue(taskList.get(0).isDone());
+        assertTrue(taskList.get(1).isDone());
+        assertFalse(taskList.get(2).isDone());
+        assertTrue(taskList.get(3).isDone());
+
+        Parser.parse("delete where #sprint-12 done", taskList).execute(taskList, new Ui(), storage);
+        assertEquals(2, taskList.size());
+        assertEquals("water plants", taskList.get(0).getDescription());
+        assertEquals("book flights", taskList.get(1).getDescription());
+
+        storage.flush();
+        assertEquals(2, storage.readFromFile().size());
+    }
+
+    @Test
+    @DisplayName("Test bulk edits add and remove categories and reject unknown edits")
+    void testEdit() throws IOException {
+        TaskList taskList = withTodos(new TaskList(), TODOS);
+        DeferredStorage storage = new DeferredStorage(tempFile("duke-bulk").getPath());
+
+        Parser.parse("edit where @office add #moved", taskList).execute(taskList, new Ui(), storage);
+        Parser.parse("edit 1 remove @office", taskList).execute(taskList, new Ui(), storage);
+
+        Task first = taskList.get(0);
+        assertTrue(first.getCategory().hasTag("moved"));
+        assertFalse(first.getCategory().hasContext("office"));
+        assertTrue(taskList.get(3).getCategory().hasTag("moved"));
+        assertFalse(taskList.get(1).getCategory().hasTag("moved"));
+        assertThrows(DukeException.class, () -> Parser.parse("edit where #moved rename x", taskList));
+        assertThrows(DukeException.class, () -> Parser.parse("edit where #moved priority soon", taskList));
+        assertThrows(DukeException.class, () -> TaskSelection.parse("where !soon done"));
+    }
+}
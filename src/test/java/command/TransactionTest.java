@@ -0,0 +1,113 @@
+package command;
+
+import exception.DukeException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import parser.Parser;
+import storage.DeferredStorage;
+import storage.Storage;
+import tasklist.Task;
+import tasklist.TaskList;
+import ui.Ui;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static tasklist.TaskFixtures.tempFile;
+import static tasklist.TaskFixtures.withTodos;
+
+/**
+ * Unit tests for Transaction and the begin, commit and rollback commands
+ */
+public class TransactionTest {
+    private static final String[] TODOS = {"todo plan sprint", "todo write report", "todo water plants"};
+
+    private static void run(String line, TaskList taskList, Storage storage) throws IOException {
+        Parser.parse(line, taskList).execute(taskList, new Ui(), storage);
+    }
+
+    private static List<String> printed(TaskList taskList) {
+        return taskList.publish().getTasks().stream().map(Task::printTask).collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("Test commit publishes and writes the changes once")
+    void testCommit() throws IOException {
+        TaskList taskList = withTodos(new TaskList(), TODOS);
+        File file = tempFile("duke-transaction");
+        Storage storage = new Storage(file.getPath());
+        long version = taskList.publish().version();
+
+        run("begin", taskList, storage);
+        run("todo buy milk", taskList, storage);
+        run("done 1", taskList, storage);
+        run("delete 2", taskList, storage);
+        assertEquals(0, file.length());
+        assertEquals(version, taskList.publish().version());
+        assertEquals(3, taskList.publish().size());
+
+        run("commit", taskList, storage);
+        assertFalse(taskList.isInTransaction());
+        assertEquals(version + 1, taskList.publish().version());
+        List<String> lines = Files.readAllLines(file.toPath());
+        assertEquals(3, lines.size());
+        assertEquals(1, taskList.journal().getUndoEntries().size());
+        assertEquals("1 task added, 1 task removed, 1 task changed",
+                taskList.journal().getUndoEntries().get(0).describe());
+    }
+
+    @Test
+    @DisplayName("Test rollback restores the list and writes nothing")
+    void testRollback() throws IOException {
+        TaskList taskList = withTodos(new TaskList(), TODOS);
+        File file = tempFile("duke-transaction");
+        Storage storage = new Storage(file.getPath());
+        List<String> before = printed(taskList);
+
+        try (Transaction transaction = Transaction.begin(taskList, storage)) {
+            transaction.execute(Parser.parse("delete 1", taskList), new Ui());
+            transaction.execute(Parser.parse("done 1", taskList), new Ui());
+            transaction.execute(Parser.parse("todo buy milk", taskList), new Ui());
+        }
+        assertFalse(taskList.isInTransaction());
+        assertEquals(0, file.length());
+        assertEquals(before, printed(taskList));
+        assertFalse(taskList.journal().canUndo());
+    }
+
+    @Test
+    @DisplayName("Test begin, commit, rollback and undo check whether a transaction is open")
+    void testTransactionState() throws IOException {
+        TaskList taskList = withTodos(new TaskList(), TODOS);
+        Storage storage = new Storage(tempFile("duke-transaction").getPath());
+        assertThrows(DukeException.class, () -> run("commit", taskList, storage));
+        assertThrows(DukeException.class, () -> run("rollback", taskList, storage));
+        run("begin", taskList, storage);
+        assertThrows(DukeException.class, () -> run("begin", taskList, storage));
+        assertThrows(DukeException.class, () -> run("undo", taskList, storage));
+        run("rollback", taskList, storage);
+        assertFalse(taskList.isInTransaction());
+    }
+
+    @Test
+    @DisplayName("Test rollback inside deferred storage keeps the changes from before the transaction")
+    void testRollbackInsideDeferredStorage() throws IOException {
+        TaskList taskList = withTodos(new TaskList(), TODOS);
+        File file = tempFile("duke-transaction");
+        DeferredStorage storage = new DeferredStorage(file.getPath());
+        run("todo buy milk", taskList, storage);
+        run("begin", taskList, storage);
+        run("delete 1", taskList, storage);
+        run("rollback", taskList, storage);
+        assertTrue(storage.hasPendingWrite());
+        storage.flush();
+        assertEquals(4, Files.readAllLines(file.toPath()).size());
+    }
+}
@@ -0,0 +1,94 @@
+package demo;
+
+import batch.BatchRunner;
+import org.junit.jupiter.api.Test;
+import storage.DeferredStorage;
+import storage.Storage;
+import tasklist.Priority;
+import tasklist.Task;
+import tasklist.TaskList;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class WorkloadGeneratorTest {
+
+    @Test
+    public void tasks_sameSeedGivesSameTasks() {
+        List<Task> first = new WorkloadGenerator().seed(7).tasks(500);
+        List<Task> second = new WorkloadGenerator().seed(7).tasks(500);
+        List<Task> other = new WorkloadGenerator().seed(8).tasks(500);
+
+        assertEquals(500, first.size());
+        assertEquals(text(first), text(second));
+        assertTrue(!text(first).equals(text(other)));
+    }
+
+    @Test
+    public void tasks_followTypeMix() {
+        List<Task> tasks = new WorkloadGenerator().typeMix(0, 1, 3, 0).tasks(2000);
+
+        int events = 0;
+        for (Task task : tasks) {
+            assertTrue(task.getType().equals("D") || task.getType().equals("E"));
+            events += task.getType().equals("E") ? 1 : 0;
+        }
+        assertTrue(events > 1400 && events < 1600, events + " events");
+    }
+
+    @Test
+    public void tasks_defaultPriorityIsMostCommon() {
+        int normal = 0;
+        int critical = 0;
+        for (Task task : new WorkloadGenerator().tasks(2000)) {
+            normal += task.getPriority() == Priority.NORMAL ? 1 : 0;
+            critical += task.getPriority() == Priority.CRITICAL ? 1 : 0;
+        }
+        assertTrue(normal > 5 * critical, normal + " normal, " + critical + " critical");
+    }
+
+    @Test
+    public void zipf_firstRankIsDrawnMost() {
+        ZipfDistribution zipf = new ZipfDistribution(10, 1.0);
+        int[] counts = new int[10];
+        Random random = new Random(1);
+        for (int i = 0; i < 10000; i++) {
+            counts[zipf.sample(random)]++;
+        }
+        assertTrue(counts[0] > counts[1] && counts[1] > counts[9]);
+        // 1 / H(10) of the draws go to the first rank
+        assertEquals(3414, counts[0], 200);
+    }
+
+    @Test
+    public void commands_runWithoutErrors() throws IOException {
+        File file = File.createTempFile("duke-workload", ".txt");
+        file.deleteOnExit();
+        WorkloadGenerator generator = new WorkloadGenerator().seed(3).readRatio(0.5);
+        generator.writeTasks(new Storage(file.getPath()), 200);
+        DeferredStorage storage = new DeferredStorage(file.getPath());
+        TaskList taskList = TaskList.create(storage.readFromFile());
+        assertEquals(200, taskList.size());
+
+        List<String> commands = generator.commands(400, 200);
+        List<BatchRunner.LineError> errors = new BatchRunner(taskList, storage, false).run(commands);
+
+        assertEquals(new ArrayList<>(), errors);
+        assertEquals(commands, generator.commands(400, 200));
+    }
+
+    private static List<String> text(List<Task> tasks) {
+        List<String> text = new ArrayList<>();
+        for (Task task : tasks) {
+            text.add(task.getType() + task.getDescription() + task.getPriority() + task.getCategory().getTags()
+                    + task.getDateTime() + task.isDone());
+        }
+        return text;
+    }
+}
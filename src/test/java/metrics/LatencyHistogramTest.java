@@ -0,0 +1,60 @@
+package metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void percentiles_withinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 10000; micros++) {
+            histogram.record(micros * 1000);
+        }
+
+        assertEquals(10000, histogram.getCount());
+        assertEquals(10_000_000, histogram.getMaxNanos());
+        assertEquals(5_000_500, histogram.getMeanNanos(), 1);
+        assertWithin(5_000_000, histogram.getPercentileNanos(50));
+        assertWithin(9_900_000, histogram.getPercentileNanos(99));
+        assertEquals(10_000_000, histogram.getPercentileNanos(100));
+    }
+
+    @Test
+    public void smallValues_areExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(3);
+        histogram.record(7);
+        histogram.record(-5);
+
+        assertEquals(0, histogram.getPercentileNanos(1));
+        assertEquals(3, histogram.getPercentileNanos(50));
+        assertEquals(7, histogram.getPercentileNanos(99));
+    }
+
+    @Test
+    public void hugeValues_areClamped() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(Long.MAX_VALUE);
+
+        assertEquals(LatencyHistogram.HIGHEST_TRACKABLE_NANOS, histogram.getMaxNanos());
+        assertEquals(LatencyHistogram.HIGHEST_TRACKABLE_NANOS, histogram.getPercentileNanos(50));
+    }
+
+    @Test
+    public void reset_forgetsEverything() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1000);
+        histogram.reset();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentileNanos(50));
+        assertEquals(0, histogram.getMaxNanos());
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(actual >= expected && actual <= expected + expected / 64, actual + " is not about " + expected);
+    }
+}
@@ -0,0 +1,57 @@
+package metrics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import parser.Parser;
+import storage.Storage;
+import tasklist.TaskList;
+import ui.Ui;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MetricsTest {
+
+    @AfterEach
+    public void tearDown() {
+        Metrics.setEnabled(false);
+        Metrics.reset();
+    }
+
+    @Test
+    public void commands_recordedByKind() throws IOException {
+        File file = File.createTempFile("duke-metrics", ".txt");
+        file.deleteOnExit();
+        Storage storage = new Storage(file.getPath());
+        TaskList taskList = TaskList.create(new ArrayList<>());
+        Metrics.setEnabled(true);
+
+        Parser.parse("todo read book", taskList).run(taskList, new Ui(), storage);
+        Parser.parse("deadline return book /by 20/10/2026", taskList).run(taskList, new Ui(), storage);
+        Parser.parse("frobnicate", taskList);
+        assertThrows(IllegalArgumentException.class, () -> Parser.parse("done", taskList));
+
+        assertEquals(1, Metrics.histogram("parse.todo").getCount());
+        assertEquals(1, Metrics.histogram("execute.todo").getCount());
+        assertEquals(1, Metrics.histogram("execute.deadline").getCount());
+        assertEquals(1, Metrics.histogram("parse.unknown").getCount());
+        assertEquals(1, Metrics.failures("parse.done"));
+        assertEquals(2, Metrics.histogram("storage.write").getCount());
+        assertTrue(Metrics.report().contains("execute.deadline"));
+    }
+
+    @Test
+    public void disabled_recordsNothing() {
+        TaskList taskList = TaskList.create(new ArrayList<>());
+
+        Parser.parse("todo read book", taskList);
+
+        assertEquals(0, Metrics.start());
+        assertTrue(Metrics.names().isEmpty());
+    }
+}
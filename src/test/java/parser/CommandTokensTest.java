@@ -0,0 +1,104 @@
+package parser;
+
+import command.AddCommand;
+import command.ByeCommand;
+import command.InvalidCommand;
+import command.ListCommand;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import storage.Storage;
+import tasklist.TaskList;
+import tasklist.Todo;
+import ui.Ui;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CommandTokens and the registry based dispatch in Parser
+ */
+public class CommandTokensTest {
+
+    @Test
+    @DisplayName("Test command word and arguments offsets")
+    void testCommandAndArgument() {
+        CommandTokens tokens = CommandTokens.scan("todo Buy milk");
+        assertEquals("todo", tokens.command());
+        assertEquals("Buy milk", tokens.argument());
+        assertFalse(tokens.hasDate());
+
+        tokens = CommandTokens.scan("list");
+        assertEquals("list", tokens.command());
+        assertFalse(tokens.hasArgument());
+        assertEquals(1, tokens.toArray().length);
+    }
+
+    @Test
+    @DisplayName("Test separator and date offsets")
+    void testSeparatorAndDate() {
+        CommandTokens tokens = CommandTokens.scan("deadline Report /by tomorrow 5pm !urgent #work");
+        assertEquals(CommandTokens.SEPARATOR_BY, tokens.getSeparator());
+        assertTrue(tokens.containsBy());
+        assertEquals("tomorrow 5pm", tokens.date());
+
+        tokens = CommandTokens.scan("event Meeting /at monday 2pm");
+        assertEquals(CommandTokens.SEPARATOR_AT, tokens.getSeparator());
+        assertEquals("monday 2pm", tokens.date());
+
+        tokens = CommandTokens.scan("event Meeting /at");
+        assertTrue(tokens.containsAt());
+        assertFalse(tokens.hasDate());
+    }
+
+    @Test
+    @DisplayName("Test priority and category marker offsets")
+    void testMarkers() {
+        String text = "todo Buy milk !high #personal @home";
+        CommandTokens tokens = CommandTokens.scan(text);
+        assertEquals(text.indexOf('!'), tokens.getPriorityStart());
+        assertEquals(text.indexOf('#'), tokens.getCategoryStart());
+
+        tokens = CommandTokens.scan("todo Buy milk");
+        assertEquals(-1, tokens.getPriorityStart());
+        assertEquals(-1, tokens.getCategoryStart());
+    }
+
+    @Test
+    @DisplayName("Test task number parsing")
+    void testArgumentAsInt() {
+        assertEquals(12, CommandTokens.scan("done 12").argumentAsInt());
+        assertEquals(3, CommandTokens.scan("done 3 ").argumentAsInt());
+        assertEquals(-1, CommandTokens.scan("done abc").argumentAsInt());
+        assertEquals(-1, CommandTokens.scan("done").argumentAsInt());
+    }
+
+    @Test
+    @DisplayName("Test done and delete run with a trailing space after the task number")
+    void testTaskNumberWithTrailingSpace() throws IOException {
+        File file = File.createTempFile("duke-tokens", ".txt");
+        file.deleteOnExit();
+        Storage storage = new Storage(file.getPath());
+        TaskList taskList = new TaskList();
+        taskList.addTask(new Todo("todo Buy milk"));
+        taskList.addTask(new Todo("todo Read book"));
+
+        Parser.parse("done 1 ", taskList).execute(taskList, new Ui(), storage);
+        assertTrue(taskList.get(0).isDone());
+        Parser.parse("delete 2  ", taskList).execute(taskList, new Ui(), storage);
+        assertEquals(1, taskList.size());
+    }
+
+    @Test
+    @DisplayName("Test case-insensitive command dispatch")
+    void testDispatch() {
+        TaskList taskList = new TaskList();
+        assertTrue(Parser.parse("LIST", taskList) instanceof ListCommand);
+        assertTrue(Parser.parse("Bye", taskList) instanceof ByeCommand);
+        assertTrue(Parser.parse("todo Buy milk", taskList) instanceof AddCommand);
+        assertTrue(Parser.parse("deadline Report /by tomorrow", taskList) instanceof AddCommand);
+        assertTrue(Parser.parse("lists", taskList) instanceof InvalidCommand);
+        assertTrue(Parser.parse("event Party /at", taskList) instanceof InvalidCommand);
+    }
+}
@@ -5,8 +5,11 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import static org.junit.jupiter.api.Assertions.*;
 
+import tasklist.Recurrence;
+
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 
 /**
  * Unit tests for SmartDateParser
@@ -232,4 +235,26 @@ public class SmartDateParserTest {
         assertFalse(errorMessage.contains("Exception"));
         assertFalse(errorMessage.contains("Error"));
     }
-} 
\ No newline at end of file
+    
+    @Test
+    @DisplayName("Test recurrence rule parsing")
+    void testRecurrenceParsing() {
+        Recurrence weekly = SmartDateParser.parseRecurrence("every monday 9am from 19/10/2026");
+        assertEquals("FREQ=WEEKLY;BYDAY=MO;DTSTART=20261019T0900", weekly.toText());
+        
+        Recurrence evening = SmartDateParser.parseRecurrence("every mon, wed at 5:30pm from 20/10/2026");
+        assertEquals("FREQ=WEEKLY;BYDAY=MO,WE;DTSTART=20261021T1730", evening.toText());
+        
+        Recurrence fortnightly = SmartDateParser.parseRecurrence("every 2 weeks from 19/10/2026 until 31/12/2026");
+        assertEquals("FREQ=WEEKLY;INTERVAL=2;DTSTART=20261019T0900;UNTIL=20261231", fortnightly.toText());
+        
+        Recurrence rent = SmartDateParser.parseRecurrence("last friday of month from 1/11/2026");
+        assertEquals(LocalDateTime.of(2026, 11, 27, 9, 0), rent.getStart());
+        
+        assertEquals(LocalDateTime.of(2026, 10, 23, 8, 0),
+                SmartDateParser.parseRecurrence("every weekday 8am from 23/10/2026").getStart());
+        
+        assertThrows(DateTimeParseException.class, () -> SmartDateParser.parseRecurrence("sometimes"));
+        assertThrows(DateTimeParseException.class, () -> SmartDateParser.parseRecurrence("every blue moon"));
+    }
+}
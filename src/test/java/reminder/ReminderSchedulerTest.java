@@ -0,0 +1,122 @@
+package reminder;
+
+import org.junit.jupiter.api.Test;
+import tasklist.Deadline;
+import tasklist.Recurrence;
+import tasklist.RecurringTask;
+import tasklist.TaskList;
+import tasklist.TaskTextAnalyzer;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ReminderSchedulerTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 10, 19, 8, 0);
+    private static final List<Duration> LEADS = Arrays.asList(Duration.ZERO, Duration.ofMinutes(15));
+
+    private final List<Reminder> fired = new ArrayList<>();
+
+    private ReminderScheduler load(TaskList taskList) {
+        ReminderScheduler scheduler = new ReminderScheduler(taskList, LEADS, fired::add, NOW);
+        scheduler.load();
+        return scheduler;
+    }
+
+    private List<String> firedLeads() {
+        List<String> leads = new ArrayList<>();
+        for (Reminder reminder : fired) {
+            leads.add(reminder.getTask().getDescription() + " " + reminder.describeLead());
+        }
+        return leads;
+    }
+
+    @Test
+    public void load_remindsBeforeAndAtDueTime() {
+        TaskList taskList = new TaskList();
+        taskList.addTask(new Deadline("deadline report /by 19/10/2026 1000", NOW.plusHours(2)));
+        taskList.addTask(new Deadline("deadline old /by 18/10/2026 1000", NOW.minusDays(1)));
+        taskList.publish();
+        ReminderScheduler scheduler = load(taskList);
+        assertEquals(2, scheduler.pendingCount());
+
+        scheduler.advanceTo(NOW.plusMinutes(104));
+        assertTrue(fired.isEmpty());
+        scheduler.advanceTo(NOW.plusMinutes(105));
+        assertEquals(Arrays.asList("report due in 15 minutes"), firedLeads());
+        scheduler.advanceTo(NOW.plusHours(3));
+        assertEquals(Arrays.asList("report due in 15 minutes", "report due now"), firedLeads());
+        assertEquals(0, scheduler.pendingCount());
+    }
+
+    @Test
+    public void load_remindsAtOnceWhenLeadHasPassed() {
+        TaskList taskList = new TaskList();
+        taskList.addTask(new Deadline("deadline call /by 19/10/2026 0805", NOW.plusMinutes(5)));
+        taskList.publish();
+        ReminderScheduler scheduler = load(taskList);
+
+        scheduler.advanceTo(NOW.plusMinutes(1));
+        assertEquals(Arrays.asList("call due in 4 minutes"), firedLeads());
+        scheduler.advanceTo(NOW.plusMinutes(5));
+        assertEquals(Arrays.asList("call due in 4 minutes", "call due now"), firedLeads());
+    }
+
+    @Test
+    public void changes_rescheduleAndCancel() {
+        TaskList taskList = new TaskList();
+        taskList.addTask(new Deadline("deadline report /by 19/10/2026 1000", NOW.plusHours(2)));
+        taskList.addTask(new Deadline("deadline slides /by 19/10/2026 1100", NOW.plusHours(3)));
+        taskList.publish();
+        ReminderScheduler scheduler = load(taskList);
+
+        // Editing a date replaces the task, deleting and marking done cancel its reminders
+        taskList.setTask(0, new Deadline("deadline report /by 19/10/2026 1200", NOW.plusHours(4)));
+        taskList.get(1).setDone(true);
+        taskList.addTask(new Deadline("deadline lunch /by 19/10/2026 1230", NOW.plusMinutes(270)));
+        taskList.publish();
+        assertEquals(4, scheduler.pendingCount());
+        taskList.removeTask(2);
+        taskList.publish();
+        assertEquals(2, scheduler.pendingCount());
+
+        scheduler.advanceTo(NOW.plusHours(5));
+        assertEquals(Arrays.asList("report due in 15 minutes", "report due now"), firedLeads());
+        scheduler.close();
+    }
+
+    @Test
+    public void recurringTask_schedulesNextOccurrenceAfterFiring() {
+        TaskList taskList = new TaskList();
+        taskList.addTask(new RecurringTask(TaskTextAnalyzer.analyze("standup"),
+                Recurrence.every(Recurrence.Frequency.DAILY, 1, NOW.plusHours(1))));
+        taskList.publish();
+        ReminderScheduler scheduler = load(taskList);
+
+        scheduler.advanceTo(NOW.plusHours(1));
+        scheduler.advanceTo(NOW.plusDays(1).plusHours(1));
+        assertEquals(4, fired.size());
+        assertEquals(NOW.plusDays(1).plusHours(1), fired.get(3).getDueTime());
+        assertEquals(2, scheduler.pendingCount());
+
+        // Occurrences missed in one long step are skipped, not reminded of all at once
+        scheduler.advanceTo(NOW.plusDays(5));
+        assertEquals(6, fired.size());
+        scheduler.advanceTo(NOW.plusDays(5).plusHours(1));
+        assertEquals(8, fired.size());
+        assertEquals(NOW.plusDays(5).plusHours(1), fired.get(7).getDueTime());
+    }
+
+    @Test
+    public void parseLeads_readsUnits() {
+        assertEquals(Arrays.asList(Duration.ofDays(7), Duration.ofDays(1), Duration.ofHours(2), Duration.ZERO),
+                ReminderScheduler.parseLeads("1w, 1d,2H,0m"));
+        assertThrows(IllegalArgumentException.class, () -> ReminderScheduler.parseLeads("soon"));
+    }
+}
@@ -0,0 +1,64 @@
+package reminder;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TimingWheelTest {
+
+    @Test
+    public void advanceTo_firesTimersInDeadlineOrder() {
+        TimingWheel<String> wheel = new TimingWheel<>(100);
+        wheel.schedule("c", 130);
+        wheel.schedule("a", 101);
+        wheel.schedule("b", 110);
+        wheel.schedule("late", 50);
+        List<String> fired = new ArrayList<>();
+        wheel.advanceTo(120, fired::add);
+        assertEquals(Arrays.asList("late", "a", "b"), fired);
+        assertEquals(1, wheel.size());
+        wheel.advanceTo(130, fired::add);
+        assertEquals(Arrays.asList("late", "a", "b", "c"), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void cancel_removesPendingTimerOnly() {
+        TimingWheel<String> wheel = new TimingWheel<>(0);
+        TimingWheel.Timer<String> first = wheel.schedule("first", 5);
+        TimingWheel.Timer<String> second = wheel.schedule("second", 5);
+        assertTrue(wheel.cancel(first));
+        assertFalse(wheel.cancel(first));
+        List<String> fired = new ArrayList<>();
+        wheel.advanceTo(10, fired::add);
+        assertEquals(Arrays.asList("second"), fired);
+        assertFalse(second.isPending());
+        assertFalse(wheel.cancel(second));
+    }
+
+    @Test
+    public void advanceTo_cascadesTimersFromHigherLevels() {
+        long start = 1_000_003;
+        TimingWheel<Long> wheel = new TimingWheel<>(start);
+        // A year and a day of minutes, spread over every level of the wheel
+        long[] offsets = {1, 63, 64, 65, 60 * 24, 4095, 4096, 4097, 60 * 24 * 7, 60 * 24 * 366};
+        for (int i = offsets.length - 1; i >= 0; i--) {
+            wheel.schedule(start + offsets[i], start + offsets[i]);
+        }
+        List<Long> fired = new ArrayList<>();
+        wheel.advanceTo(start + 60 * 24 * 366, deadline -> {
+            assertEquals(wheel.getCurrentTick(), (long) deadline);
+            fired.add(deadline - start);
+        });
+        assertEquals(offsets.length, fired.size());
+        for (int i = 0; i < offsets.length; i++) {
+            assertEquals(offsets[i], (long) fired.get(i));
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package server;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the HTTP API, against a server on a free local port
+ */
+public class HttpApiTest {
+    private Path directory;
+    private HttpApi api;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        directory = Files.createTempDirectory("duke-http");
+        api = new HttpApi(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+                new Workspaces(directory.toString()), 2);
+        api.start();
+    }
+
+    @AfterEach
+    void stopServer() throws IOException {
+        api.close();
+        Files.deleteIfExists(directory.resolve("default.txt"));
+        Files.deleteIfExists(directory);
+    }
+
+    @Test
+    @DisplayName("Test adding, listing and completing tasks")
+    void testCommands() throws IOException {
+        HttpURLConnection add = request("POST", "/api/tasks", "{\"type\": \"todo\", \"description\": \"Read a book #fun\"}");
+        assertEquals(201, add.getResponseCode());
+        assertEquals(Boolean.TRUE, Json.parseObject(read(add)).get("ok"));
+
+        HttpURLConnection done = request("POST", "/api/tasks/1/done", null);
+        assertEquals(200, done.getResponseCode());
+
+        HttpURLConnection list = request("GET", "/api/tasks", null);
+        assertEquals(200, list.getResponseCode());
+        List<?> tasks = (List<?>) Json.parseObject(read(list)).get("tasks");
+        Map<?, ?> task = (Map<?, ?>) tasks.get(0);
+        assertEquals("Read a book", task.get("description"));
+        assertEquals(Boolean.TRUE, task.get("done"));
+        assertEquals("fun", ((List<?>) task.get("tags")).get(0));
+
+        HttpURLConnection missing = request("DELETE", "/api/tasks/5", null);
+        assertEquals(400, missing.getResponseCode());
+    }
+
+    @Test
+    @DisplayName("Test conditional GET returns 304 until the list changes")
+    void testETag() throws IOException {
+        request("POST", "/api/tasks", "{\"type\": \"todo\", \"description\": \"Exercise\"}").getResponseCode();
+        HttpURLConnection first = request("GET", "/api/tasks", null);
+        assertEquals(200, first.getResponseCode());
+        String etag = first.getHeaderField("ETag");
+        assertNotNull(etag);
+
+        HttpURLConnection unchanged = request("GET", "/api/tasks", null);
+        unchanged.setRequestProperty("If-None-Match", etag);
+        assertEquals(304, unchanged.getResponseCode());
+
+        request("POST", "/api/tasks/1/done", null).getResponseCode();
+        HttpURLConnection changed = request("GET", "/api/tasks", null);
+        changed.setRequestProperty("If-None-Match", etag);
+        assertEquals(200, changed.getResponseCode());
+        assertNotEquals(etag, changed.getHeaderField("ETag"));
+    }
+
+    private HttpURLConnection request(String method, String path, String body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://127.0.0.1:" + api.getPort() + path)
+                .openConnection();
+        connection.setRequestMethod(method);
+        if (body != null) {
+            connection.setDoOutput(true);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return connection;
+    }
+
+    private static String read(HttpURLConnection connection) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (InputStream in = connection.getInputStream()) {
+            byte[] buffer = new byte[4096];
+            int count;
+            while ((count = in.read(buffer)) > 0) {
+                body.write(buffer, 0, count);
+            }
+        }
+        return new String(body.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
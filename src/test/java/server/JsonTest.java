@@ -0,0 +1,50 @@
+package server;
+
+import exception.DukeException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the server's JSON reader and writer
+ */
+public class JsonTest {
+
+    @Test
+    @DisplayName("Test parsing a request object")
+    void testParseObject() {
+        Map<String, Object> request = Json.parseObject(
+                "{\"id\": 7, \"workspace\": \"team\", \"command\": \"todo say \\\"hi\\\" \\u263A\", \"dry\": false}");
+        assertEquals(7L, request.get("id"));
+        assertEquals("team", request.get("workspace"));
+        assertEquals("todo say \"hi\" \u263A", request.get("command"));
+        assertEquals(Boolean.FALSE, request.get("dry"));
+    }
+
+    @Test
+    @DisplayName("Test writing escapes strings and nests values")
+    void testWrite() {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("id", 1);
+        response.put("ok", true);
+        response.put("output", "line 1\n\tline \"2\"");
+        response.put("tags", Arrays.asList("work", null));
+        String json = Json.write(response);
+        assertEquals("{\"id\":1,\"ok\":true,\"output\":\"line 1\\n\\tline \\\"2\\\"\",\"tags\":[\"work\",null]}", json);
+        assertEquals("line 1\n\tline \"2\"", Json.parseObject(json).get("output"));
+    }
+
+    @Test
+    @DisplayName("Test malformed JSON is rejected with a DukeException")
+    void testMalformed() {
+        assertThrows(DukeException.class, () -> Json.parseObject("not json"));
+        assertThrows(DukeException.class, () -> Json.parseObject("{\"id\": 1"));
+        assertThrows(DukeException.class, () -> Json.parseObject("{\"id\": 1} trailing"));
+        assertThrows(DukeException.class, () -> Json.getString(Json.parseObject("{\"command\": 3}"), "command"));
+    }
+}
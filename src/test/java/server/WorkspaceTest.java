@@ -0,0 +1,69 @@
+package server;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import storage.Storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for running commands of several clients on one workspace
+ */
+public class WorkspaceTest {
+    private Path file;
+    private Workspace workspace;
+
+    @BeforeEach
+    void openWorkspace() throws IOException {
+        file = Files.createTempFile("duke-workspace", ".txt");
+        Files.delete(file);
+        workspace = new Workspace("test", new Storage(file.toString()));
+    }
+
+    @AfterEach
+    void closeWorkspace() throws IOException {
+        workspace.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    @DisplayName("Test other sessions are turned away while a transaction is open")
+    void testTransactionBelongsToSession() {
+        Object owner = new Object();
+        Object other = new Object();
+        assertTrue(workspace.execute("begin", owner).isOk());
+        assertTrue(workspace.execute("todo Read a book", owner).isOk());
+
+        Workspace.Result rejected = workspace.execute("todo Exercise", other);
+        assertFalse(rejected.isOk());
+        assertTrue(rejected.getError().contains("transaction open"));
+        assertFalse(workspace.execute("commit", other).isOk());
+
+        assertTrue(workspace.execute("commit", owner).isOk());
+        assertEquals(1, workspace.snapshot().size());
+        assertTrue(workspace.execute("todo Exercise", other).isOk());
+        assertEquals(2, workspace.snapshot().size());
+    }
+
+    @Test
+    @DisplayName("Test ending a session rolls back the transaction it left open")
+    void testEndSessionRollsBack() {
+        Object owner = new Object();
+        workspace.execute("begin", owner);
+        workspace.execute("todo Read a book", owner);
+
+        workspace.endSession(new Object());
+        assertFalse(workspace.execute("todo Exercise", new Object()).isOk());
+
+        workspace.endSession(owner);
+        assertEquals(0, workspace.snapshot().size());
+        assertTrue(workspace.execute("todo Exercise", new Object()).isOk());
+        assertEquals(1, workspace.snapshot().size());
+    }
+}
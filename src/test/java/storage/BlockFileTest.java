@@ -0,0 +1,143 @@
+package storage;
+
+import demo.WorkloadGenerator;
+import org.junit.jupiter.api.Test;
+import tasklist.Task;
+import tasklist.Todo;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BlockFileTest {
+    private static final int TASK_COUNT = 2 * ParallelTaskParser.CHUNK_SIZE + 300;
+
+    @Test
+    public void writeToFile_compressed_readsBackTheSameAndKeepsTheFormat() throws IOException {
+        File file = File.createTempFile("duke-blocks", ".txt");
+        file.deleteOnExit();
+        List<Task> tasks = new WorkloadGenerator().seed(3).tasks(TASK_COUNT);
+        System.setProperty(Storage.COMPRESS_PROPERTY, "true");
+        try {
+            new Storage(file.getPath()).writeToFile(tasks);
+        } finally {
+            System.clearProperty(Storage.COMPRESS_PROPERTY);
+        }
+        assertTrue(BlockFile.isBlockFile(file.toPath()));
+
+        Storage storage = new Storage(file.getPath());
+        ArrayList<Task> read = storage.readFromFile();
+        assertEquals(tasks.size(), read.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            assertEquals(Storage.toText(tasks.get(i)), Storage.toText(read.get(i)));
+        }
+        storage.writeToFile(read);
+        assertTrue(BlockFile.isBlockFile(file.toPath()));
+    }
+
+    @Test
+    public void writeToFile_convertedBetweenFormats_keepsNonAsciiText() throws IOException {
+        File file = File.createTempFile("duke-blocks", ".txt");
+        file.deleteOnExit();
+        List<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("todo Café with Zoë 🎉 #fun"));
+        tasks.add(new Todo("todo 買い物 @市場 !high"));
+        Storage storage = new Storage(file.getPath());
+        storage.writeToFile(tasks);
+        byte[] text = Files.readAllBytes(file.toPath());
+        assertEquals(Storage.toText(tasks.get(0)) + System.lineSeparator()
+                + Storage.toText(tasks.get(1)) + System.lineSeparator(), new String(text, StandardCharsets.UTF_8));
+
+        System.setProperty(Storage.COMPRESS_PROPERTY, "true");
+        try {
+            new Storage(file.getPath()).writeToFile(new Storage(file.getPath()).readFromFile());
+        } finally {
+            System.clearProperty(Storage.COMPRESS_PROPERTY);
+        }
+        assertTrue(BlockFile.isBlockFile(file.toPath()));
+        System.setProperty(Storage.COMPRESS_PROPERTY, "false");
+        try {
+            new Storage(file.getPath()).writeToFile(new Storage(file.getPath()).readFromFile());
+        } finally {
+            System.clearProperty(Storage.COMPRESS_PROPERTY);
+        }
+        assertArrayEquals(text, Files.readAllBytes(file.toPath()));
+    }
+
+    @Test
+    public void read_range_onlyThoseLines() throws IOException {
+        List<Task> tasks = new WorkloadGenerator().seed(5).tasks(TASK_COUNT);
+        BlockFile blocks = BlockFile.open(writeBlocks(tasks).toPath());
+
+        assertEquals(TASK_COUNT, blocks.size());
+        assertEquals(lines(tasks, 1000, 1030), blocks.read(1000, 1030));
+        assertEquals(lines(tasks, BlockFile.BLOCK_LINES - 5, BlockFile.BLOCK_LINES + 5),
+                blocks.read(BlockFile.BLOCK_LINES - 5, BlockFile.BLOCK_LINES + 5));
+        assertEquals(lines(tasks, TASK_COUNT - 10, TASK_COUNT), blocks.read(TASK_COUNT - 10, TASK_COUNT));
+    }
+
+    @Test
+    public void parse_inParallel_sameAsOneThread() throws IOException {
+        BlockFile blocks = BlockFile.open(writeBlocks(new WorkloadGenerator().seed(7).tasks(TASK_COUNT)).toPath());
+
+        List<Task> sequential = new ParallelTaskParser(blocks, 1).parse(0, blocks.size());
+        List<Task> parallel = new ParallelTaskParser(blocks, 4).parse(0, blocks.size());
+        assertEquals(sequential.size(), parallel.size());
+        for (int i = 0; i < sequential.size(); i++) {
+            assertEquals(Storage.toText(sequential.get(i)), Storage.toText(parallel.get(i)));
+        }
+    }
+
+    @Test
+    public void readFromFile_corruptBlock_exceptionThrown() throws IOException {
+        File file = writeBlocks(new WorkloadGenerator().seed(9).tasks(TASK_COUNT));
+        try (RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+            raw.seek(raw.length() / 2);
+            int b = raw.read();
+            raw.seek(raw.length() / 2);
+            raw.write(~b);
+        }
+
+        UncheckedIOException e = assertThrows(UncheckedIOException.class,
+                () -> new Storage(file.getPath()).readFromFile());
+        assertTrue(e.getMessage().contains("corrupt"), e.getMessage());
+    }
+
+    @Test
+    public void open_cutShort_exceptionThrown() throws IOException {
+        File file = writeBlocks(new WorkloadGenerator().seed(11).tasks(100));
+        try (RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+            raw.setLength(raw.length() - 5);
+        }
+
+        assertThrows(IOException.class, () -> BlockFile.open(file.toPath()));
+    }
+
+    private static List<String> lines(List<Task> tasks, int from, int to) {
+        List<String> lines = new ArrayList<>();
+        for (Task task : tasks.subList(from, to)) {
+            lines.add(Storage.toText(task));
+        }
+        return lines;
+    }
+
+    private static File writeBlocks(List<Task> tasks) throws IOException {
+        File file = File.createTempFile("duke-blocks", ".txt");
+        file.deleteOnExit();
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            BlockFile.write(out, tasks);
+        }
+        return file;
+    }
+}
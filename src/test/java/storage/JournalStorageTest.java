@@ -0,0 +1,112 @@
+package storage;
+
+import org.junit.jupiter.api.Test;
+import tasklist.TaskList;
+import tasklist.Todo;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JournalStorageTest {
+
+    @Test
+    public void load_restoresUndoAfterRestart() throws IOException {
+        File tasks = File.createTempFile("duke-journal", ".txt");
+        File undo = new File(tasks.getPath() + ".undo");
+        tasks.deleteOnExit();
+        undo.deleteOnExit();
+        Storage storage = new Storage(tasks.getPath());
+
+        TaskList first = TaskList.create(new java.util.ArrayList<>());
+        first.addTask(new Todo("todo Read book #reading"));
+        first.addTask(new Todo("todo Pay bills"));
+        first.publish();
+        first.journal().setSaver(new JournalStorage(undo.getPath(), first));
+        first.removeTask(0);
+        first.get(0).setDone(true);
+        storage.writeToFile(first.getTasks());
+        first.publish();
+
+        TaskList second = TaskList.create(storage.readFromFile());
+        new JournalStorage(undo.getPath(), second).load();
+        assertTrue(second.journal().canUndo());
+        second.journal().undo(second);
+        assertEquals(2, second.size());
+        assertEquals("Read book", second.get(0).getDescription());
+        assertTrue(second.get(0).getCategory().hasTag("reading"));
+        assertFalse(second.get(1).isDone());
+    }
+
+    @Test
+    public void load_ignoresHistoryOfAnotherList() throws IOException {
+        File tasks = File.createTempFile("duke-journal", ".txt");
+        File undo = new File(tasks.getPath() + ".undo");
+        tasks.deleteOnExit();
+        undo.deleteOnExit();
+
+        TaskList first = TaskList.create(new java.util.ArrayList<>());
+        first.publish();
+        first.journal().setSaver(new JournalStorage(undo.getPath(), first));
+        first.addTask(new Todo("todo Read book"));
+        first.publish();
+        try (FileWriter writer = new FileWriter(tasks)) {
+            writer.write("todo [ ] Something else" + System.lineSeparator());
+        }
+
+        TaskList second = TaskList.create(new Storage(tasks.getPath()).readFromFile());
+        new JournalStorage(undo.getPath(), second).load();
+        assertFalse(second.journal().canUndo());
+    }
+
+    @Test
+    public void save_appendsChangesAndWritesAnewPastTheLimit() throws IOException {
+        File tasks = File.createTempFile("duke-journal", ".txt");
+        File undo = new File(tasks.getPath() + ".undo");
+        tasks.deleteOnExit();
+        undo.deleteOnExit();
+        Storage storage = new Storage(tasks.getPath());
+
+        TaskList first = TaskList.create(new java.util.ArrayList<>());
+        first.publish();
+        first.journal().setSaver(new JournalStorage(undo.getPath(), first));
+        first.addTask(new Todo("todo Read book"));
+        first.publish();
+        first.addTask(new Todo("todo Pay bills"));
+        first.publish();
+        first.get(0).setDone(true);
+        first.publish();
+        first.journal().undo(first);
+        storage.writeToFile(first.getTasks());
+        String text = new String(Files.readAllBytes(undo.toPath()), StandardCharsets.UTF_8);
+        assertTrue(text.contains(System.lineSeparator() + "record 2 "));
+        assertTrue(text.contains(System.lineSeparator() + "undone "));
+
+        TaskList second = TaskList.create(storage.readFromFile());
+        new JournalStorage(undo.getPath(), second).load();
+        assertTrue(second.journal().canRedo());
+        second.journal().redo(second);
+        assertTrue(second.get(0).isDone());
+        second.journal().undo(second);
+        second.journal().undo(second);
+        assertEquals(1, second.size());
+
+        int limit = first.journal().getLimit();
+        for (int i = 0; i <= limit; i++) {
+            first.get(0).setDone(!first.get(0).isDone());
+            first.publish();
+        }
+        text = new String(Files.readAllBytes(undo.toPath()), StandardCharsets.UTF_8);
+        assertTrue(text.split("record ").length <= limit + 1);
+        storage.writeToFile(first.getTasks());
+        TaskList third = TaskList.create(storage.readFromFile());
+        new JournalStorage(undo.getPath(), third).load();
+        assertEquals(limit, third.journal().getUndoEntries().size());
+    }
+}
@@ -0,0 +1,76 @@
+package storage;
+
+import demo.WorkloadGenerator;
+import org.junit.jupiter.api.Test;
+import tasklist.Task;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ParallelTaskParserTest {
+    private static final int LINE_COUNT = 3 * ParallelTaskParser.CHUNK_SIZE + 17;
+
+    @Test
+    public void parse_manyChunks_keepsFileOrderAndNumbersIdsInOrder() throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < LINE_COUNT; i++) {
+            text.append("todo [ ] task ").append(i).append(i % 1000 == 0 ? "\n\n" : "\n");
+        }
+        LineIndex index = index(text.toString());
+
+        ArrayList<Task> tasks = new ParallelTaskParser(index, 4).parse(0, index.size());
+        assertEquals(LINE_COUNT, tasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            assertEquals("task " + i, tasks.get(i).getDescription());
+            if (i > 0) {
+                assertEquals(tasks.get(i - 1).getId() + 1, tasks.get(i).getId());
+            }
+        }
+    }
+
+    @Test
+    public void parse_inParallel_sameAsOneThread() throws IOException {
+        File file = File.createTempFile("duke-parallel", ".txt");
+        file.deleteOnExit();
+        new WorkloadGenerator().seed(7).writeTasks(new Storage(file.getPath()), LINE_COUNT);
+        LineIndex index = LineIndex.of(file.toPath(), Storage.CHARSET);
+
+        List<Task> sequential = new ParallelTaskParser(index, 1).parse(0, index.size());
+        List<Task> parallel = new ParallelTaskParser(index, 4).parse(0, index.size());
+        assertEquals(sequential.size(), parallel.size());
+        for (int i = 0; i < sequential.size(); i++) {
+            assertEquals(Storage.toText(sequential.get(i)), Storage.toText(parallel.get(i)));
+        }
+    }
+
+    @Test
+    public void parse_badLines_reportsTheFirstByLineNumber() throws IOException {
+        StringBuilder text = new StringBuilder("\n");
+        for (int i = 2; i <= LINE_COUNT; i++) {
+            boolean isBad = i == 9000 || i == 20000;
+            text.append(isBad ? "deadline [ ] pay rent /by someday" : "todo [ ] task " + i).append('\n');
+        }
+        LineIndex index = index(text.toString());
+
+        DateTimeParseException e = assertThrows(DateTimeParseException.class,
+                () -> new ParallelTaskParser(index, 4).parse(0, index.size()));
+        assertTrue(e.getMessage().startsWith("Line 9000 of "), e.getMessage());
+    }
+
+    private static LineIndex index(String text) throws IOException {
+        File file = File.createTempFile("duke-parallel", ".txt");
+        file.deleteOnExit();
+        try (FileWriter writer = new FileWriter(file, Storage.CHARSET)) {
+            writer.write(text);
+        }
+        return LineIndex.of(file.toPath(), Storage.CHARSET);
+    }
+}
@@ -3,11 +3,18 @@ package storage;
 import org.junit.jupiter.api.Test;
 import tasklist.*;
 
+import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.FileWriter;
 import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class StorageTest {
     @Test
@@ -36,4 +43,115 @@ public class StorageTest {
             assertEquals(new IOException().getMessage(), e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void recurringTask_roundTrips() {
+        Task task = Storage.parseLine("recur [ ] water plants #home /every FREQ=WEEKLY;BYDAY=MO;DTSTART=20261019T0900");
+        assertEquals("R", task.getType());
+        assertEquals("water plants", task.getDescription());
+        assertEquals("FREQ=WEEKLY;BYDAY=MO;DTSTART=20261019T0900", ((RecurringTask) task).getRecurrence().toText());
+        assertEquals(Storage.toText(task), Storage.toText(Storage.parseLine(Storage.toText(task))));
+    }
+
+    @Test
+    public void eventWithEnd_roundTrips() {
+        LocalDateTime start = LocalDateTime.of(2026, 10, 20, 14, 0);
+        Event sameDay = new Event("event review /at tue 2pm /to 4pm", start, start.plusHours(2));
+        Event overnight = new Event("event hackathon /at tue 2pm /to wed 10am", start, start.plusHours(20));
+        for (Event event : new Event[] {sameDay, overnight}) {
+            Event restored = (Event) Storage.parseLine(Storage.toText(event));
+            assertEquals(event.getDescription(), restored.getDescription());
+            assertEquals(start, restored.getDateTime());
+            assertEquals(event.getEndDateTime(), restored.getEndDateTime());
+        }
+    }
+
+    @Test
+    public void readFirstPage_smallFile_readsEverything() throws IOException {
+        File file = File.createTempFile("duke-storage", ".txt");
+        file.deleteOnExit();
+        Storage storage = new Storage(file.getPath());
+        storage.writeToFile(todos(150));
+
+        ArrayList<Task> tasks = storage.readFirstPage();
+        assertEquals(150, tasks.size());
+        assertFalse(storage.isLoading());
+    }
+
+    @Test
+    public void readFirstPage_largeFile_loadsRestInBackground() throws IOException {
+        File file = File.createTempFile("duke-storage", ".txt");
+        file.deleteOnExit();
+        Storage storage = new Storage(file.getPath());
+        storage.writeToFile(todos(10000));
+        System.setProperty(Storage.BACKGROUND_LOAD_PROPERTY, "0");
+        try {
+            ArrayList<Task> tasks = storage.readFirstPage();
+            assertEquals(Storage.FIRST_PAGE_SIZE, tasks.size());
+            assertTrue(storage.isLoading());
+            assertEquals(10000, storage.getLoadTotal());
+            assertThrows(IllegalStateException.class, () -> storage.writeToFile(tasks));
+
+            tasks.addAll(storage.finishLoading());
+            assertFalse(storage.isLoading());
+            assertEquals(10000, tasks.size());
+            for (int i = 0; i < tasks.size(); i++) {
+                assertEquals("task " + i, tasks.get(i).getDescription());
+            }
+            storage.writeToFile(tasks);
+        } finally {
+            System.clearProperty(Storage.BACKGROUND_LOAD_PROPERTY);
+        }
+    }
+
+    @Test
+    public void finishLoading_malformedLine_namesLineAndRefusesWrites() throws IOException {
+        File file = File.createTempFile("duke-storage", ".txt");
+        file.deleteOnExit();
+        Storage storage = new Storage(file.getPath());
+        storage.writeToFile(todos(500));
+        try (FileWriter writer = new FileWriter(file, true)) {
+            writer.write("deadline [ ] report /by someday\n");
+        }
+        System.setProperty(Storage.BACKGROUND_LOAD_PROPERTY, "0");
+        try {
+            ArrayList<Task> tasks = storage.readFirstPage();
+            DateTimeParseException e = assertThrows(DateTimeParseException.class, storage::finishLoading);
+            assertTrue(e.getMessage().startsWith("Line 501 of "), e.getMessage());
+            assertTrue(storage.isLoadFailed());
+            assertTrue(storage.isLoading());
+            assertThrows(IOException.class, () -> storage.writeToFile(tasks));
+        } finally {
+            System.clearProperty(Storage.BACKGROUND_LOAD_PROPERTY);
+        }
+    }
+
+    @Test
+    public void readFirstPage_skipsBlankLinesAndCarriageReturns() throws IOException {
+        File file = File.createTempFile("duke-storage", ".txt");
+        file.deleteOnExit();
+        try (FileWriter writer = new FileWriter(file)) {
+            writer.write("todo [ ] a\r\n\r\ntodo [X] b\n\ntodo [ ] c\rtodo [ ] d");
+        }
+        Storage storage = new Storage(file.getPath());
+        System.setProperty(Storage.BACKGROUND_LOAD_PROPERTY, "0");
+        try {
+            ArrayList<Task> tasks = storage.readFirstPage();
+            assertFalse(storage.isLoading());
+            assertEquals(4, tasks.size());
+            assertEquals("b", tasks.get(1).getDescription());
+            assertTrue(tasks.get(1).isDone());
+            assertEquals("d", tasks.get(3).getDescription());
+        } finally {
+            System.clearProperty(Storage.BACKGROUND_LOAD_PROPERTY);
+        }
+    }
+
+    private static ArrayList<Task> todos(int count) {
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            tasks.add(new Todo("todo task " + i));
+        }
+        return tasks;
+    }
+}
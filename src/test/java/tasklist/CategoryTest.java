@@ -345,4 +345,28 @@ public class CategoryTest {
         assertEquals(20, cat.getTags().size());
         assertEquals(20, cat.getContexts().size());
     }
-} 
\ No newline at end of file
+    
+    @Test
+    @DisplayName("Test shared empty category")
+    void testEmptyCategoryIsShared() {
+        Todo todo = new Todo("todo Plain task");
+        assertSame(Category.EMPTY, todo.getCategory());
+        assertFalse(Category.EMPTY.hasCategories());
+        assertThrows(UnsupportedOperationException.class, () -> Category.EMPTY.addTag("work"));
+    }
+    
+    @Test
+    @DisplayName("Test tag views are read-only and share interned names")
+    void testTagViews() {
+        Category first = Category.parseCategories("Task #work @home");
+        Category second = Category.parseCategories("Other #WORK");
+        assertThrows(UnsupportedOperationException.class, () -> first.getTags().add("extra"));
+        assertSame(first.getTags().iterator().next(), second.getTags().iterator().next());
+        
+        first.addTag("later");
+        assertTrue(first.hasTag("later"));
+        first.removeTag("work");
+        assertFalse(first.hasTag("work"));
+        assertTrue(second.hasTag("work"));
+    }
+}
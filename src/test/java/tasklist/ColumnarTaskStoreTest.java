@@ -0,0 +1,95 @@
+package tasklist;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ColumnarTaskStore
+ */
+public class ColumnarTaskStoreTest {
+
+    @Test
+    @DisplayName("Test tasks round trip through the columns")
+    void testRoundTrip() {
+        ColumnarTaskStore store = new ColumnarTaskStore();
+        LocalDateTime due = LocalDateTime.of(2024, 3, 15, 18, 0);
+        store.add(new Todo("todo Exercise !low #health @gym"));
+        store.add(new Deadline("deadline Report /by friday !urgent #work", due));
+
+        assertEquals(2, store.size());
+        Task todo = store.get(0);
+        assertTrue(todo instanceof Todo);
+        assertEquals("Exercise", todo.getDescription());
+        assertEquals(Priority.LOW, todo.getPriority());
+        assertTrue(todo.getCategory().hasContext("gym"));
+
+        Task deadline = store.get(1);
+        assertTrue(deadline instanceof Deadline);
+        assertEquals(due, deadline.getDateTime());
+        assertEquals('D', store.type(1));
+        assertTrue(store.descriptionContains(1, "repo"));
+        assertFalse(store.descriptionContains(0, "repo"));
+    }
+
+    @Test
+    @DisplayName("Test changes to a view are written back to the store")
+    void testWriteBack() {
+        ColumnarTaskStore store = new ColumnarTaskStore();
+        store.add(new Todo("todo Read a book"));
+        Task view = store.get(0);
+        view.setDone(true);
+        view.setPriority(Priority.HIGH);
+
+        assertTrue(store.isDone(0));
+        assertEquals(Priority.HIGH, store.priority(0));
+        assertTrue(store.get(0).isDone());
+    }
+
+    @Test
+    @DisplayName("Test removal and arena compaction keep the remaining rows intact")
+    void testRemoveAndCompact() {
+        ColumnarTaskStore store = new ColumnarTaskStore();
+        for (int i = 0; i < 500; i++) {
+            store.add(new Todo("todo Task number " + i + " #tag" + (i % 7)));
+        }
+        for (int i = 0; i < 250; i++) {
+            store.remove(0);
+        }
+        for (int i = 0; i < 500; i++) {
+            store.add(new Todo("todo Later task " + i));
+        }
+        assertEquals(750, store.size());
+        assertEquals("Task number 250", store.get(0).getDescription());
+        assertTrue(store.get(0).getCategory().hasTag("tag" + (250 % 7)));
+        assertEquals("Later task 499", store.get(749).getDescription());
+    }
+
+    @Test
+    @DisplayName("Test date lookup on a columnar task list")
+    void testTaskByDate() {
+        TaskList taskList = new TaskList(new ColumnarTaskStore());
+        taskList.addTask(new Todo("todo Exercise"));
+        taskList.addTask(new Event("event Party /at tonight", LocalDateTime.of(2024, 3, 15, 20, 0)));
+        taskList.addTask(new Deadline("deadline Report /by tomorrow", LocalDateTime.of(2024, 3, 16, 9, 0)));
+
+        TaskList onDay = taskList.getTaskByDate(LocalDate.of(2024, 3, 15), taskList);
+        assertEquals(1, onDay.size());
+        assertEquals("Party", onDay.get(0).getDescription());
+    }
+
+    @Test
+    @DisplayName("Test dates past the range of an int of minutes are kept")
+    void testFarDate() {
+        ColumnarTaskStore store = new ColumnarTaskStore();
+        LocalDateTime due = LocalDateTime.of(9999, 12, 31, 23, 59);
+        store.add(new Deadline("deadline Time capsule /by 9999-12-31", due));
+
+        assertEquals(due, store.get(0).getDateTime());
+        assertEquals(TaskStore.toMinute(due), store.dueMinute(0));
+    }
+}
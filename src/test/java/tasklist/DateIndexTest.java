@@ -0,0 +1,98 @@
+package tasklist;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Unit tests for DateIndex
+ */
+public class DateIndexTest {
+    private static final LocalDateTime TUESDAY = LocalDateTime.of(2026, 10, 20, 0, 0);
+
+    private static Task[] sampleTasks() {
+        return new Task[] {
+            new Todo("todo buy milk"),
+            new Event("event review /at tue 2pm /to 4pm", TUESDAY.plusHours(14), TUESDAY.plusHours(16)),
+            new Event("event offsite /at mon 9am /to wed 6pm", TUESDAY.minusHours(15),
+                    TUESDAY.plusDays(1).plusHours(18)),
+            new Deadline("deadline report /by tue 3pm", TUESDAY.plusHours(15)),
+            new RecurringTask(TaskTextAnalyzer.analyze("standup"),
+                    Recurrence.every(Recurrence.Frequency.DAILY, 1, TUESDAY.minusDays(7).plusHours(9)))
+        };
+    }
+
+    private static List<String> descriptions(List<DateIndex.Occurrence> occurrences) {
+        List<String> descriptions = new ArrayList<>();
+        for (DateIndex.Occurrence occurrence : occurrences) {
+            descriptions.add(occurrence.getTask().getDescription() + " " + occurrence.getStart().toLocalTime());
+        }
+        return descriptions;
+    }
+
+    @Test
+    @DisplayName("Test occurrences include everything the window overlaps")
+    void testOccurrences() {
+        for (TaskList taskList : new TaskList[] {new TaskList(), new TaskList(new ColumnarTaskStore())}) {
+            DateIndex dates = TaskFixtures.withTasks(taskList, sampleTasks()).dates();
+            assertEquals(4, dates.size());
+            // The offsite started the day before but is still on
+            assertEquals(Arrays.asList("offsite 09:00", "review 14:00", "report 15:00"),
+                    descriptions(dates.occurrences(TUESDAY.plusHours(14), TUESDAY.plusHours(16))));
+            assertEquals(Arrays.asList("offsite 09:00", "standup 09:00", "review 14:00", "report 15:00"),
+                    descriptions(dates.occurrences(TUESDAY, TUESDAY.plusDays(1))));
+            assertEquals(Arrays.asList("standup 09:00"),
+                    descriptions(dates.occurrences(TUESDAY.plusDays(3), TUESDAY.plusDays(4))));
+        }
+    }
+
+    @Test
+    @DisplayName("Test conflicts only report overlapping events that are not done")
+    void testConflicts() {
+        TaskList taskList = TaskFixtures.withTasks(new TaskList(), sampleTasks());
+        List<Task> conflicts = taskList.dates().conflicts(TUESDAY.plusHours(15), TUESDAY.plusHours(17));
+        assertEquals(2, conflicts.size());
+        assertEquals("offsite", conflicts.get(0).getDescription());
+        assertEquals("review", conflicts.get(1).getDescription());
+        assertEquals(1, taskList.dates().conflicts(TUESDAY.plusHours(16), null).size());
+
+        taskList.get(2).setDone(true);
+        taskList.publish();
+        assertEquals(0, taskList.dates().conflicts(TUESDAY.plusHours(16), TUESDAY.plusHours(17)).size());
+    }
+
+    @Test
+    @DisplayName("Test free slots are the gaps between events")
+    void testFreeSlots() {
+        TaskList taskList = TaskFixtures.withTasks(new TaskList(), sampleTasks());
+        taskList.removeTask(2);
+        taskList.addTask(new Event("event lunch /at tue 12pm /to 1pm", TUESDAY.plusHours(12), TUESDAY.plusHours(13)));
+        taskList.publish();
+        List<DateIndex.FreeSlot> slots = taskList.dates()
+                .freeSlots(TUESDAY.plusHours(9), TUESDAY.plusHours(18), Duration.ofMinutes(30));
+        List<String> found = new ArrayList<>();
+        for (DateIndex.FreeSlot slot : slots) {
+            found.add(slot.getStart().toLocalTime() + "-" + slot.getEnd().toLocalTime());
+        }
+        assertEquals(Arrays.asList("09:00-12:00", "13:00-14:00", "16:00-18:00"), found);
+    }
+
+    @Test
+    @DisplayName("Test earlier snapshots keep their date index after a publish")
+    void testEarlierSnapshotsKeepTheirIndex() {
+        TaskList taskList = TaskFixtures.withTasks(new TaskList(), sampleTasks());
+        TaskSnapshot before = taskList.snapshot();
+        taskList.removeTask(1);
+        taskList.publish();
+        assertEquals(4, before.dates().size());
+        assertEquals(3, taskList.dates().size());
+        assertEquals(1, taskList.dates().conflicts(TUESDAY.plusHours(14), TUESDAY.plusHours(15)).size());
+    }
+}
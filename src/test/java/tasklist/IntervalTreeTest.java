@@ -0,0 +1,78 @@
+package tasklist;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class IntervalTreeTest {
+
+    @Test
+    public void overlapping_findsIntervalsCrossingTheWindow() {
+        IntervalTree<String> tree = IntervalTree.<String>empty()
+                .with(10, 20, 1, "a")
+                .with(15, 16, 2, "b")
+                .with(20, 30, 3, "c")
+                .with(0, 100, 4, "long");
+        List<String> found = new ArrayList<>();
+        tree.overlapping(18, 21, found::add);
+        // Half-open: "b" ended at 16, "c" starts inside the window
+        assertEquals(Arrays.asList("long", "a", "c"), found);
+    }
+
+    @Test
+    public void with_leavesEarlierVersionsUnchanged() {
+        IntervalTree<String> before = IntervalTree.<String>empty().with(10, 20, 1, "a");
+        IntervalTree<String> after = before.with(12, 14, 2, "b").without(10, 1);
+        List<String> found = new ArrayList<>();
+        before.overlapping(0, 100, found::add);
+        after.overlapping(0, 100, found::add);
+        assertEquals(Arrays.asList("a", "b"), found);
+        assertSame(after, after.without(10, 1));
+    }
+
+    @Test
+    public void randomChanges_matchLinearScan() {
+        Random random = new Random(41);
+        IntervalTree<Integer> tree = IntervalTree.empty();
+        List<long[]> intervals = new ArrayList<>();
+        for (int id = 0; id < 2000; id++) {
+            long start = random.nextInt(10_000);
+            long[] interval = {start, start + 1 + random.nextInt(300), id};
+            intervals.add(interval);
+            tree = tree.with(interval[0], interval[1], id, id);
+            if (random.nextInt(3) == 0) {
+                long[] removed = intervals.remove(random.nextInt(intervals.size()));
+                tree = tree.without(removed[0], (int) removed[2]);
+            }
+        }
+        assertEquals(intervals.size(), tree.size());
+        @SuppressWarnings("unchecked")
+        IntervalTree.Interval<Integer>[] bulk = new IntervalTree.Interval[intervals.size()];
+        for (int i = 0; i < bulk.length; i++) {
+            long[] interval = intervals.get(i);
+            bulk[i] = new IntervalTree.Interval<>(interval[0], interval[1], (int) interval[2], (int) interval[2]);
+        }
+        IntervalTree<Integer> built = IntervalTree.of(bulk);
+        for (int query = 0; query < 200; query++) {
+            long from = random.nextInt(10_500);
+            long to = from + 1 + random.nextInt(500);
+            List<Integer> expected = new ArrayList<>();
+            intervals.stream()
+                    .filter(interval -> interval[0] < to && interval[1] > from)
+                    .sorted((a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[2], b[2]))
+                    .forEach(interval -> expected.add((int) interval[2]));
+            List<Integer> found = new ArrayList<>();
+            tree.overlapping(from, to, found::add);
+            assertEquals(expected, found);
+            found.clear();
+            built.overlapping(from, to, found::add);
+            assertEquals(expected, found);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package tasklist;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for OffHeapTaskStore
+ */
+public class OffHeapTaskStoreTest {
+
+    @Test
+    @DisplayName("Test tasks round trip through direct memory")
+    void testRoundTrip() {
+        try (OffHeapTaskStore store = new OffHeapTaskStore()) {
+            LocalDateTime due = LocalDateTime.of(2024, 3, 15, 18, 0);
+            store.add(new Todo("todo Exercise !low #health @gym"));
+            store.add(new Event("event Party /at tonight #fun", due));
+
+            assertEquals(2, store.size());
+            assertEquals("Exercise", store.get(0).getDescription());
+            assertTrue(store.get(0).getCategory().hasContext("gym"));
+            assertEquals(Priority.LOW, store.priority(0));
+            assertEquals(due, store.get(1).getDateTime());
+            assertEquals(TaskStore.NO_DUE, store.dueMinute(0));
+            assertTrue(store.descriptionContains(1, "part"));
+
+            store.remove(0);
+            assertEquals(1, store.size());
+            assertEquals("Party", store.get(0).getDescription());
+        }
+    }
+
+    @Test
+    @DisplayName("Test changes to a view are written back, including a new category")
+    void testWriteBack() {
+        try (OffHeapTaskStore store = new OffHeapTaskStore()) {
+            store.add(new Todo("todo Read a book"));
+            Task view = store.get(0);
+            view.setDone(true);
+            view.setCategory(Category.parseCategories("#reading"));
+
+            Task reread = store.get(0);
+            assertTrue(reread.isDone());
+            assertTrue(reread.getCategory().hasTag("reading"));
+            assertEquals("Read a book", reread.getDescription());
+        }
+    }
+
+    @Test
+    @DisplayName("Test removing several tasks at once keeps the others in order")
+    void testRemoveAll() {
+        try (OffHeapTaskStore store = new OffHeapTaskStore()) {
+            for (int i = 0; i < 6; i++) {
+                store.add(new Todo("todo Task " + i + " #batch"));
+            }
+            store.removeAll(new int[]{0, 2, 3});
+
+            assertEquals(3, store.size());
+            assertEquals("Task 1", store.get(0).getDescription());
+            assertEquals("Task 4", store.get(1).getDescription());
+            assertEquals("Task 5", store.get(2).getDescription());
+            assertTrue(store.hasTag(2, TagDictionary.find("batch")));
+        }
+    }
+}
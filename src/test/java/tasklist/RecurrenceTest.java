@@ -0,0 +1,95 @@
+package tasklist;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RecurrenceTest {
+    private static final LocalDateTime MONDAY_9AM = LocalDateTime.of(2026, 10, 19, 9, 0);
+
+    @Test
+    public void weekly_startsOnFirstMatchingDay() {
+        Recurrence rule = Recurrence.weekly(1, Arrays.asList(DayOfWeek.WEDNESDAY, DayOfWeek.FRIDAY),
+                MONDAY_9AM.plusDays(3));
+        assertEquals(LocalDateTime.of(2026, 10, 23, 9, 0), rule.getStart());
+        assertEquals(Arrays.asList(LocalDateTime.of(2026, 10, 23, 9, 0), LocalDateTime.of(2026, 10, 28, 9, 0),
+                LocalDateTime.of(2026, 10, 30, 9, 0)),
+                rule.occurrenceList(MONDAY_9AM, MONDAY_9AM.plusDays(14)));
+    }
+
+    @Test
+    public void occurrences_jumpStraightToTheWindow() {
+        Recurrence rule = Recurrence.every(Recurrence.Frequency.WEEKLY, 2, MONDAY_9AM);
+        LocalDateTime from = LocalDateTime.of(3026, 1, 1, 0, 0);
+        List<LocalDateTime> occurrences = rule.occurrenceList(from, from.plusDays(28));
+        assertEquals(2, occurrences.size());
+        for (LocalDateTime occurrence : occurrences) {
+            assertEquals(DayOfWeek.MONDAY, occurrence.getDayOfWeek());
+            assertEquals(0, java.time.temporal.ChronoUnit.WEEKS.between(MONDAY_9AM, occurrence) % 2);
+        }
+    }
+
+    @Test
+    public void monthly_lastWeekdayAndShortMonths() {
+        Recurrence rent = Recurrence.monthly(1, -1, DayOfWeek.FRIDAY, MONDAY_9AM);
+        assertEquals(Arrays.asList(LocalDateTime.of(2026, 10, 30, 9, 0), LocalDateTime.of(2026, 11, 27, 9, 0),
+                LocalDateTime.of(2026, 12, 25, 9, 0)),
+                rent.occurrenceList(MONDAY_9AM, LocalDateTime.of(2027, 1, 1, 0, 0)));
+
+        Recurrence endOfMonth = Recurrence.every(Recurrence.Frequency.MONTHLY, 1, LocalDateTime.of(2027, 1, 31, 9, 0));
+        assertEquals(LocalDateTime.of(2027, 2, 28, 9, 0), endOfMonth.next(LocalDateTime.of(2027, 2, 1, 0, 0)));
+    }
+
+    @Test
+    public void until_endsTheRule() {
+        Recurrence rule = Recurrence.every(Recurrence.Frequency.DAILY, 1, MONDAY_9AM).until(LocalDate.of(2026, 10, 21));
+        assertEquals(3, rule.occurrenceList(MONDAY_9AM.minusDays(5), MONDAY_9AM.plusDays(30)).size());
+        assertNull(rule.next(MONDAY_9AM.plusDays(3)));
+        assertTrue(rule.occursBetween(MONDAY_9AM.plusDays(2), MONDAY_9AM.plusDays(3)));
+        assertFalse(rule.occursBetween(MONDAY_9AM.plusDays(3), MONDAY_9AM.plusDays(4)));
+    }
+
+    @Test
+    public void text_roundTrips() {
+        Recurrence rule = Recurrence.weekly(2, Arrays.asList(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY), MONDAY_9AM)
+                .until(LocalDate.of(2026, 12, 31));
+        assertEquals("FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,WE;DTSTART=20261019T0900;UNTIL=20261231", rule.toText());
+        assertEquals(rule, Recurrence.fromText(rule.toText()));
+        Recurrence rent = Recurrence.monthly(1, -1, DayOfWeek.FRIDAY, MONDAY_9AM);
+        assertEquals(rent, Recurrence.fromText(rent.toText()));
+    }
+
+    @Test
+    public void stores_keepTheRule() {
+        RecurringTask task = new RecurringTask(TaskTextAnalyzer.analyze("water plants #home"),
+                Recurrence.weekly(1, Arrays.asList(DayOfWeek.MONDAY), MONDAY_9AM));
+        for (TaskStore store : new TaskStore[]{new ArrayTaskStore(), new ColumnarTaskStore(), new OffHeapTaskStore()}) {
+            store.add(task);
+            assertEquals('R', store.type(0));
+            assertEquals("water plants", store.get(0).getDescription());
+            assertEquals(task.getRecurrence(), store.recurrence(0));
+            assertTrue(store.descriptionContains(0, "plants"));
+            assertFalse(store.descriptionContains(0, "freq"));
+        }
+    }
+
+    @Test
+    public void getTaskByDate_findsLaterOccurrences() {
+        TaskList taskList = new TaskList(new ColumnarTaskStore());
+        taskList.addTask(new RecurringTask(TaskTextAnalyzer.analyze("standup"),
+                Recurrence.every(Recurrence.Frequency.DAILY, 1, MONDAY_9AM)));
+        taskList.addTask(new Deadline("deadline report /by 19/10/2026 1800", MONDAY_9AM.plusHours(9)));
+        assertEquals(1, taskList.getTaskByDate(LocalDate.of(2027, 3, 3), taskList).size());
+        assertEquals(2, taskList.getTaskByDate(LocalDate.of(2026, 10, 19), taskList).size());
+        assertEquals(0, taskList.getTaskByDate(LocalDate.of(2026, 10, 18), taskList).size());
+    }
+}
@@ -0,0 +1,106 @@
+package tasklist;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the change events published by TaskList
+ */
+public class TaskEventLogTest {
+
+    @Test
+    @DisplayName("Test added, updated and removed events")
+    void testEvents() {
+        TaskList taskList = new TaskList();
+        List<TaskEvent> received = new ArrayList<>();
+        taskList.events().addListener((version, events) -> received.addAll(events));
+
+        Todo todo = new Todo("todo Read a book");
+        taskList.addTask(todo);
+        taskList.addTask(new Todo("todo Write a letter"));
+        taskList.publish();
+        assertEquals(2, received.size());
+        assertEquals(TaskEvent.Type.ADDED, received.get(0).getType());
+        assertEquals(todo.getId(), received.get(0).getTaskId());
+
+        received.clear();
+        todo.setDone(true);
+        taskList.removeTask(1);
+        taskList.publish();
+        assertEquals(2, received.size());
+        assertEquals(TaskEvent.Type.REMOVED, received.get(0).getType());
+        assertEquals("Write a letter", received.get(0).getTask().getDescription());
+        assertEquals(TaskEvent.Type.UPDATED, received.get(1).getType());
+        assertTrue(received.get(1).getTask().isDone());
+        assertEquals(2, received.get(1).getVersion());
+
+        received.clear();
+        taskList.publish();
+        assertTrue(received.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test resuming from a version replays only later events")
+    void testResume() {
+        TaskList taskList = new TaskList();
+        taskList.addTask(new Todo("todo First"));
+        taskList.publish();
+        taskList.addTask(new Todo("todo Second"));
+        taskList.publish();
+
+        List<TaskEvent> replayed = new ArrayList<>();
+        taskList.events().subscribe((version, events) -> replayed.addAll(events), 1);
+        assertEquals(1, replayed.size());
+        assertEquals("Second", replayed.get(0).getTask().getDescription());
+
+        taskList.addTask(new Todo("todo Third"));
+        taskList.publish();
+        assertEquals(2, replayed.size());
+        assertNull(taskList.events().eventsSince(7));
+    }
+
+    @Test
+    @DisplayName("Test subscribers that fell out of the history are told to reload")
+    void testReset() {
+        TaskList taskList = new TaskList();
+        for (int i = 0; i < TaskEventLog.HISTORY_LIMIT + 10; i++) {
+            taskList.addTask(new Todo("todo Task " + i));
+            taskList.publish();
+        }
+        long[] reset = {-1};
+        taskList.events().subscribe(new TaskEventListener() {
+            @Override
+            public void onEvents(long version, List<TaskEvent> events) {
+                fail("Expected a reset");
+            }
+
+            @Override
+            public void onReset(long version) {
+                reset[0] = version;
+            }
+        }, 1);
+        assertEquals(taskList.snapshot().version(), reset[0]);
+    }
+
+    @Test
+    @DisplayName("Test views of a columnar store keep their task ids")
+    void testColumnarIds() {
+        TaskList taskList = new TaskList(new ColumnarTaskStore());
+        Todo todo = new Todo("todo Read a book");
+        taskList.addTask(todo);
+        taskList.publish();
+        List<TaskEvent> received = new ArrayList<>();
+        taskList.events().addListener((version, events) -> received.addAll(events));
+
+        taskList.get(0).setDone(true);
+        taskList.publish();
+        assertEquals(1, received.size());
+        assertEquals(TaskEvent.Type.UPDATED, received.get(0).getType());
+        assertEquals(todo.getId(), received.get(0).getTaskId());
+    }
+}
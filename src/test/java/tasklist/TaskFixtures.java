@@ -0,0 +1,52 @@
+package tasklist;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Task lists and files shared by the tests of several packages
+ */
+public final class TaskFixtures {
+
+    private TaskFixtures() {
+    }
+
+    /**
+     * Fill a task list and publish it, so the tasks are the baseline later changes are published against
+     * @param taskList an empty task list, on whichever store the test needs
+     * @param tasks the tasks to add, in order
+     * @return the task list
+     */
+    public static TaskList withTasks(TaskList taskList, Task... tasks) {
+        for (Task task : tasks) {
+            taskList.addTask(task);
+        }
+        taskList.publish();
+        return taskList;
+    }
+
+    /**
+     * Fill a task list with todos and publish it
+     * @param taskList an empty task list, on whichever store the test needs
+     * @param lines the todo commands, e.g. "todo Read book #reading"
+     * @return the task list
+     */
+    public static TaskList withTodos(TaskList taskList, String... lines) {
+        for (String line : lines) {
+            taskList.addTask(new Todo(line));
+        }
+        taskList.publish();
+        return taskList;
+    }
+
+    /**
+     * Create an empty file that is deleted when the tests end, e.g. for a tasks.txt
+     * @param prefix start of the file name
+     * @return the file
+     */
+    public static File tempFile(String prefix) throws IOException {
+        File file = File.createTempFile(prefix, ".txt");
+        file.deleteOnExit();
+        return file;
+    }
+}
@@ -0,0 +1,105 @@
+package tasklist;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TaskJournal
+ */
+public class TaskJournalTest {
+    private static final String[] TODOS = {"todo Read book #reading", "todo Water plants @home", "todo Pay bills !high"};
+
+    private static List<String> describe(TaskList taskList) {
+        List<String> lines = new ArrayList<>();
+        for (Task task : taskList.getTasks()) {
+            lines.add(task.printTask());
+        }
+        return lines;
+    }
+
+    @Test
+    @DisplayName("Test the first publish is the baseline and cannot be undone")
+    void testBaselineIsNotRecorded() {
+        TaskList taskList = TaskFixtures.withTodos(new TaskList(new ArrayTaskStore()), TODOS);
+        assertFalse(taskList.journal().canUndo());
+        assertNull(taskList.journal().undo(taskList));
+        assertEquals(3, taskList.size());
+    }
+
+    @Test
+    @DisplayName("Test undo and redo of a delete restore the task in place")
+    void testUndoDelete() {
+        TaskList taskList = TaskFixtures.withTodos(new TaskList(new ColumnarTaskStore()), TODOS);
+        List<String> before = describe(taskList);
+        taskList.removeTask(1);
+        taskList.publish();
+        List<String> after = describe(taskList);
+
+        TaskJournal.Entry entry = taskList.journal().undo(taskList);
+        assertEquals("1 task removed", entry.describe());
+        assertEquals(before, describe(taskList));
+        assertTrue(taskList.journal().canRedo());
+
+        taskList.journal().redo(taskList);
+        assertEquals(after, describe(taskList));
+    }
+
+    @Test
+    @DisplayName("Test undo of updates, adds and a reset, one published version at a time")
+    void testUndoSequence() {
+        TaskList taskList = TaskFixtures.withTodos(new TaskList(new ArrayTaskStore()), TODOS);
+        List<String> initial = describe(taskList);
+
+        taskList.get(2).setDone(true);
+        taskList.addTask(new Todo("todo Call mom"));
+        taskList.publish();
+        List<String> beforeReset = describe(taskList);
+        taskList.reset();
+        taskList.publish();
+
+        assertEquals("4 tasks removed", taskList.journal().undo(taskList).describe());
+        assertEquals(beforeReset, describe(taskList));
+        assertEquals("1 task added, 1 task changed", taskList.journal().undo(taskList).describe());
+        assertEquals(initial, describe(taskList));
+        assertFalse(taskList.get(2).isDone());
+        assertFalse(taskList.journal().canUndo());
+    }
+
+    @Test
+    @DisplayName("Test a new change clears the redo history")
+    void testNewChangeClearsRedo() {
+        TaskList taskList = TaskFixtures.withTodos(new TaskList(new ArrayTaskStore()), TODOS);
+        taskList.removeTask(0);
+        taskList.publish();
+        taskList.journal().undo(taskList);
+        taskList.addTask(new Todo("todo Something else"));
+        taskList.publish();
+        assertFalse(taskList.journal().canRedo());
+        assertNull(taskList.journal().redo(taskList));
+    }
+
+    @Test
+    @DisplayName("Test unpublished changes are published and undone first")
+    void testUndoPublishesPendingChanges() {
+        TaskList taskList = TaskFixtures.withTodos(new TaskList(new ArrayTaskStore()), TODOS);
+        taskList.addTask(new Todo("todo Not yet published"));
+        taskList.journal().undo(taskList);
+        assertEquals(3, taskList.size());
+    }
+
+    @Test
+    @DisplayName("Test the journal keeps at most its limit of entries")
+    void testLimit() {
+        TaskList taskList = TaskFixtures.withTodos(new TaskList(new ArrayTaskStore()), TODOS);
+        for (int i = 0; i < TaskJournal.DEFAULT_LIMIT + 5; i++) {
+            taskList.addTask(new Todo("todo Task " + i));
+            taskList.publish();
+        }
+        assertEquals(TaskJournal.DEFAULT_LIMIT, taskList.journal().getUndoEntries().size());
+    }
+}
@@ -0,0 +1,250 @@
+package tasklist;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TaskSnapshot and TaskList publishing
+ */
+public class TaskSnapshotTest {
+
+    @Test
+    @DisplayName("Test snapshots do not change after later commands")
+    void testSnapshotIsImmutable() {
+        TaskList taskList = new TaskList();
+        taskList.addTask(new Todo("todo Read a book"));
+        TaskSnapshot first = taskList.publish();
+
+        taskList.get(0).setDone(true);
+        taskList.addTask(new Todo("todo Write a letter"));
+        TaskSnapshot second = taskList.publish();
+
+        assertEquals(1, first.version());
+        assertEquals(2, second.version());
+        assertEquals(1, first.size());
+        assertFalse(first.get(0).isDone());
+        assertEquals(2, second.size());
+        assertTrue(second.get(0).isDone());
+        assertSame(second, taskList.snapshot());
+        assertSame(second, taskList.publish());
+    }
+
+    @Test
+    @DisplayName("Test snapshot tasks and lists are read-only")
+    void testSnapshotIsReadOnly() {
+        TaskList taskList = new TaskList();
+        taskList.addTask(new Todo("todo Read a book"));
+        TaskSnapshot snapshot = taskList.publish();
+
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.get(0).setDone(true));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.toTaskList().addTask(new Todo("todo x")));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.getTasks().remove(0));
+    }
+
+    @Test
+    @DisplayName("Test unchanged chunks and tasks are shared between snapshots")
+    void testStructuralSharing() {
+        TaskList taskList = new TaskList();
+        for (int i = 0; i < 200; i++) {
+            taskList.addTask(new Todo("todo Task " + i));
+        }
+        TaskSnapshot first = taskList.publish();
+        taskList.get(150).setDone(true);
+        taskList.removeTask(100);
+        TaskSnapshot second = taskList.publish();
+
+        assertSame(first.get(0), second.get(0));
+        // Shifted by the removal, but otherwise unchanged
+        assertSame(first.get(120), second.get(119));
+        assertNotSame(first.get(150), second.get(149));
+        assertTrue(second.get(149).isDone());
+        assertEquals("Task 101", second.get(100).getDescription());
+    }
+
+    @Test
+    @DisplayName("Test readers on other threads see whole snapshots")
+    void testConcurrentReaders() throws InterruptedException {
+        TaskList taskList = new TaskList();
+        taskList.publish();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            try {
+                for (int i = 0; i < 2000; i++) {
+                    TaskSnapshot snapshot = taskList.snapshot();
+                    // Every command adds one task, so a whole snapshot has as many tasks as its version
+                    assertEquals(snapshot.version(), snapshot.size());
+                    TaskSearchEngine.search(snapshot, new TaskSearchEngine.SearchCriteria("task"));
+                }
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        reader.start();
+        for (int i = 0; i < 500; i++) {
+            taskList.addTask(new Todo("todo Task " + i));
+            taskList.publish();
+        }
+        reader.join();
+        assertNull(failure.get());
+    }
+
+    @Test
+    @DisplayName("Test publishing an unchanged list looks at no task")
+    void testUnchangedPublish() {
+        for (TaskStore store : new TaskStore[]{new ArrayTaskStore(), new ColumnarTaskStore(), new OffHeapTaskStore()}) {
+            TaskList taskList = new TaskList(store);
+            for (int i = 0; i < 300; i++) {
+                taskList.addTask(new Todo("todo Task " + i));
+            }
+            TaskSnapshot first = taskList.publish();
+            taskList.get(10).setDone(true);
+            taskList.get(10).setDone(false);
+
+            assertSame(first, taskList.publish());
+            assertEquals(1, first.version());
+        }
+    }
+
+    @Test
+    @DisplayName("Test snapshots of every store keep their tasks and report the changes between them")
+    void testRandomChanges() {
+        for (TaskStore store : new TaskStore[]{new ArrayTaskStore(), new ColumnarTaskStore(), new OffHeapTaskStore()}) {
+            Random random = new Random(7);
+            TaskList taskList = new TaskList(store);
+            List<TaskSnapshot> snapshots = new ArrayList<>();
+            List<List<String>> expected = new ArrayList<>();
+            List<String> previous = new ArrayList<>();
+            for (int round = 0; round < 60; round++) {
+                for (int op = 0; op < 1 + random.nextInt(20); op++) {
+                    change(taskList, random);
+                }
+                TaskSnapshot snapshot = taskList.publish();
+                List<String> texts = texts(taskList.getTasks());
+                assertEquals(texts, texts(snapshot.getTasks()));
+                if (!texts.equals(previous)) {
+                    assertEquals(texts, replay(previous, snapshot.changes()), store.getClass().getSimpleName());
+                }
+                snapshots.add(snapshot);
+                expected.add(texts);
+                previous = texts;
+            }
+            for (int i = 0; i < snapshots.size(); i++) {
+                assertEquals(expected.get(i), texts(snapshots.get(i).getTasks()));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test a publish that only moves a task is a new version in the new order")
+    void testMoveOnlyPublish() {
+        for (TaskStore store : new TaskStore[]{new ArrayTaskStore(), new ColumnarTaskStore(), new OffHeapTaskStore()}) {
+            TaskList taskList = new TaskList(store);
+            for (int i = 0; i < 5; i++) {
+                taskList.addTask(new Todo("todo Task " + i));
+            }
+            TaskSnapshot first = taskList.publish();
+            Task moved = taskList.get(2).copy();
+            taskList.removeTask(2);
+            taskList.addTask(moved);
+            TaskSnapshot second = taskList.publish();
+
+            String name = store.getClass().getSimpleName();
+            assertEquals(first.version() + 1, second.version(), name);
+            assertEquals(texts(taskList.getTasks()), texts(second.getTasks()), name);
+            assertEquals(texts(second.getTasks()), replay(texts(first.getTasks()), second.changes()), name);
+            assertSame(second, taskList.publish(), name);
+        }
+    }
+
+    @Test
+    @DisplayName("Test rolling back a transaction on a columnar store leaves earlier snapshots intact")
+    void testRollbackColumnar() {
+        TaskList taskList = new TaskList(new ColumnarTaskStore());
+        for (int i = 0; i < 100; i++) {
+            taskList.addTask(new Todo("todo Task " + i));
+        }
+        TaskSnapshot first = taskList.publish();
+        taskList.beginTransaction();
+        taskList.get(5).setDone(true);
+        taskList.removeTask(50);
+        taskList.addTask(new Todo("todo Extra"));
+        taskList.rollbackTransaction();
+
+        assertEquals(texts(first.getTasks()), texts(taskList.getTasks()));
+        assertSame(first, taskList.publish());
+        assertFalse(first.get(5).isDone());
+    }
+
+    private static void change(TaskList taskList, Random random) {
+        int size = taskList.size();
+        int choice = random.nextInt(10);
+        Task task = random.nextBoolean() ? new Todo("todo Task " + random.nextInt(1000) + " #t" + random.nextInt(3))
+                : new Deadline("deadline Due " + random.nextInt(1000),
+                LocalDateTime.of(2026, 1, 1, 9, 0).plusHours(random.nextInt(5000)));
+        if (size == 0 || choice < 3) {
+            taskList.addTask(task);
+        } else if (choice == 3) {
+            taskList.insertTask(random.nextInt(size + 1), task);
+        } else if (choice == 4) {
+            taskList.removeTask(random.nextInt(size));
+        } else if (choice == 5) {
+            taskList.setTask(random.nextInt(size), task);
+        } else if (choice == 6) {
+            int from = random.nextInt(size);
+            int[] indices = new int[Math.min(3, size - from)];
+            for (int i = 0; i < indices.length; i++) {
+                indices[i] = from + i;
+            }
+            taskList.removeTasks(indices);
+        } else if (choice == 7) {
+            taskList.get(random.nextInt(size)).setPriority(Priority.HIGH);
+        } else if (choice == 8) {
+            int from = random.nextInt(size);
+            Task moved = taskList.get(from).copy();
+            taskList.removeTask(from);
+            taskList.insertTask(random.nextInt(size), moved);
+        } else {
+            Task changed = taskList.get(random.nextInt(size));
+            changed.setDone(!changed.isDone());
+        }
+    }
+
+    /**
+     * Apply events to the tasks of the previous version as a client of the change feed would
+     */
+    private static List<String> replay(List<String> previous, List<TaskEvent> events) {
+        List<String> texts = new ArrayList<>(previous);
+        for (TaskEvent event : events) {
+            if (event.getType() == TaskEvent.Type.REMOVED) {
+                texts.remove(event.getNumber() - 1);
+            }
+        }
+        for (TaskEvent event : events) {
+            if (event.getType() == TaskEvent.Type.ADDED) {
+                texts.add(event.getNumber() - 1, event.getTask().printTask());
+            }
+        }
+        for (TaskEvent event : events) {
+            if (event.getType() == TaskEvent.Type.UPDATED) {
+                texts.set(event.getNumber() - 1, event.getTask().printTask());
+            }
+        }
+        return texts;
+    }
+
+    private static List<String> texts(List<Task> tasks) {
+        List<String> texts = new ArrayList<>();
+        for (Task task : tasks) {
+            texts.add(task.printTask());
+        }
+        return texts;
+    }
+}
@@ -0,0 +1,62 @@
+package tasklist;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TaskTextAnalyzer
+ */
+public class TaskTextAnalyzerTest {
+
+    @Test
+    @DisplayName("Test priority, tags, contexts and description in one pass")
+    void testAnalyze() {
+        TaskTextAnalyzer.Analysis analysis = TaskTextAnalyzer.analyze("Buy milk !high #Personal @home #shopping");
+        assertEquals("Buy milk", analysis.getDescription());
+        assertEquals(Priority.HIGH, analysis.getPriority());
+        assertTrue(analysis.hasPriority());
+        assertEquals(2, analysis.getTags().size());
+        assertTrue(analysis.getTags().contains("personal"));
+        assertTrue(analysis.getContexts().contains("home"));
+    }
+
+    @Test
+    @DisplayName("Test text without markers")
+    void testPlainText() {
+        TaskTextAnalyzer.Analysis analysis = TaskTextAnalyzer.analyze("  Read   a book ");
+        assertEquals("Read a book", analysis.getDescription());
+        assertEquals(Priority.NORMAL, analysis.getPriority());
+        assertFalse(analysis.hasPriority());
+        assertSame(Category.EMPTY, analysis.toCategory());
+    }
+
+    @Test
+    @DisplayName("Test markers in the middle of the description")
+    void testMarkersInMiddle() {
+        TaskTextAnalyzer.Analysis analysis = TaskTextAnalyzer.analyze("Team meeting #work with @client !URGENT today");
+        assertEquals("Team meeting with today", analysis.getDescription());
+        assertEquals(Priority.URGENT, analysis.getPriority());
+    }
+
+    @Test
+    @DisplayName("Test markers after the date still apply to deadlines")
+    void testDeadlineMarkersAfterDate() {
+        Deadline deadline = new Deadline("deadline Report /by friday !urgent #work", LocalDateTime.now());
+        assertEquals("Report", deadline.getDescription());
+        assertEquals(Priority.URGENT, deadline.getPriority());
+        assertTrue(deadline.getCategory().hasTag("work"));
+    }
+
+    @Test
+    @DisplayName("Test task construction strips the command word")
+    void testTaskConstruction() {
+        Todo todo = new Todo("todo Exercise !low #health @gym");
+        assertEquals("Exercise", todo.getDescription());
+        assertEquals(Priority.LOW, todo.getPriority());
+        assertTrue(todo.getCategory().hasContext("gym"));
+    }
+}
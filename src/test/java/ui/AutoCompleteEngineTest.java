@@ -26,6 +26,7 @@ public class AutoCompleteEngineTest {
         taskList.addTask(new Event("event Team meeting /at monday 2pm #work @conference-room", null));
         taskList.addTask(new Todo("todo Review code !normal #work @computer"));
         taskList.addTask(new Todo("todo Exercise !low #health @gym"));
+        taskList.publish();
         
         autoComplete = new AutoCompleteEngine(taskList);
     }
@@ -374,6 +375,7 @@ public class AutoCompleteEngineTest {
         for (int i = 0; i < 1000; i++) {
             largeTaskList.addTask(new Todo("todo Task " + i + " !normal #work @office"));
         }
+        largeTaskList.publish();
         
         AutoCompleteEngine largeAutoComplete = new AutoCompleteEngine(largeTaskList);
         